@@ -0,0 +1,59 @@
+package chargercontrol.operatorapi.catalog;
+
+import chargercontrol.operatorapi.model.CatalogEntityType;
+import chargercontrol.operatorapi.model.ChargingPort;
+import chargercontrol.operatorapi.model.Station;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appends a {@code catalog_changes} row for every insert, update and delete of a
+ * {@link Station} or {@link ChargingPort}.
+ *
+ * The row is written with plain JDBC on the connection of the running
+ * transaction (callbacks fire while Hibernate flushes, when the session must not
+ * be touched), so it commits or rolls back together with the write it records.
+ * Bulk JPQL updates such as the energy rollup bypass entity callbacks and are not
+ * catalog changes.
+ */
+@Component
+public class CatalogChangeListener {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO catalog_changes (entity_type, entity_id, station_id, deleted, changed_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogChangeListener(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onWrite(Object entity) {
+        record(entity, false);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        record(entity, true);
+    }
+
+    private void record(Object entity, boolean deleted) {
+        if (entity instanceof Station station) {
+            insert(CatalogEntityType.STATION, station.getId(), station.getId(), deleted);
+        } else if (entity instanceof ChargingPort port) {
+            insert(CatalogEntityType.PORT, port.getId(), port.getStation() != null ? port.getStation().getId() : null,
+                    deleted);
+        }
+    }
+
+    private void insert(CatalogEntityType type, Long entityId, Long stationId, boolean deleted) {
+        jdbcTemplate.update(INSERT_SQL, type.name(), entityId, stationId, deleted, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,36 @@
+package chargercontrol.operatorapi.controller;
+
+import chargercontrol.operatorapi.dto.DashboardSummary;
+import chargercontrol.operatorapi.service.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/apiV1/dashboard")
+@Tag(name = "Dashboard", description = "Fleet-wide statistics for the operator dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping("/summary")
+    @Operation(summary = "Get station, port and energy totals for the whole fleet", responses = {
+            @ApiResponse(responseCode = "200", description = "Summary retrieved successfully",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = DashboardSummary.class)))
+    })
+    public ResponseEntity<DashboardSummary> getSummary() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(dashboardService.getTtl()))
+                .body(dashboardService.getSummary());
+    }
+}
@@ -0,0 +1,45 @@
+package chargercontrol.operatorapi.controller;
+
+import chargercontrol.operatorapi.stream.PortEventHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/apiV1/chargingports")
+@Tag(name = "Charging Port Events", description = "Live stream of charging port status and energy changes")
+public class PortEventController {
+
+    private final PortEventHub portEventHub;
+
+    public PortEventController(PortEventHub portEventHub) {
+        this.portEventHub = portEventHub;
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream charging port changes as Server-Sent Events", responses = {
+            @ApiResponse(responseCode = "200", description = "Stream of 'port' events; a 'reset' event means the client must reload its data")
+    })
+    public SseEmitter streamEvents(
+            @Parameter(description = "Id of the last event received, sent by EventSource when reconnecting")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return portEventHub.subscribe(parseEventId(lastEventId));
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            // Id desconhecido: tratado como uma ligação nova
+            return null;
+        }
+    }
+}
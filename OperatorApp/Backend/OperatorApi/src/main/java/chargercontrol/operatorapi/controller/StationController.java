@@ -1,6 +1,8 @@
 package chargercontrol.operatorapi.controller;
 
+import chargercontrol.operatorapi.dto.StationMatch;
 import chargercontrol.operatorapi.model.Station;
+import chargercontrol.operatorapi.search.StationSearchIndex;
 import chargercontrol.operatorapi.service.StationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,10 +23,15 @@ import java.util.List;
 @Tag(name = "Stations", description = "APIs for managing charging stations")
 public class StationController {
 
+    static final int MAX_QUERY_LENGTH = 100;
+    static final int MAX_MATCH_LIMIT = 50;
+
     private final StationService stationService;
+    private final StationSearchIndex stationSearchIndex;
 
-    public StationController(StationService stationService) {
+    public StationController(StationService stationService, StationSearchIndex stationSearchIndex) {
         this.stationService = stationService;
+        this.stationSearchIndex = stationSearchIndex;
     }
 
     @PostMapping
@@ -48,6 +55,24 @@ public class StationController {
         return ResponseEntity.ok(stations);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search stations by name or location, with prefix and typo-tolerant matching", responses = {
+            @ApiResponse(responseCode = "200", description = "Stations retrieved successfully, best match first", 
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = StationMatch.class))),
+            @ApiResponse(responseCode = "400", description = "Missing or too long query, or invalid limit")
+    })
+    public ResponseEntity<List<StationMatch>> searchStations(
+            @Parameter(description = "Text to search for; the last word may be incomplete") @RequestParam String q,
+            @Parameter(description = "Maximum number of stations, at most 50") @RequestParam(defaultValue = "10") int limit) {
+        if (q.isBlank() || q.length() > MAX_QUERY_LENGTH || limit < 1 || limit > MAX_MATCH_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<StationMatch> stations = stationSearchIndex.search(q, limit).stream()
+                .map(StationMatch::new)
+                .toList();
+        return ResponseEntity.ok(stations);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get a station by ID", responses = {
             @ApiResponse(responseCode = "200", description = "Station retrieved successfully", 
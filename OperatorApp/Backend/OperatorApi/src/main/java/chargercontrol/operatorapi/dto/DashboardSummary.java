@@ -0,0 +1,24 @@
+package chargercontrol.operatorapi.dto;
+
+import chargercontrol.operatorapi.model.ChargingPortStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Fleet-wide figures shown on the operator dashboard. {@code portsByStatus}
+ * has an entry for every {@link ChargingPortStatus}, zero when no port has it.
+ */
+@Getter
+@AllArgsConstructor
+public class DashboardSummary {
+
+    private long totalStations;
+    private long onlineStations;
+    private long totalPorts;
+    private Map<ChargingPortStatus, Long> portsByStatus;
+    private double totalEnergyUsed;
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,7 @@
+package chargercontrol.operatorapi.dto;
+
+import chargercontrol.operatorapi.model.ChargingPortStatus;
+
+/** One row of the per-status GROUP BY over charging ports. */
+public record PortStatusCount(ChargingPortStatus status, Long ports, Double energyUsed) {
+}
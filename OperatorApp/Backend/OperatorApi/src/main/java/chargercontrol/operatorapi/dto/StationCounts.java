@@ -0,0 +1,5 @@
+package chargercontrol.operatorapi.dto;
+
+/** Total and available (online) station counts, read in one query. */
+public record StationCounts(Long total, Long online) {
+}
@@ -0,0 +1,24 @@
+package chargercontrol.operatorapi.dto;
+
+import chargercontrol.operatorapi.model.Station;
+import chargercontrol.operatorapi.search.TextMatch;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Station returned by the text search: the station's own fields plus how well
+ * its name and location matched the query.
+ */
+@Getter
+@AllArgsConstructor
+public class StationMatch {
+
+    @JsonUnwrapped
+    private Station station;
+    private double score;
+
+    public StationMatch(TextMatch<Station> match) {
+        this(match.item(), match.score());
+    }
+}
@@ -0,0 +1,6 @@
+package chargercontrol.operatorapi.model;
+
+public enum CatalogEntityType {
+    STATION,
+    PORT
+}
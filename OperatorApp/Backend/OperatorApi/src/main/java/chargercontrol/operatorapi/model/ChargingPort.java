@@ -1,5 +1,6 @@
 package chargercontrol.operatorapi.model;
 
+import chargercontrol.operatorapi.catalog.CatalogChangeListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -15,6 +16,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(CatalogChangeListener.class)
 @Table(name = "charging_ports")
 public class ChargingPort {
     
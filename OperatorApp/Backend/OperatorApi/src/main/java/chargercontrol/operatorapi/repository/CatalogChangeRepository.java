@@ -0,0 +1,21 @@
+package chargercontrol.operatorapi.repository;
+
+import chargercontrol.operatorapi.model.CatalogChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    @Query("SELECT c FROM CatalogChange c WHERE c.id > :since ORDER BY c.id")
+    List<CatalogChange> findAfter(@Param("since") Long since, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CatalogChange c WHERE c.changedAt < :before")
+    Long findLatestVersionBefore(@Param("before") LocalDateTime before);
+}
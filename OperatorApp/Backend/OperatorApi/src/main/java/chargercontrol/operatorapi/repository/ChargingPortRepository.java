@@ -1,12 +1,15 @@
 package chargercontrol.operatorapi.repository;
 
+import chargercontrol.operatorapi.dto.PortStatusCount;
 import chargercontrol.operatorapi.model.ChargingPort;
 import chargercontrol.operatorapi.model.ChargingPortStatus;
+import chargercontrol.operatorapi.stream.PortChangedEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -28,4 +31,18 @@ public interface ChargingPortRepository extends JpaRepository<ChargingPort, Long
     // Método para verificar se existe um port com determinado identifier em uma estação
     @Query("SELECT cp FROM ChargingPort cp WHERE cp.station.id = :stationId AND cp.portIdentifier = :portIdentifier")
     List<ChargingPort> findByStationIdAndPortIdentifier(@Param("stationId") Long stationId, @Param("portIdentifier") String portIdentifier);
-}
\ No newline at end of file
+
+    // Contagem e energia por status numa só query, para o dashboard
+    @Query("SELECT new chargercontrol.operatorapi.dto.PortStatusCount(cp.status, COUNT(cp), COALESCE(SUM(cp.energyUsed), 0)) " +
+           "FROM ChargingPort cp GROUP BY cp.status")
+    List<PortStatusCount> countByStatus();
+
+    // Só as colunas que o stream de eventos compara, sem carregar entidades
+    @Query("SELECT new chargercontrol.operatorapi.stream.PortChangedEvent(cp.id, cp.station.id, cp.status, cp.energyUsed) " +
+           "FROM ChargingPort cp")
+    List<PortChangedEvent> findAllStates();
+
+    @Query("SELECT new chargercontrol.operatorapi.stream.PortChangedEvent(cp.id, cp.station.id, cp.status, cp.energyUsed) " +
+           "FROM ChargingPort cp WHERE cp.id IN :ids")
+    List<PortChangedEvent> findStatesByIds(@Param("ids") Collection<Long> ids);
+}
@@ -1,5 +1,6 @@
 package chargercontrol.operatorapi.repository;
 
+import chargercontrol.operatorapi.dto.StationCounts;
 import chargercontrol.operatorapi.model.ChargingType;
 import chargercontrol.operatorapi.model.Station;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -24,13 +25,18 @@ public interface StationRepository extends JpaRepository<Station, Long> {
     @Query("SELECT s FROM Station s WHERE s.location LIKE %:location%")
     List<Station> findByLocationContaining(@Param("location") String location);
     
-    // Buscar estações dentro de um raio (aproximado usando coordenadas)
+    // Buscar estações dentro de um raio (aproximado usando coordenadas).
+    // BETWEEN em vez de ABS(coluna - x) para que idx_stations_lat_lon seja usado
     @Query("SELECT s FROM Station s WHERE " +
-           "ABS(s.latitude - :latitude) <= :latRange AND " +
-           "ABS(s.longitude - :longitude) <= :lonRange")
+           "s.latitude BETWEEN :latitude - :latRange AND :latitude + :latRange AND " +
+           "s.longitude BETWEEN :longitude - :lonRange AND :longitude + :lonRange")
     List<Station> findStationsNearCoordinates(
             @Param("latitude") Double latitude, 
             @Param("longitude") Double longitude,
             @Param("latRange") Double latRange,
             @Param("lonRange") Double lonRange);
+
+    @Query("SELECT new chargercontrol.operatorapi.dto.StationCounts(COUNT(s), " +
+           "COALESCE(SUM(CASE WHEN s.available = true THEN 1L ELSE 0L END), 0L)) FROM Station s")
+    StationCounts countStations();
 }
\ No newline at end of file
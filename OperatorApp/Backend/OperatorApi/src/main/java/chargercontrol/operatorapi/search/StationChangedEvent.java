@@ -0,0 +1,23 @@
+package chargercontrol.operatorapi.search;
+
+import chargercontrol.operatorapi.model.Station;
+
+/**
+ * A station written by this API, published so {@link StationSearchIndex} can
+ * update it after the transaction commits. A null {@code station} means it was
+ * deleted.
+ */
+public record StationChangedEvent(Long stationId, Station station) {
+
+    public static StationChangedEvent of(Station station) {
+        return new StationChangedEvent(station.getId(), station);
+    }
+
+    public static StationChangedEvent removed(Long stationId) {
+        return new StationChangedEvent(stationId, null);
+    }
+
+    public boolean isRemoved() {
+        return station == null;
+    }
+}
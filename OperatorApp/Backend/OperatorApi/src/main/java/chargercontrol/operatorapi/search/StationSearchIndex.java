@@ -0,0 +1,148 @@
+package chargercontrol.operatorapi.search;
+
+import chargercontrol.operatorapi.model.Station;
+import chargercontrol.operatorapi.repository.StationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text index of station names and locations behind
+ * {@code GET /apiV1/stations/search}, replacing {@code LIKE '%x%'} scans.
+ *
+ * Stations written through this API are updated one at a time from
+ * {@link StationChangedEvent}s after commit. Stations created or edited by the
+ * UserApi in the shared database are picked up by a full reload every
+ * {@code stations.text-search.reload-seconds}, built next to the live index and
+ * swapped in; changes that arrive while it loads are applied again on top.
+ */
+@Component
+public class StationSearchIndex implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationSearchIndex.class);
+
+    private final StationRepository stationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration reloadInterval;
+    private final Object reloadLock = new Object();
+
+    private volatile TextIndex<Station> index;
+    // Guardados pelo monitor desta instância
+    private final List<StationChangedEvent> changedDuringReload = new ArrayList<>();
+    private boolean reloading;
+
+    private ThreadPoolTaskScheduler scheduler;
+    private volatile boolean running;
+
+    public StationSearchIndex(StationRepository stationRepository, PlatformTransactionManager transactionManager,
+            @Value("${stations.text-search.reload-seconds:60}") long reloadSeconds) {
+        this.stationRepository = stationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.reloadInterval = Duration.ofSeconds(reloadSeconds);
+    }
+
+    /** Up to {@code limit} stations whose name or location match {@code query}, best first. */
+    public List<TextMatch<Station>> search(String query, int limit) {
+        TextIndex<Station> current = index;
+        if (current == null) {
+            reload();
+            current = index;
+        }
+        return current.search(query, limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStationChanged(StationChangedEvent change) {
+        TextIndex<Station> current;
+        synchronized (this) {
+            if (reloading) {
+                changedDuringReload.add(change);
+            }
+            current = index;
+        }
+        if (current != null) {
+            apply(current, change);
+        }
+    }
+
+    /** Rebuilds the index from the stations table. */
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                reloading = true;
+                changedDuringReload.clear();
+            }
+            TextIndex<Station> loaded = new TextIndex<>();
+            try {
+                List<Station> stations = transactionTemplate.execute(status -> stationRepository.findAll());
+                for (Station station : stations) {
+                    loaded.put(station.getId(), station.getName(), station.getLocation(), station);
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    reloading = false;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                // O findAll pode ter lido antes destes commits
+                changedDuringReload.forEach(change -> apply(loaded, change));
+                changedDuringReload.clear();
+                index = loaded;
+                reloading = false;
+            }
+            logger.debug("Loaded station search index with {} stations", loaded.size());
+        }
+    }
+
+    @Override
+    public void start() {
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("station-search-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                logger.warn("Station search index reload failed: {}", e.getMessage());
+            }
+        }, Instant.now(), reloadInterval);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static void apply(TextIndex<Station> target, StationChangedEvent change) {
+        if (change.isRemoved()) {
+            target.remove(change.stationId());
+        } else {
+            Station station = change.station();
+            target.put(station.getId(), station.getName(), station.getLocation(), station);
+        }
+    }
+}
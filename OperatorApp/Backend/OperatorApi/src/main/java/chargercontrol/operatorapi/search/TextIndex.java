@@ -0,0 +1,306 @@
+package chargercontrol.operatorapi.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over the name and location of the stations, answering ranked
+ * autocomplete queries that tolerate typos.
+ *
+ * Text is lowercased, stripped of accents and split into tokens. The tokens are
+ * kept in a sorted dictionary, so the tokens starting with a prefix are one
+ * contiguous range, and every token is also filed under its trigrams (padded
+ * at the start only, which makes them work for prefixes too). A query term
+ * matches a token exactly, as a prefix, or within one edit from 4 letters and
+ * two from 8, with the trigrams narrowing down the tokens worth comparing.
+ * Every term must match; name matches count twice as much as location ones.
+ * Documents are added, replaced and removed one at a time under a write lock.
+ */
+final class TextIndex<T> {
+
+    static final int NAME = 1;
+    static final int LOCATION = 2;
+
+    private static final double EXACT_SCORE = 3;
+    private static final double PREFIX_SCORE = 2;
+    private static final double FUZZY_SCORE = 1;
+    private static final double NAME_PREFIX_BONUS = 2;
+    private static final int MAX_PREFIX_TOKENS = 1000;
+    private static final String GRAM_PADDING = "$$";
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private final Comparator<Ranked<T>> ranking = Comparator.comparingDouble((Ranked<T> r) -> -r.score())
+            .thenComparingInt(r -> r.document().name().length())
+            .thenComparing(r -> r.document().name())
+            .thenComparing(Ranked::id);
+
+    private final Map<Long, Document<T>> documents = new HashMap<>();
+    // Token -> documents que o contêm, com os campos (NAME | LOCATION) onde aparece
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> gramTokens = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Adds the document, replacing whatever was indexed under {@code id}. */
+    void put(Long id, String name, String location, T item) {
+        Document<T> document = new Document<>(item, normalize(name), tokenize(name), tokenize(location));
+        lock.writeLock().lock();
+        try {
+            unindex(id, documents.put(id, document));
+            document.nameTokens().forEach(token -> index(token, id, NAME));
+            document.locationTokens().forEach(token -> index(token, id, LOCATION));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id, documents.remove(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int tokens() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Up to {@code limit} documents matching every term of {@code query}, best first. */
+    List<TextMatch<T>> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        String normalizedQuery = normalize(query);
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            // Só os melhores limit: um heap com o pior à cabeça em vez de ordenar tudo
+            PriorityQueue<Ranked<T>> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+            scores.forEach((id, score) -> {
+                Document<T> document = documents.get(id);
+                double total = document.name().startsWith(normalizedQuery) ? score + NAME_PREFIX_BONUS : score;
+                Ranked<T> candidate = new Ranked<>(id, document, total);
+                if (best.size() < limit) {
+                    best.add(candidate);
+                } else if (ranking.compare(candidate, best.peek()) < 0) {
+                    best.poll();
+                    best.add(candidate);
+                }
+            });
+            List<Ranked<T>> ranked = new ArrayList<>(best);
+            ranked.sort(ranking);
+            return ranked.stream()
+                    .map(r -> new TextMatch<>(r.document().item(), r.score()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Lowercase, without accents and with single spaces between tokens. */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(plain.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent swaps), or
+     * {@code max + 1} as soon as it is known to exceed {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        int previousRowMin = 0;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            // Uma troca ainda pode voltar à linha anterior, por isso as duas têm de ter passado de max
+            if (rowMin > max && previousRowMin > max) {
+                return max + 1;
+            }
+            previousRowMin = rowMin;
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    static int maxEdits(String term) {
+        if (term.length() < 4) {
+            return 0;
+        }
+        return term.length() < 8 ? 1 : 2;
+    }
+
+    private Map<Long, Double> scoreTerm(String term) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<Long, Integer> exact = postings.get(term);
+        if (exact != null) {
+            exact.forEach((id, fields) -> scores.merge(id, weighted(EXACT_SCORE, fields), Math::max));
+        }
+        int expanded = 0;
+        for (Map.Entry<String, Map<Long, Integer>> entry
+                : postings.subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+            if (++expanded > MAX_PREFIX_TOKENS) {
+                break;
+            }
+            entry.getValue().forEach((id, fields) -> scores.merge(id, weighted(PREFIX_SCORE, fields), Math::max));
+        }
+
+        int edits = maxEdits(term);
+        if (edits > 0) {
+            for (String token : fuzzyCandidates(term, edits)) {
+                // Também como prefixo, para o termo que ainda está a ser escrito
+                String head = token.length() > term.length() ? token.substring(0, term.length()) : token;
+                if (editDistance(term, token, edits) <= edits || editDistance(term, head, edits) <= edits) {
+                    postings.get(token).forEach((id, fields) ->
+                            scores.merge(id, weighted(FUZZY_SCORE, fields), Math::max));
+                }
+            }
+        }
+        return scores;
+    }
+
+    /** Tokens sharing enough trigrams with {@code term} to be within {@code edits} of it or of a prefix. */
+    private Set<String> fuzzyCandidates(String term, int edits) {
+        List<String> grams = grams(term);
+        // Cada edição destrói no máximo 4 trigramas (3, ou 4 numa troca de letras vizinhas)
+        int needed = Math.max(1, grams.size() - 4 * edits);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> tokens = gramTokens.get(gram);
+            if (tokens != null) {
+                tokens.forEach(token -> shared.merge(token, 1, Integer::sum));
+            }
+        }
+        Set<String> candidates = new HashSet<>();
+        shared.forEach((token, count) -> {
+            if (count >= needed && token.length() >= term.length() - edits) {
+                candidates.add(token);
+            }
+        });
+        return candidates;
+    }
+
+    private void index(String token, Long id, int field) {
+        Map<Long, Integer> documentsOfToken = postings.get(token);
+        if (documentsOfToken == null) {
+            documentsOfToken = new HashMap<>();
+            postings.put(token, documentsOfToken);
+            for (String gram : grams(token)) {
+                gramTokens.computeIfAbsent(gram, g -> new HashSet<>()).add(token);
+            }
+        }
+        documentsOfToken.merge(id, field, (a, b) -> a | b);
+    }
+
+    private void unindex(Long id, Document<T> document) {
+        if (document == null) {
+            return;
+        }
+        Set<String> tokens = new HashSet<>(document.nameTokens());
+        tokens.addAll(document.locationTokens());
+        for (String token : tokens) {
+            Map<Long, Integer> documentsOfToken = postings.get(token);
+            if (documentsOfToken == null || documentsOfToken.remove(id) == null || !documentsOfToken.isEmpty()) {
+                continue;
+            }
+            postings.remove(token);
+            for (String gram : grams(token)) {
+                Set<String> tokensOfGram = gramTokens.get(gram);
+                if (tokensOfGram != null && tokensOfGram.remove(token) && tokensOfGram.isEmpty()) {
+                    gramTokens.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static double weighted(double score, int fields) {
+        return (fields & NAME) != 0 ? score * 2 : score;
+    }
+
+    private static Set<String> tokenize(String text) {
+        String normalized = normalize(text);
+        return normalized.isEmpty() ? Set.of() : new LinkedHashSet<>(List.of(normalized.split(" ")));
+    }
+
+    private static List<String> grams(String token) {
+        String padded = GRAM_PADDING + token;
+        List<String> grams = new ArrayList<>(token.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private record Document<T>(T item, String name, Set<String> nameTokens, Set<String> locationTokens) {
+    }
+
+    private record Ranked<T>(Long id, Document<T> document, double score) {
+    }
+}
@@ -0,0 +1,5 @@
+package chargercontrol.operatorapi.search;
+
+/** A document found by the {@link TextIndex} and its relevance score. */
+public record TextMatch<T>(T item, double score) {
+}
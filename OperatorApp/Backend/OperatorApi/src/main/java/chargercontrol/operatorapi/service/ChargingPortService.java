@@ -5,7 +5,9 @@ import chargercontrol.operatorapi.model.ChargingPortStatus;
 import chargercontrol.operatorapi.model.Station;
 import chargercontrol.operatorapi.repository.ChargingPortRepository;
 import chargercontrol.operatorapi.repository.StationRepository;
+import chargercontrol.operatorapi.stream.PortChangedEvent;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,10 +18,13 @@ public class ChargingPortService {
     
     private final ChargingPortRepository chargingPortRepository;
     private final StationRepository stationRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public ChargingPortService(ChargingPortRepository chargingPortRepository, StationRepository stationRepository) {
+    public ChargingPortService(ChargingPortRepository chargingPortRepository, StationRepository stationRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.chargingPortRepository = chargingPortRepository;
         this.stationRepository = stationRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     public List<ChargingPort> getChargingPortsByStationId(Long stationId) {
@@ -39,6 +44,7 @@ public class ChargingPortService {
             throw new EntityNotFoundException("ChargingPort not found with id: " + portId);
         }
         chargingPortRepository.deleteById(portId);
+        eventPublisher.publishEvent(PortChangedEvent.removed(portId, null));
     }
     
     public Double getTotalEnergyUsedByStation(Long stationId) {
@@ -65,6 +71,8 @@ public class ChargingPortService {
             chargingPort.setEnergyUsed(0.0);
         }
         
-        return chargingPortRepository.save(chargingPort);
+        ChargingPort saved = chargingPortRepository.save(chargingPort);
+        eventPublisher.publishEvent(PortChangedEvent.of(saved));
+        return saved;
     }
 }
\ No newline at end of file
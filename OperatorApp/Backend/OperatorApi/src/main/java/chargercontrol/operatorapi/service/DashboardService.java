@@ -0,0 +1,112 @@
+package chargercontrol.operatorapi.service;
+
+import chargercontrol.operatorapi.dto.DashboardSummary;
+import chargercontrol.operatorapi.dto.PortStatusCount;
+import chargercontrol.operatorapi.dto.StationCounts;
+import chargercontrol.operatorapi.model.ChargingPortStatus;
+import chargercontrol.operatorapi.repository.ChargingPortRepository;
+import chargercontrol.operatorapi.repository.StationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Builds the dashboard summary from two aggregate queries, whatever the size of
+ * the fleet, and keeps it for {@code dashboard.cache.ttl-seconds}.
+ *
+ * When the cached summary has expired, the first caller recomputes it and every
+ * caller arriving in the meantime waits for that result instead of running the
+ * queries again.
+ */
+@Service
+public class DashboardService {
+
+    private final StationRepository stationRepository;
+    private final ChargingPortRepository chargingPortRepository;
+    private final long ttlNanos;
+
+    private final AtomicReference<Cached> cached = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<DashboardSummary>> inFlight = new AtomicReference<>();
+
+    public DashboardService(StationRepository stationRepository, ChargingPortRepository chargingPortRepository,
+            @Value("${dashboard.cache.ttl-seconds:5}") long ttlSeconds) {
+        this.stationRepository = stationRepository;
+        this.chargingPortRepository = chargingPortRepository;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+    }
+
+    public Duration getTtl() {
+        return Duration.ofNanos(ttlNanos);
+    }
+
+    public DashboardSummary getSummary() {
+        DashboardSummary fresh = fresh();
+        if (fresh != null) {
+            return fresh;
+        }
+
+        CompletableFuture<DashboardSummary> mine = new CompletableFuture<>();
+        CompletableFuture<DashboardSummary> running = inFlight.compareAndExchange(null, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            // Another caller may have refreshed it between the check and taking the slot
+            DashboardSummary summary = fresh();
+            if (summary == null) {
+                summary = compute();
+                cached.set(new Cached(summary, System.nanoTime()));
+            }
+            mine.complete(summary);
+            return summary;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    private DashboardSummary fresh() {
+        Cached current = cached.get();
+        return current != null && System.nanoTime() - current.computedAt() < ttlNanos ? current.summary() : null;
+    }
+
+    private DashboardSummary compute() {
+        StationCounts stations = stationRepository.countStations();
+
+        Map<ChargingPortStatus, Long> portsByStatus = new EnumMap<>(ChargingPortStatus.class);
+        for (ChargingPortStatus status : ChargingPortStatus.values()) {
+            portsByStatus.put(status, 0L);
+        }
+        long totalPorts = 0;
+        double totalEnergy = 0;
+        for (PortStatusCount row : chargingPortRepository.countByStatus()) {
+            // Portas sem estado contam como UNKNOWN (EnumMap não aceita chave null)
+            ChargingPortStatus status = row.status() == null ? ChargingPortStatus.UNKNOWN : row.status();
+            portsByStatus.merge(status, row.ports(), Long::sum);
+            totalPorts += row.ports();
+            totalEnergy += row.energyUsed() == null ? 0 : row.energyUsed();
+        }
+
+        return new DashboardSummary(
+                stations.total() == null ? 0 : stations.total(),
+                stations.online() == null ? 0 : stations.online(),
+                totalPorts, portsByStatus, totalEnergy, LocalDateTime.now());
+    }
+
+    private record Cached(DashboardSummary summary, long computedAt) {
+    }
+}
@@ -2,7 +2,9 @@ package chargercontrol.operatorapi.service;
 
 import chargercontrol.operatorapi.model.Station;
 import chargercontrol.operatorapi.repository.StationRepository;
+import chargercontrol.operatorapi.search.StationChangedEvent;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -11,9 +13,11 @@ import java.util.List;
 public class StationService {
     
     private final StationRepository stationRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public StationService(StationRepository stationRepository) {
+    public StationService(StationRepository stationRepository, ApplicationEventPublisher eventPublisher) {
         this.stationRepository = stationRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     @Transactional
@@ -24,7 +28,9 @@ public class StationService {
                 port.setStation(station);
             }
         }
-        return stationRepository.save(station);
+        Station saved = stationRepository.save(station);
+        eventPublisher.publishEvent(StationChangedEvent.of(saved));
+        return saved;
     }
     
     public List<Station> getAllStations() {
@@ -68,7 +74,9 @@ public class StationService {
             }
         }
         
-        return stationRepository.save(existingStation);
+        Station saved = stationRepository.save(existingStation);
+        eventPublisher.publishEvent(StationChangedEvent.of(saved));
+        return saved;
     }
     
     @Transactional
@@ -77,5 +85,6 @@ public class StationService {
             throw new EntityNotFoundException("Station not found with id: " + id);
         }
         stationRepository.deleteById(id);
+        eventPublisher.publishEvent(StationChangedEvent.removed(id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package chargercontrol.operatorapi.stream;
+
+import chargercontrol.operatorapi.model.ChargingPort;
+import chargercontrol.operatorapi.model.ChargingPortStatus;
+
+/**
+ * Current state of one charging port, published after a port is written and
+ * read back by {@link PortEventHub}'s poll. A null {@code status} means the port
+ * was removed.
+ */
+public record PortChangedEvent(Long portId, Long stationId, ChargingPortStatus status, Double energyUsed) {
+
+    public static PortChangedEvent of(ChargingPort port) {
+        return new PortChangedEvent(port.getId(), port.getStation() != null ? port.getStation().getId() : port.getStationId(),
+                port.getStatus(), port.getEnergyUsed());
+    }
+
+    public static PortChangedEvent removed(Long portId, Long stationId) {
+        return new PortChangedEvent(portId, stationId, null, null);
+    }
+
+    public boolean isRemoved() {
+        return status == null;
+    }
+}
@@ -0,0 +1,72 @@
+package chargercontrol.operatorapi.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One subscriber of the port event stream and the events waiting for its next
+ * flush, at most one per port. A client that falls more than {@code capacity}
+ * ports behind drops what it has and is sent a reset instead.
+ */
+class PortEventClient {
+
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Map<Long, PortStatusEvent> pending = new LinkedHashMap<>();
+    private boolean resetPending;
+
+    PortEventClient(SseEmitter emitter, int capacity) {
+        this.emitter = emitter;
+        this.capacity = capacity;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    synchronized void enqueue(PortStatusEvent event) {
+        if (resetPending) {
+            return;
+        }
+        PortStatusEvent queued = pending.get(event.portId());
+        if (queued != null) {
+            pending.put(event.portId(), queued.merge(event));
+        } else if (pending.size() >= capacity) {
+            reset();
+        } else {
+            pending.put(event.portId(), event);
+        }
+    }
+
+    synchronized void reset() {
+        pending.clear();
+        resetPending = true;
+    }
+
+    /** Whether a reset is owed; clears the flag. */
+    synchronized boolean takeReset() {
+        boolean reset = resetPending;
+        resetPending = false;
+        return reset;
+    }
+
+    /** Takes the pending events in id order, so the last one sent carries the client's resume point. */
+    synchronized List<PortStatusEvent> drain() {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        List<PortStatusEvent> events = new ArrayList<>(pending.values());
+        pending.clear();
+        events.sort(Comparator.comparingLong(PortStatusEvent::id));
+        return events;
+    }
+
+    synchronized int pendingCount() {
+        return pending.size();
+    }
+}
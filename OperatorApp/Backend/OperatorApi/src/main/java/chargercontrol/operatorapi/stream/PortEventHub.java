@@ -0,0 +1,345 @@
+package chargercontrol.operatorapi.stream;
+
+import chargercontrol.operatorapi.model.CatalogChange;
+import chargercontrol.operatorapi.model.CatalogEntityType;
+import chargercontrol.operatorapi.repository.CatalogChangeRepository;
+import chargercontrol.operatorapi.repository.ChargingPortRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fans charging port changes out to Server-Sent Events subscribers.
+ *
+ * Changes arrive from this API's own writes ({@link PortChangedEvent} after
+ * commit) and from one shared poll of {@code catalog_changes}, which picks up
+ * what the UserApi's bookings and energy rollup write to the same database: each
+ * poll reads only the ports written after the last version it has seen. While
+ * nobody is subscribed the poll does nothing, and the first poll after that
+ * compares every port once so that reconnecting clients still get what changed
+ * in between. Every
+ * change that differs from the last known state of the port gets the next event
+ * id and goes to each client's buffer, where rapid updates to the same port are
+ * merged until the next flush. The last {@code port-events.replay-size} events
+ * are kept so a client reconnecting with {@code Last-Event-ID} gets what it
+ * missed; when they are no longer available it is sent a {@code reset} event
+ * and should reload its data.
+ */
+@Component
+public class PortEventHub implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortEventHub.class);
+
+    static final String PORT_EVENT = "port";
+    static final String RESET_EVENT = "reset";
+
+    private final ChargingPortRepository chargingPortRepository;
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final boolean enabled;
+    private final int replaySize;
+    private final int clientBuffer;
+    private final Duration flushInterval;
+    private final Duration heartbeatInterval;
+    private final Duration pollInterval;
+    private final long emitterTimeoutMillis;
+    private final int maxChanges;
+    private final Duration settle;
+
+    private final Map<Long, PortChangedEvent> known = new ConcurrentHashMap<>();
+    private final ArrayDeque<PortStatusEvent> recent = new ArrayDeque<>();
+    private final List<PortEventClient> clients = new CopyOnWriteArrayList<>();
+    private long sequence;
+    private volatile boolean seeded;
+    // Só usados pela thread do poll
+    private long version;
+    private boolean resync;
+
+    private ThreadPoolTaskScheduler scheduler;
+    private volatile boolean running;
+
+    public PortEventHub(ChargingPortRepository chargingPortRepository, CatalogChangeRepository catalogChangeRepository,
+            @Value("${port-events.enabled:true}") boolean enabled,
+            @Value("${port-events.replay-size:1024}") int replaySize,
+            @Value("${port-events.client-buffer:256}") int clientBuffer,
+            @Value("${port-events.flush-interval-ms:250}") long flushMillis,
+            @Value("${port-events.heartbeat-seconds:15}") long heartbeatSeconds,
+            @Value("${port-events.poll-interval-ms:2000}") long pollMillis,
+            @Value("${port-events.emitter-timeout-minutes:30}") long emitterTimeoutMinutes,
+            @Value("${port-events.max-changes:1000}") int maxChanges,
+            @Value("${port-events.settle-seconds:10}") long settleSeconds) {
+        this.chargingPortRepository = chargingPortRepository;
+        this.catalogChangeRepository = catalogChangeRepository;
+        this.enabled = enabled;
+        this.replaySize = replaySize;
+        this.clientBuffer = clientBuffer;
+        this.flushInterval = Duration.ofMillis(flushMillis);
+        this.heartbeatInterval = Duration.ofSeconds(heartbeatSeconds);
+        this.pollInterval = Duration.ofMillis(pollMillis);
+        this.emitterTimeoutMillis = Duration.ofMinutes(emitterTimeoutMinutes).toMillis();
+        this.maxChanges = maxChanges;
+        this.settle = Duration.ofSeconds(settleSeconds);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortChanged(PortChangedEvent change) {
+        offer(change);
+    }
+
+    /**
+     * Records {@code change} and queues it for every client.
+     *
+     * @return the event sent, or null if the port was already in that state
+     */
+    public synchronized PortStatusEvent offer(PortChangedEvent change) {
+        PortChangedEvent previous = known.get(change.portId());
+        if (change.isRemoved()) {
+            if (previous == null) {
+                return null;
+            }
+            known.remove(change.portId());
+        } else {
+            if (change.equals(previous)) {
+                return null;
+            }
+            known.put(change.portId(), change);
+        }
+
+        double energyUsed = change.isRemoved() || change.energyUsed() == null ? 0 : change.energyUsed();
+        double previousEnergy = previous == null || previous.energyUsed() == null ? 0 : previous.energyUsed();
+        Long stationId = change.stationId() != null ? change.stationId() : previous != null ? previous.stationId() : null;
+        PortStatusEvent event = new PortStatusEvent(++sequence, change.portId(), stationId, change.status(),
+                previous != null ? previous.status() : null, energyUsed,
+                change.isRemoved() ? 0 : energyUsed - previousEnergy, change.isRemoved(), LocalDateTime.now());
+
+        recent.addLast(event);
+        while (recent.size() > replaySize) {
+            recent.removeFirst();
+        }
+        clients.forEach(client -> client.enqueue(event));
+        return event;
+    }
+
+    /**
+     * Opens a stream for a new client.
+     *
+     * @param lastEventId id of the last event the client received before reconnecting, or null
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        PortEventClient client = new PortEventClient(emitter, clientBuffer);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+
+        synchronized (this) {
+            if (lastEventId != null && lastEventId != sequence) {
+                replay(client, lastEventId);
+            }
+            clients.add(client);
+        }
+        flush(client);
+        return emitter;
+    }
+
+    public int clientCount() {
+        return clients.size();
+    }
+
+    /** Sends every client what has been queued for it since the last flush. */
+    public void flushAll() {
+        clients.forEach(this::flush);
+    }
+
+    /** Offers the state of every port written since the last poll. */
+    public void poll() {
+        if (!seeded) {
+            long seedVersion = latestSettledVersion();
+            List<PortChangedEvent> states = chargingPortRepository.findAllStates();
+            synchronized (this) {
+                states.forEach(state -> known.putIfAbsent(state.portId(), state));
+                seeded = true;
+            }
+            version = seedVersion;
+            return;
+        }
+        if (clients.isEmpty()) {
+            resync = true;
+            return;
+        }
+        if (resync) {
+            compareAll();
+            resync = false;
+            return;
+        }
+
+        List<CatalogChange> changes = catalogChangeRepository.findAfter(version, PageRequest.of(0, maxChanges));
+        if (changes.isEmpty()) {
+            return;
+        }
+        // Apagar uma estação apaga os ports em cascata, e cada um tem a sua linha
+        Set<Long> portIds = new LinkedHashSet<>();
+        for (CatalogChange change : changes) {
+            if (change.getEntityType() == CatalogEntityType.PORT) {
+                portIds.add(change.getEntityId());
+            }
+        }
+        if (!portIds.isEmpty()) {
+            for (PortChangedEvent state : chargingPortRepository.findStatesByIds(portIds)) {
+                portIds.remove(state.portId());
+                offer(state);
+            }
+            for (Long portId : portIds) {
+                PortChangedEvent previous = known.get(portId);
+                if (previous != null) {
+                    offer(PortChangedEvent.removed(portId, previous.stationId()));
+                }
+            }
+        }
+        version = settledVersion(version, changes, LocalDateTime.now().minus(settle));
+    }
+
+    /**
+     * Highest version up to which no recent gap could still be filled by a running
+     * transaction; {@code changes} are the rows after {@code since}, in id order.
+     * Rows past it are read again by the next poll, which offers nothing for ports
+     * already in that state.
+     */
+    static long settledVersion(long since, List<CatalogChange> changes, LocalDateTime settledBefore) {
+        long version = since;
+        for (CatalogChange change : changes) {
+            if (change.getId() != version + 1 && change.getChangedAt().isAfter(settledBefore)) {
+                break;
+            }
+            version = change.getId();
+        }
+        return version;
+    }
+
+    private long latestSettledVersion() {
+        return catalogChangeRepository.findLatestVersionBefore(LocalDateTime.now().minus(settle));
+    }
+
+    // Lê todos os ports e oferece o que mudou desde o último estado conhecido
+    private void compareAll() {
+        long compareVersion = latestSettledVersion();
+        List<PortChangedEvent> states = chargingPortRepository.findAllStates();
+        Set<Long> present = new HashSet<>();
+        for (PortChangedEvent state : states) {
+            present.add(state.portId());
+            offer(state);
+        }
+        for (PortChangedEvent previous : List.copyOf(known.values())) {
+            if (!present.contains(previous.portId())) {
+                offer(PortChangedEvent.removed(previous.portId(), previous.stationId()));
+            }
+        }
+        version = compareVersion;
+    }
+
+    public void heartbeat() {
+        for (PortEventClient client : clients) {
+            send(client, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("port-events-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::flushAll, flushInterval);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatInterval);
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (RuntimeException e) {
+                logger.warn("Port state poll failed: {}", e.getMessage());
+            }
+        }, pollInterval);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        clients.forEach(client -> client.emitter().complete());
+        clients.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Chamado com o lock do hub
+    private void replay(PortEventClient client, long lastEventId) {
+        boolean missed = lastEventId > sequence
+                || recent.isEmpty()
+                || lastEventId < recent.peekFirst().id() - 1;
+        if (missed) {
+            client.reset();
+            return;
+        }
+        for (PortStatusEvent event : recent) {
+            if (event.id() > lastEventId) {
+                client.enqueue(event);
+            }
+        }
+    }
+
+    private void flush(PortEventClient client) {
+        if (client.takeReset()) {
+            long resumeFrom;
+            synchronized (this) {
+                resumeFrom = sequence;
+            }
+            if (!send(client, SseEmitter.event().id(String.valueOf(resumeFrom)).name(RESET_EVENT)
+                    .data(Map.of("reason", "missed events")))) {
+                return;
+            }
+        }
+        for (PortStatusEvent event : client.drain()) {
+            if (!send(client, SseEmitter.event().id(String.valueOf(event.id())).name(PORT_EVENT).data(event))) {
+                return;
+            }
+        }
+    }
+
+    private boolean send(PortEventClient client, SseEmitter.SseEventBuilder event) {
+        try {
+            client.emitter().send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desligou-se; o EventSource volta a ligar com o Last-Event-ID
+            clients.remove(client);
+            client.emitter().completeWithError(e);
+            return false;
+        }
+    }
+}
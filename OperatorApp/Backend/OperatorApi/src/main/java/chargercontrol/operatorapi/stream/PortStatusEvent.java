@@ -0,0 +1,21 @@
+package chargercontrol.operatorapi.stream;
+
+import chargercontrol.operatorapi.model.ChargingPortStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * What clients of the port event stream receive. {@code previousStatus} and
+ * {@code energyDelta} are relative to the state the client last saw, so a
+ * dashboard can keep its counters without refetching.
+ */
+public record PortStatusEvent(long id, Long portId, Long stationId, ChargingPortStatus status,
+        ChargingPortStatus previousStatus, double energyUsed, double energyDelta, boolean removed,
+        LocalDateTime at) {
+
+    /** Folds {@code newer} into this event, as if the client had only seen this one's predecessor. */
+    PortStatusEvent merge(PortStatusEvent newer) {
+        return new PortStatusEvent(newer.id, portId, newer.stationId, newer.status, previousStatus,
+                newer.energyUsed, energyDelta + newer.energyDelta, newer.removed, newer.at);
+    }
+}
@@ -0,0 +1,61 @@
+package chargercontrol.operatorapi.controller;
+
+import chargercontrol.operatorapi.dto.DashboardSummary;
+import chargercontrol.operatorapi.model.ChargingPortStatus;
+import chargercontrol.operatorapi.service.DashboardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardController Tests")
+class DashboardControllerTest {
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @InjectMocks
+    private DashboardController dashboardController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(dashboardController).build();
+    }
+
+    @Test
+    @DisplayName("Should return the fleet summary with a short max-age")
+    void getSummary_Success() throws Exception {
+        // Given
+        DashboardSummary summary = new DashboardSummary(4, 3, 8,
+                Map.of(ChargingPortStatus.AVAILABLE, 5L, ChargingPortStatus.CHARGING, 2L), 40.5, LocalDateTime.now());
+        when(dashboardService.getSummary()).thenReturn(summary);
+        when(dashboardService.getTtl()).thenReturn(Duration.ofSeconds(5));
+
+        // When & Then
+        mockMvc.perform(get("/apiV1/dashboard/summary"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=5"))
+                .andExpect(jsonPath("$.totalStations").value(4))
+                .andExpect(jsonPath("$.onlineStations").value(3))
+                .andExpect(jsonPath("$.portsByStatus.AVAILABLE").value(5))
+                .andExpect(jsonPath("$.totalEnergyUsed").value(40.5));
+
+        verify(dashboardService, times(1)).getSummary();
+    }
+}
@@ -0,0 +1,42 @@
+package chargercontrol.operatorapi.controller;
+
+import chargercontrol.operatorapi.stream.PortEventHub;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PortEventController Tests")
+class PortEventControllerTest {
+
+    @Mock
+    private PortEventHub portEventHub;
+
+    @InjectMocks
+    private PortEventController portEventController;
+
+    @Test
+    @DisplayName("Should resume from the Last-Event-ID header")
+    void streamEvents_WithLastEventId_Resumes() {
+        SseEmitter emitter = new SseEmitter();
+        when(portEventHub.subscribe(42L)).thenReturn(emitter);
+
+        assertSame(emitter, portEventController.streamEvents("42"));
+    }
+
+    @Test
+    @DisplayName("Should treat a missing or malformed Last-Event-ID as a new connection")
+    void streamEvents_WithoutUsableLastEventId_StartsFresh() {
+        portEventController.streamEvents(null);
+        portEventController.streamEvents("not-a-number");
+
+        verify(portEventHub, times(2)).subscribe(null);
+    }
+}
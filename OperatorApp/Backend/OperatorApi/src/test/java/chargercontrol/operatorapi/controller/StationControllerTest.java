@@ -3,6 +3,8 @@ package chargercontrol.operatorapi.controller;
 import chargercontrol.operatorapi.controller.StationController;
 import chargercontrol.operatorapi.model.ChargingType;
 import chargercontrol.operatorapi.model.Station;
+import chargercontrol.operatorapi.search.StationSearchIndex;
+import chargercontrol.operatorapi.search.TextMatch;
 import chargercontrol.operatorapi.service.StationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,6 +33,9 @@ class StationControllerTest {
     @Mock
     private StationService stationService;
 
+    @Mock
+    private StationSearchIndex stationSearchIndex;
+
     @InjectMocks
     private StationController stationController;
 
@@ -410,4 +415,40 @@ class StationControllerTest {
         // Service should not be called for invalid data
         verify(stationService, never()).saveStation(any(Station.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return stations matching the search text")
+    void searchStations_Success() throws Exception {
+        // Given
+        Station station = createValidStation();
+        station.setId(4L);
+        station.setName("Aveiro Centro");
+        station.setLocation("Aveiro");
+
+        when(stationSearchIndex.search("aveir", 10)).thenReturn(List.of(new TextMatch<>(station, 8.0)));
+
+        // When & Then
+        mockMvc.perform(get("/apiV1/stations/search")
+                        .param("q", "aveir")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(4))
+                .andExpect(jsonPath("$[0].name").value("Aveiro Centro"))
+                .andExpect(jsonPath("$[0].score").value(8.0));
+
+        verify(stationSearchIndex).search("aveir", 10);
+    }
+
+    @Test
+    @DisplayName("Should reject a blank search text")
+    void searchStations_BlankQuery() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/apiV1/stations/search")
+                        .param("q", "  ")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(stationSearchIndex);
+    }
+}
@@ -1,5 +1,6 @@
 package chargercontrol.operatorapi.repository;
 
+import chargercontrol.operatorapi.dto.PortStatusCount;
 import chargercontrol.operatorapi.model.ChargingPort;
 import chargercontrol.operatorapi.model.ChargingPortStatus;
 import chargercontrol.operatorapi.model.ChargingType;
@@ -105,4 +106,23 @@ public class ChargingPortRepositoryTest {
         assertThat(found).hasSize(1);
         assertThat(found.get(0).getPortIdentifier()).isEqualTo("PORT_42");
     }
+
+    @Test
+    @DisplayName("Should count ChargingPorts and sum energy per Status")
+    void testCountByStatus() {
+        for (int i = 0; i < 3; i++) {
+            ChargingPort port = new ChargingPort();
+            port.setStation(savedStation);
+            port.setStatus(i < 2 ? ChargingPortStatus.AVAILABLE : ChargingPortStatus.CHARGING);
+            port.setPortIdentifier("PORT_" + i);
+            port.setEnergyUsed(1.5);
+            chargingPortRepository.save(port);
+        }
+
+        List<PortStatusCount> counts = chargingPortRepository.countByStatus();
+
+        assertThat(counts).containsExactlyInAnyOrder(
+                new PortStatusCount(ChargingPortStatus.AVAILABLE, 2L, 3.0),
+                new PortStatusCount(ChargingPortStatus.CHARGING, 1L, 1.5));
+    }
 }
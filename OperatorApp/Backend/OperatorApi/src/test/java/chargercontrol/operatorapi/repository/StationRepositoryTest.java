@@ -1,5 +1,6 @@
 package chargercontrol.operatorapi.repository;
 
+import chargercontrol.operatorapi.dto.StationCounts;
 import chargercontrol.operatorapi.model.ChargingPort;
 import chargercontrol.operatorapi.model.ChargingPortStatus;
 import chargercontrol.operatorapi.model.ChargingType;
@@ -103,4 +104,18 @@ class StationRepositoryTest {
         assertThat(nearby).hasSize(1);
         assertThat(nearby.get(0).getName()).isEqualTo("Near Station");
     }
+
+    @Test
+    @DisplayName("Should count all and available Stations")
+    void testCountStations() {
+        Station s1 = new Station(null, "Station X", "Loc X", 40.0, 10.0, 20.0, true, ChargingType.DC, null, null, null);
+        Station s2 = new Station(null, "Station Y", "Loc Y", 60.0, 11.0, 21.0, false, ChargingType.AC, null, null, null);
+        Station s3 = new Station(null, "Station Z", "Loc Z", 22.0, 12.0, 22.0, true, ChargingType.AC, null, null, null);
+        stationRepository.saveAll(List.of(s1, s2, s3));
+
+        StationCounts counts = stationRepository.countStations();
+
+        assertThat(counts.total()).isEqualTo(3L);
+        assertThat(counts.online()).isEqualTo(2L);
+    }
 }
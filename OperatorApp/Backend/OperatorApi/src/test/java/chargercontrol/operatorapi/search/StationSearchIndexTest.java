@@ -0,0 +1,104 @@
+package chargercontrol.operatorapi.search;
+
+import chargercontrol.operatorapi.model.ChargingType;
+import chargercontrol.operatorapi.model.Station;
+import chargercontrol.operatorapi.repository.StationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StationSearchIndexTest {
+
+    @Mock
+    private StationRepository stationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StationSearchIndex stationSearchIndex;
+    private Station aveiro;
+    private Station porto;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        stationSearchIndex = new StationSearchIndex(stationRepository, transactionManager, 60);
+        aveiro = station(1L, "Aveiro Centro", "Rua João Mendonça, Aveiro");
+        porto = station(2L, "Porto Campanhã", "Avenida de Paiva Couceiro, Porto");
+    }
+
+    @Test
+    void search_LoadsOnFirstUse_MatchesPrefixesAccentsAndTypos() {
+        when(stationRepository.findAll()).thenReturn(List.of(aveiro, porto));
+
+        assertEquals(aveiro, stationSearchIndex.search("avei", 10).get(0).item());
+        assertEquals(List.of(porto), items(stationSearchIndex.search("campanha", 10)));
+        assertEquals(List.of(porto), items(stationSearchIndex.search("prto", 10)));
+        assertEquals(List.of(aveiro), items(stationSearchIndex.search("mendonca aveiro", 10)));
+        assertTrue(stationSearchIndex.search("lisboa", 10).isEmpty());
+        verify(stationRepository, times(1)).findAll();
+    }
+
+    @Test
+    void onStationChanged_UpdatesAndRemovesStations() {
+        when(stationRepository.findAll()).thenReturn(List.of(aveiro, porto));
+        stationSearchIndex.reload();
+
+        Station renamed = station(2L, "Porto Boavista", "Avenida da Boavista, Porto");
+        stationSearchIndex.onStationChanged(StationChangedEvent.of(renamed));
+        stationSearchIndex.onStationChanged(StationChangedEvent.removed(1L));
+
+        assertTrue(stationSearchIndex.search("campanha", 10).isEmpty());
+        assertEquals(List.of(renamed), items(stationSearchIndex.search("boavista", 10)));
+        assertTrue(stationSearchIndex.search("aveiro", 10).isEmpty());
+    }
+
+    @Test
+    void reload_ReappliesChangesCommittedWhileLoading() {
+        Station braga = station(3L, "Braga Sul", "Braga");
+        // The station is committed after findAll read the table
+        when(stationRepository.findAll()).thenAnswer(invocation -> {
+            stationSearchIndex.onStationChanged(StationChangedEvent.of(braga));
+            return List.of(aveiro);
+        });
+
+        stationSearchIndex.reload();
+
+        assertEquals(List.of(braga), items(stationSearchIndex.search("braga", 10)));
+        assertEquals(List.of(aveiro), items(stationSearchIndex.search("aveiro", 10)));
+    }
+
+    @Test
+    void search_RanksNameMatchesFirst() {
+        Station avenida = station(3L, "Avenida Central", "Braga");
+        when(stationRepository.findAll()).thenReturn(List.of(aveiro, porto, avenida));
+
+        List<Station> found = items(stationSearchIndex.search("avenida", 10));
+
+        assertEquals(List.of(avenida, porto), found);
+    }
+
+    private static List<Station> items(List<TextMatch<Station>> matches) {
+        return matches.stream().map(TextMatch::item).toList();
+    }
+
+    private static Station station(Long id, String name, String location) {
+        Station station = new Station();
+        station.setId(id);
+        station.setName(name);
+        station.setLocation(location);
+        station.setPower(50.0);
+        station.setLatitude(40.0);
+        station.setLongitude(-8.0);
+        station.setAvailable(true);
+        station.setChargingType(ChargingType.DC_FAST);
+        return station;
+    }
+}
@@ -5,10 +5,12 @@ import chargercontrol.operatorapi.model.ChargingPortStatus;
 import chargercontrol.operatorapi.model.Station;
 import chargercontrol.operatorapi.repository.ChargingPortRepository;
 import chargercontrol.operatorapi.repository.StationRepository;
+import chargercontrol.operatorapi.stream.PortChangedEvent;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.List;
@@ -25,6 +27,9 @@ class ChargingPortServiceTest {
     @Mock
     private StationRepository stationRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ChargingPortService chargingPortService;
 
@@ -77,6 +82,7 @@ class ChargingPortServiceTest {
         chargingPortService.deleteChargingPort(portId);
 
         verify(chargingPortRepository).deleteById(portId);
+        verify(eventPublisher).publishEvent(PortChangedEvent.removed(portId, null));
     }
 
     @Test
@@ -120,6 +126,7 @@ class ChargingPortServiceTest {
         assertEquals(ChargingPortStatus.AVAILABLE, savedPort.getStatus());
         assertEquals(0.0, savedPort.getEnergyUsed());
         verify(chargingPortRepository).save(portToSave);
+        verify(eventPublisher).publishEvent(any(PortChangedEvent.class));
     }
 
     @Test
@@ -0,0 +1,134 @@
+package chargercontrol.operatorapi.service;
+
+import chargercontrol.operatorapi.dto.DashboardSummary;
+import chargercontrol.operatorapi.dto.PortStatusCount;
+import chargercontrol.operatorapi.dto.StationCounts;
+import chargercontrol.operatorapi.model.ChargingPortStatus;
+import chargercontrol.operatorapi.repository.ChargingPortRepository;
+import chargercontrol.operatorapi.repository.StationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DashboardServiceTest {
+
+    @Mock
+    private StationRepository stationRepository;
+
+    @Mock
+    private ChargingPortRepository chargingPortRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(stationRepository.countStations()).thenReturn(new StationCounts(4L, 3L));
+        when(chargingPortRepository.countByStatus()).thenReturn(List.of(
+                new PortStatusCount(ChargingPortStatus.AVAILABLE, 5L, 10.0),
+                new PortStatusCount(ChargingPortStatus.CHARGING, 2L, 30.5),
+                new PortStatusCount(ChargingPortStatus.OUT_OF_ORDER, 1L, 0.0)));
+    }
+
+    @Test
+    void getSummary_AggregatesCounts() {
+        DashboardService dashboardService = new DashboardService(stationRepository, chargingPortRepository, 5);
+
+        DashboardSummary summary = dashboardService.getSummary();
+
+        assertEquals(4, summary.getTotalStations());
+        assertEquals(3, summary.getOnlineStations());
+        assertEquals(8, summary.getTotalPorts());
+        assertEquals(40.5, summary.getTotalEnergyUsed(), 1e-9);
+        assertEquals(5L, summary.getPortsByStatus().get(ChargingPortStatus.AVAILABLE));
+        assertEquals(0L, summary.getPortsByStatus().get(ChargingPortStatus.MAINTENANCE));
+        assertEquals(ChargingPortStatus.values().length, summary.getPortsByStatus().size());
+    }
+
+    @Test
+    void getSummary_NullStatus_CountedAsUnknown() {
+        when(chargingPortRepository.countByStatus()).thenReturn(List.of(
+                new PortStatusCount(ChargingPortStatus.UNKNOWN, 1L, 0.0),
+                new PortStatusCount(null, 2L, 4.0)));
+        DashboardService dashboardService = new DashboardService(stationRepository, chargingPortRepository, 5);
+
+        DashboardSummary summary = dashboardService.getSummary();
+
+        assertEquals(3, summary.getTotalPorts());
+        assertEquals(3L, summary.getPortsByStatus().get(ChargingPortStatus.UNKNOWN));
+        assertEquals(4.0, summary.getTotalEnergyUsed(), 1e-9);
+    }
+
+    @Test
+    void getSummary_WithinTtl_ServedFromCache() {
+        DashboardService dashboardService = new DashboardService(stationRepository, chargingPortRepository, 60);
+
+        DashboardSummary first = dashboardService.getSummary();
+        DashboardSummary second = dashboardService.getSummary();
+
+        assertSame(first, second);
+        verify(stationRepository, times(1)).countStations();
+        verify(chargingPortRepository, times(1)).countByStatus();
+    }
+
+    @Test
+    void getSummary_ZeroTtl_RecomputesEveryTime() {
+        DashboardService dashboardService = new DashboardService(stationRepository, chargingPortRepository, 0);
+
+        dashboardService.getSummary();
+        dashboardService.getSummary();
+
+        verify(chargingPortRepository, times(2)).countByStatus();
+    }
+
+    @Test
+    void getSummary_ConcurrentCallersShareOneComputation() throws Exception {
+        DashboardService dashboardService = new DashboardService(stationRepository, chargingPortRepository, 60);
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(stationRepository.countStations()).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new StationCounts(4L, 3L);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<DashboardSummary> first = executor.submit(dashboardService::getSummary);
+            assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+            List<Future<DashboardSummary>> others = List.of(
+                    executor.submit(dashboardService::getSummary),
+                    executor.submit(dashboardService::getSummary),
+                    executor.submit(dashboardService::getSummary));
+            release.countDown();
+
+            DashboardSummary summary = first.get(5, TimeUnit.SECONDS);
+            for (Future<DashboardSummary> other : others) {
+                assertSame(summary, other.get(5, TimeUnit.SECONDS));
+            }
+            verify(stationRepository, times(1)).countStations();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getSummary_QueryFails_NextCallRetries() {
+        DashboardService dashboardService = new DashboardService(stationRepository, chargingPortRepository, 60);
+        when(stationRepository.countStations())
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(new StationCounts(1L, 1L));
+
+        assertThrows(RuntimeException.class, dashboardService::getSummary);
+        assertEquals(1, dashboardService.getSummary().getTotalStations());
+    }
+}
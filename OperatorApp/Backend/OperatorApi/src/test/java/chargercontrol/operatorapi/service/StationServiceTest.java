@@ -4,12 +4,14 @@ import chargercontrol.operatorapi.model.ChargingPort;
 import chargercontrol.operatorapi.model.Station;
 import chargercontrol.operatorapi.model.ChargingType;
 import chargercontrol.operatorapi.repository.StationRepository;
+import chargercontrol.operatorapi.search.StationChangedEvent;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.List;
@@ -25,6 +27,9 @@ class StationServiceTest {
     @Mock
     private StationRepository stationRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private StationService stationService;
 
@@ -42,6 +47,7 @@ class StationServiceTest {
 
         assertNotNull(result);
         verify(stationRepository).save(station);
+        verify(eventPublisher).publishEvent(StationChangedEvent.of(station));
     }
 
     @Test
@@ -74,6 +80,7 @@ class StationServiceTest {
         stationService.deleteStation(id);
 
         verify(stationRepository).deleteById(id);
+        verify(eventPublisher).publishEvent(StationChangedEvent.removed(id));
     }
 
     @Test
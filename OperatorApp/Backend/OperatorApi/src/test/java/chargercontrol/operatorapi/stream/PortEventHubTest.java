@@ -0,0 +1,176 @@
+package chargercontrol.operatorapi.stream;
+
+import chargercontrol.operatorapi.model.CatalogChange;
+import chargercontrol.operatorapi.model.CatalogEntityType;
+import chargercontrol.operatorapi.model.ChargingPortStatus;
+import chargercontrol.operatorapi.repository.CatalogChangeRepository;
+import chargercontrol.operatorapi.repository.ChargingPortRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PortEventHubTest {
+
+    @Mock
+    private ChargingPortRepository chargingPortRepository;
+
+    @Mock
+    private CatalogChangeRepository catalogChangeRepository;
+
+    private PortEventHub portEventHub;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(catalogChangeRepository.findLatestVersionBefore(any())).thenReturn(5L);
+        portEventHub = new PortEventHub(chargingPortRepository, catalogChangeRepository, false, 4, 2, 250, 15, 2000, 30,
+                100, 10);
+    }
+
+    @Test
+    void offer_SameStateTwice_EmitsOnce() {
+        PortChangedEvent state = new PortChangedEvent(1L, 10L, ChargingPortStatus.AVAILABLE, 0.0);
+
+        assertNotNull(portEventHub.offer(state));
+        assertNull(portEventHub.offer(state));
+    }
+
+    @Test
+    void offer_ReportsPreviousStatusAndEnergyDelta() {
+        portEventHub.offer(new PortChangedEvent(1L, 10L, ChargingPortStatus.CHARGING, 5.0));
+
+        PortStatusEvent event = portEventHub.offer(new PortChangedEvent(1L, 10L, ChargingPortStatus.AVAILABLE, 12.5));
+
+        assertEquals(2, event.id());
+        assertEquals(ChargingPortStatus.CHARGING, event.previousStatus());
+        assertEquals(ChargingPortStatus.AVAILABLE, event.status());
+        assertEquals(7.5, event.energyDelta(), 1e-9);
+    }
+
+    @Test
+    void offer_RemovedPort_KeepsStationOfLastState() {
+        portEventHub.offer(new PortChangedEvent(1L, 10L, ChargingPortStatus.AVAILABLE, 0.0));
+
+        PortStatusEvent event = portEventHub.offer(PortChangedEvent.removed(1L, null));
+
+        assertTrue(event.removed());
+        assertEquals(10L, event.stationId());
+        assertEquals(ChargingPortStatus.AVAILABLE, event.previousStatus());
+        assertNull(portEventHub.offer(PortChangedEvent.removed(1L, null)));
+    }
+
+    @Test
+    void poll_FirstPollSeedsSilently_ThenComparesAllPortsOnceSomeoneSubscribes() {
+        when(chargingPortRepository.findAllStates())
+                .thenReturn(List.of(
+                        new PortChangedEvent(1L, 10L, ChargingPortStatus.AVAILABLE, 0.0),
+                        new PortChangedEvent(2L, 10L, ChargingPortStatus.AVAILABLE, 0.0)))
+                .thenReturn(List.of(
+                        new PortChangedEvent(1L, 10L, ChargingPortStatus.CHARGING, 0.0)));
+
+        portEventHub.poll();
+        // Seeded: a change already known is not reported again
+        assertNull(portEventHub.offer(new PortChangedEvent(2L, 10L, ChargingPortStatus.AVAILABLE, 0.0)));
+
+        // Nobody subscribed: nothing is read
+        portEventHub.poll();
+        verify(chargingPortRepository, times(1)).findAllStates();
+
+        portEventHub.subscribe(null);
+        portEventHub.poll();
+
+        // Port 1 changed and port 2 disappeared
+        PortStatusEvent removed = portEventHub.offer(new PortChangedEvent(2L, 10L, ChargingPortStatus.AVAILABLE, 0.0));
+        assertNotNull(removed);
+        assertNull(removed.previousStatus());
+        assertEquals(3, removed.id());
+    }
+
+    @Test
+    void poll_WithSubscribers_ReadsOnlyPortsChangedAfterVersion() {
+        LocalDateTime old = LocalDateTime.now().minusMinutes(5);
+        when(chargingPortRepository.findAllStates()).thenReturn(List.of(
+                new PortChangedEvent(1L, 10L, ChargingPortStatus.AVAILABLE, 0.0),
+                new PortChangedEvent(2L, 10L, ChargingPortStatus.AVAILABLE, 0.0)));
+        when(catalogChangeRepository.findAfter(eq(5L), any(Pageable.class))).thenReturn(List.of(
+                new CatalogChange(6L, CatalogEntityType.PORT, 1L, 10L, false, old),
+                new CatalogChange(7L, CatalogEntityType.PORT, 2L, 10L, true, old)));
+        when(chargingPortRepository.findStatesByIds(any())).thenReturn(List.of(
+                new PortChangedEvent(1L, 10L, ChargingPortStatus.CHARGING, 0.0)));
+        portEventHub.poll();
+        portEventHub.subscribe(null);
+
+        portEventHub.poll();
+        portEventHub.poll();
+
+        verify(chargingPortRepository, times(1)).findAllStates();
+        verify(catalogChangeRepository).findAfter(eq(7L), any(Pageable.class));
+        // Port 1 is already charging and port 2 is already gone
+        assertNull(portEventHub.offer(new PortChangedEvent(1L, 10L, ChargingPortStatus.CHARGING, 0.0)));
+        assertNull(portEventHub.offer(PortChangedEvent.removed(2L, 10L)));
+    }
+
+    @Test
+    void settledVersion_StopsBeforeRecentGap() {
+        LocalDateTime now = LocalDateTime.now();
+        List<CatalogChange> changes = List.of(
+                new CatalogChange(6L, CatalogEntityType.PORT, 1L, 10L, false, now.minusMinutes(5)),
+                new CatalogChange(8L, CatalogEntityType.PORT, 2L, 10L, false, now),
+                new CatalogChange(9L, CatalogEntityType.PORT, 3L, 10L, false, now));
+
+        assertEquals(6L, PortEventHub.settledVersion(5L, changes, now.minusSeconds(10)));
+        assertEquals(9L, PortEventHub.settledVersion(5L, changes, now.plusSeconds(1)));
+    }
+
+    @Test
+    void merge_KeepsFirstPreviousStatusAndSumsDeltas() {
+        LocalDateTime now = LocalDateTime.now();
+        PortStatusEvent first = new PortStatusEvent(1, 1L, 10L, ChargingPortStatus.CHARGING,
+                ChargingPortStatus.AVAILABLE, 2.0, 2.0, false, now);
+        PortStatusEvent second = new PortStatusEvent(2, 1L, 10L, ChargingPortStatus.AVAILABLE,
+                ChargingPortStatus.CHARGING, 5.0, 3.0, false, now);
+
+        PortStatusEvent merged = first.merge(second);
+
+        assertEquals(2, merged.id());
+        assertEquals(ChargingPortStatus.AVAILABLE, merged.previousStatus());
+        assertEquals(ChargingPortStatus.AVAILABLE, merged.status());
+        assertEquals(5.0, merged.energyDelta(), 1e-9);
+    }
+
+    @Test
+    void client_CoalescesPerPortAndResetsWhenBufferOverflows() {
+        PortEventClient client = new PortEventClient(new SseEmitter(), 2);
+        LocalDateTime now = LocalDateTime.now();
+
+        client.enqueue(new PortStatusEvent(1, 1L, 10L, ChargingPortStatus.CHARGING, null, 0, 0, false, now));
+        client.enqueue(new PortStatusEvent(2, 1L, 10L, ChargingPortStatus.AVAILABLE, null, 1, 1, false, now));
+        client.enqueue(new PortStatusEvent(3, 2L, 10L, ChargingPortStatus.CHARGING, null, 0, 0, false, now));
+        assertEquals(2, client.pendingCount());
+        assertFalse(client.takeReset());
+
+        client.enqueue(new PortStatusEvent(4, 3L, 10L, ChargingPortStatus.CHARGING, null, 0, 0, false, now));
+
+        assertTrue(client.takeReset());
+        assertTrue(client.drain().isEmpty());
+    }
+
+    @Test
+    void subscribe_WithLastEventIdFromAnotherRun_RegistersClient() {
+        portEventHub.offer(new PortChangedEvent(1L, 10L, ChargingPortStatus.AVAILABLE, 0.0));
+
+        SseEmitter emitter = portEventHub.subscribe(99L);
+
+        assertNotNull(emitter);
+        assertEquals(1, portEventHub.clientCount());
+    }
+}
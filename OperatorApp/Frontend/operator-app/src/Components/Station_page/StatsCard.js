@@ -21,6 +21,30 @@ import {
   Refresh
 } from '@mui/icons-material';
 
+const EVENTS_URL = 'http://192.168.160.7:8081/apiV1/chargingports/events';
+
+// Which counter each port status feeds
+const STATUS_COUNTERS = {
+  AVAILABLE: 'totalAvailablePorts',
+  CHARGING: 'totalChargingPorts',
+  OUT_OF_ORDER: 'activeAlerts'
+};
+
+// Applies one 'port' event from the server stream to the counters
+const applyPortEvent = (stats, event) => {
+  const next = { ...stats };
+  const previousKey = STATUS_COUNTERS[event.previousStatus];
+  const currentKey = event.removed ? undefined : STATUS_COUNTERS[event.status];
+  if (previousKey) {
+    next[previousKey] = Math.max(0, next[previousKey] - 1);
+  }
+  if (currentKey) {
+    next[currentKey] += 1;
+  }
+  next.totalEnergy = Math.max(0, next.totalEnergy + (parseFloat(event.energyDelta) || 0));
+  return next;
+};
+
 const StatsCards = () => {
   const [stats, setStats] = useState({
     onlineStations: 0,
@@ -34,58 +58,27 @@ const StatsCards = () => {
   const [refreshing, setRefreshing] = useState(false);
 
   // Fetch all stations and their statistics
-  const fetchStats = async () => {
+  const fetchStats = async ({ silent = false } = {}) => {
     try {
-      setLoading(true);
-      
-      // Get all stations
-      const stationsResponse = await fetch('http://192.168.160.7:8081/apiV1/stations');
-      const stations = await stationsResponse.json();
-      
-      // Get available stations (assuming available stations are "online")
-      const availableStationsResponse = await fetch('http://192.168.160.7:8081/apiV1/stations/available/true');
-      const onlineStations = await availableStationsResponse.json();
-      
-      // Get all charging ports by status
-      const [availablePortsResponse, chargingPortsResponse] = await Promise.all([
-        fetch('http://192.168.160.7:8081/apiV1/chargingports/status/AVAILABLE'),
-        fetch('http://192.168.160.7:8081/apiV1/chargingports/status/CHARGING')
-      ]);
+      if (!silent) {
+        setLoading(true);
+      }
       
-      const availablePorts = await availablePortsResponse.json();
-      const chargingPorts = await chargingPortsResponse.json();
-      
-      // Calculate total energy from all stations
-      let totalEnergy = 0;
-      const energyPromises = stations.map(async (station) => {
-        try {
-          const energyResponse = await fetch(`http://192.168.160.7:8081/apiV1/chargingports/station/${station.id}/stats/energy`);
-          const energy = await energyResponse.json();
-          // Ensure energy is a number
-          const numericEnergy = parseFloat(energy) || 0;
-          return isNaN(numericEnergy) ? 0 : numericEnergy;
-        } catch (error) {
-          return 0;
-        }
-      });
-      
-      const energyResults = await Promise.all(energyPromises);
-      totalEnergy = energyResults.reduce((sum, energy) => {
-        const numericEnergy = parseFloat(energy) || 0;
-        return sum + (isNaN(numericEnergy) ? 0 : numericEnergy);
-      }, 0);
-      
-      // Get out of order ports for alerts
-      const outOfOrderResponse = await fetch('http://192.168.160.7:8081/apiV1/chargingports/status/OUT_OF_ORDER');
-      const outOfOrderPorts = await outOfOrderResponse.json();
+      // One aggregate call instead of listing every station and port
+      const response = await fetch('http://192.168.160.7:8081/apiV1/dashboard/summary');
+      if (!response.ok) {
+        throw new Error(`Failed to fetch dashboard summary: ${response.status}`);
+      }
+      const summary = await response.json();
+      const portsByStatus = summary.portsByStatus || {};
       
       setStats({
-        onlineStations: Array.isArray(onlineStations) ? onlineStations.length : 0,
-        totalStations: Array.isArray(stations) ? stations.length : 0,
-        totalAvailablePorts: Array.isArray(availablePorts) ? availablePorts.length : 0,
-        totalChargingPorts: Array.isArray(chargingPorts) ? chargingPorts.length : 0,
-        totalEnergy: parseFloat(totalEnergy) || 0,
-        activeAlerts: Array.isArray(outOfOrderPorts) ? outOfOrderPorts.length : 0
+        onlineStations: summary.onlineStations || 0,
+        totalStations: summary.totalStations || 0,
+        totalAvailablePorts: portsByStatus.AVAILABLE || 0,
+        totalChargingPorts: portsByStatus.CHARGING || 0,
+        totalEnergy: parseFloat(summary.totalEnergyUsed) || 0,
+        activeAlerts: portsByStatus.OUT_OF_ORDER || 0
       });
       
     } catch (error) {
@@ -100,7 +93,9 @@ const StatsCards = () => {
         activeAlerts: 0
       });
     } finally {
-      setLoading(false);
+      if (!silent) {
+        setLoading(false);
+      }
     }
   };
 
@@ -113,9 +108,28 @@ const StatsCards = () => {
 
   useEffect(() => {
     fetchStats();
-    // Refresh data every 30 seconds
-    const interval = setInterval(fetchStats, 30000);
-    return () => clearInterval(interval);
+
+    // Live updates: apply each port change, then re-read the summary once a burst settles
+    let resyncTimer = null;
+    const scheduleResync = () => {
+      clearTimeout(resyncTimer);
+      resyncTimer = setTimeout(() => fetchStats({ silent: true }), 6000);
+    };
+    const events = new EventSource(EVENTS_URL);
+    events.addEventListener('port', (message) => {
+      setStats((prev) => applyPortEvent(prev, JSON.parse(message.data)));
+      scheduleResync();
+    });
+    // The server could not replay what we missed while disconnected
+    events.addEventListener('reset', () => fetchStats({ silent: true }));
+
+    // Slow fallback in case the stream is unavailable
+    const interval = setInterval(() => fetchStats({ silent: true }), 300000);
+    return () => {
+      events.close();
+      clearTimeout(resyncTimer);
+      clearInterval(interval);
+    };
   }, []);
 
   const cardConfigs = [
@@ -0,0 +1,115 @@
+package chargercontrol.userapi.catalog;
+
+import chargercontrol.userapi.model.ChargingType;
+import chargercontrol.userapi.model.Station;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing {@code GET /apiV1/stations} to the response: serializing the
+ * entities on every request (the path before {@link StationCatalogCache}) against
+ * copying the pre-encoded JSON or gzip bytes. The database read the old path also
+ * paid is left out, so the gap shown is a lower bound.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StationCatalogBenchmark {
+
+    @Param({"10000", "100000"})
+    private int stations;
+
+    private ObjectMapper objectMapper;
+    private List<Station> entities;
+    private EncodedCatalog catalog;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        entities = new ArrayList<>(stations);
+        ChargingType[] types = ChargingType.values();
+        for (int i = 0; i < stations; i++) {
+            Station station = new Station();
+            station.setId((long) i + 1);
+            station.setName("Station " + i);
+            station.setLocation("Rua " + i + ", Aveiro");
+            station.setPower(22.0 + i % 5 * 25);
+            station.setLatitude(37.0 + (i % 4000) * 0.001);
+            station.setLongitude(-9.5 + (i / 4000) * 0.01);
+            station.setAvailable(i % 7 != 0);
+            station.setChargingType(types[i % types.length]);
+            entities.add(station);
+        }
+        catalog = StationCatalogCache.encode(objectMapper, entities, 1L);
+    }
+
+    @Benchmark
+    public void serializePerRequest(Blackhole blackhole) throws IOException {
+        objectMapper.writeValue(new BlackholeOutputStream(blackhole), entities);
+    }
+
+    @Benchmark
+    public void cachedJson(Blackhole blackhole) throws IOException {
+        new BlackholeOutputStream(blackhole).write(catalog.body(false));
+    }
+
+    @Benchmark
+    public void cachedGzip(Blackhole blackhole) throws IOException {
+        new BlackholeOutputStream(blackhole).write(catalog.body(true));
+    }
+
+    @Benchmark
+    public EncodedCatalog rebuild() {
+        return StationCatalogCache.encode(objectMapper, entities, 1L);
+    }
+
+    /** Stands in for the servlet output stream; consumes bytes in chunks like a socket buffer would. */
+    private static final class BlackholeOutputStream extends OutputStream {
+
+        private static final int CHUNK = 8192;
+
+        private final Blackhole blackhole;
+        private final byte[] buffer = new byte[CHUNK];
+
+        private BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int pos = offset; pos < offset + length; pos += CHUNK) {
+                int size = Math.min(CHUNK, offset + length - pos);
+                System.arraycopy(bytes, pos, buffer, 0, size);
+                blackhole.consume(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package chargercontrol.userapi.availability;
+
+import java.util.List;
+
+/**
+ * Message a client sends on the availability socket: {@code action} is
+ * {@code subscribe}, {@code unsubscribe} or {@code replace} (swap the whole set,
+ * e.g. when the map viewport moves).
+ */
+record AvailabilityCommand(String action, List<Long> stations) {
+}
@@ -0,0 +1,17 @@
+package chargercontrol.userapi.availability;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Wire form of a {@link StationAvailability}: {@code s} station id, {@code f}
+ * free ports, {@code t} total ports, {@code n} next free time (ISO local date-time,
+ * only when no port is free and the time is known).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+record AvailabilityDelta(long s, int f, int t, String n) {
+
+    static AvailabilityDelta of(StationAvailability availability) {
+        return new AvailabilityDelta(availability.stationId(), availability.freePorts(), availability.totalPorts(),
+                availability.nextFreeAt() != null ? availability.nextFreeAt().toString() : null);
+    }
+}
@@ -0,0 +1,83 @@
+package chargercontrol.userapi.availability;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * WebSocket endpoint at {@value #PATH}. Clients send {@link AvailabilityCommand}s
+ * naming the stations they show, get their current availability straight away
+ * and then a JSON array of {@link AvailabilityDelta}s whenever any of them changes.
+ * One instance serves every session.
+ */
+@Component
+public class AvailabilityEndpoint extends Endpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityEndpoint.class);
+
+    public static final String PATH = "/ws/availability";
+    private static final String CLIENT = AvailabilitySession.class.getName();
+
+    private final AvailabilitySubscriptions subscriptions;
+    private final AvailabilityTracker tracker;
+    private final ObjectMapper objectMapper;
+
+    public AvailabilityEndpoint(AvailabilitySubscriptions subscriptions, AvailabilityTracker tracker,
+            ObjectMapper objectMapper) {
+        this.subscriptions = subscriptions;
+        this.tracker = tracker;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        AvailabilitySession client = new AvailabilitySession(session, subscriptions::failed);
+        session.getUserProperties().put(CLIENT, client);
+        subscriptions.register(client);
+        session.addMessageHandler(String.class, message -> handle(client, message));
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        release(session);
+    }
+
+    @Override
+    public void onError(Session session, Throwable error) {
+        logger.debug("Availability session {} failed: {}", session.getId(), error.getMessage());
+        release(session);
+    }
+
+    void handle(AvailabilitySession client, String message) {
+        AvailabilityCommand command;
+        try {
+            command = objectMapper.readValue(message, AvailabilityCommand.class);
+        } catch (JsonProcessingException e) {
+            logger.debug("Ignoring malformed availability command from {}", client.id());
+            return;
+        }
+        List<Long> stationIds = command.stations() == null ? List.of() : command.stations();
+        String action = command.action() == null ? "" : command.action();
+        switch (action) {
+            case "subscribe" -> subscriptions.send(client, tracker.get(subscriptions.subscribe(client, stationIds)));
+            case "replace" -> subscriptions.send(client, tracker.get(subscriptions.replace(client, stationIds)));
+            case "unsubscribe" -> subscriptions.unsubscribe(client, stationIds);
+            default -> logger.debug("Ignoring unknown availability action '{}' from {}", action, client.id());
+        }
+    }
+
+    private void release(Session session) {
+        Object client = session.getUserProperties().remove(CLIENT);
+        if (client instanceof AvailabilitySession availabilitySession) {
+            subscriptions.remove(availabilitySession);
+        }
+    }
+}
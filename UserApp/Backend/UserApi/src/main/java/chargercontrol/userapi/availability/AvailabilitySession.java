@@ -0,0 +1,90 @@
+package chargercontrol.userapi.availability;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * One connected client of the availability socket.
+ *
+ * Deltas wait in a map keyed by station, so a client that reads slowly only
+ * ever holds the latest delta of each subscribed station. At most one frame is
+ * in flight; the next one, with everything that queued up meanwhile, is sent when
+ * it completes.
+ */
+class AvailabilitySession {
+
+    private final Session session;
+    private final Consumer<AvailabilitySession> onFailure;
+    private final Set<Long> stations = ConcurrentHashMap.newKeySet();
+    private final Map<Long, String> pending = new LinkedHashMap<>();
+    private boolean sending;
+
+    AvailabilitySession(Session session, Consumer<AvailabilitySession> onFailure) {
+        this.session = session;
+        this.onFailure = onFailure;
+    }
+
+    String id() {
+        return session.getId();
+    }
+
+    void close(CloseReason reason) {
+        try {
+            session.close(reason);
+        } catch (IOException | IllegalStateException e) {
+            // Already closed
+        }
+    }
+
+    Set<Long> stations() {
+        return stations;
+    }
+
+    synchronized void offer(Long stationId, String json) {
+        pending.put(stationId, json);
+    }
+
+    synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /** Sends what is pending as one JSON array frame, unless a frame is already in flight. */
+    void flush() {
+        String frame;
+        synchronized (this) {
+            if (sending || pending.isEmpty()) {
+                return;
+            }
+            frame = "[" + String.join(",", pending.values()) + "]";
+            pending.clear();
+            sending = true;
+        }
+        try {
+            session.getAsyncRemote().sendText(frame, this::sent);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                sending = false;
+            }
+            onFailure.accept(this);
+        }
+    }
+
+    private void sent(SendResult result) {
+        synchronized (this) {
+            sending = false;
+        }
+        if (result.isOK()) {
+            flush();
+        } else {
+            onFailure.accept(this);
+        }
+    }
+}
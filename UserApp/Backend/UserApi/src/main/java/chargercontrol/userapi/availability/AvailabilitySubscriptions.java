@@ -0,0 +1,158 @@
+package chargercontrol.userapi.availability;
+
+import chargercontrol.userapi.metrics.MetricsSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.websocket.CloseReason;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Index of which sessions follow which stations.
+ *
+ * A changed station is serialized once and handed to the sessions subscribed
+ * to it through the station → sessions map, so the cost of a change grows with
+ * its subscribers and not with the number of connected clients.
+ */
+@Component
+public class AvailabilitySubscriptions implements MetricsSource {
+
+    private final ObjectMapper objectMapper;
+    private final int maxStationsPerSession;
+    private final Map<Long, Set<AvailabilitySession>> sessionsByStation = new ConcurrentHashMap<>();
+    private final Set<AvailabilitySession> sessions = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public AvailabilitySubscriptions(ObjectMapper objectMapper,
+            @Value("${availability.max-stations-per-session:500}") int maxStationsPerSession) {
+        this.objectMapper = objectMapper;
+        this.maxStationsPerSession = maxStationsPerSession;
+    }
+
+    void register(AvailabilitySession session) {
+        sessions.add(session);
+    }
+
+    void remove(AvailabilitySession session) {
+        if (sessions.remove(session)) {
+            unsubscribe(session, List.copyOf(session.stations()));
+        }
+    }
+
+    /**
+     * Adds {@code stationIds} to the session, up to the per-session limit.
+     *
+     * @return the stations that were not followed before
+     */
+    List<Long> subscribe(AvailabilitySession session, Collection<Long> stationIds) {
+        List<Long> added = new ArrayList<>();
+        for (Long stationId : stationIds) {
+            if (stationId == null || session.stations().size() >= maxStationsPerSession) {
+                continue;
+            }
+            if (session.stations().add(stationId)) {
+                sessionsByStation.computeIfAbsent(stationId, k -> ConcurrentHashMap.newKeySet()).add(session);
+                added.add(stationId);
+            }
+        }
+        return added;
+    }
+
+    void unsubscribe(AvailabilitySession session, Collection<Long> stationIds) {
+        for (Long stationId : stationIds) {
+            if (stationId != null && session.stations().remove(stationId)) {
+                sessionsByStation.computeIfPresent(stationId, (k, followers) -> {
+                    followers.remove(session);
+                    return followers.isEmpty() ? null : followers;
+                });
+            }
+        }
+    }
+
+    /** Makes {@code stationIds} the session's whole subscription; returns the newly added stations. */
+    List<Long> replace(AvailabilitySession session, Collection<Long> stationIds) {
+        Set<Long> wanted = new HashSet<>(stationIds);
+        unsubscribe(session, session.stations().stream().filter(id -> !wanted.contains(id)).toList());
+        return subscribe(session, stationIds);
+    }
+
+    /** Sends {@code availability} to one session, e.g. the current state right after it subscribes. */
+    void send(AvailabilitySession session, Collection<StationAvailability> availability) {
+        for (StationAvailability station : availability) {
+            session.offer(station.stationId(), encode(station));
+        }
+        session.flush();
+    }
+
+    /** Fans changed stations out to their subscribers. */
+    public void publish(Collection<StationAvailability> changed) {
+        Set<AvailabilitySession> touched = new HashSet<>();
+        for (StationAvailability station : changed) {
+            Set<AvailabilitySession> followers = sessionsByStation.get(station.stationId());
+            if (followers == null || followers.isEmpty()) {
+                continue;
+            }
+            String json = encode(station);
+            for (AvailabilitySession session : followers) {
+                session.offer(station.stationId(), json);
+                touched.add(session);
+            }
+            published.increment();
+            delivered.add(followers.size());
+        }
+        touched.forEach(AvailabilitySession::flush);
+    }
+
+    /** Drops a session whose send failed; its client reconnects and subscribes again. */
+    void failed(AvailabilitySession session) {
+        failed.increment();
+        remove(session);
+        session.close(new CloseReason(CloseReason.CloseCodes.GOING_AWAY, "send failed"));
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    int followers(Long stationId) {
+        Set<AvailabilitySession> followers = sessionsByStation.get(stationId);
+        return followers == null ? 0 : followers.size();
+    }
+
+    @Override
+    public String name() {
+        return "availability";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("sessions", sessions.size());
+        metrics.put("followedStations", sessionsByStation.size());
+        metrics.put("published", published.sum());
+        metrics.put("delivered", delivered.sum());
+        metrics.put("sendFailures", failed.sum());
+        return metrics;
+    }
+
+    private String encode(StationAvailability station) {
+        try {
+            return objectMapper.writeValueAsString(AvailabilityDelta.of(station));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode availability of station " + station.stationId(), e);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package chargercontrol.userapi.availability;
+
+import chargercontrol.userapi.event.BookingChangedEvent;
+import chargercontrol.userapi.event.ChargingPortChangedEvent;
+import chargercontrol.userapi.event.StationAvailabilityChangedEvent;
+import chargercontrol.userapi.index.BookingIntervalIndex;
+import chargercontrol.userapi.metrics.MetricsSource;
+import chargercontrol.userapi.model.ChargingPortStatus;
+import chargercontrol.userapi.repository.ChargingPortRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the current {@link StationAvailability} of every station in memory and
+ * pushes the ones that change to {@link AvailabilitySubscriptions}.
+ *
+ * A port counts as free when its status is bookable and the
+ * {@link BookingIntervalIndex} has no booking covering the present. Stations
+ * touched by booking or port events are recomputed every
+ * {@code availability.flush-ms}, from memory. Every
+ * {@code availability.resync-seconds} the port statuses are reloaded with one
+ * query, which picks up OperatorApi edits and bookings that started without an
+ * event, and all stations are recomputed. The changed stations are also
+ * published as a {@link StationAvailabilityChangedEvent}.
+ */
+@Component
+@Order(4)
+public class AvailabilityTracker implements ApplicationRunner, SmartLifecycle, MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityTracker.class);
+
+    /** Statuses whose availability is decided by the port's bookings. */
+    static final Set<ChargingPortStatus> BOOKABLE_STATUSES =
+            EnumSet.of(ChargingPortStatus.AVAILABLE, ChargingPortStatus.OCCUPIED);
+
+    private final ChargingPortRepository chargingPortRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final AvailabilitySubscriptions subscriptions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long flushMillis;
+    private final Duration resyncInterval;
+
+    private final Map<Long, PortState> ports = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> portsByStation = new ConcurrentHashMap<>();
+    private final Map<Long, StationAvailability> stations = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyStations = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder recomputed = new LongAdder();
+    private final LongAdder changed = new LongAdder();
+    private final AtomicLong lastResyncMillis = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public AvailabilityTracker(ChargingPortRepository chargingPortRepository,
+            BookingIntervalIndex bookingIntervalIndex, AvailabilitySubscriptions subscriptions,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${availability.flush-ms:500}") long flushMillis,
+            @Value("${availability.resync-seconds:30}") long resyncSeconds) {
+        this.chargingPortRepository = chargingPortRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.subscriptions = subscriptions;
+        this.eventPublisher = eventPublisher;
+        this.flushMillis = flushMillis;
+        this.resyncInterval = Duration.ofSeconds(resyncSeconds);
+    }
+
+    /** Current availability of the known stations among {@code stationIds}. */
+    public List<StationAvailability> get(Collection<Long> stationIds) {
+        return stationIds.stream().map(stations::get).filter(Objects::nonNull).toList();
+    }
+
+    /** Ids of the known ports of {@code stationId} whose last seen status is {@code status}. */
+    public List<Long> portIds(Long stationId, ChargingPortStatus status) {
+        return portsByStation.getOrDefault(stationId, Set.of()).stream()
+                .map(ports::get)
+                .filter(port -> port != null && port.status() == status)
+                .map(PortState::chargingPortId)
+                .sorted()
+                .toList();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        resync();
+        logger.info("Tracking availability of {} stations", stations.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        PortState port = event.chargingPortId() == null ? null : ports.get(event.chargingPortId());
+        if (port != null) {
+            dirtyStations.add(port.stationId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChargingPortChanged(ChargingPortChangedEvent event) {
+        PortState previous = ports.get(event.chargingPortId());
+        Long stationId = event.stationId() != null ? event.stationId()
+                : previous != null ? previous.stationId() : null;
+        if (stationId == null) {
+            return;
+        }
+        if (event.status() == null) {
+            removePort(event.chargingPortId());
+        } else {
+            putPort(new PortState(event.chargingPortId(), stationId, event.status()));
+        }
+        dirtyStations.add(stationId);
+        if (previous != null && !previous.stationId().equals(stationId)) {
+            dirtyStations.add(previous.stationId());
+        }
+    }
+
+    /** Recomputes the stations touched since the last flush and publishes those that changed. */
+    public void flush() {
+        if (dirtyStations.isEmpty()) {
+            return;
+        }
+        List<Long> stationIds = new ArrayList<>(dirtyStations);
+        dirtyStations.removeAll(stationIds);
+        publish(recompute(stationIds));
+    }
+
+    /** Reloads every port's status and recomputes every station. */
+    public void resync() {
+        long started = System.nanoTime();
+        List<PortState> states = chargingPortRepository.findAllPortStates();
+        Set<Long> present = new HashSet<>();
+        Set<Long> stationIds = new HashSet<>(stations.keySet());
+        for (PortState state : states) {
+            present.add(state.chargingPortId());
+            stationIds.add(state.stationId());
+            putPort(state);
+        }
+        for (Long portId : List.copyOf(ports.keySet())) {
+            if (!present.contains(portId)) {
+                removePort(portId);
+            }
+        }
+        publish(recompute(stationIds));
+        lastResyncMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    synchronized List<StationAvailability> recompute(Collection<Long> stationIds) {
+        List<Long> bookablePorts = new ArrayList<>();
+        for (Long stationId : stationIds) {
+            for (Long portId : portsByStation.getOrDefault(stationId, Set.of())) {
+                PortState port = ports.get(portId);
+                if (port != null && BOOKABLE_STATUSES.contains(port.status())) {
+                    bookablePorts.add(portId);
+                }
+            }
+        }
+        // One query for the ports the index has not loaded yet
+        bookingIntervalIndex.warm(bookablePorts);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StationAvailability> updated = new ArrayList<>();
+        for (Long stationId : stationIds) {
+            StationAvailability current = compute(stationId, now);
+            StationAvailability previous = current.totalPorts() == 0
+                    ? stations.remove(stationId)
+                    : stations.put(stationId, current);
+            recomputed.increment();
+            if (!current.equals(previous) && !(previous == null && current.totalPorts() == 0)) {
+                updated.add(current);
+            }
+        }
+        changed.add(updated.size());
+        return updated;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "availability");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                logger.error("Availability flush failed", e);
+            }
+        }, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                resync();
+            } catch (RuntimeException e) {
+                logger.error("Availability resync failed", e);
+            }
+        }, resyncInterval.toMillis(), resyncInterval.toMillis(), TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public String name() {
+        return "availabilityTracker";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("stations", stations.size());
+        metrics.put("ports", ports.size());
+        metrics.put("recomputed", recomputed.sum());
+        metrics.put("changed", changed.sum());
+        metrics.put("lastResyncMs", lastResyncMillis.get());
+        return metrics;
+    }
+
+    private void publish(List<StationAvailability> updated) {
+        subscriptions.publish(updated);
+        if (!updated.isEmpty()) {
+            eventPublisher.publishEvent(new StationAvailabilityChangedEvent(updated));
+        }
+    }
+
+    private StationAvailability compute(Long stationId, LocalDateTime now) {
+        int free = 0;
+        int total = 0;
+        LocalDateTime nextFree = null;
+        for (Long portId : portsByStation.getOrDefault(stationId, Set.of())) {
+            PortState port = ports.get(portId);
+            if (port == null) {
+                continue;
+            }
+            total++;
+            if (!BOOKABLE_STATUSES.contains(port.status())) {
+                continue;
+            }
+            LocalDateTime freeAt = bookingIntervalIndex.nextFreeAt(portId, now);
+            if (!freeAt.isAfter(now)) {
+                free++;
+            } else if (nextFree == null || freeAt.isBefore(nextFree)) {
+                nextFree = freeAt;
+            }
+        }
+        return new StationAvailability(stationId, free, total, free > 0 ? null : nextFree);
+    }
+
+    private void putPort(PortState state) {
+        PortState previous = ports.put(state.chargingPortId(), state);
+        if (previous != null && !previous.stationId().equals(state.stationId())) {
+            removeFromStation(previous);
+        }
+        portsByStation.computeIfAbsent(state.stationId(), k -> ConcurrentHashMap.newKeySet()).add(state.chargingPortId());
+    }
+
+    private void removePort(Long portId) {
+        PortState previous = ports.remove(portId);
+        if (previous != null) {
+            removeFromStation(previous);
+        }
+    }
+
+    private void removeFromStation(PortState state) {
+        portsByStation.computeIfPresent(state.stationId(), (k, portIds) -> {
+            portIds.remove(state.chargingPortId());
+            return portIds.isEmpty() ? null : portIds;
+        });
+    }
+}
@@ -0,0 +1,7 @@
+package chargercontrol.userapi.availability;
+
+import chargercontrol.userapi.model.ChargingPortStatus;
+
+/** Station and status of one charging port, as tracked by {@link AvailabilityTracker}. */
+public record PortState(Long chargingPortId, Long stationId, ChargingPortStatus status) {
+}
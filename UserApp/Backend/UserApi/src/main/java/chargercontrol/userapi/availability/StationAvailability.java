@@ -0,0 +1,10 @@
+package chargercontrol.userapi.availability;
+
+import java.time.LocalDateTime;
+
+/**
+ * Free ports of a station right now and, when none is free, when the first one
+ * frees up according to its bookings ({@code null} if unknown).
+ */
+public record StationAvailability(Long stationId, int freePorts, int totalPorts, LocalDateTime nextFreeAt) {
+}
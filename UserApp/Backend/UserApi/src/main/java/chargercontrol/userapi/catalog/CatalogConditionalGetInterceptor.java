@@ -0,0 +1,84 @@
+package chargercontrol.userapi.catalog;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Answers conditional GETs of the station catalog with 304 before the
+ * controller, and so any repository, runs.
+ *
+ * The strong ETag is built from the resource's {@link CatalogVersion}, never
+ * from the body. {@code If-None-Match} wins over {@code If-Modified-Since}, as
+ * {@link ServletWebRequest#checkNotModified(String, long)} implements it; a 200
+ * carries both validators. The version is read before the controller loads the
+ * data, so a write in between leaves the client with an older tag than its body,
+ * which costs one extra 200 but never a stale 304. Responses are marked
+ * {@code no-cache} so browsers keep them but always revalidate.
+ */
+@Component
+public class CatalogConditionalGetInterceptor implements HandlerInterceptor {
+
+    static final String STATIONS = "/apiV1/stations";
+    static final String STATION = "/apiV1/stations/{id}";
+    static final String STATION_PORTS = "/apiV1/chargingports/station/{stationId}";
+
+    private final CatalogVersions catalogVersions;
+
+    public CatalogConditionalGetInterceptor(CatalogVersions catalogVersions) {
+        this.catalogVersions = catalogVersions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        String pattern = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        String etag;
+        CatalogVersion version;
+        if (STATIONS.equals(pattern)) {
+            version = catalogVersions.stations();
+            // Codificações diferentes do mesmo recurso precisam de ETags fortes diferentes
+            boolean gzip = EncodedCatalog.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            etag = "stations-" + version.version() + (gzip ? "-gzip" : "");
+        } else if (STATION.equals(pattern)) {
+            Long stationId = pathId(request, "id");
+            if (stationId == null) {
+                return true;
+            }
+            version = catalogVersions.station(stationId);
+            etag = "station-" + stationId + "-" + version.version();
+        } else if (STATION_PORTS.equals(pattern)) {
+            Long stationId = pathId(request, "stationId");
+            if (stationId == null) {
+                return true;
+            }
+            version = catalogVersions.ports(stationId);
+            etag = "ports-" + stationId + "-" + version.version();
+        } else {
+            return true;
+        }
+        // Cacheável, mas sempre revalidado: sem isto o browser usa frescura heurística
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return !new ServletWebRequest(request, response).checkNotModified("\"" + etag + "\"", version.lastModified());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long pathId(HttpServletRequest request, String name) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        try {
+            return variables == null ? null : Long.valueOf(variables.get(name));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package chargercontrol.userapi.catalog;
+
+import chargercontrol.userapi.dto.CatalogChangesDTO;
+import chargercontrol.userapi.dto.CatalogChangesDTO.PortSummary;
+import chargercontrol.userapi.dto.CatalogChangesDTO.StationSummary;
+import chargercontrol.userapi.model.CatalogChange;
+import chargercontrol.userapi.model.CatalogEntityType;
+import chargercontrol.userapi.repository.CatalogChangeRepository;
+import chargercontrol.userapi.repository.ChargingPortRepository;
+import chargercontrol.userapi.repository.StationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Answers "what changed in the station catalog since version N" from
+ * {@code catalog_changes}.
+ *
+ * Versions are auto-increment ids, handed out when a write starts but visible
+ * only once it commits, so a slower transaction can still fill a gap below the
+ * newest id. The version returned therefore stops before a gap until it is
+ * {@code catalog.sync.settle-seconds} old; changes past it are sent anyway and
+ * simply sent again next time, which is harmless because every entry is the
+ * entity's current state. Old rows are pruned by the catalog changes cleanup
+ * job, so a version from before the oldest row left gets the whole catalog.
+ */
+@Service
+public class CatalogSyncService {
+
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final StationRepository stationRepository;
+    private final ChargingPortRepository chargingPortRepository;
+    private final int maxChanges;
+    private final Duration settle;
+
+    public CatalogSyncService(CatalogChangeRepository catalogChangeRepository, StationRepository stationRepository,
+            ChargingPortRepository chargingPortRepository,
+            @Value("${catalog.sync.max-changes:1000}") int maxChanges,
+            @Value("${catalog.sync.settle-seconds:10}") long settleSeconds) {
+        this.catalogChangeRepository = catalogChangeRepository;
+        this.stationRepository = stationRepository;
+        this.chargingPortRepository = chargingPortRepository;
+        this.maxChanges = maxChanges;
+        this.settle = Duration.ofSeconds(settleSeconds);
+    }
+
+    /** Changes after {@code since}; the whole catalog when {@code since} is 0. */
+    @Transactional(readOnly = true)
+    public CatalogChangesDTO changesSince(long since) {
+        if (since <= 0 || isPruned(since)) {
+            return snapshot();
+        }
+        List<CatalogChange> changes = catalogChangeRepository.findAfter(since, PageRequest.of(0, maxChanges));
+        if (changes.isEmpty()) {
+            return new CatalogChangesDTO(since, false, false, List.of(), List.of(), List.of(), List.of());
+        }
+
+        Set<Long> stationIds = new LinkedHashSet<>();
+        Set<Long> portIds = new LinkedHashSet<>();
+        for (CatalogChange change : changes) {
+            (change.getEntityType() == CatalogEntityType.STATION ? stationIds : portIds).add(change.getEntityId());
+        }
+
+        List<StationSummary> stations = stationRepository.findAllById(stationIds).stream()
+                .map(StationSummary::new)
+                .toList();
+        List<PortSummary> ports = chargingPortRepository.findAllById(portIds).stream()
+                .map(PortSummary::new)
+                .toList();
+        // Whatever no longer exists was deleted, whichever write came last
+        stations.forEach(station -> stationIds.remove(station.getId()));
+        ports.forEach(port -> portIds.remove(port.getId()));
+
+        long version = settledVersion(since, changes, LocalDateTime.now().minus(settle));
+        boolean hasMore = changes.size() == maxChanges && version == changes.get(changes.size() - 1).getId();
+        return new CatalogChangesDTO(version, false, hasMore, stations, ports,
+                new ArrayList<>(stationIds), new ArrayList<>(portIds));
+    }
+
+    // The cleanup job removes every row up to a version, so whatever follows since may be gone
+    private boolean isPruned(long since) {
+        Long oldest = catalogChangeRepository.findOldestVersion();
+        return oldest != null && since < oldest - 1;
+    }
+
+    private CatalogChangesDTO snapshot() {
+        // Read the version first and keep it behind recent writes: those are sent again next time
+        long version = catalogChangeRepository.findLatestVersionBefore(LocalDateTime.now().minus(settle));
+        List<StationSummary> stations = stationRepository.findAll().stream().map(StationSummary::new).toList();
+        List<PortSummary> ports = chargingPortRepository.findAll().stream().map(PortSummary::new).toList();
+        return new CatalogChangesDTO(version, true, false, stations, ports, List.of(), List.of());
+    }
+
+    /**
+     * Highest version up to which no recent gap could still be filled by a running
+     * transaction; {@code changes} are the rows after {@code since}, in id order.
+     */
+    static long settledVersion(long since, List<CatalogChange> changes, LocalDateTime settledBefore) {
+        long version = since;
+        for (CatalogChange change : changes) {
+            if (change.getId() != version + 1 && change.getChangedAt().isAfter(settledBefore)) {
+                break;
+            }
+            version = change.getId();
+        }
+        return version;
+    }
+}
@@ -0,0 +1,24 @@
+package chargercontrol.userapi.catalog;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Version of one catalog resource: the id of the newest {@code catalog_changes}
+ * row that touched it, and when that row was written. {@link #NONE} when no
+ * change has been recorded since the log was introduced; without a time when the
+ * rows that touched it have been pruned.
+ */
+public record CatalogVersion(long version, LocalDateTime changedAt) {
+
+    public static final CatalogVersion NONE = new CatalogVersion(0, null);
+
+    public CatalogVersion max(CatalogVersion other) {
+        return other != null && other.version > version ? other : this;
+    }
+
+    /** Epoch millis for {@code Last-Modified}, or -1 when unknown. */
+    public long lastModified() {
+        return changedAt == null ? -1 : changedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
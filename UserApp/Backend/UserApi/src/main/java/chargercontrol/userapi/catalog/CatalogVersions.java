@@ -0,0 +1,228 @@
+package chargercontrol.userapi.catalog;
+
+import chargercontrol.userapi.metrics.MetricsSource;
+import chargercontrol.userapi.model.CatalogChange;
+import chargercontrol.userapi.model.CatalogEntityType;
+import chargercontrol.userapi.repository.CatalogChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory versions of the catalog resources, so a conditional GET can be
+ * answered without touching the stations or ports tables.
+ *
+ * Versions come from {@code catalog_changes}: the station list follows station
+ * changes, a station follows its own changes and a station's port list follows
+ * the changes of its ports. They are loaded at startup and kept current by
+ * reading the new rows after every local commit that wrote some, and every
+ * {@code catalog.versions.refresh-ms} for writes made by other instances and by
+ * the OperatorApi. As in {@link CatalogSyncService}, rows after a recent gap are
+ * read again until it settles, so a late commit is never skipped. A resource
+ * whose rows were all pruned by the cleanup job gets the version just before the
+ * oldest row left, so its version never goes back to one already handed out.
+ */
+@Component
+@Order(5)
+public class CatalogVersions implements ApplicationRunner, SmartLifecycle, MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogVersions.class);
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long refreshMillis;
+    private final Duration settle;
+
+    private final AtomicReference<CatalogVersion> stations = new AtomicReference<>(CatalogVersion.NONE);
+    private final Map<Long, CatalogVersion> stationVersions = new ConcurrentHashMap<>();
+    private final Map<Long, CatalogVersion> portVersions = new ConcurrentHashMap<>();
+    // Ports gravados sem estação conhecida invalidam todas as listas de ports
+    private final AtomicReference<CatalogVersion> unassignedPorts = new AtomicReference<>(CatalogVersion.NONE);
+    private volatile CatalogVersion pruned = CatalogVersion.NONE;
+    private volatile long watermark;
+
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder changesRead = new LongAdder();
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public CatalogVersions(CatalogChangeRepository catalogChangeRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${catalog.versions.refresh-ms:1000}") long refreshMillis,
+            @Value("${catalog.sync.settle-seconds:10}") long settleSeconds) {
+        this.catalogChangeRepository = catalogChangeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.refreshMillis = refreshMillis;
+        this.settle = Duration.ofSeconds(settleSeconds);
+    }
+
+    public CatalogVersion stations() {
+        return stations.get();
+    }
+
+    public CatalogVersion station(Long stationId) {
+        return stationVersions.getOrDefault(stationId, pruned);
+    }
+
+    public CatalogVersion ports(Long stationId) {
+        return portVersions.getOrDefault(stationId, pruned).max(unassignedPorts.get());
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        load();
+        logger.info("Loaded catalog versions of {} stations up to change {}", stationVersions.size(), watermark);
+    }
+
+    /** Loads the newest version of every resource from the whole log. */
+    public synchronized void load() {
+        LocalDateTime settledBefore = LocalDateTime.now().minus(settle);
+        transactionTemplate.executeWithoutResult(status -> {
+            watermark = catalogChangeRepository.findLatestVersionBefore(settledBefore);
+            Long oldest = catalogChangeRepository.findOldestVersion();
+            if (oldest != null && oldest > 1) {
+                pruned = new CatalogVersion(oldest - 1, null);
+                stations.accumulateAndGet(pruned, CatalogVersion::max);
+            }
+            for (StationChangeVersion row : catalogChangeRepository.findVersionsByStation()) {
+                apply(row.entityType(), row.stationId(), new CatalogVersion(row.version(), row.changedAt()));
+            }
+        });
+    }
+
+    /** Reads the log rows after the settled watermark. */
+    public synchronized void refresh() {
+        refreshes.increment();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<CatalogChange> changes;
+            do {
+                changes = catalogChangeRepository.findAfter(watermark, PageRequest.of(0, PAGE_SIZE));
+                for (CatalogChange change : changes) {
+                    apply(change.getEntityType(), change.getStationId(),
+                            new CatalogVersion(change.getId(), change.getChangedAt()));
+                }
+                changesRead.add(changes.size());
+                long settled = CatalogSyncService.settledVersion(watermark, changes,
+                        LocalDateTime.now().minus(settle));
+                if (settled == watermark) {
+                    break;
+                }
+                watermark = settled;
+            } while (changes.size() == PAGE_SIZE);
+        });
+    }
+
+    /**
+     * Refreshes once the running transaction commits, or right away without one.
+     * Called for every recorded change; a transaction registers a single refresh.
+     */
+    public void refreshAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshQuietly();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CatalogVersions.this);
+                if (status == STATUS_COMMITTED) {
+                    refreshQuietly();
+                }
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-versions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::refreshQuietly, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public String name() {
+        return "catalogVersions";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("stationsVersion", stations.get().version());
+        metrics.put("stations", stationVersions.size());
+        metrics.put("watermark", watermark);
+        metrics.put("refreshes", refreshes.sum());
+        metrics.put("changesRead", changesRead.sum());
+        return metrics;
+    }
+
+    private void apply(CatalogEntityType type, Long stationId, CatalogVersion version) {
+        if (type == CatalogEntityType.STATION) {
+            stations.accumulateAndGet(version, CatalogVersion::max);
+            if (stationId != null) {
+                stationVersions.merge(stationId, version, CatalogVersion::max);
+            }
+        } else if (stationId != null) {
+            portVersions.merge(stationId, version, CatalogVersion::max);
+        } else {
+            unassignedPorts.accumulateAndGet(version, CatalogVersion::max);
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // The next scheduled refresh catches up
+            logger.error("Catalog version refresh failed: {}", e.getMessage());
+        }
+    }
+}
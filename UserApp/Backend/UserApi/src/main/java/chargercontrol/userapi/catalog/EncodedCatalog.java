@@ -0,0 +1,28 @@
+package chargercontrol.userapi.catalog;
+
+import java.time.Instant;
+
+/**
+ * The station list already serialized, as plain JSON and gzip. Built once per
+ * catalog version and shared by every request; the arrays are never modified.
+ */
+public record EncodedCatalog(long version, int stations, byte[] json, byte[] gzip, Instant builtAt) {
+
+    public byte[] body(boolean gzipped) {
+        return gzipped ? gzip : json;
+    }
+
+    /** Whether an {@code Accept-Encoding} header allows gzip (and does not refuse it with q=0). */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,190 @@
+package chargercontrol.userapi.catalog;
+
+import chargercontrol.userapi.metrics.MetricsSource;
+import chargercontrol.userapi.model.Station;
+import chargercontrol.userapi.repository.StationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps {@code GET /apiV1/stations} as pre-encoded bytes, so serving it is a copy
+ * instead of a full table read plus Jackson serialization per request.
+ *
+ * The bytes are tagged with the {@link CatalogVersions#stations()} version they
+ * were built from. A request that finds a newer version rebuilds first, so a
+ * client never reads the list from before its own write; other requests wait for
+ * that one build instead of starting their own. In the background the list is
+ * rebuilt as soon as the version moves and {@code catalog.cache.refresh-ahead-seconds}
+ * before {@code catalog.cache.ttl-seconds} run out, so requests rarely wait. The
+ * TTL only bounds writes the change log cannot see, such as manual SQL.
+ */
+@Component
+public class StationCatalogCache implements SmartLifecycle, MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationCatalogCache.class);
+
+    private final StationRepository stationRepository;
+    private final CatalogVersions catalogVersions;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration refreshAhead;
+    private final long checkMillis;
+
+    private final AtomicReference<EncodedCatalog> current = new AtomicReference<>();
+    private final Object buildLock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+    private final AtomicLong lastBuildMillis = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public StationCatalogCache(StationRepository stationRepository, CatalogVersions catalogVersions,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            @Value("${catalog.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${catalog.cache.refresh-ahead-seconds:60}") long refreshAheadSeconds,
+            @Value("${catalog.cache.check-ms:500}") long checkMillis) {
+        this.stationRepository = stationRepository;
+        this.catalogVersions = catalogVersions;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.refreshAhead = Duration.ofSeconds(Math.min(refreshAheadSeconds, ttlSeconds));
+        this.checkMillis = checkMillis;
+    }
+
+    /** The encoded list, rebuilt first if it is older than the current version or expired. */
+    public EncodedCatalog get() {
+        long version = catalogVersions.stations().version();
+        EncodedCatalog catalog = current.get();
+        if (isFresh(catalog, version, ttl)) {
+            hits.increment();
+            return catalog;
+        }
+        waits.increment();
+        return rebuild(version, ttl);
+    }
+
+    /** Background check: rebuilds when the version moved or expiry is near. */
+    public void refreshAhead() {
+        long version = catalogVersions.stations().version();
+        if (!isFresh(current.get(), version, ttl.minus(refreshAhead))) {
+            rebuild(version, ttl.minus(refreshAhead));
+        }
+    }
+
+    /** Serializes {@code stations} once as JSON and once as gzip. */
+    static EncodedCatalog encode(ObjectMapper objectMapper, List<Station> stations, long version) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(stations);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer, 8192)) {
+                gzip.write(json);
+            }
+            return new EncodedCatalog(version, stations.size(), json, buffer.toByteArray(), Instant.now());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode the station catalog", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "station-catalog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                refreshAhead();
+            } catch (RuntimeException e) {
+                logger.error("Station catalog refresh failed: {}", e.getMessage());
+            }
+        }, 0, checkMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public String name() {
+        return "stationCatalog";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        EncodedCatalog catalog = current.get();
+        metrics.put("version", catalog == null ? null : catalog.version());
+        metrics.put("stations", catalog == null ? 0 : catalog.stations());
+        metrics.put("jsonBytes", catalog == null ? 0 : catalog.json().length);
+        metrics.put("gzipBytes", catalog == null ? 0 : catalog.gzip().length);
+        metrics.put("hits", hits.sum());
+        metrics.put("waitedForBuild", waits.sum());
+        metrics.put("builds", builds.sum());
+        metrics.put("lastBuildMs", lastBuildMillis.get());
+        return metrics;
+    }
+
+    private EncodedCatalog rebuild(long version, Duration maxAge) {
+        synchronized (buildLock) {
+            // Whoever held the lock may already have built what we need
+            EncodedCatalog catalog = current.get();
+            if (isFresh(catalog, version, maxAge)) {
+                return catalog;
+            }
+            long started = System.nanoTime();
+            List<Station> stations = transactionTemplate.execute(status -> stationRepository.findAll());
+            catalog = encode(objectMapper, stations, version);
+            current.set(catalog);
+            builds.increment();
+            lastBuildMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return catalog;
+        }
+    }
+
+    private static boolean isFresh(EncodedCatalog catalog, long version, Duration maxAge) {
+        return catalog != null && catalog.version() >= version
+                && catalog.builtAt().plus(maxAge).isAfter(Instant.now());
+    }
+}
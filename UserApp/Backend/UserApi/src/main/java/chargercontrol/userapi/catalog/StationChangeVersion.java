@@ -0,0 +1,9 @@
+package chargercontrol.userapi.catalog;
+
+import chargercontrol.userapi.model.CatalogEntityType;
+
+import java.time.LocalDateTime;
+
+/** Newest change of one entity type per station, as loaded at startup. */
+public record StationChangeVersion(CatalogEntityType entityType, Long stationId, Long version, LocalDateTime changedAt) {
+}
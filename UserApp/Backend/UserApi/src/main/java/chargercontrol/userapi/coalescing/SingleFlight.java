@@ -0,0 +1,100 @@
+package chargercontrol.userapi.coalescing;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads into one: the first caller for a key runs
+ * the loader and every caller that arrives while it runs gets the same result,
+ * or the same exception. Nothing is kept once the load finishes; this is not a cache.
+ *
+ * Callers share the returned object and must not modify it. A caller inside a
+ * read-write transaction bypasses the group and loads on its own, since it must
+ * see its own uncommitted writes. The loader should not run inside a
+ * transaction started just to wait here: waiting callers would each hold a
+ * pooled connection while the one doing the work needs one too.
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        calls.increment();
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            bypassed.increment();
+            return loader.get();
+        }
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            shared.increment();
+            return await(running);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    Map<String, Object> metrics() {
+        long callCount = calls.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("calls", callCount);
+        metrics.put("loads", loads.sum());
+        metrics.put("shared", shared.sum());
+        metrics.put("bypassed", bypassed.sum());
+        metrics.put("inFlight", inFlight.size());
+        // Fração das chamadas servidas pela carga de outra
+        metrics.put("coalescingRatio", callCount == 0 ? 0.0 : (double) shared.sum() / callCount);
+        return metrics;
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
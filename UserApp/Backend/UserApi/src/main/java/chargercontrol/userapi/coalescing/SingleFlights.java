@@ -0,0 +1,35 @@
+package chargercontrol.userapi.coalescing;
+
+import chargercontrol.userapi.metrics.MetricsSource;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the {@link SingleFlight} groups of the read services and reports
+ * their counters, including how many calls were served by another call's load.
+ */
+@Component
+public class SingleFlights implements MetricsSource {
+
+    private final Map<String, SingleFlight<?, ?>> groups = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <K, V> SingleFlight<K, V> group(String name) {
+        return (SingleFlight<K, V>) groups.computeIfAbsent(name, SingleFlight::new);
+    }
+
+    @Override
+    public String name() {
+        return "singleFlight";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        groups.forEach((name, group) -> metrics.put(name, group.metrics()));
+        return metrics;
+    }
+}
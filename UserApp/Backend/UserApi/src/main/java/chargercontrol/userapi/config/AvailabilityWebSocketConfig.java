@@ -0,0 +1,65 @@
+package chargercontrol.userapi.config;
+
+import chargercontrol.userapi.availability.AvailabilityEndpoint;
+import jakarta.servlet.ServletContext;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.ServletContextAware;
+
+/**
+ * Registers {@link AvailabilityEndpoint} with the servlet container's JSR-356
+ * WebSocket support (Tomcat's, which comes with spring-boot-starter-web), using
+ * the Spring bean as the endpoint instance for every session.
+ */
+@Configuration
+public class AvailabilityWebSocketConfig implements ServletContextAware, SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityWebSocketConfig.class);
+
+    private final AvailabilityEndpoint availabilityEndpoint;
+    private ServletContext servletContext;
+
+    public AvailabilityWebSocketConfig(AvailabilityEndpoint availabilityEndpoint) {
+        this.availabilityEndpoint = availabilityEndpoint;
+    }
+
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        this.servletContext = servletContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ServerContainer container = servletContext == null ? null
+                : (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+        if (container == null) {
+            // Sem servidor real (p.ex. testes com MockMvc)
+            logger.info("No WebSocket container; {} not registered", AvailabilityEndpoint.PATH);
+            return;
+        }
+        ServerEndpointConfig config = ServerEndpointConfig.Builder
+                .create(AvailabilityEndpoint.class, AvailabilityEndpoint.PATH)
+                .configurator(new ServerEndpointConfig.Configurator() {
+                    @Override
+                    public <T> T getEndpointInstance(Class<T> endpointClass) {
+                        return endpointClass.cast(availabilityEndpoint);
+                    }
+
+                    @Override
+                    public boolean checkOrigin(String originHeaderValue) {
+                        return originHeaderValue == null || SecurityConfig.ALLOWED_ORIGINS.contains(originHeaderValue);
+                    }
+                })
+                .build();
+        try {
+            container.addEndpoint(config);
+        } catch (DeploymentException e) {
+            throw new IllegalStateException("Could not register " + AvailabilityEndpoint.PATH, e);
+        }
+    }
+}
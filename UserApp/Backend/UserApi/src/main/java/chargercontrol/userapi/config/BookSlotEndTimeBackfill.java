@@ -0,0 +1,52 @@
+package chargercontrol.userapi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Fills {@code book_slots.end_time} for rows written before the column existed.
+ * The end time is computed in Java so the same code runs on MySQL and H2.
+ */
+@Component
+@Order(1)
+public class BookSlotEndTimeBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSlotEndTimeBackfill.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookSlotEndTimeBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int total = 0;
+        List<Object[]> batch;
+        do {
+            batch = jdbcTemplate.query(
+                    "SELECT id, booking_time, duration FROM book_slots WHERE end_time IS NULL LIMIT " + BATCH_SIZE,
+                    (rs, rowNum) -> new Object[] {
+                            Timestamp.valueOf(rs.getTimestamp("booking_time").toLocalDateTime()
+                                    .plusMinutes(rs.getInt("duration"))),
+                            rs.getLong("id") });
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE book_slots SET end_time = ? WHERE id = ?", batch);
+                total += batch.size();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        if (total > 0) {
+            logger.info("Backfilled end_time for {} bookings", total);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package chargercontrol.userapi.config;
+
+import chargercontrol.userapi.index.BookingIntervalIndex;
+import chargercontrol.userapi.service.SlotReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reserves the slot buckets of blocking bookings written before
+ * {@code port_slot_reservations} existed. Runs after {@link BookSlotEndTimeBackfill},
+ * which it needs for {@code end_time}.
+ */
+@Component
+@Order(2)
+public class SlotReservationBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotReservationBackfill.class);
+
+    private final SlotReservationService slotReservationService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public SlotReservationBackfill(SlotReservationService slotReservationService, JdbcTemplate jdbcTemplate) {
+        this.slotReservationService = slotReservationService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String statuses = BookingIntervalIndex.BLOCKING_STATUSES.stream()
+                .map(status -> "'" + status.name() + "'")
+                .collect(Collectors.joining(", "));
+        List<Object[]> bookings = jdbcTemplate.query(
+                "SELECT b.id, b.charging_port_id, b.booking_time, b.end_time FROM book_slots b " +
+                        "WHERE b.status IN (" + statuses + ") AND b.end_time > ? " +
+                        "AND NOT EXISTS (SELECT 1 FROM port_slot_reservations r WHERE r.book_slot_id = b.id)",
+                (rs, rowNum) -> new Object[] {
+                        rs.getLong("id"), rs.getLong("charging_port_id"),
+                        rs.getTimestamp("booking_time").toLocalDateTime(),
+                        rs.getTimestamp("end_time").toLocalDateTime() },
+                Timestamp.valueOf(LocalDateTime.now()));
+
+        int conflicts = 0;
+        for (Object[] booking : bookings) {
+            if (!slotReservationService.reserve((Long) booking[0], (Long) booking[1],
+                    (LocalDateTime) booking[2], (LocalDateTime) booking[3])) {
+                conflicts++;
+                logger.warn("Booking {} overlaps an existing reservation on charging port {}", booking[0], booking[1]);
+            }
+        }
+        if (!bookings.isEmpty()) {
+            logger.info("Slot reservations: backfilled {} bookings ({} conflicts)",
+                    bookings.size() - conflicts, conflicts);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package chargercontrol.userapi.config;
+
+import chargercontrol.userapi.catalog.CatalogConditionalGetInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CatalogConditionalGetInterceptor catalogConditionalGetInterceptor;
+
+    public WebConfig(CatalogConditionalGetInterceptor catalogConditionalGetInterceptor) {
+        this.catalogConditionalGetInterceptor = catalogConditionalGetInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Conditional GET (ETag / Last-Modified) dos recursos do catálogo
+        registry.addInterceptor(catalogConditionalGetInterceptor)
+                .addPathPatterns("/apiV1/stations", "/apiV1/stations/*", "/apiV1/chargingports/station/*");
+    }
+}
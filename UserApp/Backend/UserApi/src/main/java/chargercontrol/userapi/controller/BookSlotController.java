@@ -1,6 +1,13 @@
 package chargercontrol.userapi.controller;
 
+import chargercontrol.userapi.dto.BookingStatsDTO;
+import chargercontrol.userapi.dto.BookingSummaryDTO;
+import chargercontrol.userapi.dto.FreeBusyDTO;
+import chargercontrol.userapi.idempotency.IdempotencyService;
 import chargercontrol.userapi.model.*;
+import chargercontrol.userapi.pagination.CursorPage;
+import chargercontrol.userapi.pagination.KeysetCursor;
+import chargercontrol.userapi.pipeline.BookingPipeline;
 import chargercontrol.userapi.service.BookSlotService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,8 +26,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/apiV1/bookings")
@@ -30,19 +42,43 @@ public class BookSlotController {
     private static final Logger logger = LoggerFactory.getLogger(BookSlotController.class);
 
     private final BookSlotService bookSlotService;
+    private final BookingPipeline bookingPipeline;
+    private final IdempotencyService idempotencyService;
 
-    public BookSlotController(BookSlotService bookSlotService) {
+    public BookSlotController(BookSlotService bookSlotService, BookingPipeline bookingPipeline,
+            IdempotencyService idempotencyService) {
         this.bookSlotService = bookSlotService;
+        this.bookingPipeline = bookingPipeline;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping
     @Operation(summary = "Create a new booking", responses = {
             @ApiResponse(responseCode = "201", description = "Booking created successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookSlot.class))),
-            @ApiResponse(responseCode = "400", description = "Invalid booking data")
+            @ApiResponse(responseCode = "400", description = "Invalid booking data"),
+            @ApiResponse(responseCode = "401", description = "Idempotency key sent without an authenticated user"),
+            @ApiResponse(responseCode = "422", description = "Idempotency key was already used for a different booking")
     })
-    public ResponseEntity<BookSlot> createBooking(@Valid @RequestBody BookRequest bookRequest) {
+    public ResponseEntity<BookSlot> createBooking(@Valid @RequestBody BookRequest bookRequest,
+            @Parameter(description = "Client-generated key; retries with the same key return the original booking")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Parameter(hidden = true) Principal principal) {
+        if (idempotencyKey == null) {
+            return doCreateBooking(bookRequest);
+        }
+        // A chave pertence ao utilizador do JWT, não ao userId do body, que o cliente controla
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return idempotencyService.execute("booking", principal.getName(), idempotencyKey,
+                bookRequest, BookSlot.class, true, () -> doCreateBooking(bookRequest));
+    }
+
+    private ResponseEntity<BookSlot> doCreateBooking(BookRequest bookRequest) {
         try {
-            BookSlot newBooking = bookSlotService.createBookingWithValidation(bookRequest);
+            BookSlot newBooking = bookingPipeline.isEnabled()
+                    ? createThroughPipeline(bookRequest)
+                    : bookSlotService.createBookingWithValidation(bookRequest);
             return new ResponseEntity<>(newBooking, HttpStatus.CREATED);
         } catch (RuntimeException e) {
             logger.error("Booking creation failed: {}", e.getMessage(), e);
@@ -50,6 +86,29 @@ public class BookSlotController {
         }
     }
 
+    private BookSlot createThroughPipeline(BookRequest bookRequest) {
+        CompletableFuture<BookSlot> future = bookingPipeline.submit(bookRequest);
+        try {
+            try {
+                return future.get(bookingPipeline.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Ainda na fila: retira-o para não ser gravado depois do erro ao cliente
+                if (future.cancel(false)) {
+                    throw new RuntimeException(
+                            "Booking was not processed within " + bookingPipeline.getTimeoutMillis() + " ms", e);
+                }
+                // Já está a ser gravado pelo writer: espera pelo resultado do batch
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new RuntimeException("Interrupted while waiting for the booking", e);
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get booking by ID", responses = {
             @ApiResponse(responseCode = "200", description = "Booking found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookSlot.class))),
@@ -63,22 +122,50 @@ public class BookSlotController {
     }
 
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Get bookings by user ID", responses = {
-            @ApiResponse(responseCode = "200", description = "Bookings found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookSlot.class)))
+    @Operation(summary = "Get bookings by user ID, newest first",
+            description = "Keyset-paginated: when more bookings exist, the X-Next-Cursor header (and Link rel=\"next\") holds the cursor of the next page",
+            responses = {
+            @ApiResponse(responseCode = "200", description = "Bookings found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookingSummaryDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<List<BookSlot>> getBookingsByUserId(
-            @Parameter(description = "ID of the user whose bookings to retrieve") @PathVariable Long userId) {
-        List<BookSlot> bookings = bookSlotService.getBookingsByUserId(userId);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingSummaryDTO>> getBookingsByUserId(
+            @Parameter(description = "ID of the user whose bookings to retrieve") @PathVariable Long userId,
+            @Parameter(description = "Cursor from the previous page's X-Next-Cursor header") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 100, max 500)") @RequestParam(required = false) Integer limit) {
+        try {
+            KeysetCursor after = cursor == null ? null : KeysetCursor.decode(cursor);
+            return bookSlotService.getBookingsByUserId(userId, after, CursorPage.clampLimit(limit)).toResponse();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/user/{userId}/stats")
+    @Operation(summary = "Get totals over a user's whole booking history",
+            description = "Counts per status, month and car, average duration and latest booking, computed in the database",
+            responses = {
+            @ApiResponse(responseCode = "200", description = "Statistics computed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookingStatsDTO.class))),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<BookingStatsDTO> getBookingStatsByUserId(
+            @Parameter(description = "ID of the user whose bookings to summarize") @PathVariable Long userId) {
+        try {
+            return ResponseEntity.ok(bookSlotService.getBookingStatsByUserId(userId));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @GetMapping("/station/{chargingPortId}")
     @Operation(summary = "Get bookings by station ID", responses = {
-            @ApiResponse(responseCode = "200", description = "Bookings found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookSlot.class)))
+            @ApiResponse(responseCode = "200", description = "Bookings found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookingSummaryDTO.class)))
     })
-    public ResponseEntity<List<BookSlot>> getBookingsByStationId(
+    public ResponseEntity<List<BookingSummaryDTO>> getBookingsByStationId(
             @Parameter(description = "ID of the station whose bookings to retrieve") @PathVariable Long chargingPortId) {
-        List<BookSlot> bookings = bookSlotService.getBookingsByChargingPortId(chargingPortId);
+        List<BookingSummaryDTO> bookings = bookSlotService.getBookingsByChargingPortId(chargingPortId);
         return ResponseEntity.ok(bookings);
     }
 
@@ -95,6 +182,43 @@ public class BookSlotController {
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping("/availability/port/{chargingPortId}")
+    @Operation(summary = "Get the free/busy calendar of a charging port", responses = {
+            @ApiResponse(responseCode = "200", description = "Free/busy calendar", content = @Content(mediaType = "application/json", schema = @Schema(implementation = FreeBusyDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid time range"),
+            @ApiResponse(responseCode = "404", description = "Charging port not found")
+    })
+    public ResponseEntity<FreeBusyDTO> getPortAvailability(
+            @Parameter(description = "ID of the charging port") @PathVariable Long chargingPortId,
+            @Parameter(description = "Start of the window (ISO DATE_TIME format)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @Parameter(description = "End of the window (ISO DATE_TIME format), at most 7 days after the start") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+        try {
+            return ResponseEntity.ok(bookSlotService.getFreeBusy(chargingPortId, startTime, endTime));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (RuntimeException e) {
+            logger.error("Failed to build availability calendar: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    @GetMapping("/availability/station/{stationId}")
+    @Operation(summary = "Get the charging ports of a station that are free for a time slot", responses = {
+            @ApiResponse(responseCode = "200", description = "IDs of the free charging ports"),
+            @ApiResponse(responseCode = "400", description = "Invalid duration")
+    })
+    public ResponseEntity<List<Long>> getStationAvailability(
+            @Parameter(description = "ID of the station") @PathVariable Long stationId,
+            @Parameter(description = "Start of the slot (ISO DATE_TIME format)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @Parameter(description = "Duration of the slot in minutes") @RequestParam Integer duration) {
+        try {
+            return ResponseEntity.ok(bookSlotService.getFreeChargingPortIds(stationId, startTime, duration));
+        } catch (RuntimeException e) {
+            logger.error("Failed to check station availability: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
     @PutMapping("/{id}/status")
 @Operation(summary = "Update booking status", responses = {
         @ApiResponse(responseCode = "200", description = "Booking status updated successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookSlot.class))),
@@ -3,6 +3,8 @@ package chargercontrol.userapi.controller;
 import chargercontrol.userapi.dto.CarResponseDTO;
 import chargercontrol.userapi.model.Car;
 import chargercontrol.userapi.model.User;
+import chargercontrol.userapi.pagination.CursorPage;
+import chargercontrol.userapi.pagination.KeysetCursor;
 import chargercontrol.userapi.service.CarService;
 import chargercontrol.userapi.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -120,22 +122,28 @@ public class CarController {
 
     @GetMapping("/all")
     @Operation(summary = "Get all cars", 
-              description = "Retrieve all cars in the system",
+              description = "Retrieve cars in id order, one keyset page at a time. When more cars exist, the "
+                      + "X-Next-Cursor header (and Link rel=\"next\") holds the cursor of the next page.",
               responses = {
                   @ApiResponse(responseCode = "200", 
                              description = "Cars retrieved successfully", 
                              content = @Content(mediaType = "application/json", 
                                              schema = @Schema(implementation = CarResponseDTO.class))),
+                  @ApiResponse(responseCode = "400",
+                             description = "Invalid cursor"),
                   @ApiResponse(responseCode = "500", 
                              description = "Internal server error")
               })
-    public ResponseEntity<List<CarResponseDTO>> getAllCars() {
+    public ResponseEntity<List<CarResponseDTO>> getAllCars(
+            @Parameter(description = "Cursor from the previous page's X-Next-Cursor header")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 100, max 500)")
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Car> cars = carService.getAllCars();
-            List<CarResponseDTO> carDTOs = cars.stream()
-                    .map(CarResponseDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(carDTOs);
+            KeysetCursor after = cursor == null ? null : KeysetCursor.decode(cursor);
+            return carService.getCarsPage(after, CursorPage.clampLimit(limit)).map(CarResponseDTO::new).toResponse();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving all cars", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,75 @@
+package chargercontrol.userapi.controller;
+
+import chargercontrol.userapi.dto.JobStatusDTO;
+import chargercontrol.userapi.job.JobRunner;
+import chargercontrol.userapi.job.ScheduledJob;
+import chargercontrol.userapi.model.JobLease;
+import chargercontrol.userapi.model.JobRun;
+import chargercontrol.userapi.repository.JobLeaseRepository;
+import chargercontrol.userapi.repository.JobRunRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/apiV1/jobs")
+@Tag(name = "Jobs", description = "Status of background jobs")
+public class JobController {
+
+    private static final int RECENT_RUNS = 10;
+
+    private final JobRunner jobRunner;
+    private final JobLeaseRepository jobLeaseRepository;
+    private final JobRunRepository jobRunRepository;
+
+    public JobController(JobRunner jobRunner, JobLeaseRepository jobLeaseRepository,
+            JobRunRepository jobRunRepository) {
+        this.jobRunner = jobRunner;
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.jobRunRepository = jobRunRepository;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get all background jobs with their lease and recent runs", responses = {
+            @ApiResponse(responseCode = "200", description = "Job status")
+    })
+    public ResponseEntity<List<JobStatusDTO>> getJobs() {
+        List<JobStatusDTO> jobs = jobRunner.getJobs().stream()
+                .map(this::toStatus)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(jobs);
+    }
+
+    @GetMapping("/{name}/runs")
+    @Operation(summary = "Get the most recent runs of a job", responses = {
+            @ApiResponse(responseCode = "200", description = "Runs found"),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    public ResponseEntity<List<JobRun>> getRuns(
+            @Parameter(description = "Name of the job") @PathVariable String name,
+            @Parameter(description = "Maximum number of runs") @RequestParam(defaultValue = "50") int limit) {
+        boolean known = jobRunner.getJobs().stream().anyMatch(job -> job.name().equals(name));
+        if (!known) {
+            return ResponseEntity.notFound().build();
+        }
+        int size = Math.max(1, Math.min(limit, 500));
+        return ResponseEntity.ok(jobRunRepository.findByJobNameOrderByStartedAtDesc(name, PageRequest.of(0, size)));
+    }
+
+    private JobStatusDTO toStatus(ScheduledJob job) {
+        JobLease lease = jobLeaseRepository.findById(job.name()).orElse(null);
+        return new JobStatusDTO(
+                job.name(),
+                job.interval().getSeconds(),
+                lease != null ? lease.getLockedBy() : null,
+                lease != null ? lease.getLockedUntil() : null,
+                jobRunRepository.findByJobNameOrderByStartedAtDesc(job.name(), PageRequest.of(0, RECENT_RUNS)));
+    }
+}
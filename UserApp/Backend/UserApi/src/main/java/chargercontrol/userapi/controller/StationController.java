@@ -1,6 +1,21 @@
 package chargercontrol.userapi.controller;
 
+import chargercontrol.userapi.catalog.CatalogSyncService;
+import chargercontrol.userapi.catalog.EncodedCatalog;
+import chargercontrol.userapi.catalog.StationCatalogCache;
+import chargercontrol.userapi.dto.AvailableStationDTO;
+import chargercontrol.userapi.dto.CatalogChangesDTO;
+import chargercontrol.userapi.dto.NearbyStationDTO;
+import chargercontrol.userapi.dto.RouteSearchRequest;
+import chargercontrol.userapi.dto.RouteStationDTO;
+import chargercontrol.userapi.dto.StationMatchDTO;
+import chargercontrol.userapi.dto.StationClusterDTO;
+import chargercontrol.userapi.geo.Polyline;
+import chargercontrol.userapi.geo.StationAvailabilitySearch;
+import chargercontrol.userapi.geo.StationClusterIndex;
+import chargercontrol.userapi.geo.StationGeoIndex;
 import chargercontrol.userapi.model.Station;
+import chargercontrol.userapi.search.StationSearchIndex;
 import chargercontrol.userapi.service.StationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,21 +24,47 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+
 @RestController
 @RequestMapping("/apiV1/stations")
 @Tag(name = "Stations", description = "APIs for managing stations")
 public class StationController {
 
+    static final double MAX_NEAR_RADIUS_KM = 1000;
+    static final int MAX_NEAR_LIMIT = 100;
+    static final int MAX_SEARCH_MINUTES = 24 * 60;
+    static final int MAX_QUERY_LENGTH = 100;
+    static final int MAX_MATCH_LIMIT = 50;
+
     private final StationService stationService;
+    private final CatalogSyncService catalogSyncService;
+    private final StationCatalogCache stationCatalogCache;
+    private final StationGeoIndex stationGeoIndex;
+    private final StationClusterIndex stationClusterIndex;
+    private final StationAvailabilitySearch stationAvailabilitySearch;
+    private final StationSearchIndex stationSearchIndex;
 
-    public StationController(StationService stationService) {
+    public StationController(StationService stationService, CatalogSyncService catalogSyncService,
+            StationCatalogCache stationCatalogCache, StationGeoIndex stationGeoIndex,
+            StationClusterIndex stationClusterIndex, StationAvailabilitySearch stationAvailabilitySearch,
+            StationSearchIndex stationSearchIndex) {
         this.stationService = stationService;
+        this.catalogSyncService = catalogSyncService;
+        this.stationCatalogCache = stationCatalogCache;
+        this.stationGeoIndex = stationGeoIndex;
+        this.stationClusterIndex = stationClusterIndex;
+        this.stationAvailabilitySearch = stationAvailabilitySearch;
+        this.stationSearchIndex = stationSearchIndex;
     }
 
     @PostMapping
@@ -40,11 +81,147 @@ public class StationController {
     @Operation(summary = "Get all stations", responses = {
             @ApiResponse(responseCode = "200", description = "Stations retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Station.class)))
     })
-    public ResponseEntity<List<Station>> getAllStations() {
-        List<Station> stations = stationService.getAllStations();
+    public ResponseEntity<byte[]> getAllStations(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Bytes já serializados pelo StationCatalogCache, escritos tal como estão
+        EncodedCatalog catalog = stationCatalogCache.get();
+        boolean gzip = EncodedCatalog.acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(catalog.body(gzip));
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Get stations and ports changed since a catalog version", responses = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CatalogChangesDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid version")
+    })
+    public ResponseEntity<CatalogChangesDTO> getCatalogChanges(
+            @Parameter(description = "Version returned by the previous call; 0 for the whole catalog") @RequestParam(defaultValue = "0") long since) {
+        if (since < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(catalogSyncService.changesSince(since));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search stations by name or location, with prefix and typo-tolerant matching", responses = {
+            @ApiResponse(responseCode = "200", description = "Stations retrieved successfully, best match first", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StationMatchDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Missing or too long query, or invalid limit")
+    })
+    public ResponseEntity<List<StationMatchDTO>> searchStations(
+            @Parameter(description = "Text to search for; the last word may be incomplete") @RequestParam String q,
+            @Parameter(description = "Maximum number of stations, at most 50") @RequestParam(defaultValue = "10") int limit) {
+        if (q.isBlank() || q.length() > MAX_QUERY_LENGTH || limit < 1 || limit > MAX_MATCH_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<StationMatchDTO> stations = stationSearchIndex.search(q, limit).stream()
+                .map(StationMatchDTO::new)
+                .toList();
+        return ResponseEntity.ok(stations);
+    }
+
+    @GetMapping("/near")
+    @Operation(summary = "Get the stations nearest to a point, closest first", responses = {
+            @ApiResponse(responseCode = "200", description = "Stations retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = NearbyStationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates, radius or limit")
+    })
+    public ResponseEntity<List<NearbyStationDTO>> getNearbyStations(
+            @Parameter(description = "Latitude of the point") @RequestParam double lat,
+            @Parameter(description = "Longitude of the point") @RequestParam double lon,
+            @Parameter(description = "Search radius in km, at most 1000") @RequestParam(defaultValue = "25") double radiusKm,
+            @Parameter(description = "Maximum number of stations, at most 100") @RequestParam(defaultValue = "20") int limit) {
+        // Escrito pela negativa para que NaN também seja rejeitado
+        if (!(lat >= -90 && lat <= 90) || !(lon >= -180 && lon <= 180)
+                || !(radiusKm > 0 && radiusKm <= MAX_NEAR_RADIUS_KM) || limit < 1 || limit > MAX_NEAR_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<NearbyStationDTO> stations = stationGeoIndex.nearest(lat, lon, radiusKm, limit).stream()
+                .map(NearbyStationDTO::new)
+                .toList();
         return ResponseEntity.ok(stations);
     }
 
+    @GetMapping("/near/available")
+    @Operation(summary = "Get the nearest stations with a port free for a time slot", responses = {
+            @ApiResponse(responseCode = "200", description = "Stations retrieved successfully, nearest first", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AvailableStationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates, radius, limit, duration or flexibility")
+    })
+    public ResponseEntity<List<AvailableStationDTO>> getAvailableNearbyStations(
+            @Parameter(description = "Latitude of the point") @RequestParam double lat,
+            @Parameter(description = "Longitude of the point") @RequestParam double lon,
+            @Parameter(description = "Search radius in km, at most 1000") @RequestParam(defaultValue = "25") double radiusKm,
+            @Parameter(description = "Desired start of the slot (ISO DATE_TIME format)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @Parameter(description = "Duration of the slot in minutes, at most 1440") @RequestParam int duration,
+            @Parameter(description = "How many minutes after startTime the slot may start, at most 1440") @RequestParam(defaultValue = "0") int flexMinutes,
+            @Parameter(description = "Maximum number of stations, at most 100") @RequestParam(defaultValue = "10") int limit) {
+        // Escrito pela negativa para que NaN também seja rejeitado
+        if (!(lat >= -90 && lat <= 90) || !(lon >= -180 && lon <= 180)
+                || !(radiusKm > 0 && radiusKm <= MAX_NEAR_RADIUS_KM) || limit < 1 || limit > MAX_NEAR_LIMIT
+                || duration < 1 || duration > MAX_SEARCH_MINUTES || flexMinutes < 0 || flexMinutes > MAX_SEARCH_MINUTES) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<AvailableStationDTO> stations = stationAvailabilitySearch
+                .search(lat, lon, radiusKm, startTime, duration, flexMinutes, limit).stream()
+                .map(AvailableStationDTO::new)
+                .toList();
+        return ResponseEntity.ok(stations);
+    }
+
+    @PostMapping("/route")
+    @Operation(summary = "Get the stations along a route, in the order they are reached", responses = {
+            @ApiResponse(responseCode = "200", description = "Stations retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = RouteStationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid polyline, corridor width, power or limit")
+    })
+    public ResponseEntity<List<RouteStationDTO>> getStationsAlongRoute(@Valid @RequestBody RouteSearchRequest request) {
+        Polyline route;
+        try {
+            route = Polyline.decode(request.getPolyline());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<RouteStationDTO> stations = stationGeoIndex.alongRoute(route, request.getCorridorKm(),
+                        request.getChargingType(), request.getMinPower(), request.getLimit()).stream()
+                .map(RouteStationDTO::new)
+                .toList();
+        return ResponseEntity.ok(stations);
+    }
+
+    @GetMapping("/clusters")
+    @Operation(summary = "Get the station clusters of a map view", responses = {
+            @ApiResponse(responseCode = "200", description = "Clusters retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StationClusterDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid bounding box or zoom, or box too large for the zoom")
+    })
+    public ResponseEntity<List<StationClusterDTO>> getStationClusters(
+            @Parameter(description = "Visible area as minLon,minLat,maxLon,maxLat") @RequestParam String bbox,
+            @Parameter(description = "Map zoom level") @RequestParam int zoom) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4 || zoom < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            double minLon = Double.parseDouble(parts[0].trim());
+            double minLat = Math.max(-90, Double.parseDouble(parts[1].trim()));
+            double maxLon = Double.parseDouble(parts[2].trim());
+            double maxLat = Math.min(90, Double.parseDouble(parts[3].trim()));
+            if (!Double.isFinite(minLon) || !Double.isFinite(maxLon) || !(minLat <= maxLat)) {
+                return ResponseEntity.badRequest().build();
+            }
+            List<StationClusterDTO> clusters = stationClusterIndex.clusters(minLon, minLat, maxLon, maxLat, zoom)
+                    .stream()
+                    .map(StationClusterDTO::new)
+                    .toList();
+            return ResponseEntity.ok(clusters);
+        } catch (IllegalArgumentException e) {
+            // Coordenadas que não são números, ou caixa grande demais para o zoom
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get station by ID", responses = {
             @ApiResponse(responseCode = "200", description = "Station found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Station.class))),
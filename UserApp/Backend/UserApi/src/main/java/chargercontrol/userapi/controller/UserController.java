@@ -3,11 +3,14 @@
 package chargercontrol.userapi.controller;
 
 import chargercontrol.userapi.dto.UserDTO;
+import chargercontrol.userapi.idempotency.IdempotencyService;
 import chargercontrol.userapi.jwt.JwtUtil;
 import chargercontrol.userapi.model.AuthRequest;
 import chargercontrol.userapi.model.AuthResponse;
 import chargercontrol.userapi.model.RegisterRequest;
 import chargercontrol.userapi.model.User;
+import chargercontrol.userapi.pagination.CursorPage;
+import chargercontrol.userapi.pagination.KeysetCursor;
 import chargercontrol.userapi.repository.UserRepository;
 import chargercontrol.userapi.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,6 +21,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -45,6 +49,9 @@ public class UserController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @PostMapping("/register")
     @Operation(summary = "Register a new user",
               requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -61,9 +68,22 @@ public class UserController {
                   @ApiResponse(responseCode = "400",
                              description = "Registration failed or email already in use",
                              content = @Content(mediaType = "application/json",
-                                             schema = @Schema(implementation = AuthResponse.class)))
+                                             schema = @Schema(implementation = AuthResponse.class))),
+                  @ApiResponse(responseCode = "422",
+                             description = "Idempotency key was already used for a different registration")
               })
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest registerRequest) {
+    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest registerRequest,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return doRegister(registerRequest);
+        }
+        // The password stays out of the fingerprint, and the response holds a JWT, so it is kept in memory only
+        return idempotencyService.execute("register", registerRequest.getEmail(), idempotencyKey,
+                Arrays.asList(registerRequest.getEmail(), registerRequest.getName()), AuthResponse.class, false,
+                () -> doRegister(registerRequest));
+    }
+
+    private ResponseEntity<AuthResponse> doRegister(RegisterRequest registerRequest) {
         try {
             // Check if email already exists
 
@@ -91,23 +111,27 @@ public class UserController {
     // Método atualizado no UserController
     @GetMapping("/all")
     @Operation(summary = "Get all users", 
-            description = "Retrieve a list of all registered users",
+            description = "Retrieve registered users in id order, one keyset page at a time. When more users exist, "
+                    + "the X-Next-Cursor header (and Link rel=\"next\") holds the cursor of the next page.",
             responses = {
                 @ApiResponse(responseCode = "200", 
                             description = "Successfully retrieved all users",
                             content = @Content(mediaType = "application/json",
                                             schema = @Schema(implementation = UserDTO.class))),
+                @ApiResponse(responseCode = "400",
+                            description = "Invalid cursor"),
                 @ApiResponse(responseCode = "500", 
                             description = "Internal server error",
                             content = @Content(mediaType = "application/json"))
             })
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
+    public ResponseEntity<List<UserDTO>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<User> users = userService.getAllUsers();
-            List<UserDTO> userDTOs = users.stream()
-                    .map(UserDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(userDTOs);
+            KeysetCursor after = cursor == null ? null : KeysetCursor.decode(cursor);
+            return userService.getUsersPage(after, CursorPage.clampLimit(limit)).map(UserDTO::new).toResponse();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ArrayList<>());
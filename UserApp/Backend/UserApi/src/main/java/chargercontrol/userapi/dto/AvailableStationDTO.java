@@ -0,0 +1,29 @@
+package chargercontrol.userapi.dto;
+
+import chargercontrol.userapi.geo.AvailableStation;
+import chargercontrol.userapi.model.Station;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Station returned by the availability search: the station's own fields, its
+ * distance, the earliest start that fits and the ports free from then.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableStationDTO {
+    @JsonUnwrapped
+    private Station station;
+    private double distanceKm;
+    private LocalDateTime earliestStart;
+    private List<Long> freePortIds;
+
+    public AvailableStationDTO(AvailableStation available) {
+        this(available.station(), available.distanceKm(), available.earliestStart(), available.freePortIds());
+    }
+}
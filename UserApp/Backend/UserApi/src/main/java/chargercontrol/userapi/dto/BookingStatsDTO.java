@@ -0,0 +1,26 @@
+package chargercontrol.userapi.dto;
+
+import chargercontrol.userapi.model.BookingStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totals over a user's whole booking history, computed with GROUP BY queries so
+ * the stats screen does not have to download every booking.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStatsDTO {
+    private long totalBookings;
+    private double averageDuration;
+    private LocalDateTime lastBookingTime;
+    private Map<BookingStatus, Long> byStatus;
+    // Ordenado por ano e mês
+    private List<MonthlyBookingCount> byMonth;
+    private List<CarBookingCount> byCar;
+}
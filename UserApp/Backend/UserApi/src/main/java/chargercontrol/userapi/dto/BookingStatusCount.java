@@ -0,0 +1,10 @@
+package chargercontrol.userapi.dto;
+
+import chargercontrol.userapi.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/** One row of the per-status GROUP BY over a user's bookings. */
+public record BookingStatusCount(BookingStatus status, Long bookings, Long totalDuration,
+        LocalDateTime lastBookingTime) {
+}
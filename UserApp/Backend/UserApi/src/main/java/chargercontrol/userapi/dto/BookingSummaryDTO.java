@@ -0,0 +1,58 @@
+package chargercontrol.userapi.dto;
+
+import chargercontrol.userapi.model.BookingStatus;
+import chargercontrol.userapi.model.ChargingPortStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking as listed to clients: the booking's own columns plus the few port and
+ * car fields the UI shows, read in one query instead of loading the entities.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSummaryDTO {
+    private Long id;
+    private Long userId;
+    private LocalDateTime bookingTime;
+    private Integer duration;
+    private LocalDateTime endTime;
+    private BookingStatus status;
+    private PortSummary chargingPort;
+    private CarSummary car;
+
+    // Usado pelas constructor expressions do BookSlotRepository
+    public BookingSummaryDTO(Long id, Long userId, LocalDateTime bookingTime, Integer duration,
+            LocalDateTime endTime, BookingStatus status, Long chargingPortId, String portIdentifier,
+            Long stationId, ChargingPortStatus portStatus, Long carId, String carBrand, String carModel,
+            String carClass) {
+        this(id, userId, bookingTime, duration, endTime, status,
+                new PortSummary(chargingPortId, portIdentifier, stationId, portStatus),
+                new CarSummary(carId, carBrand, carModel, carClass));
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PortSummary {
+        private Long id;
+        private String portIdentifier;
+        private Long stationId;
+        private ChargingPortStatus status;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CarSummary {
+        private Long id;
+        private String brand;
+        private String model;
+        private String carClass;
+    }
+}
@@ -0,0 +1,5 @@
+package chargercontrol.userapi.dto;
+
+/** Bookings of a user made with one of their cars. */
+public record CarBookingCount(Long carId, String brand, String model, Long bookings) {
+}
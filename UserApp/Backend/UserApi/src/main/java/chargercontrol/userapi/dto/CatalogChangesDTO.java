@@ -0,0 +1,70 @@
+package chargercontrol.userapi.dto;
+
+import chargercontrol.userapi.model.ChargingPort;
+import chargercontrol.userapi.model.ChargingPortStatus;
+import chargercontrol.userapi.model.ChargingType;
+import chargercontrol.userapi.model.Station;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Stations and ports written after a catalog version.
+ *
+ * {@code stations}/{@code ports} hold the current state of everything inserted or
+ * updated; {@code deletedStations}/{@code deletedPorts} are tombstones, only the
+ * ids. With {@code full} set the lists are the whole catalog and the client
+ * replaces what it has. The client sends {@code version} back as {@code since}
+ * next time, straight away while {@code hasMore} is set.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class CatalogChangesDTO {
+    private long version;
+    private boolean full;
+    private boolean hasMore;
+    private List<StationSummary> stations;
+    private List<PortSummary> ports;
+    private List<Long> deletedStations;
+    private List<Long> deletedPorts;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StationSummary {
+        private Long id;
+        private String name;
+        private String location;
+        private Double power;
+        private Double latitude;
+        private Double longitude;
+        private Boolean available;
+        private ChargingType chargingType;
+
+        public StationSummary(Station station) {
+            this(station.getId(), station.getName(), station.getLocation(), station.getPower(),
+                    station.getLatitude(), station.getLongitude(), station.getAvailable(), station.getChargingType());
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PortSummary {
+        private Long id;
+        private Long stationId;
+        private String portIdentifier;
+        private ChargingPortStatus status;
+
+        public PortSummary(ChargingPort port) {
+            this(port.getId(), port.getStation() != null ? port.getStation().getId() : port.getStationId(),
+                    port.getPortIdentifier(), port.getStatus());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package chargercontrol.userapi.dto;
+
+import chargercontrol.userapi.index.FreeBusy;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeBusyDTO {
+    private Long chargingPortId;
+    private LocalDateTime start;
+    private int bucketMinutes;
+    // One character per bucket starting at 'start': '1' busy, '0' free
+    private String busy;
+
+    public FreeBusyDTO(Long chargingPortId, FreeBusy freeBusy) {
+        this.chargingPortId = chargingPortId;
+        this.start = freeBusy.start();
+        this.bucketMinutes = freeBusy.bucketMinutes();
+        this.busy = freeBusy.toBitString();
+    }
+}
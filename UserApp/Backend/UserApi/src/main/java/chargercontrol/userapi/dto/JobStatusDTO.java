@@ -0,0 +1,19 @@
+package chargercontrol.userapi.dto;
+
+import chargercontrol.userapi.model.JobRun;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobStatusDTO {
+    private String name;
+    private long intervalSeconds;
+    private String leasedBy;
+    private LocalDateTime leasedUntil;
+    private List<JobRun> recentRuns;
+}
@@ -0,0 +1,5 @@
+package chargercontrol.userapi.dto;
+
+/** Bookings of a user starting in one calendar month. */
+public record MonthlyBookingCount(Integer year, Integer month, Long bookings) {
+}
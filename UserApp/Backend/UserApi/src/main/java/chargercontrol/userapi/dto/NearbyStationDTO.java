@@ -0,0 +1,24 @@
+package chargercontrol.userapi.dto;
+
+import chargercontrol.userapi.geo.NearbyStation;
+import chargercontrol.userapi.model.Station;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.*;
+
+/**
+ * Station as returned by the proximity search: the station's own fields plus its
+ * distance from the queried point.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyStationDTO {
+    @JsonUnwrapped
+    private Station station;
+    private double distanceKm;
+
+    public NearbyStationDTO(NearbyStation nearby) {
+        this(nearby.station(), nearby.distanceKm());
+    }
+}
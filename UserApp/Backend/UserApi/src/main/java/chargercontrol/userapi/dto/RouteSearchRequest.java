@@ -0,0 +1,42 @@
+package chargercontrol.userapi.dto;
+
+import chargercontrol.userapi.model.ChargingType;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Body of {@code POST /apiV1/stations/route}: the planned route as an encoded
+ * polyline and how far from it a station may be.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteSearchRequest {
+
+    @NotBlank(message = "Polyline is required")
+    @Size(max = 200_000, message = "Polyline must not exceed 200000 characters")
+    private String polyline;
+
+    @Positive(message = "Corridor width must be positive")
+    @DecimalMax(value = "50", message = "Corridor width must not exceed 50 km")
+    private double corridorKm = 5;
+
+    private ChargingType chargingType;
+
+    @PositiveOrZero(message = "Minimum power must be zero or positive")
+    private Double minPower; // em kW
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 500, message = "Limit must not exceed 500")
+    private int limit = 100;
+}
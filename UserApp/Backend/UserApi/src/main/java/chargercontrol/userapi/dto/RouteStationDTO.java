@@ -0,0 +1,25 @@
+package chargercontrol.userapi.dto;
+
+import chargercontrol.userapi.geo.RouteStation;
+import chargercontrol.userapi.model.Station;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.*;
+
+/**
+ * Station returned by the route search: the station's own fields, its distance
+ * from the route and the distance along the route at which it is reached.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteStationDTO {
+    @JsonUnwrapped
+    private Station station;
+    private double distanceKm;
+    private double routeKm;
+
+    public RouteStationDTO(RouteStation routeStation) {
+        this(routeStation.station(), routeStation.distanceKm(), routeStation.routeKm());
+    }
+}
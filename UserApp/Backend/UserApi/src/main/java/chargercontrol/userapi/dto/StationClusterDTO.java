@@ -0,0 +1,33 @@
+package chargercontrol.userapi.dto;
+
+import chargercontrol.userapi.dto.CatalogChangesDTO.StationSummary;
+import chargercontrol.userapi.geo.StationCluster;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * One marker of the clustered station map. {@code stationId} and {@code station}
+ * are only present when the cluster is a single station, which the map then
+ * draws as itself.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StationClusterDTO {
+    private long id;
+    private double latitude;
+    private double longitude;
+    private int count;
+    private int freePorts;
+    private int totalPorts;
+    private Long stationId;
+    private StationSummary station;
+
+    public StationClusterDTO(StationCluster cluster) {
+        this(cluster.id(), cluster.latitude(), cluster.longitude(), cluster.count(), cluster.freePorts(),
+                cluster.totalPorts(), cluster.stationId(),
+                cluster.station() == null ? null : new StationSummary(cluster.station()));
+    }
+}
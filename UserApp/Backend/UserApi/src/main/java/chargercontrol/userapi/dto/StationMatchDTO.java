@@ -0,0 +1,24 @@
+package chargercontrol.userapi.dto;
+
+import chargercontrol.userapi.dto.CatalogChangesDTO.StationSummary;
+import chargercontrol.userapi.search.TextMatch;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.*;
+
+/**
+ * Station returned by the text search: the station's own fields plus how well
+ * its name and location matched the query.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StationMatchDTO {
+    @JsonUnwrapped
+    private StationSummary station;
+    private double score;
+
+    public StationMatchDTO(TextMatch<StationSummary> match) {
+        this(match.item(), match.score());
+    }
+}
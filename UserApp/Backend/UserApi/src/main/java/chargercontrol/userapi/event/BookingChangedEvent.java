@@ -0,0 +1,28 @@
+package chargercontrol.userapi.event;
+
+import chargercontrol.userapi.model.BookSlot;
+import chargercontrol.userapi.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published whenever a booking is created or changes status. Listeners that keep
+ * in-memory state derived from {@code book_slots} should react after commit.
+ */
+public record BookingChangedEvent(Long bookingId, Long chargingPortId, LocalDateTime bookingTime,
+        Integer duration, BookingStatus status) {
+
+    public static BookingChangedEvent of(BookSlot booking) {
+        return of(booking, booking.getStatus());
+    }
+
+    /** For a status written with a bulk UPDATE, which the loaded entity does not reflect. */
+    public static BookingChangedEvent of(BookSlot booking, BookingStatus status) {
+        return new BookingChangedEvent(
+                booking.getId(),
+                booking.getChargingPort() != null ? booking.getChargingPort().getId() : null,
+                booking.getBookingTime(),
+                booking.getDuration(),
+                status);
+    }
+}
@@ -0,0 +1,17 @@
+package chargercontrol.userapi.event;
+
+import chargercontrol.userapi.model.ChargingPort;
+import chargercontrol.userapi.model.ChargingPortStatus;
+
+/**
+ * Published when a charging port is created, deleted or has its status set
+ * directly. {@code status} is null for a deleted port.
+ */
+public record ChargingPortChangedEvent(Long chargingPortId, Long stationId, ChargingPortStatus status) {
+
+    public static ChargingPortChangedEvent of(ChargingPort port) {
+        return new ChargingPortChangedEvent(port.getId(),
+                port.getStation() != null ? port.getStation().getId() : port.getStationId(),
+                port.getStatus());
+    }
+}
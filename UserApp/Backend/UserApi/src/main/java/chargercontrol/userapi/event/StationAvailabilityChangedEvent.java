@@ -0,0 +1,12 @@
+package chargercontrol.userapi.event;
+
+import chargercontrol.userapi.availability.StationAvailability;
+
+import java.util.List;
+
+/**
+ * Published by the {@code AvailabilityTracker} with the stations whose free or
+ * total port count changed in one flush or resync.
+ */
+public record StationAvailabilityChangedEvent(List<StationAvailability> changed) {
+}
@@ -0,0 +1,14 @@
+package chargercontrol.userapi.geo;
+
+import chargercontrol.userapi.model.Station;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A station that can take a booking in the searched window: the earliest start
+ * that fits and the ports that are free for the whole duration from then.
+ */
+public record AvailableStation(Station station, double distanceKm, LocalDateTime earliestStart,
+        List<Long> freePortIds) {
+}
@@ -0,0 +1,299 @@
+package chargercontrol.userapi.geo;
+
+import chargercontrol.userapi.availability.StationAvailability;
+import chargercontrol.userapi.model.Station;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Station clusters of every zoom level from 0 to {@code maxZoom}, in Web Mercator.
+ *
+ * At zoom {@code z} the map is cut into {@code 2^(z+2)} cells per axis, 64 pixels
+ * of a 256 pixel tile, and the stations of a cell form one cluster. Cells are
+ * numbered by interleaving the bits of their x and y (Morton order), so the four
+ * cells of the next zoom inside a cell are its number shifted left by two. Each
+ * level is a sorted array of those numbers with parallel aggregate arrays: the
+ * finest is built from the stations sorted by cell, every coarser one by merging
+ * runs of the level below, and a cell is found with a binary search. Port counts
+ * are kept per station, so an availability change updates the one cluster that
+ * holds the station on each level instead of rebuilding them.
+ */
+final class ClusterLevels {
+
+    /** Cells per tile side as a power of two: 4 cells of 64 px in a 256 px tile. */
+    static final int CELLS_PER_TILE_SHIFT = 2;
+    static final double MAX_LATITUDE = 85.05112878;
+
+    private final int maxZoom;
+    private final long version;
+    private final Instant builtAt;
+    private final Level[] levels;
+    private final Map<Long, Member> members;
+
+    private ClusterLevels(int maxZoom, long version, Level[] levels, Map<Long, Member> members) {
+        this.maxZoom = maxZoom;
+        this.version = version;
+        this.builtAt = Instant.now();
+        this.levels = levels;
+        this.members = members;
+    }
+
+    static ClusterLevels build(List<Station> stations, Map<Long, StationAvailability> availability, int maxZoom,
+            long version) {
+        int cells = cellsPerAxis(maxZoom);
+        List<Member> sorted = new ArrayList<>(stations.size());
+        Map<Long, Member> members = new HashMap<>(stations.size() * 2);
+        for (Station station : stations) {
+            if (station.getId() == null || station.getLatitude() == null || station.getLongitude() == null) {
+                continue;
+            }
+            StationAvailability ports = availability.get(station.getId());
+            Member member = new Member(station, station.getLatitude(), station.getLongitude(),
+                    morton(cell(mercatorX(station.getLongitude()), cells), cell(mercatorY(station.getLatitude()), cells)),
+                    ports == null ? 0 : ports.freePorts(), ports == null ? 0 : ports.totalPorts());
+            sorted.add(member);
+            members.put(member.stationId, member);
+        }
+        sorted.sort(Comparator.comparingLong((Member member) -> member.cell));
+
+        Level[] levels = new Level[maxZoom + 1];
+        levels[maxZoom] = Level.of(sorted);
+        for (int zoom = maxZoom - 1; zoom >= 0; zoom--) {
+            levels[zoom] = levels[zoom + 1].parents();
+        }
+        return new ClusterLevels(maxZoom, version, levels, members);
+    }
+
+    long version() {
+        return version;
+    }
+
+    Instant builtAt() {
+        return builtAt;
+    }
+
+    int size() {
+        return members.size();
+    }
+
+    /** Applies new port counts to the clusters holding each station. */
+    synchronized int update(Collection<StationAvailability> changed) {
+        int applied = 0;
+        for (StationAvailability availability : changed) {
+            Member member = members.get(availability.stationId());
+            if (member == null) {
+                continue;
+            }
+            int freeDelta = availability.freePorts() - member.freePorts;
+            int totalDelta = availability.totalPorts() - member.totalPorts;
+            if (freeDelta == 0 && totalDelta == 0) {
+                continue;
+            }
+            member.freePorts = availability.freePorts();
+            member.totalPorts = availability.totalPorts();
+            for (int zoom = 0; zoom <= maxZoom; zoom++) {
+                Level level = levels[zoom];
+                int index = level.indexOf(member.cell >>> (2 * (maxZoom - zoom)));
+                level.freePorts[index] += freeDelta;
+                level.totalPorts[index] += totalDelta;
+            }
+            applied++;
+        }
+        return applied;
+    }
+
+    /**
+     * Clusters of {@code zoom} whose cell intersects the box. A box wider than
+     * 360 degrees covers every longitude; {@code minLon > maxLon} crosses the
+     * antimeridian.
+     *
+     * @throws IllegalArgumentException if the box spans more than {@code maxCells} cells
+     */
+    synchronized List<StationCluster> query(double minLon, double minLat, double maxLon, double maxLat, int zoom,
+            int maxCells) {
+        int levelZoom = Math.min(zoom, maxZoom);
+        int cells = cellsPerAxis(levelZoom);
+        int top = cell(mercatorY(maxLat), cells);
+        int bottom = cell(mercatorY(minLat), cells);
+        int[] columnRanges;
+        if (maxLon - minLon >= 360) {
+            columnRanges = new int[] {0, cells - 1};
+        } else {
+            int west = cell(mercatorX(normalizeLongitude(minLon)), cells);
+            int east = cell(mercatorX(normalizeLongitude(maxLon)), cells);
+            columnRanges = west <= east ? new int[] {west, east} : new int[] {west, cells - 1, 0, east};
+        }
+
+        long columns = 0;
+        for (int r = 0; r < columnRanges.length; r += 2) {
+            columns += columnRanges[r + 1] - columnRanges[r] + 1;
+        }
+        if (columns * (bottom - top + 1) > maxCells) {
+            throw new IllegalArgumentException("Bounding box too large for zoom " + zoom);
+        }
+
+        Level level = levels[levelZoom];
+        List<StationCluster> result = new ArrayList<>();
+        for (int y = top; y <= bottom; y++) {
+            for (int r = 0; r < columnRanges.length; r += 2) {
+                for (int x = columnRanges[r]; x <= columnRanges[r + 1]; x++) {
+                    int index = level.indexOf(morton(x, y));
+                    if (index >= 0) {
+                        result.add(level.toStationCluster(index, levelZoom, members));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    static int cellsPerAxis(int zoom) {
+        return 1 << (zoom + CELLS_PER_TILE_SHIFT);
+    }
+
+    static double mercatorX(double longitude) {
+        return (longitude + 180) / 360;
+    }
+
+    static double mercatorY(double latitude) {
+        double sin = Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude))));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+
+    /** Interleaves the bits of x (even positions) and y (odd positions). */
+    static long morton(int x, int y) {
+        return spread(x) | (spread(y) << 1);
+    }
+
+    private static long spread(int value) {
+        long bits = value & 0xFFFFFFFFL;
+        bits = (bits | (bits << 16)) & 0x0000FFFF0000FFFFL;
+        bits = (bits | (bits << 8)) & 0x00FF00FF00FF00FFL;
+        bits = (bits | (bits << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | (bits << 2)) & 0x3333333333333333L;
+        bits = (bits | (bits << 1)) & 0x5555555555555555L;
+        return bits;
+    }
+
+    private static int cell(double fraction, int cells) {
+        return Math.max(0, Math.min(cells - 1, (int) Math.floor(fraction * cells)));
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        double normalized = ((longitude + 180) % 360 + 360) % 360 - 180;
+        // 180 fica na última coluna em vez de dar a volta para -180
+        return normalized == -180 && longitude > 0 ? 180 : normalized;
+    }
+
+    private static final class Member {
+        private final Station station;
+        private final Long stationId;
+        private final double latitude;
+        private final double longitude;
+        private final long cell;
+        private int freePorts;
+        private int totalPorts;
+
+        private Member(Station station, double latitude, double longitude, long cell, int freePorts,
+                int totalPorts) {
+            this.station = station;
+            this.stationId = station.getId();
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cell = cell;
+            this.freePorts = freePorts;
+            this.totalPorts = totalPorts;
+        }
+    }
+
+    /** The clusters of one zoom, sorted by cell. */
+    private static final class Level {
+        private final long[] cells;
+        private final int[] counts;
+        private final double[] latitudeSums;
+        private final double[] longitudeSums;
+        private final int[] freePorts;
+        private final int[] totalPorts;
+        private final long[] firstStationIds;
+
+        private Level(int size) {
+            cells = new long[size];
+            counts = new int[size];
+            latitudeSums = new double[size];
+            longitudeSums = new double[size];
+            freePorts = new int[size];
+            totalPorts = new int[size];
+            firstStationIds = new long[size];
+        }
+
+        /** Groups stations already sorted by cell. */
+        private static Level of(List<Member> sorted) {
+            int distinct = 0;
+            for (int i = 0; i < sorted.size(); i++) {
+                if (i == 0 || sorted.get(i).cell != sorted.get(i - 1).cell) {
+                    distinct++;
+                }
+            }
+            Level level = new Level(distinct);
+            int index = -1;
+            for (int i = 0; i < sorted.size(); i++) {
+                Member member = sorted.get(i);
+                if (i == 0 || member.cell != sorted.get(i - 1).cell) {
+                    index++;
+                    level.cells[index] = member.cell;
+                    level.firstStationIds[index] = member.stationId;
+                }
+                level.counts[index]++;
+                level.latitudeSums[index] += member.latitude;
+                level.longitudeSums[index] += member.longitude;
+                level.freePorts[index] += member.freePorts;
+                level.totalPorts[index] += member.totalPorts;
+            }
+            return level;
+        }
+
+        /** The level above: runs of cells sharing {@code cell >>> 2} merged into one. */
+        private Level parents() {
+            int distinct = 0;
+            for (int i = 0; i < cells.length; i++) {
+                if (i == 0 || (cells[i] >>> 2) != (cells[i - 1] >>> 2)) {
+                    distinct++;
+                }
+            }
+            Level parent = new Level(distinct);
+            int index = -1;
+            for (int i = 0; i < cells.length; i++) {
+                if (i == 0 || (cells[i] >>> 2) != (cells[i - 1] >>> 2)) {
+                    index++;
+                    parent.cells[index] = cells[i] >>> 2;
+                    parent.firstStationIds[index] = firstStationIds[i];
+                }
+                parent.counts[index] += counts[i];
+                parent.latitudeSums[index] += latitudeSums[i];
+                parent.longitudeSums[index] += longitudeSums[i];
+                parent.freePorts[index] += freePorts[i];
+                parent.totalPorts[index] += totalPorts[i];
+            }
+            return parent;
+        }
+
+        private int indexOf(long cell) {
+            return Arrays.binarySearch(cells, cell);
+        }
+
+        private StationCluster toStationCluster(int index, int zoom, Map<Long, Member> members) {
+            int count = counts[index];
+            Member single = count == 1 ? members.get(firstStationIds[index]) : null;
+            return new StationCluster((cells[index] << 5) | zoom, latitudeSums[index] / count,
+                    longitudeSums[index] / count, count, freePorts[index], totalPorts[index],
+                    single != null ? single.stationId : null, single != null ? single.station : null);
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package chargercontrol.userapi.geo;
+
+import chargercontrol.userapi.model.Station;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Immutable grid over the coordinates of every station, answering k-nearest
+ * queries ranked by great-circle (haversine) distance.
+ *
+ * The globe is cut into {@code cellDegrees} x {@code cellDegrees} cells numbered
+ * row by row, and the stations are stored sorted by cell in parallel arrays. The
+ * cells of one row inside a bounding box are then one contiguous slice of those
+ * arrays, found with two binary searches. A query scans the box of a small
+ * radius first and doubles it until it holds {@code limit} stations or reaches
+ * the requested radius, so dense areas stay cheap and sparse ones still answer.
+ */
+final class GeoGrid {
+
+    static final double EARTH_RADIUS_KM = 6371.0;
+    static final double MAX_PIECE_KM = 5;
+    static final double MIN_POINT_SPACING_KM = 0.02;
+    static final int MAX_ROUTE_POINTS = 2000;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private static final Comparator<NearbyStation> RANKING = Comparator.comparingDouble(NearbyStation::distanceKm)
+            .thenComparing(nearby -> nearby.station().getId(), Comparator.nullsFirst(Comparator.naturalOrder()));
+    private static final Comparator<RouteStation> ROUTE_ORDER = Comparator.comparingDouble(RouteStation::routeKm)
+            .thenComparingDouble(RouteStation::distanceKm);
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+    private final long version;
+    private final Instant builtAt;
+
+    private final long[] cells;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] cosLatitudes;
+    private final Station[] stations;
+
+    private GeoGrid(double cellDegrees, long version, int size) {
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+        this.version = version;
+        this.builtAt = Instant.now();
+        this.cells = new long[size];
+        this.latitudes = new double[size];
+        this.longitudes = new double[size];
+        this.cosLatitudes = new double[size];
+        this.stations = new Station[size];
+    }
+
+    static GeoGrid build(List<Station> stations, double cellDegrees, long version) {
+        List<Station> located = new ArrayList<>(stations.size());
+        for (Station station : stations) {
+            if (station.getLatitude() != null && station.getLongitude() != null) {
+                located.add(station);
+            }
+        }
+        GeoGrid grid = new GeoGrid(cellDegrees, version, located.size());
+        located.sort(Comparator.comparingLong((Station station) -> grid.cell(station.getLatitude(), station.getLongitude()))
+                .thenComparing(Station::getId, Comparator.nullsFirst(Comparator.naturalOrder())));
+        for (int i = 0; i < located.size(); i++) {
+            Station station = located.get(i);
+            grid.cells[i] = grid.cell(station.getLatitude(), station.getLongitude());
+            grid.latitudes[i] = station.getLatitude();
+            grid.longitudes[i] = station.getLongitude();
+            grid.cosLatitudes[i] = Math.cos(Math.toRadians(station.getLatitude()));
+            grid.stations[i] = station;
+        }
+        return grid;
+    }
+
+    long version() {
+        return version;
+    }
+
+    Instant builtAt() {
+        return builtAt;
+    }
+
+    int size() {
+        return stations.length;
+    }
+
+    /** Up to {@code limit} stations within {@code radiusKm}, nearest first. */
+    List<NearbyStation> nearest(double latitude, double longitude, double radiusKm, int limit) {
+        double searchKm = Math.min(radiusKm, cellDegrees * KM_PER_DEGREE);
+        while (true) {
+            PriorityQueue<NearbyStation> farthestFirst = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            scan(latitude, longitude, searchKm, limit, farthestFirst);
+            // With limit stations inside searchKm, nothing farther can rank ahead of them
+            if (farthestFirst.size() == limit || searchKm >= radiusKm) {
+                List<NearbyStation> result = new ArrayList<>(farthestFirst);
+                result.sort(RANKING);
+                return result;
+            }
+            searchKm = Math.min(radiusKm, searchKm * 2);
+        }
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        return distanceKm(lat1, lon1, Math.cos(Math.toRadians(lat1)), lat2, lon2, Math.cos(Math.toRadians(lat2)));
+    }
+
+    private static double distanceKm(double lat1, double lon1, double cosLat1, double lat2, double lon2,
+            double cosLat2) {
+        double sinLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+        double sinLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double a = sinLat * sinLat + cosLat1 * cosLat2 * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void scan(double latitude, double longitude, double searchKm, int limit,
+            PriorityQueue<NearbyStation> farthestFirst) {
+        // Bounding box of the circle on the sphere (Matuschek): the poles and
+        // wide circles take every longitude, the antimeridian splits the range
+        double angular = searchKm / EARTH_RADIUS_KM;
+        double latDelta = Math.toDegrees(angular);
+        double minLat = latitude - latDelta;
+        double maxLat = latitude + latDelta;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        int[] columnRanges;
+        if (minLat <= -90 || maxLat >= 90 || Math.sin(angular) >= cosLat) {
+            columnRanges = new int[] {0, columns - 1};
+        } else {
+            double lonDelta = Math.toDegrees(Math.asin(Math.sin(angular) / cosLat));
+            columnRanges = columnRanges(longitude - lonDelta, longitude + lonDelta);
+        }
+
+        for (int row = row(minLat); row <= row(maxLat); row++) {
+            long rowStart = (long) row * columns;
+            for (int r = 0; r < columnRanges.length; r += 2) {
+                int from = lowerBound(rowStart + columnRanges[r]);
+                int to = lowerBound(rowStart + columnRanges[r + 1] + 1);
+                for (int i = from; i < to; i++) {
+                    double distance = distanceKm(latitude, longitude, cosLat, latitudes[i], longitudes[i],
+                            cosLatitudes[i]);
+                    if (distance > searchKm) {
+                        continue;
+                    }
+                    if (farthestFirst.size() < limit) {
+                        farthestFirst.add(new NearbyStation(stations[i], distance));
+                    } else if (distance < farthestFirst.peek().distanceKm()) {
+                        farthestFirst.poll();
+                        farthestFirst.add(new NearbyStation(stations[i], distance));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stations within {@code corridorKm} of the route that pass {@code filter},
+     * ordered by how far along the route they are.
+     *
+     * Points closer along the route than {@link #MIN_POINT_SPACING_KM} to the
+     * last one kept are dropped, the spacing doubling until at most
+     * {@link #MAX_ROUTE_POINTS} are left, so a dense polyline costs no more than
+     * a sparse one; the route moves sideways by less than the spacing. Each
+     * segment is then cut into pieces of at most {@link #MAX_PIECE_KM}, and each
+     * piece reaches the stations of the grid cells in its bounding box widened by
+     * the corridor: one slice of the sorted arrays per grid row. A single sweep
+     * over those slices visits every station once, measuring it only against the
+     * pieces that reach it. The distance to a piece is measured on a local
+     * equirectangular projection, which is exact to a few metres at that size.
+     */
+    List<RouteStation> alongRoute(Polyline route, double corridorKm, Predicate<Station> filter) {
+        List<RoutePiece> pieces = pieces(route);
+        // {from, to, piece}: estações [from, to) de uma linha da grelha alcançadas pelo pedaço
+        List<int[]> slices = new ArrayList<>();
+        for (int piece = 0; piece < pieces.size(); piece++) {
+            addSlices(pieces.get(piece), piece, corridorKm, slices);
+        }
+        slices.sort(Comparator.comparingInt(slice -> slice[0]));
+
+        List<RouteStation> result = new ArrayList<>();
+        List<int[]> active = new ArrayList<>();
+        int next = 0;
+        int i = 0;
+        while (next < slices.size() || !active.isEmpty()) {
+            if (active.isEmpty()) {
+                i = Math.max(i, slices.get(next)[0]);
+            }
+            while (next < slices.size() && slices.get(next)[0] <= i) {
+                active.add(slices.get(next++));
+            }
+            int index = i;
+            active.removeIf(slice -> slice[1] <= index);
+            if (active.isEmpty()) {
+                continue;
+            }
+            RoutePiece nearest = null;
+            double nearestKm = Double.MAX_VALUE;
+            for (int[] slice : active) {
+                RoutePiece piece = pieces.get(slice[2]);
+                double distance = piece.distanceKm(latitudes[i], longitudes[i]);
+                if (distance <= corridorKm && distance < nearestKm) {
+                    nearest = piece;
+                    nearestKm = distance;
+                }
+            }
+            if (nearest != null && filter.test(stations[i])) {
+                result.add(new RouteStation(stations[i], nearestKm, nearest.routeKmAt(latitudes[i], longitudes[i])));
+            }
+            i++;
+        }
+        result.sort(ROUTE_ORDER);
+        return result;
+    }
+
+    /** The route, thinned out as described in {@link #alongRoute}, cut into pieces of at most {@link #MAX_PIECE_KM}. */
+    static List<RoutePiece> pieces(Polyline route) {
+        // Distância ao longo do percurso original até cada ponto
+        double[] along = new double[route.size()];
+        for (int point = 1; point < route.size(); point++) {
+            along[point] = along[point - 1] + distanceKm(route.latitude(point - 1), route.longitude(point - 1),
+                    route.latitude(point), route.longitude(point));
+        }
+        int[] kept = keptPoints(along);
+
+        List<RoutePiece> pieces = new ArrayList<>();
+        for (int k = 0; k < Math.max(1, kept.length - 1); k++) {
+            int point = kept[k];
+            int next = kept[Math.min(k + 1, kept.length - 1)];
+            double lat1 = route.latitude(point);
+            double lon1 = route.longitude(point);
+            double lat2 = route.latitude(next);
+            // Segmentos que cruzam o antimeridiano seguem pelo lado curto
+            double lon2 = lon1 + normalizeLongitude(route.longitude(next) - lon1);
+            double length = distanceKm(lat1, lon1, lat2, lon2);
+            double routeKm = along[next] - along[point];
+            int count = Math.max(1, (int) Math.ceil(length / MAX_PIECE_KM));
+            for (int piece = 0; piece < count; piece++) {
+                double from = (double) piece / count;
+                double to = (double) (piece + 1) / count;
+                pieces.add(RoutePiece.of(lat1 + (lat2 - lat1) * from, lon1 + (lon2 - lon1) * from,
+                        lat1 + (lat2 - lat1) * to, lon1 + (lon2 - lon1) * to,
+                        along[point] + routeKm * from, routeKm / count));
+            }
+        }
+        return pieces;
+    }
+
+    private static int[] keptPoints(double[] along) {
+        double spacing = MIN_POINT_SPACING_KM;
+        while (true) {
+            int[] kept = new int[along.length];
+            int count = 0;
+            for (int point = 0; point < along.length; point++) {
+                if (count == 0 || point == along.length - 1 || along[point] - along[kept[count - 1]] >= spacing) {
+                    kept[count++] = point;
+                }
+            }
+            // Com o espaçamento maior que o percurso só ficam os extremos
+            if (count <= MAX_ROUTE_POINTS) {
+                return Arrays.copyOf(kept, count);
+            }
+            spacing *= 2;
+        }
+    }
+
+    private void addSlices(RoutePiece piece, int index, double corridorKm, List<int[]> slices) {
+        double latDelta = corridorKm / KM_PER_DEGREE;
+        double minLat = Math.min(piece.latA(), piece.latB()) - latDelta;
+        double maxLat = Math.max(piece.latA(), piece.latB()) + latDelta;
+        int[] columnRanges;
+        double cosEdge = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+        double lonDelta = corridorKm / (KM_PER_DEGREE * cosEdge);
+        if (minLat <= -90 || maxLat >= 90 || Math.abs(piece.lonB() - piece.lonA()) + 2 * lonDelta >= 360) {
+            columnRanges = new int[] {0, columns - 1};
+        } else {
+            columnRanges = columnRanges(Math.min(piece.lonA(), piece.lonB()) - lonDelta,
+                    Math.max(piece.lonA(), piece.lonB()) + lonDelta);
+        }
+
+        for (int row = row(minLat); row <= row(maxLat); row++) {
+            long rowStart = (long) row * columns;
+            for (int r = 0; r < columnRanges.length; r += 2) {
+                int from = lowerBound(rowStart + columnRanges[r]);
+                int to = lowerBound(rowStart + columnRanges[r + 1] + 1);
+                if (from < to) {
+                    slices.add(new int[] {from, to, index});
+                }
+            }
+        }
+    }
+
+    /**
+     * Straight piece of the route from A to B, with the local plane used to
+     * measure distances to it. {@code offsetKm} is how far along the original
+     * route A is, and {@code routeKm} how much of the original route the piece
+     * stands for.
+     */
+    record RoutePiece(double latA, double lonA, double latB, double lonB, double offsetKm, double routeKm,
+            double kmPerLonDegree, double bx, double by, double lengthSquared) {
+
+        static RoutePiece of(double latA, double lonA, double latB, double lonB, double offsetKm, double routeKm) {
+            // Plano local com origem em A, em km
+            double kmPerLonDegree = KM_PER_DEGREE * Math.cos(Math.toRadians((latA + latB) / 2));
+            double bx = (lonB - lonA) * kmPerLonDegree;
+            double by = (latB - latA) * KM_PER_DEGREE;
+            return new RoutePiece(latA, lonA, latB, lonB, offsetKm, routeKm, kmPerLonDegree, bx, by,
+                    bx * bx + by * by);
+        }
+
+        double distanceKm(double latitude, double longitude) {
+            double px = normalizeLongitude(longitude - lonA) * kmPerLonDegree;
+            double py = (latitude - latA) * KM_PER_DEGREE;
+            double t = position(px, py);
+            return Math.hypot(px - t * bx, py - t * by);
+        }
+
+        double routeKmAt(double latitude, double longitude) {
+            return offsetKm + position(normalizeLongitude(longitude - lonA) * kmPerLonDegree,
+                    (latitude - latA) * KM_PER_DEGREE) * routeKm;
+        }
+
+        // Fração de A a B do ponto do pedaço mais próximo
+        private double position(double px, double py) {
+            return lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, (px * bx + py * by) / lengthSquared));
+        }
+    }
+
+    /** Column ranges, as {@code from, to} pairs, covering {@code [minLon, maxLon]} across the antimeridian. */
+    private int[] columnRanges(double minLon, double maxLon) {
+        if (minLon > 180 || maxLon < -180) {
+            double shift = minLon > 180 ? -360 : 360;
+            minLon += shift;
+            maxLon += shift;
+        }
+        if (minLon < -180) {
+            return new int[] {column(minLon + 360), columns - 1, 0, column(maxLon)};
+        }
+        if (maxLon > 180) {
+            return new int[] {column(minLon), columns - 1, 0, column(maxLon - 360)};
+        }
+        return new int[] {column(minLon), column(maxLon)};
+    }
+
+    private static double normalizeLongitude(double degrees) {
+        if (degrees > 180) {
+            return degrees - 360;
+        }
+        return degrees < -180 ? degrees + 360 : degrees;
+    }
+
+    private long cell(double latitude, double longitude) {
+        return (long) row(latitude) * columns + column(longitude);
+    }
+
+    private int row(double latitude) {
+        return clamp((int) Math.floor((latitude + 90) / cellDegrees), rows);
+    }
+
+    private int column(double longitude) {
+        return clamp((int) Math.floor((longitude + 180) / cellDegrees), columns);
+    }
+
+    private static int clamp(int index, int count) {
+        return Math.max(0, Math.min(count - 1, index));
+    }
+
+    /** Index of the first station in {@code cell} or a later one. */
+    private int lowerBound(long cell) {
+        int low = 0;
+        int high = cells.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cells[mid] < cell) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
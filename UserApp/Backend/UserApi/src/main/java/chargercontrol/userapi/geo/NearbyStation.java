@@ -0,0 +1,6 @@
+package chargercontrol.userapi.geo;
+
+import chargercontrol.userapi.model.Station;
+
+public record NearbyStation(Station station, double distanceKm) {
+}
@@ -0,0 +1,83 @@
+package chargercontrol.userapi.geo;
+
+import java.util.Arrays;
+
+/**
+ * Route decoded from the Encoded Polyline Algorithm Format used by Google Maps,
+ * OSRM and most routing services (5 decimal places).
+ *
+ * Every coordinate is a zig-zag encoded delta from the previous one, written as
+ * 5-bit chunks offset by 63 so the result is printable ASCII.
+ */
+public final class Polyline {
+
+    private static final double PRECISION = 1e5;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private Polyline(double[] latitudes, double[] longitudes) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code encoded} is empty, malformed or
+     *                                  has coordinates outside the valid range
+     */
+    public static Polyline decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            throw new IllegalArgumentException("Empty polyline");
+        }
+        // Cada ponto ocupa pelo menos 2 caracteres
+        double[] latitudes = new double[encoded.length() / 2 + 1];
+        double[] longitudes = new double[latitudes.length];
+        int[] cursor = {0};
+        long latitude = 0;
+        long longitude = 0;
+        int points = 0;
+        while (cursor[0] < encoded.length()) {
+            latitude += nextValue(encoded, cursor);
+            longitude += nextValue(encoded, cursor);
+            double lat = latitude / PRECISION;
+            double lon = longitude / PRECISION;
+            if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+                throw new IllegalArgumentException("Polyline point " + points + " is out of range");
+            }
+            latitudes[points] = lat;
+            longitudes[points] = lon;
+            points++;
+        }
+        return new Polyline(Arrays.copyOf(latitudes, points), Arrays.copyOf(longitudes, points));
+    }
+
+    public int size() {
+        return latitudes.length;
+    }
+
+    public double latitude(int index) {
+        return latitudes[index];
+    }
+
+    public double longitude(int index) {
+        return longitudes[index];
+    }
+
+    private static int nextValue(String encoded, int[] cursor) {
+        int result = 0;
+        int shift = 0;
+        int chunk;
+        do {
+            if (cursor[0] >= encoded.length() || shift > 30) {
+                throw new IllegalArgumentException("Truncated polyline at " + cursor[0]);
+            }
+            chunk = encoded.charAt(cursor[0]++) - 63;
+            if (chunk < 0 || chunk > 63) {
+                throw new IllegalArgumentException("Invalid polyline character at " + (cursor[0] - 1));
+            }
+            result |= (chunk & 0x1f) << shift;
+            shift += 5;
+        } while (chunk >= 0x20);
+        return (result & 1) != 0 ? ~(result >> 1) : result >> 1;
+    }
+}
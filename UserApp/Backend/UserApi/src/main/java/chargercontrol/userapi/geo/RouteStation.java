@@ -0,0 +1,10 @@
+package chargercontrol.userapi.geo;
+
+import chargercontrol.userapi.model.Station;
+
+/**
+ * A station inside a route corridor, with its distance from the route and how
+ * far along the route (from the first point) it is reached.
+ */
+public record RouteStation(Station station, double distanceKm, double routeKm) {
+}
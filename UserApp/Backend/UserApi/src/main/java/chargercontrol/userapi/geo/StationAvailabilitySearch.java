@@ -0,0 +1,197 @@
+package chargercontrol.userapi.geo;
+
+import chargercontrol.userapi.availability.AvailabilityTracker;
+import chargercontrol.userapi.index.BookingIntervalIndex;
+import chargercontrol.userapi.metrics.MetricsSource;
+import chargercontrol.userapi.model.ChargingPortStatus;
+import chargercontrol.userapi.model.Station;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Answers "which stations near here have a port free at T for D minutes".
+ *
+ * Candidates come from the {@link StationGeoIndex}, nearest first, and are
+ * checked in batches: the bookings of all ports in a batch are loaded into the
+ * {@link BookingIntervalIndex} with one query, then the stations are evaluated
+ * in parallel from memory. Ports are the ones the {@link AvailabilityTracker}
+ * last saw as AVAILABLE, the same status the booking flow accepts. The search
+ * stops after the first batch that completes {@code limit} results, so close
+ * matches never pay for the stations further out.
+ */
+@Component
+public class StationAvailabilitySearch implements SmartLifecycle, MetricsSource {
+
+    static final int MIN_BATCH_SIZE = 16;
+
+    private static final Comparator<AvailableStation> RANKING = Comparator
+            .comparingDouble(AvailableStation::distanceKm)
+            .thenComparing(AvailableStation::earliestStart);
+
+    private final StationGeoIndex stationGeoIndex;
+    private final AvailabilityTracker availabilityTracker;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final int parallelism;
+    private final int maxCandidates;
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder stationsChecked = new LongAdder();
+    private final LongAdder stoppedEarly = new LongAdder();
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public StationAvailabilitySearch(StationGeoIndex stationGeoIndex, AvailabilityTracker availabilityTracker,
+            BookingIntervalIndex bookingIntervalIndex,
+            @Value("${stations.search.parallelism:4}") int parallelism,
+            @Value("${stations.search.max-candidates:500}") int maxCandidates) {
+        this.stationGeoIndex = stationGeoIndex;
+        this.availabilityTracker = availabilityTracker;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.parallelism = parallelism;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Up to {@code limit} stations within {@code radiusKm} with a port free for
+     * {@code minutes} starting somewhere in {@code [start, start + flexMinutes]},
+     * ranked by distance and then by earliest start.
+     */
+    public List<AvailableStation> search(double latitude, double longitude, double radiusKm, LocalDateTime start,
+            int minutes, int flexMinutes, int limit) {
+        searches.increment();
+        LocalDateTime latest = start.plusMinutes(flexMinutes);
+        List<NearbyStation> candidates = stationGeoIndex.nearest(latitude, longitude, radiusKm, maxCandidates);
+        int batchSize = Math.max(limit, MIN_BATCH_SIZE);
+
+        List<AvailableStation> found = new ArrayList<>();
+        int checked = 0;
+        while (checked < candidates.size() && found.size() < limit) {
+            List<NearbyStation> batch = candidates.subList(checked, Math.min(checked + batchSize, candidates.size()));
+            found.addAll(evaluate(batch, start, minutes, latest));
+            checked += batch.size();
+        }
+        stationsChecked.add(checked);
+        if (checked < candidates.size()) {
+            stoppedEarly.increment();
+        }
+        found.sort(RANKING);
+        return found.size() > limit ? List.copyOf(found.subList(0, limit)) : found;
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "station-search-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public String name() {
+        return "stationSearch";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("searches", searches.sum());
+        metrics.put("stationsChecked", stationsChecked.sum());
+        metrics.put("stoppedEarly", stoppedEarly.sum());
+        return metrics;
+    }
+
+    private List<AvailableStation> evaluate(List<NearbyStation> batch, LocalDateTime start, int minutes,
+            LocalDateTime latest) {
+        List<List<Long>> portsOfBatch = new ArrayList<>(batch.size());
+        List<Long> allPorts = new ArrayList<>();
+        for (NearbyStation nearby : batch) {
+            List<Long> portIds = Boolean.FALSE.equals(nearby.station().getAvailable())
+                    ? List.of()
+                    : availabilityTracker.portIds(nearby.station().getId(), ChargingPortStatus.AVAILABLE);
+            portsOfBatch.add(portIds);
+            allPorts.addAll(portIds);
+        }
+        // Uma só query para os ports do lote; a avaliação em paralelo fica em memória
+        bookingIntervalIndex.warm(allPorts);
+
+        List<Callable<AvailableStation>> tasks = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            NearbyStation nearby = batch.get(i);
+            List<Long> portIds = portsOfBatch.get(i);
+            if (!portIds.isEmpty()) {
+                tasks.add(() -> evaluate(nearby, portIds, start, minutes, latest));
+            }
+        }
+
+        List<AvailableStation> available = new ArrayList<>();
+        try {
+            for (Future<AvailableStation> result : executor.invokeAll(tasks)) {
+                if (result.get() != null) {
+                    available.add(result.get());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while searching stations", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return available;
+    }
+
+    private AvailableStation evaluate(NearbyStation nearby, List<Long> portIds, LocalDateTime start, int minutes,
+            LocalDateTime latest) {
+        LocalDateTime earliest = null;
+        List<Long> freePortIds = new ArrayList<>();
+        for (Long portId : portIds) {
+            LocalDateTime portStart = bookingIntervalIndex.earliestFreeStart(portId, start, minutes, latest);
+            if (portStart == null) {
+                continue;
+            }
+            if (earliest == null || portStart.isBefore(earliest)) {
+                earliest = portStart;
+                freePortIds.clear();
+            }
+            if (portStart.equals(earliest)) {
+                freePortIds.add(portId);
+            }
+        }
+        return earliest == null ? null
+                : new AvailableStation(nearby.station(), nearby.distanceKm(), earliest, List.copyOf(freePortIds));
+    }
+}
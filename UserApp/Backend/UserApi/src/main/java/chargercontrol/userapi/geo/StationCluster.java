@@ -0,0 +1,12 @@
+package chargercontrol.userapi.geo;
+
+import chargercontrol.userapi.model.Station;
+
+/**
+ * Stations of one map cell at one zoom level: how many, their centroid and their
+ * port counts. {@code stationId} and {@code station} are set only when the cell
+ * holds a single station, so the map can draw it without loading the station list.
+ */
+public record StationCluster(long id, double latitude, double longitude, int count, int freePorts,
+        int totalPorts, Long stationId, Station station) {
+}
@@ -0,0 +1,199 @@
+package chargercontrol.userapi.geo;
+
+import chargercontrol.userapi.availability.AvailabilityTracker;
+import chargercontrol.userapi.availability.StationAvailability;
+import chargercontrol.userapi.catalog.CatalogVersions;
+import chargercontrol.userapi.event.StationAvailabilityChangedEvent;
+import chargercontrol.userapi.metrics.MetricsSource;
+import chargercontrol.userapi.model.Station;
+import chargercontrol.userapi.repository.StationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed map clusters behind {@code GET /apiV1/stations/clusters}.
+ *
+ * The {@link ClusterLevels} are built once per {@link CatalogVersions#stations()}
+ * version, on the background check as soon as the version moves or the levels
+ * expire. Building every zoom level takes a while, so queries keep being answered
+ * from the previous levels until the new ones are ready; only a query that finds
+ * no levels at all waits for the first build. Port counts come from the {@link AvailabilityTracker} and are applied to
+ * the existing clusters on every {@link StationAvailabilityChangedEvent}, so port
+ * changes never trigger a rebuild. A query returns at most
+ * {@code stations.clusters.max-cells} clusters, whatever the fleet size.
+ */
+@Component
+public class StationClusterIndex implements SmartLifecycle, MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationClusterIndex.class);
+
+    static final int MAX_ZOOM_LIMIT = 24;
+
+    private final StationRepository stationRepository;
+    private final CatalogVersions catalogVersions;
+    private final AvailabilityTracker availabilityTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxZoom;
+    private final int maxCells;
+    private final Duration ttl;
+    private final long checkMillis;
+
+    private final AtomicReference<ClusterLevels> current = new AtomicReference<>();
+    private final Object buildLock = new Object();
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder availabilityUpdates = new LongAdder();
+    private final AtomicLong lastBuildMillis = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public StationClusterIndex(StationRepository stationRepository, CatalogVersions catalogVersions,
+            AvailabilityTracker availabilityTracker, PlatformTransactionManager transactionManager,
+            @Value("${stations.clusters.max-zoom:16}") int maxZoom,
+            @Value("${stations.clusters.max-cells:4096}") int maxCells,
+            @Value("${stations.clusters.ttl-seconds:300}") long ttlSeconds,
+            @Value("${stations.clusters.check-ms:500}") long checkMillis) {
+        this.stationRepository = stationRepository;
+        this.catalogVersions = catalogVersions;
+        this.availabilityTracker = availabilityTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.maxZoom = Math.max(0, Math.min(maxZoom, MAX_ZOOM_LIMIT));
+        this.maxCells = maxCells;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.checkMillis = checkMillis;
+    }
+
+    /**
+     * Clusters of {@code zoom} inside the box; zooms past {@code stations.clusters.max-zoom}
+     * get the clusters of the last level.
+     *
+     * @throws IllegalArgumentException if the box holds more than {@code stations.clusters.max-cells} cells
+     */
+    public List<StationCluster> clusters(double minLon, double minLat, double maxLon, double maxLat, int zoom) {
+        List<StationCluster> result = levels().query(minLon, minLat, maxLon, maxLat, zoom, maxCells);
+        queries.increment();
+        return result;
+    }
+
+    @EventListener
+    public void onAvailabilityChanged(StationAvailabilityChangedEvent event) {
+        ClusterLevels levels = current.get();
+        if (levels != null) {
+            availabilityUpdates.add(levels.update(event.changed()));
+        }
+    }
+
+    /** Background check: rebuilds when the version moved or the clusters expired. */
+    public void refresh() {
+        long version = catalogVersions.stations().version();
+        if (!isFresh(current.get(), version)) {
+            rebuild(version);
+        }
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "station-clusters");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                logger.error("Station cluster refresh failed: {}", e.getMessage());
+            }
+        }, 0, checkMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public String name() {
+        return "stationClusters";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        ClusterLevels levels = current.get();
+        metrics.put("version", levels == null ? null : levels.version());
+        metrics.put("stations", levels == null ? 0 : levels.size());
+        metrics.put("maxZoom", maxZoom);
+        metrics.put("queries", queries.sum());
+        metrics.put("availabilityUpdates", availabilityUpdates.sum());
+        metrics.put("builds", builds.sum());
+        metrics.put("lastBuildMs", lastBuildMillis.get());
+        return metrics;
+    }
+
+    private ClusterLevels levels() {
+        ClusterLevels levels = current.get();
+        return levels != null ? levels : rebuild(catalogVersions.stations().version());
+    }
+
+    private ClusterLevels rebuild(long version) {
+        synchronized (buildLock) {
+            // Whoever held the lock may already have built what we need
+            ClusterLevels levels = current.get();
+            if (isFresh(levels, version)) {
+                return levels;
+            }
+            long started = System.nanoTime();
+            List<Station> stations = transactionTemplate.execute(status -> stationRepository.findAll());
+            List<Long> stationIds = stations.stream().map(Station::getId).toList();
+            levels = ClusterLevels.build(stations, availabilityByStation(stationIds), maxZoom, version);
+            current.set(levels);
+            // Eventos aplicados aos clusters antigos durante a construção
+            levels.update(availabilityTracker.get(stationIds));
+            builds.increment();
+            lastBuildMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return levels;
+        }
+    }
+
+    private Map<Long, StationAvailability> availabilityByStation(List<Long> stationIds) {
+        return availabilityTracker.get(stationIds).stream()
+                .collect(Collectors.toMap(StationAvailability::stationId, Function.identity()));
+    }
+
+    private boolean isFresh(ClusterLevels levels, long version) {
+        return levels != null && levels.version() >= version && levels.builtAt().plus(ttl).isAfter(Instant.now());
+    }
+}
@@ -0,0 +1,193 @@
+package chargercontrol.userapi.geo;
+
+import chargercontrol.userapi.catalog.CatalogVersions;
+import chargercontrol.userapi.metrics.MetricsSource;
+import chargercontrol.userapi.model.ChargingType;
+import chargercontrol.userapi.model.Station;
+import chargercontrol.userapi.repository.StationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory spatial index of the stations behind {@code GET /apiV1/stations/near}
+ * and {@code POST /apiV1/stations/route}.
+ *
+ * Kept current the same way as the {@code StationCatalogCache}: the {@link GeoGrid}
+ * is tagged with the {@link CatalogVersions#stations()} version it was built from,
+ * a query that finds a newer version rebuilds it first, and a background check
+ * rebuilds it as soon as the version moves, whether the write came from this
+ * instance, another one or the OperatorApi. {@code stations.geo.ttl-seconds}
+ * only bounds writes the change log cannot see.
+ */
+@Component
+public class StationGeoIndex implements SmartLifecycle, MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationGeoIndex.class);
+
+    private final StationRepository stationRepository;
+    private final CatalogVersions catalogVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final double cellDegrees;
+    private final Duration ttl;
+    private final long checkMillis;
+
+    private final AtomicReference<GeoGrid> current = new AtomicReference<>();
+    private final Object buildLock = new Object();
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+    private final LongAdder routeQueries = new LongAdder();
+    private final LongAdder routeQueryNanos = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+    private final AtomicLong lastBuildMillis = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public StationGeoIndex(StationRepository stationRepository, CatalogVersions catalogVersions,
+            PlatformTransactionManager transactionManager,
+            @Value("${stations.geo.cell-degrees:0.1}") double cellDegrees,
+            @Value("${stations.geo.ttl-seconds:300}") long ttlSeconds,
+            @Value("${stations.geo.check-ms:500}") long checkMillis) {
+        this.stationRepository = stationRepository;
+        this.catalogVersions = catalogVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.cellDegrees = cellDegrees;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.checkMillis = checkMillis;
+    }
+
+    /** Up to {@code limit} stations within {@code radiusKm} of the point, nearest first. */
+    public List<NearbyStation> nearest(double latitude, double longitude, double radiusKm, int limit) {
+        GeoGrid grid = grid();
+        long started = System.nanoTime();
+        List<NearbyStation> result = grid.nearest(latitude, longitude, radiusKm, limit);
+        queryNanos.add(System.nanoTime() - started);
+        queries.increment();
+        return result;
+    }
+
+    /**
+     * Up to {@code limit} stations within {@code corridorKm} of the route, in the
+     * order they are reached. {@code chargingType} and {@code minPower} are
+     * ignored when null.
+     */
+    public List<RouteStation> alongRoute(Polyline route, double corridorKm, ChargingType chargingType,
+            Double minPower, int limit) {
+        GeoGrid grid = grid();
+        long started = System.nanoTime();
+        List<RouteStation> result = grid.alongRoute(route, corridorKm, station ->
+                (chargingType == null || chargingType == station.getChargingType())
+                        && (minPower == null || (station.getPower() != null && station.getPower() >= minPower)));
+        routeQueryNanos.add(System.nanoTime() - started);
+        routeQueries.increment();
+        return result.size() > limit ? List.copyOf(result.subList(0, limit)) : result;
+    }
+
+    /** Background check: rebuilds when the version moved or the grid expired. */
+    public void refresh() {
+        long version = catalogVersions.stations().version();
+        if (!isFresh(current.get(), version)) {
+            rebuild(version);
+        }
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "station-geo-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                logger.error("Station geo index refresh failed: {}", e.getMessage());
+            }
+        }, 0, checkMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public String name() {
+        return "stationGeoIndex";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        GeoGrid grid = current.get();
+        long queryCount = queries.sum();
+        metrics.put("version", grid == null ? null : grid.version());
+        metrics.put("stations", grid == null ? 0 : grid.size());
+        metrics.put("cellDegrees", cellDegrees);
+        metrics.put("queries", queryCount);
+        metrics.put("avgQueryMicros", queryCount == 0 ? 0.0 : queryNanos.sum() / 1000.0 / queryCount);
+        long routeQueryCount = routeQueries.sum();
+        metrics.put("routeQueries", routeQueryCount);
+        metrics.put("avgRouteQueryMicros",
+                routeQueryCount == 0 ? 0.0 : routeQueryNanos.sum() / 1000.0 / routeQueryCount);
+        metrics.put("builds", builds.sum());
+        metrics.put("lastBuildMs", lastBuildMillis.get());
+        return metrics;
+    }
+
+    private GeoGrid grid() {
+        long version = catalogVersions.stations().version();
+        GeoGrid grid = current.get();
+        return isFresh(grid, version) ? grid : rebuild(version);
+    }
+
+    private GeoGrid rebuild(long version) {
+        synchronized (buildLock) {
+            // Whoever held the lock may already have built what we need
+            GeoGrid grid = current.get();
+            if (isFresh(grid, version)) {
+                return grid;
+            }
+            long started = System.nanoTime();
+            List<Station> stations = transactionTemplate.execute(status -> stationRepository.findAll());
+            grid = GeoGrid.build(stations, cellDegrees, version);
+            current.set(grid);
+            builds.increment();
+            lastBuildMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return grid;
+        }
+    }
+
+    private boolean isFresh(GeoGrid grid, long version) {
+        return grid != null && grid.version() >= version && grid.builtAt().plus(ttl).isAfter(Instant.now());
+    }
+}
@@ -0,0 +1,269 @@
+package chargercontrol.userapi.idempotency;
+
+import chargercontrol.userapi.metrics.MetricsSource;
+import chargercontrol.userapi.model.IdempotencyRecord;
+import chargercontrol.userapi.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response of a POST that is retried with the same
+ * {@code Idempotency-Key} instead of running it again.
+ *
+ * Responses are kept in a bounded LRU map keyed by scope, owner (the user the
+ * request acts for) and key, for {@code idempotency.ttl-minutes}. A retry that
+ * arrives while the first request is still running waits for its result. With
+ * {@code idempotency.db.enabled} the responses that are safe to persist are also
+ * written to {@code idempotency_records}, so a retry that lands on another
+ * instance is replayed as well. Only 2xx responses are stored; reusing a key for
+ * a different request is answered with 422.
+ */
+@Service
+public class IdempotencyService implements MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+    private static final long IN_FLIGHT_WAIT_SECONDS = 30;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final boolean dbEnabled;
+    private final Map<String, StoredResponse> cache;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder replayedFromDb = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder mismatched = new LongAdder();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper,
+            @Value("${idempotency.cache.max-entries:10000}") int maxEntries,
+            @Value("${idempotency.ttl-minutes:60}") long ttlMinutes,
+            @Value("${idempotency.db.enabled:false}") boolean dbEnabled) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.dbEnabled = dbEnabled;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public boolean isDbEnabled() {
+        return dbEnabled;
+    }
+
+    /**
+     * Runs {@code action} once per {@code (scope, owner, key)}.
+     *
+     * @param request what identifies the request; a retry with the same key must
+     *                carry an equal value. Keep secrets such as passwords out of it.
+     * @param persist whether the response may be written to the database
+     */
+    public <T> ResponseEntity<T> execute(String scope, String owner, String key, Object request,
+            Class<T> bodyType, boolean persist, Supplier<ResponseEntity<T>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        String cacheKey = scope + '\n' + owner + '\n' + key;
+        String requestHash = hash(request);
+
+        StoredResponse stored = lookup(cacheKey);
+        if (stored != null) {
+            replayed.increment();
+            return replay(stored, requestHash, bodyType);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(cacheKey, mine);
+        if (running != null) {
+            waited.increment();
+            StoredResponse result = await(running);
+            if (result == null) {
+                // The first attempt failed or timed out, so this retry runs on its own
+                return execute(scope, owner, key, request, bodyType, persist, action);
+            }
+            replayed.increment();
+            return replay(result, requestHash, bodyType);
+        }
+
+        StoredResponse result = lookup(cacheKey);
+        try {
+            if (result != null) {
+                // The previous attempt finished between the lookup and taking the slot
+                replayed.increment();
+                return replay(result, requestHash, bodyType);
+            }
+            if (persist && dbEnabled) {
+                result = loadFromDb(scope, owner, key, bodyType);
+                if (result != null) {
+                    remember(cacheKey, result);
+                    replayedFromDb.increment();
+                    return replay(result, requestHash, bodyType);
+                }
+            }
+
+            executed.increment();
+            ResponseEntity<T> response = action.get();
+            if (response.getStatusCode().is2xxSuccessful()) {
+                result = new StoredResponse(response.getStatusCode().value(), response.getBody(), requestHash,
+                        LocalDateTime.now());
+                remember(cacheKey, result);
+                if (persist && dbEnabled) {
+                    saveToDb(scope, owner, key, result);
+                }
+            }
+            return response;
+        } finally {
+            inFlight.remove(cacheKey, mine);
+            mine.complete(result);
+        }
+    }
+
+    /** Drops cached responses older than the TTL. */
+    public int evictExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        synchronized (cache) {
+            int before = cache.size();
+            cache.values().removeIf(stored -> stored.createdAt().isBefore(cutoff));
+            return before - cache.size();
+        }
+    }
+
+    public int cachedResponses() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    @Override
+    public String name() {
+        return "idempotency";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("cached", cachedResponses());
+        metrics.put("inFlight", inFlight.size());
+        metrics.put("executed", executed.sum());
+        metrics.put("replayed", replayed.sum());
+        metrics.put("replayedFromDb", replayedFromDb.sum());
+        metrics.put("waitedForInFlight", waited.sum());
+        metrics.put("keyReuseRejected", mismatched.sum());
+        return metrics;
+    }
+
+    private StoredResponse lookup(String cacheKey) {
+        synchronized (cache) {
+            StoredResponse stored = cache.get(cacheKey);
+            if (stored != null && stored.createdAt().isBefore(LocalDateTime.now().minus(ttl))) {
+                cache.remove(cacheKey);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private void remember(String cacheKey, StoredResponse stored) {
+        synchronized (cache) {
+            cache.put(cacheKey, stored);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, Class<T> bodyType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            mismatched.increment();
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        }
+        return ResponseEntity.status(stored.statusCode())
+                .header(REPLAYED_HEADER, "true")
+                .body(bodyType.cast(stored.body()));
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(IN_FLIGHT_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the original request", e);
+        }
+    }
+
+    private StoredResponse loadFromDb(String scope, String owner, String key, Class<?> bodyType) {
+        return idempotencyRecordRepository.findByScopeAndOwnerKeyAndIdempotencyKey(scope, owner, key)
+                .filter(record -> record.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl)))
+                .map(record -> {
+                    try {
+                        Object body = record.getBody() == null ? null : objectMapper.readValue(record.getBody(), bodyType);
+                        return new StoredResponse(record.getStatusCode(), body, record.getRequestHash(),
+                                record.getCreatedAt());
+                    } catch (JsonProcessingException e) {
+                        logger.warn("Ignoring unreadable idempotency record {}: {}", record.getId(), e.getMessage());
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+
+    private void saveToDb(String scope, String owner, String key, StoredResponse stored) {
+        try {
+            String body = stored.body() == null ? null : objectMapper.writeValueAsString(stored.body());
+            idempotencyRecordRepository.save(new IdempotencyRecord(null, scope, owner, key, stored.requestHash(),
+                    stored.statusCode(), body, stored.createdAt()));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored the same key first
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The response was already produced; only cross-instance replay is lost
+            logger.warn("Could not store idempotency record for {}/{}: {}", scope, owner, e.getMessage());
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private record StoredResponse(int statusCode, Object body, String requestHash, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,17 @@
+package chargercontrol.userapi.index;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time window occupied by a single booking, as kept by {@link BookingIntervalIndex}.
+ */
+public record BookingInterval(Long bookingId, LocalDateTime start, Integer duration) {
+
+    public LocalDateTime end() {
+        return start.plusMinutes(duration);
+    }
+
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && end().isAfter(otherStart);
+    }
+}
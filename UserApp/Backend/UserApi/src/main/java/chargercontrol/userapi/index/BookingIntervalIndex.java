@@ -0,0 +1,184 @@
+package chargercontrol.userapi.index;
+
+import chargercontrol.userapi.event.BookingChangedEvent;
+import chargercontrol.userapi.model.BookingStatus;
+import chargercontrol.userapi.repository.BookSlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory index of the blocking booking intervals of each charging port.
+ *
+ * Ports are loaded lazily from {@code book_slots} on first use and kept up to date
+ * from {@link BookingChangedEvent}s after commit; events for ports that are being
+ * loaded in a batch are held back and replayed once the batch is in, so a change
+ * committed while the query runs is not lost. The index answers availability
+ * questions; {@code BookSlotRepository.findOverlappingBookings} stays the final
+ * guard when a booking is written.
+ */
+@Component
+public class BookingIntervalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingIntervalIndex.class);
+
+    /** Same statuses that {@code findOverlappingBookings} treats as occupying a port. */
+    public static final Set<BookingStatus> BLOCKING_STATUSES =
+            EnumSet.of(BookingStatus.PENDING, BookingStatus.ACTIVE, BookingStatus.COMPLETED);
+
+    /** Bookings that ended longer ago than this are not loaded nor kept. */
+    static final long LOOKBACK_HOURS = 24;
+
+    private final BookSlotRepository bookSlotRepository;
+    private final ConcurrentMap<Long, PortIntervals> ports = new ConcurrentHashMap<>();
+    // Eventos de portas a meio de um warm; só mexidos dentro do compute da porta
+    private final ConcurrentMap<Long, List<BookingChangedEvent>> loading = new ConcurrentHashMap<>();
+
+    public BookingIntervalIndex(BookSlotRepository bookSlotRepository) {
+        this.bookSlotRepository = bookSlotRepository;
+    }
+
+    public boolean isFree(Long chargingPortId, LocalDateTime start, LocalDateTime end) {
+        return !intervalsOf(chargingPortId).overlaps(start, end);
+    }
+
+    /** Ports of {@code chargingPortIds}, in the given order, that are free for the whole window. */
+    public List<Long> findFreePorts(Collection<Long> chargingPortIds, LocalDateTime start, LocalDateTime end) {
+        warm(chargingPortIds);
+        List<Long> free = new ArrayList<>();
+        for (Long chargingPortId : chargingPortIds) {
+            if (isFree(chargingPortId, start, end)) {
+                free.add(chargingPortId);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Free/busy view of a port as one bit per calendar bucket, starting at the
+     * bucket that contains {@code from} and ending at the one that contains {@code to}.
+     */
+    public FreeBusy freeBusy(Long chargingPortId, LocalDateTime from, LocalDateTime to) {
+        PortIntervals intervals = intervalsOf(chargingPortId);
+        long first = intervals.bucketOf(from);
+        int count = (int) Math.max(0, intervals.bucketOf(to.minusNanos(1)) - first + 1);
+        return new FreeBusy(intervals.bucketStart(first), intervals.bucketMinutes(), count,
+                intervals.busyBuckets(first, count));
+    }
+
+    /** When {@code chargingPortId} is next free at or after {@code from}, going by its bookings only. */
+    public LocalDateTime nextFreeAt(Long chargingPortId, LocalDateTime from) {
+        return intervalsOf(chargingPortId).freeFrom(from);
+    }
+
+    /**
+     * Earliest start in {@code [from, latest]} at which {@code chargingPortId} is
+     * free for {@code minutes}, going by its bookings only; null if there is none.
+     */
+    public LocalDateTime earliestFreeStart(Long chargingPortId, LocalDateTime from, long minutes,
+            LocalDateTime latest) {
+        return intervalsOf(chargingPortId).earliestFreeStart(from, minutes, latest);
+    }
+
+    /** Loads every port of {@code chargingPortIds} that is not cached yet with one query. */
+    public void warm(Collection<Long> chargingPortIds) {
+        List<Long> missing = chargingPortIds.stream()
+                .filter(portId -> !ports.containsKey(portId))
+                .distinct()
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<Long, PortIntervals> loaded = new HashMap<>();
+        missing.forEach(portId -> {
+            loaded.put(portId, new PortIntervals());
+            loading.computeIfAbsent(portId, id -> new ArrayList<>());
+        });
+        List<PortBookingInterval> intervals;
+        try {
+            intervals = bookSlotRepository.findIntervalsByChargingPortIds(missing, BLOCKING_STATUSES, horizon());
+        } catch (RuntimeException e) {
+            missing.forEach(loading::remove);
+            throw e;
+        }
+        intervals.forEach(interval -> loaded.get(interval.chargingPortId()).put(interval.interval()));
+        loaded.forEach((portId, portIntervals) -> ports.compute(portId, (id, existing) -> {
+            List<BookingChangedEvent> held = loading.remove(id);
+            // A port loaded concurrently through intervalsOf keeps its own copy
+            if (existing != null) {
+                return existing;
+            }
+            if (held != null) {
+                held.forEach(event -> apply(portIntervals, event));
+            }
+            return portIntervals;
+        }));
+        logger.debug("Loaded {} booking intervals for {} charging ports", intervals.size(), missing.size());
+    }
+
+    /** Drops the cached intervals of a port so the next lookup reloads them. */
+    public void evict(Long chargingPortId) {
+        ports.remove(chargingPortId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.chargingPortId() == null || event.bookingId() == null) {
+            return;
+        }
+        // Ports that were never loaded will read the committed state on first use.
+        ports.compute(event.chargingPortId(), (portId, intervals) -> {
+            if (intervals != null) {
+                apply(intervals, event);
+                return intervals;
+            }
+            List<BookingChangedEvent> held = loading.get(portId);
+            if (held != null) {
+                held.add(event);
+            }
+            return null;
+        });
+    }
+
+    int loadedPorts() {
+        return ports.size();
+    }
+
+    private PortIntervals intervalsOf(Long chargingPortId) {
+        return ports.computeIfAbsent(chargingPortId, this::load);
+    }
+
+    private PortIntervals load(Long chargingPortId) {
+        List<BookingInterval> intervals = bookSlotRepository.findIntervalsByChargingPortId(
+                chargingPortId, BLOCKING_STATUSES, horizon());
+        PortIntervals portIntervals = new PortIntervals();
+        intervals.forEach(portIntervals::put);
+        logger.debug("Loaded {} booking intervals for charging port {}", intervals.size(), chargingPortId);
+        return portIntervals;
+    }
+
+    private static void apply(PortIntervals intervals, BookingChangedEvent event) {
+        if (BLOCKING_STATUSES.contains(event.status())) {
+            intervals.put(new BookingInterval(event.bookingId(), event.bookingTime(), event.duration()));
+            intervals.pruneEndedBefore(horizon());
+        } else {
+            intervals.remove(event.bookingId());
+        }
+    }
+
+    private static LocalDateTime horizon() {
+        return LocalDateTime.now().minusHours(LOOKBACK_HOURS);
+    }
+}
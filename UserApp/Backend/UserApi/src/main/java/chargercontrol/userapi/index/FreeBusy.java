@@ -0,0 +1,24 @@
+package chargercontrol.userapi.index;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+/**
+ * Busy buckets of a charging port from {@code start} on; bit {@code i} covers
+ * {@code [start + i * bucketMinutes, start + (i + 1) * bucketMinutes)}.
+ */
+public record FreeBusy(LocalDateTime start, int bucketMinutes, int bucketCount, BitSet busy) {
+
+    public boolean isBusy(int bucket) {
+        return busy.get(bucket);
+    }
+
+    /** One character per bucket, {@code '1'} busy and {@code '0'} free. */
+    public String toBitString() {
+        StringBuilder sb = new StringBuilder(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            sb.append(busy.get(i) ? '1' : '0');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package chargercontrol.userapi.index;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@link BookingInterval} tagged with its charging port, for loading several ports in one query.
+ */
+public record PortBookingInterval(Long chargingPortId, Long bookingId, LocalDateTime start, Integer duration) {
+
+    public BookingInterval interval() {
+        return new BookingInterval(bookingId, start, duration);
+    }
+}
@@ -0,0 +1,213 @@
+package chargercontrol.userapi.index;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Blocking intervals of one charging port, ordered by start time.
+ *
+ * Only intervals starting in {@code [start - maxDuration, end)} can reach into a
+ * queried window, so an overlap check is a range lookup instead of a full scan.
+ * A {@link SlotCalendar} mirrors the same intervals as bits and answers the
+ * common "window is completely free" case without touching the tree. Buckets
+ * entering the calendar horizon as time moves are marked from the tree, so
+ * bookings made further ahead than the horizon show up once it reaches them.
+ */
+class PortIntervals {
+
+    private final NavigableMap<LocalDateTime, Map<Long, BookingInterval>> byStart = new TreeMap<>();
+    private final Map<Long, BookingInterval> byBooking = new HashMap<>();
+    private final SlotCalendar calendar = new SlotCalendar();
+    private final Clock clock;
+    private long maxDurationMinutes;
+
+    PortIntervals() {
+        this(Clock.systemDefaultZone());
+    }
+
+    PortIntervals(Clock clock) {
+        this.clock = clock;
+    }
+
+    synchronized void put(BookingInterval interval) {
+        remove(interval.bookingId());
+        byStart.computeIfAbsent(interval.start(), k -> new LinkedHashMap<>()).put(interval.bookingId(), interval);
+        byBooking.put(interval.bookingId(), interval);
+        maxDurationMinutes = Math.max(maxDurationMinutes, interval.duration());
+        advanceCalendar();
+        calendar.mark(calendar.bucketOf(interval.start()), calendar.bucketCeil(interval.end()));
+    }
+
+    synchronized BookingInterval remove(Long bookingId) {
+        BookingInterval existing = byBooking.remove(bookingId);
+        if (existing != null) {
+            Map<Long, BookingInterval> sameStart = byStart.get(existing.start());
+            sameStart.remove(bookingId);
+            if (sameStart.isEmpty()) {
+                byStart.remove(existing.start());
+            }
+            unmark(existing);
+        }
+        return existing;
+    }
+
+    synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        advanceCalendar();
+        long from = calendar.bucketOf(start);
+        long to = calendar.bucketCeil(end);
+        if (calendar.covers(from, to) && !calendar.anySet(from, to)) {
+            return false;
+        }
+        for (Map<Long, BookingInterval> sameStart : candidates(start, end).values()) {
+            for (BookingInterval interval : sameStart.values()) {
+                if (interval.overlaps(start, end)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** First instant at or after {@code from} not covered by any interval, following back-to-back bookings. */
+    synchronized LocalDateTime freeFrom(LocalDateTime from) {
+        LocalDateTime free = from;
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (Map<Long, BookingInterval> sameStart : candidates(free, free.plusNanos(1)).values()) {
+                for (BookingInterval interval : sameStart.values()) {
+                    if (interval.end().isAfter(free)) {
+                        free = interval.end();
+                        moved = true;
+                    }
+                }
+            }
+        }
+        return free;
+    }
+
+    /**
+     * First start in {@code [from, latest]} with {@code minutes} free after it, or
+     * null. A booking that overlaps the window starting at a free instant also
+     * overlaps every later window that begins before it ends, so the search jumps
+     * straight past the latest such booking.
+     */
+    synchronized LocalDateTime earliestFreeStart(LocalDateTime from, long minutes, LocalDateTime latest) {
+        LocalDateTime start = freeFrom(from);
+        while (!start.isAfter(latest)) {
+            LocalDateTime end = start.plusMinutes(minutes);
+            if (!overlaps(start, end)) {
+                return start;
+            }
+            LocalDateTime blockedUntil = start;
+            for (Map<Long, BookingInterval> sameStart : candidates(start, end).values()) {
+                for (BookingInterval interval : sameStart.values()) {
+                    if (interval.overlaps(start, end) && interval.end().isAfter(blockedUntil)) {
+                        blockedUntil = interval.end();
+                    }
+                }
+            }
+            start = freeFrom(blockedUntil);
+        }
+        return null;
+    }
+
+    synchronized void pruneEndedBefore(LocalDateTime cutoff) {
+        Iterator<Map<Long, BookingInterval>> it = byStart.headMap(cutoff, false).values().iterator();
+        while (it.hasNext()) {
+            Map<Long, BookingInterval> sameStart = it.next();
+            sameStart.values().removeIf(interval -> {
+                boolean ended = !interval.end().isAfter(cutoff);
+                if (ended) {
+                    byBooking.remove(interval.bookingId());
+                }
+                return ended;
+            });
+            if (sameStart.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    synchronized int size() {
+        return byBooking.size();
+    }
+
+    /**
+     * Busy buckets of {@code [from, from + count)}; bit {@code i} is set when
+     * bucket {@code from + i} is touched by at least one booking.
+     */
+    synchronized BitSet busyBuckets(long from, int count) {
+        advanceCalendar();
+        long to = from + count;
+        if (calendar.covers(from, to)) {
+            return calendar.snapshot(from, to);
+        }
+        BitSet bits = new BitSet(count);
+        for (Map<Long, BookingInterval> sameStart : candidates(calendar.startOf(from), calendar.startOf(to)).values()) {
+            for (BookingInterval interval : sameStart.values()) {
+                long first = Math.max(calendar.bucketOf(interval.start()), from);
+                long last = Math.min(calendar.bucketCeil(interval.end()), to);
+                if (first < last) {
+                    bits.set((int) (first - from), (int) (last - from));
+                }
+            }
+        }
+        return bits;
+    }
+
+    int bucketMinutes() {
+        return calendar.bucketMinutes();
+    }
+
+    long bucketOf(LocalDateTime time) {
+        return calendar.bucketOf(time);
+    }
+
+    LocalDateTime bucketStart(long bucket) {
+        return calendar.startOf(bucket);
+    }
+
+    private void advanceCalendar() {
+        long firstNew = calendar.advanceTo(calendar.bucketOf(LocalDateTime.now(clock)));
+        markTouching(firstNew, calendar.horizonEnd());
+    }
+
+    /**
+     * Clears the buckets of a removed interval and re-marks the ones still touched
+     * by neighbouring intervals, since several bookings can share an edge bucket.
+     */
+    private void unmark(BookingInterval removed) {
+        long from = calendar.bucketOf(removed.start());
+        long to = calendar.bucketCeil(removed.end());
+        calendar.clear(from, to);
+        markTouching(from, to);
+    }
+
+    /** Marks the part of {@code [from, to)} touched by each interval. */
+    private void markTouching(long from, long to) {
+        if (from >= to) {
+            return;
+        }
+        for (Map<Long, BookingInterval> sameStart : candidates(calendar.startOf(from), calendar.startOf(to)).values()) {
+            for (BookingInterval interval : sameStart.values()) {
+                long first = Math.max(calendar.bucketOf(interval.start()), from);
+                long last = Math.min(calendar.bucketCeil(interval.end()), to);
+                if (first < last) {
+                    calendar.mark(first, last);
+                }
+            }
+        }
+    }
+
+    private NavigableMap<LocalDateTime, Map<Long, BookingInterval>> candidates(LocalDateTime start, LocalDateTime end) {
+        return byStart.subMap(start.minusMinutes(maxDurationMinutes), true, end, false);
+    }
+}
@@ -0,0 +1,169 @@
+package chargercontrol.userapi.index;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Rolling free/busy bitmap of one charging port.
+ *
+ * Time is split into fixed-size buckets (5 minutes by default) and the next
+ * {@code horizonBuckets} of them are kept as bits in a {@code long[]} ring, so
+ * "is anything booked in this window" is a handful of word-level operations.
+ * A bucket is set when any booking touches it, which makes a clear range a
+ * definitive "free" while a set bit only means "possibly busy". Not thread-safe;
+ * {@link PortIntervals} guards it.
+ */
+class SlotCalendar {
+
+    static final int DEFAULT_BUCKET_MINUTES = 5;
+    static final int DEFAULT_HORIZON_DAYS = 30;
+
+    private final int bucketMinutes;
+    private final int horizonBuckets;
+    private final long[] words;
+    private long originBucket;
+
+    SlotCalendar() {
+        this(DEFAULT_BUCKET_MINUTES, DEFAULT_HORIZON_DAYS * 24 * 60 / DEFAULT_BUCKET_MINUTES);
+    }
+
+    SlotCalendar(int bucketMinutes, int horizonBuckets) {
+        this.bucketMinutes = bucketMinutes;
+        this.horizonBuckets = horizonBuckets;
+        this.words = new long[(horizonBuckets + 63) / 64];
+        this.originBucket = Long.MIN_VALUE;
+    }
+
+    int bucketMinutes() {
+        return bucketMinutes;
+    }
+
+    long bucketOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), bucketMinutes * 60L);
+    }
+
+    /** First bucket after the one {@code time} falls in, unless {@code time} is on a boundary. */
+    long bucketCeil(LocalDateTime time) {
+        long seconds = time.toEpochSecond(ZoneOffset.UTC);
+        long bucketSeconds = bucketMinutes * 60L;
+        long bucket = Math.floorDiv(seconds, bucketSeconds);
+        return (seconds % bucketSeconds == 0 && time.getNano() == 0) ? bucket : bucket + 1;
+    }
+
+    LocalDateTime startOf(long bucket) {
+        return LocalDateTime.ofEpochSecond(bucket * bucketMinutes * 60L, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Moves the horizon so it starts at {@code bucket}, forgetting everything before it.
+     * Returns the first bucket that entered the horizon with the move, or
+     * {@link #horizonEnd()} if none did; those buckets come in cleared and the
+     * caller has to mark the bookings that reach into them.
+     */
+    long advanceTo(long bucket) {
+        if (originBucket == Long.MIN_VALUE || bucket - originBucket >= horizonBuckets) {
+            Arrays.fill(words, 0L);
+            originBucket = bucket;
+            return bucket;
+        }
+        if (bucket > originBucket) {
+            long firstNew = horizonEnd();
+            apply(originBucket, bucket, false);
+            originBucket = bucket;
+            return firstNew;
+        }
+        return horizonEnd();
+    }
+
+    /** First bucket after the current horizon. */
+    long horizonEnd() {
+        return originBucket + horizonBuckets;
+    }
+
+    /** Whether {@code [from, to)} lies entirely inside the current horizon. */
+    boolean covers(long from, long to) {
+        return from >= originBucket && to <= originBucket + horizonBuckets;
+    }
+
+    void mark(long from, long to) {
+        long clampedFrom = Math.max(from, originBucket);
+        long clampedTo = Math.min(to, originBucket + horizonBuckets);
+        if (clampedFrom < clampedTo) {
+            apply(clampedFrom, clampedTo, true);
+        }
+    }
+
+    void clear(long from, long to) {
+        long clampedFrom = Math.max(from, originBucket);
+        long clampedTo = Math.min(to, originBucket + horizonBuckets);
+        if (clampedFrom < clampedTo) {
+            apply(clampedFrom, clampedTo, false);
+        }
+    }
+
+    /** Whether any bucket of {@code [from, to)} is set; the range must be covered. */
+    boolean anySet(long from, long to) {
+        if (to <= from) {
+            return false;
+        }
+        int start = position(from);
+        int length = (int) (to - from);
+        if (start + length <= horizonBuckets) {
+            return anySetLinear(start, start + length);
+        }
+        return anySetLinear(start, horizonBuckets) || anySetLinear(0, start + length - horizonBuckets);
+    }
+
+    /** Copies the bits of {@code [from, to)} into a {@link BitSet} indexed from {@code from}. */
+    BitSet snapshot(long from, long to) {
+        BitSet bits = new BitSet((int) (to - from));
+        for (long bucket = from; bucket < to; bucket++) {
+            int pos = position(bucket);
+            if ((words[pos >>> 6] & (1L << pos)) != 0) {
+                bits.set((int) (bucket - from));
+            }
+        }
+        return bits;
+    }
+
+    private int position(long bucket) {
+        return (int) Math.floorMod(bucket, (long) horizonBuckets);
+    }
+
+    private void apply(long from, long to, boolean set) {
+        int start = position(from);
+        int length = (int) (to - from);
+        if (start + length <= horizonBuckets) {
+            applyLinear(start, start + length, set);
+        } else {
+            applyLinear(start, horizonBuckets, set);
+            applyLinear(0, start + length - horizonBuckets, set);
+        }
+    }
+
+    private void applyLinear(int from, int to, boolean set) {
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            long mask = rangeMask(word, from, to);
+            words[word] = set ? words[word] | mask : words[word] & ~mask;
+        }
+    }
+
+    private boolean anySetLinear(int from, int to) {
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            if ((words[word] & rangeMask(word, from, to)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long rangeMask(int word, int from, int to) {
+        int wordStart = word << 6;
+        int lo = Math.max(from, wordStart) - wordStart;
+        int hi = Math.min(to, wordStart + 64) - wordStart;
+        long upper = hi == 64 ? -1L : (1L << hi) - 1;
+        return upper & (-1L << lo);
+    }
+}
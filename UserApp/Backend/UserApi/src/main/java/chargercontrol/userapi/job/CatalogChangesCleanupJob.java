@@ -0,0 +1,51 @@
+package chargercontrol.userapi.job;
+
+import chargercontrol.userapi.repository.CatalogChangeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Removes {@code catalog_changes} rows older than
+ * {@code jobs.catalog-changes-cleanup.retention-days}; both APIs append one for
+ * every station and port write. Everything up to the newest old row goes, so the
+ * rows left are always the latest ones and a client behind them is sent the whole
+ * catalog. The newest row is always kept, to tell how far the log has gone.
+ */
+@Component
+public class CatalogChangesCleanupJob implements ScheduledJob {
+
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final Duration interval;
+    private final Duration retention;
+
+    public CatalogChangesCleanupJob(CatalogChangeRepository catalogChangeRepository,
+            @Value("${jobs.catalog-changes-cleanup.interval-minutes:60}") long intervalMinutes,
+            @Value("${jobs.catalog-changes-cleanup.retention-days:7}") long retentionDays) {
+        this.catalogChangeRepository = catalogChangeRepository;
+        this.interval = Duration.ofMinutes(intervalMinutes);
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    @Override
+    public String name() {
+        return "catalog-changes-cleanup";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    @Transactional
+    public long run(JobProgress progress) {
+        long upTo = Math.min(
+                catalogChangeRepository.findLatestVersionBefore(LocalDateTime.now().minus(retention)),
+                catalogChangeRepository.findLatestVersion() - 1);
+        return upTo > 0 ? catalogChangeRepository.deleteUpTo(upTo) : 0;
+    }
+}
@@ -0,0 +1,48 @@
+package chargercontrol.userapi.job;
+
+import chargercontrol.userapi.service.EnergyLedgerService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Adds the energy ledger entries written since the last run to the per-port
+ * totals, one batch per transaction.
+ */
+@Component
+public class EnergyRollupJob implements ScheduledJob {
+
+    static final int BATCH_SIZE = 500;
+
+    private final EnergyLedgerService energyLedgerService;
+    private final Duration interval;
+
+    public EnergyRollupJob(EnergyLedgerService energyLedgerService,
+            @Value("${jobs.energy-rollup.interval-minutes:1}") long intervalMinutes) {
+        this.energyLedgerService = energyLedgerService;
+        this.interval = Duration.ofMinutes(intervalMinutes);
+    }
+
+    @Override
+    public String name() {
+        return "energy-rollup";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    public long run(JobProgress progress) {
+        long total = 0;
+        int rolledUp;
+        do {
+            rolledUp = energyLedgerService.rollup(BATCH_SIZE);
+            total += rolledUp;
+            progress.processed(total);
+        } while (rolledUp == BATCH_SIZE);
+        return total;
+    }
+}
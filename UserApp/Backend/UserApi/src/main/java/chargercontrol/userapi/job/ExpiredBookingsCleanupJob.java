@@ -0,0 +1,39 @@
+package chargercontrol.userapi.job;
+
+import chargercontrol.userapi.service.BookSlotService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Expires PENDING bookings whose end time passed without the deadline scheduler
+ * handling them, e.g. because no instance was running at the time.
+ */
+@Component
+public class ExpiredBookingsCleanupJob implements ScheduledJob {
+
+    private final BookSlotService bookSlotService;
+    private final Duration interval;
+
+    public ExpiredBookingsCleanupJob(BookSlotService bookSlotService,
+            @Value("${jobs.booking-cleanup.interval-minutes:5}") long intervalMinutes) {
+        this.bookSlotService = bookSlotService;
+        this.interval = Duration.ofMinutes(intervalMinutes);
+    }
+
+    @Override
+    public String name() {
+        return "expired-bookings-cleanup";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    public long run(JobProgress progress) {
+        return bookSlotService.cleanupExpiredBookings();
+    }
+}
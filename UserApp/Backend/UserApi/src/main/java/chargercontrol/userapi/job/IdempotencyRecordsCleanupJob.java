@@ -0,0 +1,51 @@
+package chargercontrol.userapi.job;
+
+import chargercontrol.userapi.idempotency.IdempotencyService;
+import chargercontrol.userapi.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Removes idempotency responses older than the replay TTL, from memory and from
+ * {@code idempotency_records}.
+ */
+@Component
+public class IdempotencyRecordsCleanupJob implements ScheduledJob {
+
+    private final IdempotencyService idempotencyService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Duration interval;
+
+    public IdempotencyRecordsCleanupJob(IdempotencyService idempotencyService,
+            IdempotencyRecordRepository idempotencyRecordRepository,
+            @Value("${jobs.idempotency-cleanup.interval-minutes:15}") long intervalMinutes) {
+        this.idempotencyService = idempotencyService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.interval = Duration.ofMinutes(intervalMinutes);
+    }
+
+    @Override
+    public String name() {
+        return "idempotency-records-cleanup";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    @Transactional
+    public long run(JobProgress progress) {
+        long removed = idempotencyService.evictExpired();
+        if (idempotencyService.isDbEnabled()) {
+            removed += idempotencyRecordRepository.deleteCreatedBefore(
+                    LocalDateTime.now().minus(idempotencyService.getTtl()));
+        }
+        return removed;
+    }
+}
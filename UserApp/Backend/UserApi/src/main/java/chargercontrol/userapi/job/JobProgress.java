@@ -0,0 +1,9 @@
+package chargercontrol.userapi.job;
+
+/**
+ * Lets a running job report how many items it has processed so far.
+ */
+public interface JobProgress {
+
+    void processed(long count);
+}
@@ -0,0 +1,218 @@
+package chargercontrol.userapi.job;
+
+import chargercontrol.userapi.metrics.MetricsSource;
+import chargercontrol.userapi.model.JobLease;
+import chargercontrol.userapi.model.JobRun;
+import chargercontrol.userapi.model.JobRunStatus;
+import chargercontrol.userapi.repository.JobLeaseRepository;
+import chargercontrol.userapi.repository.JobRunRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs every {@link ScheduledJob} bean on its own schedule, on one instance at a time.
+ *
+ * Before a run, the instance takes the job's row in {@code job_leases} with a
+ * conditional UPDATE (ShedLock style): only a lease whose {@code locked_until} has
+ * passed can be taken, and the database lets exactly one instance win. The lease
+ * is held for {@link ScheduledJob#lockAtMostFor()} in case the instance dies, and
+ * shortened to {@link ScheduledJob#lockAtLeastFor()} after the run. Each run is
+ * recorded in {@code job_runs}.
+ *
+ * Cluster-wide batch work of both APIs belongs here, since they share the
+ * database. OperatorApi's own periodic tasks (the station search index reload and
+ * the port event poll, flush and heartbeat) maintain per-instance memory and
+ * must keep running on every instance, so they are not leased.
+ */
+@Component
+public class JobRunner implements SmartLifecycle, MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRunner.class);
+
+    private static final int MESSAGE_LENGTH = 1000;
+
+    private final List<ScheduledJob> jobs;
+    private final JobLeaseRepository jobLeaseRepository;
+    private final JobRunRepository jobRunRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final String instanceId;
+    private final Map<String, JobStats> stats = new ConcurrentHashMap<>();
+
+    private ThreadPoolTaskScheduler scheduler;
+    private volatile boolean running;
+
+    public JobRunner(List<ScheduledJob> jobs, JobLeaseRepository jobLeaseRepository,
+            JobRunRepository jobRunRepository, PlatformTransactionManager transactionManager,
+            @Value("${jobs.enabled:true}") boolean enabled,
+            @Value("${jobs.instance-id:}") String instanceId) {
+        this.jobs = jobs;
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.jobRunRepository = jobRunRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.instanceId = instanceId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : instanceId;
+        jobs.forEach(job -> stats.put(job.name(), new JobStats()));
+    }
+
+    public List<ScheduledJob> getJobs() {
+        return jobs;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Runs {@code job} now if this instance can take its lease.
+     *
+     * @return the recorded run, or null if another instance holds the lease
+     */
+    public JobRun runIfLeased(ScheduledJob job) {
+        JobStats jobStats = stats.computeIfAbsent(job.name(), k -> new JobStats());
+        LocalDateTime startedAt = LocalDateTime.now();
+        if (!acquire(job, startedAt)) {
+            jobStats.skipped.increment();
+            return null;
+        }
+
+        JobRun run = transactionTemplate.execute(status -> jobRunRepository.save(
+                new JobRun(null, job.name(), instanceId, startedAt, null, JobRunStatus.RUNNING, 0L, null)));
+        jobStats.progress.set(0);
+        long started = System.nanoTime();
+        try {
+            long processed = job.run(jobStats.progress::set);
+            run.setStatus(JobRunStatus.SUCCEEDED);
+            run.setProcessed(processed);
+            jobStats.succeeded.increment();
+        } catch (RuntimeException e) {
+            logger.error("Job {} failed: {}", job.name(), e.getMessage(), e);
+            run.setStatus(JobRunStatus.FAILED);
+            run.setProcessed(jobStats.progress.get());
+            run.setMessage(truncate(e.toString()));
+            jobStats.failed.increment();
+        } finally {
+            jobStats.lastDurationMillis.set(Duration.ofNanos(System.nanoTime() - started).toMillis());
+            run.setFinishedAt(LocalDateTime.now());
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jobRunRepository.save(run);
+                    LocalDateTime earliestNext = startedAt.plus(job.lockAtLeastFor());
+                    LocalDateTime now = LocalDateTime.now();
+                    jobLeaseRepository.release(job.name(), instanceId, earliestNext.isAfter(now) ? earliestNext : now);
+                });
+            } catch (RuntimeException e) {
+                // The lease lapses on its own after lockAtMostFor
+                logger.error("Failed to record run of job {}: {}", job.name(), e.getMessage());
+            }
+        }
+        return run;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || jobs.isEmpty()) {
+            return;
+        }
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.min(jobs.size(), 4));
+        scheduler.setThreadNamePrefix("job-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        for (ScheduledJob job : jobs) {
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    runIfLeased(job);
+                } catch (RuntimeException e) {
+                    logger.error("Could not run job {}: {}", job.name(), e.getMessage(), e);
+                }
+            }, Instant.now().plus(job.interval()), job.interval());
+            logger.info("Scheduled job {} every {}", job.name(), job.interval());
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public String name() {
+        return "jobs";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        stats.forEach((name, jobStats) -> {
+            Map<String, Object> job = new LinkedHashMap<>();
+            job.put("succeeded", jobStats.succeeded.sum());
+            job.put("failed", jobStats.failed.sum());
+            job.put("skipped", jobStats.skipped.sum());
+            job.put("progress", jobStats.progress.get());
+            job.put("lastDurationMs", jobStats.lastDurationMillis.get());
+            metrics.put(name, job);
+        });
+        return metrics;
+    }
+
+    private boolean acquire(ScheduledJob job, LocalDateTime now) {
+        ensureLeaseRow(job.name());
+        Integer updated = transactionTemplate.execute(status -> jobLeaseRepository.tryAcquire(
+                job.name(), instanceId, now, now.plus(job.lockAtMostFor())));
+        return updated != null && updated == 1;
+    }
+
+    private void ensureLeaseRow(String name) {
+        if (jobLeaseRepository.existsById(name)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jobLeaseRepository.saveAndFlush(
+                    new JobLease(name, LocalDateTime.of(1970, 1, 1, 0, 0), null, null)));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MESSAGE_LENGTH ? message : message.substring(0, MESSAGE_LENGTH);
+    }
+
+    private static final class JobStats {
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final AtomicLong progress = new AtomicLong();
+        private final AtomicLong lastDurationMillis = new AtomicLong();
+    }
+}
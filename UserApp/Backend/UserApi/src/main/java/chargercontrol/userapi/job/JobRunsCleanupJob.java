@@ -0,0 +1,45 @@
+package chargercontrol.userapi.job;
+
+import chargercontrol.userapi.repository.JobRunRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Removes {@code job_runs} rows older than {@code jobs.job-runs-cleanup.retention-days},
+ * its own runs included; every job appends one row per run.
+ */
+@Component
+public class JobRunsCleanupJob implements ScheduledJob {
+
+    private final JobRunRepository jobRunRepository;
+    private final Duration interval;
+    private final Duration retention;
+
+    public JobRunsCleanupJob(JobRunRepository jobRunRepository,
+            @Value("${jobs.job-runs-cleanup.interval-minutes:60}") long intervalMinutes,
+            @Value("${jobs.job-runs-cleanup.retention-days:7}") long retentionDays) {
+        this.jobRunRepository = jobRunRepository;
+        this.interval = Duration.ofMinutes(intervalMinutes);
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    @Override
+    public String name() {
+        return "job-runs-cleanup";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    @Transactional
+    public long run(JobProgress progress) {
+        return jobRunRepository.deleteStartedBefore(LocalDateTime.now().minus(retention));
+    }
+}
@@ -0,0 +1,31 @@
+package chargercontrol.userapi.job;
+
+import java.time.Duration;
+
+/**
+ * Background job run by {@link JobRunner} on at most one instance at a time.
+ */
+public interface ScheduledJob {
+
+    /** Unique name, also the key of the job's row in {@code job_leases}. */
+    String name();
+
+    /** Delay between the end of one run and the start of the next. */
+    Duration interval();
+
+    /** How long a run may hold the lease before another instance may take over. */
+    default Duration lockAtMostFor() {
+        return interval().multipliedBy(4);
+    }
+
+    /**
+     * Minimum time the lease stays taken after a run, so instances with slightly
+     * different schedules do not repeat the same work right away.
+     */
+    default Duration lockAtLeastFor() {
+        return interval().dividedBy(2);
+    }
+
+    /** Runs the job once and returns the number of items it processed. */
+    long run(JobProgress progress);
+}
@@ -0,0 +1,43 @@
+package chargercontrol.userapi.job;
+
+import chargercontrol.userapi.service.SlotReservationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Removes {@code port_slot_reservations} rows of buckets that are long past; only
+ * current and future buckets can still conflict with a new booking.
+ */
+@Component
+public class SlotReservationsCleanupJob implements ScheduledJob {
+
+    /** Reservations of buckets older than this are removed. */
+    static final long RETENTION_DAYS = 1;
+
+    private final SlotReservationService slotReservationService;
+    private final Duration interval;
+
+    public SlotReservationsCleanupJob(SlotReservationService slotReservationService,
+            @Value("${jobs.slot-reservations-cleanup.interval-minutes:60}") long intervalMinutes) {
+        this.slotReservationService = slotReservationService;
+        this.interval = Duration.ofMinutes(intervalMinutes);
+    }
+
+    @Override
+    public String name() {
+        return "slot-reservations-cleanup";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    public long run(JobProgress progress) {
+        return slotReservationService.pruneBefore(LocalDateTime.now().minusDays(RETENTION_DAYS));
+    }
+}
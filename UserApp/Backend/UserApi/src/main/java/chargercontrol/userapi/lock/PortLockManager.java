@@ -0,0 +1,150 @@
+package chargercontrol.userapi.lock;
+
+import chargercontrol.userapi.metrics.MetricsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped in-JVM locks keyed by charging port id.
+ *
+ * Serializes the check-and-insert of bookings for the same port without putting
+ * every booking behind one global lock. An uncontended acquire is a single
+ * {@code tryLock}; only when it fails is the wait timed and recorded. The lock
+ * of a booking that was inserted is released when its transaction completes, so
+ * the next writer for that port already sees the committed row.
+ */
+@Component
+public class PortLockManager implements MetricsSource {
+
+    private final ReentrantLock[] stripes;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public PortLockManager(@Value("${booking.lock.stripes:64}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("booking.lock.stripes must be positive");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lock(Long chargingPortId) {
+        lock(stripeOf(chargingPortId));
+    }
+
+    /**
+     * Locks several ports at once. Stripes are taken in index order, so two callers
+     * locking overlapping sets cannot deadlock; a stripe shared by two of the ports
+     * is taken only once. Release with {@link #unlockAllAfterCompletion(Collection)}.
+     */
+    public void lockAll(Collection<Long> chargingPortIds) {
+        for (ReentrantLock lock : stripesOf(chargingPortIds)) {
+            lock(lock);
+        }
+    }
+
+    private void lock(ReentrantLock lock) {
+        acquisitions.increment();
+        if (lock.tryLock()) {
+            return;
+        }
+        long started = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - started;
+        contended.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    public void unlock(Long chargingPortId) {
+        stripeOf(chargingPortId).unlock();
+    }
+
+    /**
+     * Releases the lock once the current transaction commits or rolls back, or
+     * right away when there is no transaction to wait for.
+     */
+    public void unlockAfterCompletion(Long chargingPortId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            unlock(chargingPortId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlock(chargingPortId);
+            }
+        });
+    }
+
+    /** Same as {@link #unlockAfterCompletion(Long)} for ports locked with {@link #lockAll(Collection)}. */
+    public void unlockAllAfterCompletion(Collection<Long> chargingPortIds) {
+        Set<ReentrantLock> locks = stripesOf(chargingPortIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            locks.forEach(ReentrantLock::unlock);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.forEach(ReentrantLock::unlock);
+            }
+        });
+    }
+
+    @Override
+    public String name() {
+        return "portLocks";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        long contendedCount = contended.sum();
+        long waitNanos = totalWaitNanos.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("stripes", stripes.length);
+        metrics.put("acquisitions", acquisitions.sum());
+        metrics.put("contended", contendedCount);
+        metrics.put("totalWaitMs", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        metrics.put("avgContendedWaitMs", contendedCount == 0 ? 0.0 : waitNanos / 1_000_000.0 / contendedCount);
+        metrics.put("maxWaitMs", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+        return metrics;
+    }
+
+    private ReentrantLock stripeOf(Long chargingPortId) {
+        return stripes[stripeIndex(chargingPortId)];
+    }
+
+    private Set<ReentrantLock> stripesOf(Collection<Long> chargingPortIds) {
+        Set<ReentrantLock> locks = new LinkedHashSet<>();
+        chargingPortIds.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .forEach(index -> locks.add(stripes[index]));
+        return locks;
+    }
+
+    private int stripeIndex(Long chargingPortId) {
+        int hash = chargingPortId.hashCode();
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, stripes.length);
+    }
+}
@@ -0,0 +1,37 @@
+package chargercontrol.userapi.metrics;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/apiV1/metrics")
+@Tag(name = "Metrics", description = "Internal counters of the booking pipeline")
+public class MetricsController {
+
+    private final List<MetricsSource> sources;
+
+    public MetricsController(List<MetricsSource> sources) {
+        this.sources = sources;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get internal metrics", responses = {
+            @ApiResponse(responseCode = "200", description = "Metrics grouped by source")
+    })
+    public ResponseEntity<Map<String, Map<String, Object>>> getMetrics() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        for (MetricsSource source : sources) {
+            result.put(source.name(), source.metrics());
+        }
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,15 @@
+package chargercontrol.userapi.metrics;
+
+import java.util.Map;
+
+/**
+ * Component that exposes a flat set of counters through {@link MetricsController}.
+ */
+public interface MetricsSource {
+
+    /** Key under which the metrics are grouped, e.g. {@code "portLocks"}. */
+    String name();
+
+    /** Current values; called on every request, so it must be cheap and thread-safe. */
+    Map<String, Object> metrics();
+}
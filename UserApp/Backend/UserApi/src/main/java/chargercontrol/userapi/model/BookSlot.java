@@ -19,32 +19,37 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @EqualsAndHashCode(exclude = {"user", "car", "chargingPort"})
 @Entity
-@Table(name = "book_slots")
+@Table(name = "book_slots", indexes = {
+        @Index(name = "idx_book_slots_port_status_time", columnList = "charging_port_id, status, booking_time, end_time"),
+        @Index(name = "idx_book_slots_status_end", columnList = "status, end_time"),
+        @Index(name = "idx_book_slots_user_time", columnList = "user_id, booking_time, id")
+})
 public class BookSlot {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @ManyToOne(fetch = FetchType.EAGER) // Mudado para EAGER
+    // LAZY: as listagens usam BookingSummaryDTO e o findById usa um entity graph
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @NotNull(message = "User cannot be null")
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "bookings", "cars", "password"})
     private User user;
     
-    @ManyToOne(fetch = FetchType.EAGER) // Mudado para EAGER
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "charging_port_id", nullable = false)
     @NotNull(message = "Charging port cannot be null")
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "bookings", "station"})
     private ChargingPort chargingPort;
     
-    @ManyToOne(fetch = FetchType.EAGER) // Mudado para EAGER
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "car_id", nullable = false)
     @NotNull(message = "Car cannot be null")
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "bookings", "user"})
     private Car car;
     
-    @Column(nullable = false)
+    @Column(name = "booking_time", nullable = false)
     @NotNull(message = "Booking date and time cannot be null")
     @FutureOrPresent(message = "Booking date must be in the present or future")
     private LocalDateTime bookingTime;
@@ -54,8 +59,20 @@ public class BookSlot {
     @Positive(message = "Duration must be a positive value")
     private Integer duration; // Duration in minutes
     
+    // Mantido a partir de bookingTime + duration; usado pela query de sobreposição
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+    
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @Column(name = "status", nullable = false)
     @NotNull(message = "Booking status is required")
     private BookingStatus status;
+
+    @PrePersist
+    @PreUpdate
+    void updateEndTime() {
+        if (bookingTime != null && duration != null) {
+            endTime = bookingTime.plusMinutes(duration);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package chargercontrol.userapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One write to a station or charging port. The auto-increment id is the catalog
+ * change version: clients keep the highest version they have seen and ask only
+ * for what changed after it. Rows are written by {@code CatalogChangeListener}
+ * in the transaction of the write itself, by both the UserApi and the OperatorApi,
+ * which share this table. Rows older than
+ * {@code jobs.catalog-changes-cleanup.retention-days} are removed by
+ * {@code CatalogChangesCleanupJob}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "catalog_changes")
+public class CatalogChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private CatalogEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    // Estação afetada: a própria, ou a do port (null se o port já não tinha estação)
+    @Column(name = "station_id")
+    private Long stationId;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
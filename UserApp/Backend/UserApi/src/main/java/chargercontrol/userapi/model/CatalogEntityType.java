@@ -0,0 +1,6 @@
+package chargercontrol.userapi.model;
+
+public enum CatalogEntityType {
+    STATION,
+    PORT
+}
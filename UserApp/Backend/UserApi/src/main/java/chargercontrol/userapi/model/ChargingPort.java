@@ -2,6 +2,7 @@ package chargercontrol.userapi.model;
 
 import java.util.ArrayList;
 import java.util.List;
+import chargercontrol.userapi.catalog.CatalogChangeListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -11,12 +12,16 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(CatalogChangeListener.class)
+// Só escreve as colunas alteradas, para um save de status não repor um energyUsed antigo por cima do rollup
+@DynamicUpdate
 @Table(name = "charging_ports")
 public class ChargingPort {
     @Id
@@ -0,0 +1,54 @@
+package chargercontrol.userapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Energy delivered by one completed charging session. Rows are only inserted;
+ * {@code rolled_up} is set once the energy has been added to the port's
+ * {@code energy_used} total. The unique key on {@code book_slot_id} keeps a
+ * session from being counted twice.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "energy_ledger",
+        uniqueConstraints = @UniqueConstraint(name = "uk_energy_ledger_book_slot", columnNames = "book_slot_id"),
+        indexes = @Index(name = "idx_energy_ledger_rolled_up", columnList = "rolled_up, id"))
+public class EnergyLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "book_slot_id", nullable = false)
+    private Long bookSlotId;
+
+    @Column(name = "charging_port_id", nullable = false)
+    private Long chargingPortId;
+
+    @Column(name = "station_id", nullable = false)
+    private Long stationId;
+
+    @Column(name = "power_kw", nullable = false)
+    private Double powerKw;
+
+    @Column(name = "duration_minutes", nullable = false)
+    private Integer durationMinutes;
+
+    @Column(name = "energy_kwh", nullable = false)
+    private Double energyKwh;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    @Column(name = "rolled_up", nullable = false)
+    private boolean rolledUp;
+}
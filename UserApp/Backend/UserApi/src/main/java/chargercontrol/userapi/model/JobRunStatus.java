@@ -0,0 +1,7 @@
+package chargercontrol.userapi.model;
+
+public enum JobRunStatus {
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
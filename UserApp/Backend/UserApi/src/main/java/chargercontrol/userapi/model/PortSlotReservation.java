@@ -0,0 +1,39 @@
+package chargercontrol.userapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One time bucket of a charging port held by a booking. The unique constraint on
+ * (charging_port_id, slot_start) lets the database reject double bookings even
+ * when they are written by different UserApi instances.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "port_slot_reservations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_port_slot_reservations_port_slot",
+                columnNames = {"charging_port_id", "slot_start"}),
+        indexes = @Index(name = "idx_port_slot_reservations_book_slot", columnList = "book_slot_id"))
+public class PortSlotReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "charging_port_id", nullable = false)
+    private Long chargingPortId;
+
+    @Column(name = "slot_start", nullable = false)
+    private LocalDateTime slotStart;
+
+    @Column(name = "book_slot_id", nullable = false)
+    private Long bookSlotId;
+}
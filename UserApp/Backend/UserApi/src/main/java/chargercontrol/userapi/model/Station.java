@@ -1,5 +1,6 @@
 package chargercontrol.userapi.model;
 
+import chargercontrol.userapi.catalog.CatalogChangeListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -19,7 +20,9 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "stations")
+@EntityListeners(CatalogChangeListener.class)
+@Table(name = "stations",
+        indexes = @Index(name = "idx_stations_lat_lon", columnList = "latitude, longitude"))
 public class Station {
     
     @Id
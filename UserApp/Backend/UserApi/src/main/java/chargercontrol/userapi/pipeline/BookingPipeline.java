@@ -0,0 +1,421 @@
+package chargercontrol.userapi.pipeline;
+
+import chargercontrol.userapi.event.BookingChangedEvent;
+import chargercontrol.userapi.index.BookingIntervalIndex;
+import chargercontrol.userapi.index.BookingInterval;
+import chargercontrol.userapi.lock.PortLockManager;
+import chargercontrol.userapi.metrics.MetricsSource;
+import chargercontrol.userapi.model.*;
+import chargercontrol.userapi.repository.BookSlotRepository;
+import chargercontrol.userapi.repository.CarRepository;
+import chargercontrol.userapi.repository.ChargingPortRepository;
+import chargercontrol.userapi.repository.UserRepository;
+import chargercontrol.userapi.service.BookSlotService;
+import chargercontrol.userapi.service.SlotReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Optional single-writer path for booking creation ({@code booking.pipeline.enabled}).
+ *
+ * Requests are routed by station to one of a fixed set of writer threads, each
+ * with a bounded queue, so all bookings of a station are decided by one thread
+ * and never race each other. A writer drains up to {@code max-batch} requests,
+ * takes the {@link PortLockManager} locks of the stations' ports, validates each
+ * request against the {@link BookingIntervalIndex}, the intervals it has already
+ * claimed in the batch and the overlap query, and commits the survivors in one
+ * transaction with JDBC batch inserts for the bookings and their slot reservations.
+ * Writes from other instances are still caught by the reservation unique key; if a
+ * batch fails, each request is retried through {@link BookSlotService}.
+ */
+@Component
+public class BookingPipeline implements SmartLifecycle, MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingPipeline.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO book_slots (user_id, car_id, charging_port_id, booking_time, duration, end_time, status) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long timeoutMillis;
+    private final List<Writer> writers = new ArrayList<>();
+
+    private final UserRepository userRepository;
+    private final CarRepository carRepository;
+    private final ChargingPortRepository chargingPortRepository;
+    private final BookSlotRepository bookSlotRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final PortLockManager portLockManager;
+    private final SlotReservationService slotReservationService;
+    private final BookSlotService bookSlotService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedBookings = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    private volatile boolean running;
+
+    public BookingPipeline(UserRepository userRepository, CarRepository carRepository,
+            ChargingPortRepository chargingPortRepository, BookSlotRepository bookSlotRepository,
+            BookingIntervalIndex bookingIntervalIndex, PortLockManager portLockManager,
+            SlotReservationService slotReservationService, BookSlotService bookSlotService,
+            ApplicationEventPublisher eventPublisher, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${booking.pipeline.enabled:false}") boolean enabled,
+            @Value("${booking.pipeline.writers:4}") int writerCount,
+            @Value("${booking.pipeline.queue-capacity:1024}") int queueCapacity,
+            @Value("${booking.pipeline.max-batch:64}") int maxBatch,
+            @Value("${booking.pipeline.timeout-ms:5000}") long timeoutMillis) {
+        this.userRepository = userRepository;
+        this.carRepository = carRepository;
+        this.chargingPortRepository = chargingPortRepository;
+        this.bookSlotRepository = bookSlotRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.portLockManager = portLockManager;
+        this.slotReservationService = slotReservationService;
+        this.bookSlotService = bookSlotService;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.timeoutMillis = timeoutMillis;
+        if (enabled) {
+            for (int i = 0; i < writerCount; i++) {
+                writers.add(new Writer("booking-writer-" + i, queueCapacity));
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** How long callers should wait for a submitted booking before giving up. */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Queues a booking request on the writer of its station. The future fails
+     * with a {@link RuntimeException} when the booking is rejected, or right away
+     * when that writer's queue is full. Cancelling it drops the request if no writer
+     * has picked it up yet; otherwise {@code cancel} returns false and the future
+     * still completes with the outcome of the batch.
+     */
+    public CompletableFuture<BookSlot> submit(BookRequest bookRequest) {
+        PendingBooking pending = new PendingBooking(bookRequest);
+        if (!running) {
+            pending.future.completeExceptionally(new IllegalStateException("Booking pipeline is not running"));
+            return pending.future;
+        }
+        Writer writer = writers.get(Math.floorMod(bookRequest.getStationId().hashCode(), writers.size()));
+        if (writer.queue.offer(pending)) {
+            submitted.increment();
+        } else {
+            rejected.increment();
+            pending.future.completeExceptionally(new RuntimeException("Booking pipeline is saturated, try again later"));
+        }
+        return pending.future;
+    }
+
+    @Override
+    public void start() {
+        if (enabled && !running) {
+            running = true;
+            writers.forEach(writer -> writer.thread.start());
+            logger.info("Booking pipeline started with {} writers", writers.size());
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Writer writer : writers) {
+            writer.thread.interrupt();
+        }
+        for (Writer writer : writers) {
+            try {
+                writer.thread.join(timeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<PendingBooking> left = new ArrayList<>();
+            writer.queue.drainTo(left);
+            left.forEach(pending -> pending.future.completeExceptionally(
+                    new IllegalStateException("Booking pipeline stopped")));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public String name() {
+        return "bookingPipeline";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        long batchCount = batches.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("submitted", submitted.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("batches", batchCount);
+        metrics.put("avgBatchSize", batchCount == 0 ? 0.0 : (double) batchedBookings.sum() / batchCount);
+        metrics.put("fallbacks", fallbacks.sum());
+        metrics.put("queued", writers.stream().mapToInt(writer -> writer.queue.size()).sum());
+        return metrics;
+    }
+
+    void process(List<PendingBooking> batch) {
+        batches.increment();
+        batchedBookings.add(batch.size());
+        List<Accepted> accepted;
+        try {
+            accepted = transactionTemplate.execute(status -> commit(batch));
+        } catch (RuntimeException e) {
+            logger.warn("Booking batch of {} failed, retrying one by one: {}", batch.size(), e.getMessage());
+            fallbacks.increment();
+            for (PendingBooking pending : batch) {
+                if (pending.future.isDone() || !pending.future.claim()) {
+                    continue;
+                }
+                try {
+                    pending.future.complete(bookSlotService.createBookingWithValidation(pending.request));
+                } catch (RuntimeException individual) {
+                    pending.future.completeExceptionally(individual);
+                }
+            }
+            return;
+        }
+        accepted.forEach(a -> a.pending.future.complete(a.booking));
+    }
+
+    // Runs inside the batch transaction; requests that fail validation are completed
+    // here and left out, the rest are returned to be completed after commit
+    private List<Accepted> commit(List<PendingBooking> batch) {
+        Map<Long, User> users = byId(userRepository.findAllById(
+                batch.stream().map(p -> p.request.getUserId()).collect(Collectors.toSet())), User::getId);
+        Map<Long, Car> cars = byId(carRepository.findAllById(
+                batch.stream().map(p -> p.request.getCarId()).collect(Collectors.toSet())), Car::getId);
+
+        Map<Long, List<ChargingPort>> portsByStation = new HashMap<>();
+        List<Long> portIds = new ArrayList<>();
+        for (Long stationId : batch.stream().map(p -> p.request.getStationId()).collect(Collectors.toSet())) {
+            List<ChargingPort> ports = chargingPortRepository.findByStationIdAndStatus(stationId,
+                    ChargingPortStatus.AVAILABLE);
+            portsByStation.put(stationId, ports);
+            ports.forEach(port -> portIds.add(port.getId()));
+        }
+        // Serializa com o caminho do BookSlotService; libertado quando a transação do batch terminar
+        portLockManager.lockAll(portIds);
+        portLockManager.unlockAllAfterCompletion(portIds);
+        bookingIntervalIndex.warm(portIds);
+
+        // Intervals claimed earlier in this batch; the index only sees them after commit
+        Map<Long, List<BookingInterval>> claimed = new HashMap<>();
+        List<Accepted> accepted = new ArrayList<>();
+        for (PendingBooking pending : batch) {
+            if (!pending.future.claim()) {
+                // Cancelado pelo cliente enquanto esperava na fila
+                continue;
+            }
+            BookRequest request = pending.request;
+            User user = users.get(request.getUserId());
+            Car car = cars.get(request.getCarId());
+            if (user == null) {
+                pending.future.completeExceptionally(
+                        new RuntimeException("User not found with id: " + request.getUserId()));
+                continue;
+            }
+            if (car == null || car.getOwner() == null || !car.getOwner().getId().equals(user.getId())) {
+                pending.future.completeExceptionally(
+                        new RuntimeException("Car not found with id: " + request.getCarId()));
+                continue;
+            }
+            LocalDateTime start = request.getStartTime();
+            LocalDateTime end = start.plusMinutes(request.getDuration());
+            ChargingPort port = null;
+            for (ChargingPort candidate : portsByStation.get(request.getStationId())) {
+                if (!bookingIntervalIndex.isFree(candidate.getId(), start, end)
+                        || claimed.getOrDefault(candidate.getId(), List.of()).stream()
+                                .anyMatch(interval -> interval.overlaps(start, end))) {
+                    continue;
+                }
+                if (!bookSlotRepository.findOverlappingBookings(candidate.getId(), start, end).isEmpty()) {
+                    // The in-memory view missed a booking (e.g. written by another instance)
+                    bookingIntervalIndex.evict(candidate.getId());
+                    continue;
+                }
+                port = candidate;
+                break;
+            }
+            if (port == null) {
+                pending.future.completeExceptionally(new RuntimeException(
+                        "No available slots at this station for the requested time. Requested time: "
+                                + start + " for " + request.getDuration() + " minutes"));
+                continue;
+            }
+            claimed.computeIfAbsent(port.getId(), k -> new ArrayList<>())
+                    .add(new BookingInterval(null, start, request.getDuration()));
+
+            BookSlot booking = new BookSlot();
+            booking.setUser(user);
+            booking.setCar(car);
+            booking.setChargingPort(port);
+            booking.setBookingTime(start);
+            booking.setDuration(request.getDuration());
+            booking.setEndTime(end);
+            booking.setStatus(BookingStatus.PENDING);
+            accepted.add(new Accepted(pending, booking));
+        }
+        if (accepted.isEmpty()) {
+            return accepted;
+        }
+
+        insert(accepted.stream().map(Accepted::booking).collect(Collectors.toList()));
+        slotReservationService.reserveAll(accepted.stream().map(Accepted::booking).collect(Collectors.toList()));
+        accepted.forEach(a -> eventPublisher.publishEvent(BookingChangedEvent.of(a.booking)));
+        return accepted;
+    }
+
+    private void insert(List<BookSlot> bookings) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        BookSlot booking = bookings.get(i);
+                        ps.setLong(1, booking.getUser().getId());
+                        ps.setLong(2, booking.getCar().getId());
+                        ps.setLong(3, booking.getChargingPort().getId());
+                        ps.setTimestamp(4, Timestamp.valueOf(booking.getBookingTime()));
+                        ps.setInt(5, booking.getDuration());
+                        ps.setTimestamp(6, Timestamp.valueOf(booking.getEndTime()));
+                        ps.setString(7, booking.getStatus().name());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return bookings.size();
+                    }
+                }, keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < bookings.size(); i++) {
+            bookings.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> id) {
+        return entities.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    record PendingBooking(BookRequest request, BookingFuture future) {
+
+        PendingBooking(BookRequest request) {
+            this(request, new BookingFuture());
+        }
+    }
+
+    /**
+     * Future of a queued request. A writer claims it before deciding the booking, and
+     * from then on it can no longer be cancelled, so a cancelled request is never
+     * committed behind the caller's back.
+     */
+    static final class BookingFuture extends CompletableFuture<BookSlot> {
+
+        private static final int QUEUED = 0;
+        private static final int CLAIMED = 1;
+        private static final int CANCELLED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        boolean claim() {
+            return state.compareAndSet(QUEUED, CLAIMED) || state.get() == CLAIMED;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return state.compareAndSet(QUEUED, CANCELLED) && super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    private record Accepted(PendingBooking pending, BookSlot booking) {
+    }
+
+    private final class Writer implements Runnable {
+
+        private final BlockingQueue<PendingBooking> queue;
+        private final Thread thread;
+
+        private Writer(String name, int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this, name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<PendingBooking> batch = new ArrayList<>(maxBatch);
+            while (running) {
+                try {
+                    PendingBooking first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatch - 1);
+                    process(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    logger.error("Booking writer failed", e);
+                    batch.forEach(pending -> pending.future.completeExceptionally(e));
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
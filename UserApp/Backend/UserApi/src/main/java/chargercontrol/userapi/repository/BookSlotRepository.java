@@ -1,24 +1,89 @@
 package chargercontrol.userapi.repository;
 
+import chargercontrol.userapi.dto.BookingStatusCount;
+import chargercontrol.userapi.dto.BookingSummaryDTO;
+import chargercontrol.userapi.dto.CarBookingCount;
+import chargercontrol.userapi.dto.MonthlyBookingCount;
+import chargercontrol.userapi.index.BookingInterval;
+import chargercontrol.userapi.index.PortBookingInterval;
 import chargercontrol.userapi.model.BookSlot;
+import chargercontrol.userapi.model.BookingStatus;
 import chargercontrol.userapi.model.ChargingPort;
 import chargercontrol.userapi.model.User;
+import chargercontrol.userapi.scheduling.BookingDeadline;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookSlotRepository extends JpaRepository<BookSlot, Long> {
+
+    String SUMMARY_SELECT = "SELECT new chargercontrol.userapi.dto.BookingSummaryDTO(b.id, b.user.id, " +
+            "b.bookingTime, b.duration, b.endTime, b.status, p.id, p.portIdentifier, p.station.id, p.status, " +
+            "c.id, c.brand, c.model, c.carClass) FROM BookSlot b JOIN b.chargingPort p JOIN b.car c ";
+
+    // A single booking is usually returned to the client, so it is read with its associations
+    @Override
+    @EntityGraph(attributePaths = {"user", "chargingPort", "car"})
+    Optional<BookSlot> findById(Long id);
+
+    @EntityGraph(attributePaths = {"chargingPort"})
+    List<BookSlot> findByIdIn(Collection<Long> ids);
+
     List<BookSlot> findByUser(User user);
 
+    /**
+     * First page of a user's bookings, newest first, without loading the user,
+     * port or car entities. Walks {@code idx_book_slots_user_time} backwards.
+     */
+    @Query(SUMMARY_SELECT + "WHERE b.user.id = :userId ORDER BY b.bookingTime DESC, b.id DESC")
+    List<BookingSummaryDTO> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /** Page of a user's bookings that follows the booking at {@code (bookingTime, id)}. */
+    @Query(SUMMARY_SELECT + "WHERE b.user.id = :userId " +
+            "AND (b.bookingTime < :bookingTime OR (b.bookingTime = :bookingTime AND b.id < :id)) " +
+            "ORDER BY b.bookingTime DESC, b.id DESC")
+    List<BookingSummaryDTO> findSummariesByUserIdBefore(@Param("userId") Long userId,
+            @Param("bookingTime") LocalDateTime bookingTime, @Param("id") Long id, Pageable pageable);
+
+    /** Count, total duration and latest start of a user's bookings per status. */
+    @Query("SELECT new chargercontrol.userapi.dto.BookingStatusCount(b.status, COUNT(b), SUM(b.duration), MAX(b.bookingTime)) " +
+            "FROM BookSlot b WHERE b.user.id = :userId GROUP BY b.status")
+    List<BookingStatusCount> countByStatusForUser(@Param("userId") Long userId);
+
+    @Query("SELECT new chargercontrol.userapi.dto.MonthlyBookingCount(YEAR(b.bookingTime), MONTH(b.bookingTime), COUNT(b)) " +
+            "FROM BookSlot b WHERE b.user.id = :userId " +
+            "GROUP BY YEAR(b.bookingTime), MONTH(b.bookingTime) " +
+            "ORDER BY YEAR(b.bookingTime), MONTH(b.bookingTime)")
+    List<MonthlyBookingCount> countByMonthForUser(@Param("userId") Long userId);
+
+    @Query("SELECT new chargercontrol.userapi.dto.CarBookingCount(c.id, c.brand, c.model, COUNT(b)) " +
+            "FROM BookSlot b JOIN b.car c WHERE b.user.id = :userId " +
+            "GROUP BY c.id, c.brand, c.model ORDER BY COUNT(b) DESC")
+    List<CarBookingCount> countByCarForUser(@Param("userId") Long userId);
+
+    /** Bookings of a charging port in start order, without loading the user, port or car entities. */
+    @Query(SUMMARY_SELECT + "WHERE p.id = :chargingPortId ORDER BY b.bookingTime, b.id")
+    List<BookingSummaryDTO> findSummariesByChargingPortId(@Param("chargingPortId") Long chargingPortId);
+
     List<BookSlot> findByChargingPort(ChargingPort chargingPort); // Changed from findByStation
 
     List<BookSlot> findByBookingTimeBetween(LocalDateTime start, LocalDateTime end);
 
+    List<BookSlot> findByStatusAndEndTimeBefore(BookingStatus status, LocalDateTime time);
+
+    @EntityGraph(attributePaths = {"user", "chargingPort", "car"})
     List<BookSlot> findByChargingPortAndBookingTimeBetween(ChargingPort chargingPort, LocalDateTime start,
             LocalDateTime end);
 
@@ -29,14 +94,57 @@ public interface BookSlotRepository extends JpaRepository<BookSlot, Long> {
      * AND the existing booking ends after the new booking starts.
      * This does not include bookings that merely touch (e.g., one ends exactly when
      * another begins).
-     * To include touching bookings, use <= and >= for times.
+     * Uses the persisted end time so the check is a range scan on
+     * {@code idx_book_slots_port_status_time}. It is a locking read so that, under
+     * MySQL's REPEATABLE READ, it sees bookings committed after the calling
+     * transaction took its snapshot.
      */
+    @Lock(LockModeType.PESSIMISTIC_READ)
     @Query("SELECT b FROM BookSlot b WHERE b.chargingPort.id = :chargingPortId " +
-            "AND b.status <> chargercontrol.userapi.model.BookingStatus.CANCELLED " +
-            "AND b.status <> chargercontrol.userapi.model.BookingStatus.EXPIRED " +
+            "AND b.status IN (chargercontrol.userapi.model.BookingStatus.PENDING, " +
+            "chargercontrol.userapi.model.BookingStatus.ACTIVE, " +
+            "chargercontrol.userapi.model.BookingStatus.COMPLETED) " +
             "AND b.bookingTime < :endTime " +
-            "AND FUNCTION('ADDTIME', b.bookingTime, FUNCTION('SEC_TO_TIME', b.duration * 60)) > :startTime")
+            "AND b.endTime > :startTime")
     List<BookSlot> findOverlappingBookings(@Param("chargingPortId") Long chargingPortId,
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Loads only the time windows of a port's bookings, without the associated
+     * user, car and port rows, for the in-memory availability index.
+     */
+    @Query("SELECT new chargercontrol.userapi.index.BookingInterval(b.id, b.bookingTime, b.duration) " +
+            "FROM BookSlot b WHERE b.chargingPort.id = :chargingPortId " +
+            "AND b.status IN :statuses " +
+            "AND b.endTime > :since")
+    List<BookingInterval> findIntervalsByChargingPortId(@Param("chargingPortId") Long chargingPortId,
+            @Param("statuses") Collection<BookingStatus> statuses,
+            @Param("since") LocalDateTime since);
+
+    /**
+     * Same as {@link #findIntervalsByChargingPortId} for a set of ports, so a whole
+     * station can be loaded into the index with a single round trip.
+     */
+    @Query("SELECT new chargercontrol.userapi.index.PortBookingInterval(b.chargingPort.id, b.id, b.bookingTime, b.duration) " +
+            "FROM BookSlot b WHERE b.chargingPort.id IN :chargingPortIds " +
+            "AND b.status IN :statuses " +
+            "AND b.endTime > :since")
+    List<PortBookingInterval> findIntervalsByChargingPortIds(@Param("chargingPortIds") Collection<Long> chargingPortIds,
+            @Param("statuses") Collection<BookingStatus> statuses,
+            @Param("since") LocalDateTime since);
+
+    /**
+     * Moves a booking to {@code to} only if it is still in {@code from}. When
+     * several instances race on the same booking exactly one sees a row count of 1,
+     * since the condition is re-evaluated under the row lock.
+     */
+    @Modifying
+    @Query("UPDATE BookSlot b SET b.status = :to WHERE b.id = :id AND b.status = :from")
+    int updateStatusIf(@Param("id") Long id, @Param("from") BookingStatus from, @Param("to") BookingStatus to);
+
+    /** Open bookings for rebuilding the deadline wheel, read from {@code idx_book_slots_status_end}. */
+    @Query("SELECT new chargercontrol.userapi.scheduling.BookingDeadline(b.id, b.status, b.bookingTime, b.endTime) " +
+            "FROM BookSlot b WHERE b.status IN :statuses")
+    List<BookingDeadline> findDeadlinesByStatuses(@Param("statuses") Collection<BookingStatus> statuses);
 }
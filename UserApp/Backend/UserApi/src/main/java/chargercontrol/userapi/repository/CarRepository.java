@@ -1,7 +1,10 @@
 package chargercontrol.userapi.repository;
 
 import chargercontrol.userapi.model.Car;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +12,8 @@ import java.util.List;
 @Repository
 public interface CarRepository extends JpaRepository<Car, Long> {
     List<Car> findByOwnerId(Long userId);
+
+    /** Cars after {@code afterId} in id order with their owners, for keyset pagination. */
+    @Query("SELECT c FROM Car c JOIN FETCH c.owner WHERE c.id > :afterId ORDER BY c.id")
+    List<Car> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
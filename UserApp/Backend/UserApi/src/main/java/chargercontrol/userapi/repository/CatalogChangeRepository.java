@@ -0,0 +1,38 @@
+package chargercontrol.userapi.repository;
+
+import chargercontrol.userapi.catalog.StationChangeVersion;
+import chargercontrol.userapi.model.CatalogChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    @Query("SELECT c FROM CatalogChange c WHERE c.id > :since ORDER BY c.id")
+    List<CatalogChange> findAfter(@Param("since") Long since, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CatalogChange c WHERE c.changedAt < :before")
+    Long findLatestVersionBefore(@Param("before") LocalDateTime before);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CatalogChange c")
+    Long findLatestVersion();
+
+    // null com a tabela vazia
+    @Query("SELECT MIN(c.id) FROM CatalogChange c")
+    Long findOldestVersion();
+
+    @Modifying
+    @Query("DELETE FROM CatalogChange c WHERE c.id <= :version")
+    int deleteUpTo(@Param("version") Long version);
+
+    @Query("SELECT new chargercontrol.userapi.catalog.StationChangeVersion(c.entityType, c.stationId, MAX(c.id), MAX(c.changedAt)) " +
+           "FROM CatalogChange c GROUP BY c.entityType, c.stationId")
+    List<StationChangeVersion> findVersionsByStation();
+}
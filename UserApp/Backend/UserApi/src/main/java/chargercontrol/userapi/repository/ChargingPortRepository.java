@@ -1,8 +1,10 @@
 package chargercontrol.userapi.repository;
 
+import chargercontrol.userapi.availability.PortState;
 import chargercontrol.userapi.model.ChargingPort;
 import chargercontrol.userapi.model.ChargingPortStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -28,4 +30,15 @@ public interface ChargingPortRepository extends JpaRepository<ChargingPort, Long
     // Método para verificar se existe um port com determinado identifier em uma estação
     @Query("SELECT cp FROM ChargingPort cp WHERE cp.station.id = :stationId AND cp.portIdentifier = :portIdentifier")
     List<ChargingPort> findByStationIdAndPortIdentifier(@Param("stationId") Long stationId, @Param("portIdentifier") String portIdentifier);
-}
\ No newline at end of file
+
+    // Incremento atómico usado pelo rollup do energy_ledger (sem ler a linha antes)
+    @Modifying
+    @Query("UPDATE ChargingPort cp SET cp.energyUsed = cp.energyUsed + :energyKwh WHERE cp.id = :portId")
+    int addEnergyUsed(@Param("portId") Long portId, @Param("energyKwh") double energyKwh);
+
+    @Query("SELECT COALESCE(SUM(cp.energyUsed), 0) FROM ChargingPort cp WHERE cp.station.id = :stationId")
+    Double sumEnergyUsedByStationId(@Param("stationId") Long stationId);
+
+    @Query("SELECT new chargercontrol.userapi.availability.PortState(cp.id, cp.station.id, cp.status) FROM ChargingPort cp")
+    List<PortState> findAllPortStates();
+}
@@ -0,0 +1,26 @@
+package chargercontrol.userapi.repository;
+
+import chargercontrol.userapi.model.EnergyLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EnergyLedgerRepository extends JpaRepository<EnergyLedgerEntry, Long> {
+
+    boolean existsByBookSlotId(Long bookSlotId);
+
+    /** Oldest entries not yet added to the port totals, read from {@code idx_energy_ledger_rolled_up}. */
+    @Query("SELECT e FROM EnergyLedgerEntry e WHERE e.rolledUp = false ORDER BY e.id")
+    List<EnergyLedgerEntry> findPendingRollup(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE EnergyLedgerEntry e SET e.rolledUp = true WHERE e.id IN :ids")
+    int markRolledUp(@Param("ids") Collection<Long> ids);
+}
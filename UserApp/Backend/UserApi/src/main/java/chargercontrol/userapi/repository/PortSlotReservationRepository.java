@@ -0,0 +1,18 @@
+package chargercontrol.userapi.repository;
+
+import chargercontrol.userapi.model.PortSlotReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface PortSlotReservationRepository extends JpaRepository<PortSlotReservation, Long> {
+
+    @Modifying
+    @Query("DELETE FROM PortSlotReservation r WHERE r.bookSlotId IN :bookSlotIds")
+    int deleteByBookSlotIds(@Param("bookSlotIds") Collection<Long> bookSlotIds);
+}
@@ -0,0 +1,12 @@
+package chargercontrol.userapi.scheduling;
+
+import chargercontrol.userapi.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status and time window of an open booking, loaded to rebuild {@link BookingDeadlineScheduler}.
+ */
+public record BookingDeadline(Long bookingId, BookingStatus status, LocalDateTime bookingTime,
+        LocalDateTime endTime) {
+}
@@ -0,0 +1,233 @@
+package chargercontrol.userapi.scheduling;
+
+import chargercontrol.userapi.event.BookingChangedEvent;
+import chargercontrol.userapi.metrics.MetricsSource;
+import chargercontrol.userapi.model.BookingStatus;
+import chargercontrol.userapi.repository.BookSlotRepository;
+import chargercontrol.userapi.service.BookSlotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fires booking status transitions when they are due instead of polling for them.
+ *
+ * Every open booking has one deadline in a {@link HashedTimingWheel}:
+ * <ul>
+ *   <li>PENDING: no-show at start + {@code booking.no-show-grace-minutes}, or at
+ *   the end of the booking if that comes first; the booking becomes EXPIRED and
+ *   its slot is released.</li>
+ *   <li>ACTIVE: the end of the booking; it becomes COMPLETED.</li>
+ * </ul>
+ * The wheel is rebuilt from the database at startup and kept current from
+ * {@link BookingChangedEvent}s. A ticker thread advances it every tick and hands
+ * the due bookings to {@link BookSlotService#applyDueTransitions} in batches of
+ * {@code booking.deadlines.batch-size}, one transaction per batch. Every instance
+ * keeps a wheel and fires the same deadlines; the conditional status UPDATE lets
+ * one of them apply each transition. When a batch fails its bookings are retried
+ * one by one, and a booking that keeps failing is rescheduled with exponential
+ * backoff and dropped after {@code booking.deadlines.max-attempts}, leaving
+ * PENDING ones to {@code ExpiredBookingsCleanupJob}.
+ */
+@Component
+@Order(3)
+public class BookingDeadlineScheduler implements ApplicationRunner, SmartLifecycle, MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingDeadlineScheduler.class);
+
+    static final EnumSet<BookingStatus> OPEN_STATUSES = EnumSet.of(BookingStatus.PENDING, BookingStatus.ACTIVE);
+
+    private final BookSlotRepository bookSlotRepository;
+    private final BookSlotService bookSlotService;
+    private final Duration noShowGrace;
+    private final long tickMillis;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final HashedTimingWheel<Long> wheel;
+    // Falhas seguidas por booking; só existe entrada enquanto o booking está em backoff
+    private final Map<Long, Integer> failures = new ConcurrentHashMap<>();
+
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private final AtomicLong lastBatchMillis = new AtomicLong();
+
+    private ScheduledExecutorService ticker;
+    private volatile boolean running;
+
+    public BookingDeadlineScheduler(BookSlotRepository bookSlotRepository, BookSlotService bookSlotService,
+            @Value("${booking.no-show-grace-minutes:15}") long noShowGraceMinutes,
+            @Value("${booking.deadlines.tick-ms:1000}") long tickMillis,
+            @Value("${booking.deadlines.wheel-size:4096}") int wheelSize,
+            @Value("${booking.deadlines.batch-size:200}") int batchSize,
+            @Value("${booking.deadlines.max-attempts:8}") int maxAttempts) {
+        if (batchSize <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("booking.deadlines.batch-size and max-attempts must be positive");
+        }
+        this.bookSlotRepository = bookSlotRepository;
+        this.bookSlotService = bookSlotService;
+        this.noShowGrace = Duration.ofMinutes(noShowGraceMinutes);
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    /** When a booking in {@code status} stops being open, or null if it is not open. */
+    public LocalDateTime deadlineOf(BookingStatus status, LocalDateTime bookingTime, LocalDateTime endTime) {
+        if (status == BookingStatus.PENDING) {
+            LocalDateTime noShow = bookingTime.plus(noShowGrace);
+            return noShow.isBefore(endTime) ? noShow : endTime;
+        }
+        if (status == BookingStatus.ACTIVE) {
+            return endTime;
+        }
+        return null;
+    }
+
+    public Duration getNoShowGrace() {
+        return noShowGrace;
+    }
+
+    /** Rebuilds the wheel from the open bookings; runs once the end_time backfill is done. */
+    @Override
+    public void run(ApplicationArguments args) {
+        List<BookingDeadline> open = bookSlotRepository.findDeadlinesByStatuses(OPEN_STATUSES);
+        open.stream()
+                .filter(d -> d.endTime() != null)
+                .forEach(d -> schedule(d.bookingId(), deadlineOf(d.status(), d.bookingTime(), d.endTime())));
+        logger.info("Scheduled deadlines for {} open bookings", open.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.bookingId() == null) {
+            return;
+        }
+        failures.remove(event.bookingId());
+        LocalDateTime deadline = event.bookingTime() == null || event.duration() == null ? null
+                : deadlineOf(event.status(), event.bookingTime(), event.bookingTime().plusMinutes(event.duration()));
+        if (deadline == null) {
+            wheel.cancel(event.bookingId());
+        } else {
+            schedule(event.bookingId(), deadline);
+        }
+    }
+
+    void tick() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        fired.add(due.size());
+        long started = System.nanoTime();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                applied.add(bookSlotService.applyDueTransitions(batch, noShowGrace));
+                batch.forEach(failures::remove);
+            } catch (RuntimeException e) {
+                // Um booking com problemas não pode travar os restantes do batch
+                logger.debug("Deadline batch of {} bookings failed, retrying one by one: {}", batch.size(),
+                        e.getMessage());
+                batch.forEach(this::applyAlone);
+            }
+        }
+        lastBatchMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private void applyAlone(Long bookingId) {
+        try {
+            if (bookSlotService.applyDueTransition(bookingId, noShowGrace)) {
+                applied.increment();
+            }
+            failures.remove(bookingId);
+        } catch (RuntimeException e) {
+            int attempts = failures.merge(bookingId, 1, Integer::sum);
+            if (attempts >= maxAttempts) {
+                failures.remove(bookingId);
+                abandoned.increment();
+                logger.error("Giving up on the transition of booking {} after {} attempts", bookingId, attempts, e);
+                return;
+            }
+            // Backoff exponencial: 2, 4, 8, ... ticks
+            long delayMillis = tickMillis << Math.min(attempts, 20);
+            retried.increment();
+            logger.debug("Transition of booking {} failed (attempt {}), retrying in {} ms: {}", bookingId, attempts,
+                    delayMillis, e.getMessage());
+            wheel.schedule(bookingId, System.currentTimeMillis() + delayMillis);
+        }
+    }
+
+    @Override
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                logger.error("Booking deadline tick failed", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public String name() {
+        return "bookingDeadlines";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("scheduled", wheel.size());
+        metrics.put("fired", fired.sum());
+        metrics.put("applied", applied.sum());
+        metrics.put("retried", retried.sum());
+        metrics.put("abandoned", abandoned.sum());
+        metrics.put("lastBatchMs", lastBatchMillis.get());
+        return metrics;
+    }
+
+    private void schedule(Long bookingId, LocalDateTime deadline) {
+        wheel.schedule(bookingId, deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+}
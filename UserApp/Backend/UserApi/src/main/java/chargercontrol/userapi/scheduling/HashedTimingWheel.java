@@ -0,0 +1,90 @@
+package chargercontrol.userapi.scheduling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel of keyed deadlines.
+ *
+ * Time is cut into ticks of {@code tickMillis}; a deadline lands in slot
+ * {@code tick % wheelSize} and deadlines more than one revolution away simply stay
+ * there until their tick comes round. Adding, rescheduling and removing a key are
+ * O(1); {@link #advance} only looks at the slots of the ticks that elapsed.
+ * Synchronized, since keys are added from event listeners while a ticker thread
+ * advances the wheel.
+ */
+public class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Map<K, Long>> slots;
+    private final Map<K, Integer> slotOfKey = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * @param wheelSize number of slots, rounded up to a power of two
+     * @param startMillis time the wheel starts at; earlier deadlines fire on the first advance
+     */
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        if (size <= 0) {
+            size = 1;
+        }
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new HashMap<>());
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /** Schedules {@code key}, replacing any deadline it already had. */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        // Deadlines that already passed fire on the next advance
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        int slot = (int) (tick & mask);
+        slots.get(slot).put(key, tick);
+        slotOfKey.put(key, slot);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Integer slot = slotOfKey.remove(key);
+        return slot != null && slots.get(slot).remove(key) != null;
+    }
+
+    /** Moves the wheel to {@code nowMillis} and returns the keys whose deadline has been reached. */
+    public synchronized List<K> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        List<K> due = new ArrayList<>();
+        if (nowTick <= currentTick) {
+            return due;
+        }
+        // After a full revolution every slot has been visited once
+        long ticks = Math.min(nowTick - currentTick, (long) slots.size());
+        for (long i = 1; i <= ticks; i++) {
+            Iterator<Map.Entry<K, Long>> entries = slots.get((int) ((currentTick + i) & mask)).entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<K, Long> entry = entries.next();
+                if (entry.getValue() <= nowTick) {
+                    due.add(entry.getKey());
+                    slotOfKey.remove(entry.getKey());
+                    entries.remove();
+                }
+            }
+        }
+        currentTick = nowTick;
+        return due;
+    }
+
+    public synchronized int size() {
+        return slotOfKey.size();
+    }
+}
@@ -0,0 +1,167 @@
+package chargercontrol.userapi.search;
+
+import chargercontrol.userapi.catalog.CatalogSyncService;
+import chargercontrol.userapi.catalog.CatalogVersions;
+import chargercontrol.userapi.dto.CatalogChangesDTO;
+import chargercontrol.userapi.dto.CatalogChangesDTO.StationSummary;
+import chargercontrol.userapi.metrics.MetricsSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Text index of station names and locations behind
+ * {@code GET /apiV1/stations/search}.
+ *
+ * Loaded once from the whole catalog and then kept current one station at a
+ * time from {@code catalog_changes}, through {@link CatalogSyncService}, so writes
+ * from this instance, other instances and the OperatorApi are all picked up.
+ * Every {@code stations.text-search.check-ms} the {@link CatalogVersions} are compared
+ * with the version applied, and only when the station list moved are the changes
+ * read. As with the clients of {@code /changes}, stations after a recent gap are
+ * read again until it settles, which is harmless because each is put as a whole.
+ */
+@Component
+public class StationSearchIndex implements SmartLifecycle, MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationSearchIndex.class);
+
+    private final CatalogSyncService catalogSyncService;
+    private final CatalogVersions catalogVersions;
+    private final long checkMillis;
+
+    private volatile TextIndex<StationSummary> index;
+    private volatile long version;
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder stationsUpdated = new LongAdder();
+    private final LongAdder stationsRemoved = new LongAdder();
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public StationSearchIndex(CatalogSyncService catalogSyncService, CatalogVersions catalogVersions,
+            @Value("${stations.text-search.check-ms:500}") long checkMillis) {
+        this.catalogSyncService = catalogSyncService;
+        this.catalogVersions = catalogVersions;
+        this.checkMillis = checkMillis;
+    }
+
+    /** Up to {@code limit} stations whose name or location match {@code query}, best first. */
+    public List<TextMatch<StationSummary>> search(String query, int limit) {
+        TextIndex<StationSummary> current = index;
+        if (current == null) {
+            refresh();
+            current = index;
+        }
+        long started = System.nanoTime();
+        List<TextMatch<StationSummary>> result = current.search(query, limit);
+        queryNanos.add(System.nanoTime() - started);
+        queries.increment();
+        return result;
+    }
+
+    /** Applies the station changes recorded after the version already indexed. */
+    public synchronized void refresh() {
+        if (index != null && catalogVersions.stations().version() <= version) {
+            return;
+        }
+        CatalogChangesDTO changes;
+        do {
+            changes = catalogSyncService.changesSince(index == null ? 0 : version);
+            apply(changes);
+        } while (changes.isHasMore());
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "station-search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                logger.error("Station search index refresh failed: {}", e.getMessage());
+            }
+        }, 0, checkMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public String name() {
+        return "stationTextIndex";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        TextIndex<StationSummary> current = index;
+        long queryCount = queries.sum();
+        metrics.put("version", version);
+        metrics.put("stations", current == null ? 0 : current.size());
+        metrics.put("tokens", current == null ? 0 : current.tokens());
+        metrics.put("queries", queryCount);
+        metrics.put("avgQueryMicros", queryCount == 0 ? 0.0 : queryNanos.sum() / 1000.0 / queryCount);
+        metrics.put("loads", loads.sum());
+        metrics.put("stationsUpdated", stationsUpdated.sum());
+        metrics.put("stationsRemoved", stationsRemoved.sum());
+        return metrics;
+    }
+
+    private void apply(CatalogChangesDTO changes) {
+        if (changes.isFull()) {
+            // Catálogo inteiro: constrói ao lado e troca, as pesquisas continuam na versão anterior
+            TextIndex<StationSummary> loaded = new TextIndex<>();
+            put(loaded, changes.getStations());
+            index = loaded;
+            loads.increment();
+            logger.info("Loaded station search index with {} stations at version {}", loaded.size(),
+                    changes.getVersion());
+        } else {
+            put(index, changes.getStations());
+            if (changes.getDeletedStations() != null) {
+                changes.getDeletedStations().forEach(index::remove);
+                stationsRemoved.add(changes.getDeletedStations().size());
+            }
+        }
+        version = changes.getVersion();
+    }
+
+    private void put(TextIndex<StationSummary> target, List<StationSummary> stations) {
+        if (stations == null) {
+            return;
+        }
+        for (StationSummary station : stations) {
+            target.put(station.getId(), station.getName(), station.getLocation(), station);
+        }
+        stationsUpdated.add(stations.size());
+    }
+}
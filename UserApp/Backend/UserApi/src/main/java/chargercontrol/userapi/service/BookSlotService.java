@@ -1,25 +1,52 @@
 package chargercontrol.userapi.service;
 
+import chargercontrol.userapi.dto.BookingStatsDTO;
+import chargercontrol.userapi.dto.BookingStatusCount;
+import chargercontrol.userapi.dto.BookingSummaryDTO;
+import chargercontrol.userapi.dto.FreeBusyDTO;
+import chargercontrol.userapi.event.BookingChangedEvent;
+import chargercontrol.userapi.index.BookingIntervalIndex;
+import chargercontrol.userapi.lock.PortLockManager;
 import chargercontrol.userapi.model.*;
+import chargercontrol.userapi.pagination.CursorPage;
+import chargercontrol.userapi.pagination.KeysetCursor;
 import chargercontrol.userapi.repository.BookSlotRepository;
 import chargercontrol.userapi.repository.ChargingPortRepository;
 import chargercontrol.userapi.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class BookSlotService {
 
+    private static final Logger logger = LoggerFactory.getLogger(BookSlotService.class);
+
+    // Janela máxima devolvida por getFreeBusy
+    static final long MAX_FREE_BUSY_DAYS = 7;
+
     private final BookSlotRepository bookSlotRepository;
     private final UserRepository userRepository;
     private final ChargingPortRepository chargingPortRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final PortLockManager portLockManager;
+    private final SlotReservationService slotReservationService;
+    private final EnergyLedgerService energyLedgerService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Autowired
     private UserService userService;
@@ -28,61 +55,77 @@ public class BookSlotService {
     private StationService stationService;
 
     public BookSlotService(BookSlotRepository bookSlotRepository, UserRepository userRepository,
-            ChargingPortRepository chargingPortRepository) {
+            ChargingPortRepository chargingPortRepository, BookingIntervalIndex bookingIntervalIndex,
+            PortLockManager portLockManager, SlotReservationService slotReservationService,
+            EnergyLedgerService energyLedgerService, ApplicationEventPublisher eventPublisher) {
         this.bookSlotRepository = bookSlotRepository;
         this.userRepository = userRepository;
         this.chargingPortRepository = chargingPortRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.portLockManager = portLockManager;
+        this.slotReservationService = slotReservationService;
+        this.energyLedgerService = energyLedgerService;
+        this.eventPublisher = eventPublisher;
     }
 
-    // SOLUÇÃO: Adicionar @Transactional(readOnly = true) para manter a sessão ativa
+    // findById carrega user, port e car com um entity graph
     @Transactional(readOnly = true)
     public Optional<BookSlot> getBookingById(Long id) {
-        Optional<BookSlot> bookingOpt = bookSlotRepository.findById(id);
-        
-        if (bookingOpt.isPresent()) {
-            BookSlot booking = bookingOpt.get();
-            // Forçar o carregamento dos objetos lazy para evitar LazyInitializationException
-            booking.getUser().getName(); // Trigger lazy loading
-            booking.getChargingPort().getId(); // Trigger lazy loading
-            booking.getCar().getModel(); // Trigger lazy loading
+        return bookSlotRepository.findById(id);
+    }
+
+    /**
+     * One page of a user's bookings, newest first.
+     *
+     * @param after cursor of the last booking of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BookingSummaryDTO> getBookingsByUserId(Long userId, KeysetCursor after, int limit) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("User not found with id: " + userId);
         }
-        
-        return bookingOpt;
+        if (after != null && after.time() == null) {
+            throw new IllegalArgumentException("Invalid cursor for a booking listing");
+        }
+        List<BookingSummaryDTO> rows = after == null
+                ? bookSlotRepository.findSummariesByUserId(userId, CursorPage.probe(limit))
+                : bookSlotRepository.findSummariesByUserIdBefore(userId, after.time(), after.id(),
+                        CursorPage.probe(limit));
+        return CursorPage.of(rows, limit, booking -> new KeysetCursor(booking.getBookingTime(), booking.getId()));
     }
 
-    // Também aplicar @Transactional(readOnly = true) nos outros métodos de consulta
+    /** Totals over a user's whole booking history, for the stats screen. */
     @Transactional(readOnly = true)
-    public List<BookSlot> getBookingsByUserId(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
-        
-        List<BookSlot> bookings = bookSlotRepository.findByUser(user);
-        
-        // Forçar carregamento lazy para todos os bookings
-        bookings.forEach(booking -> {
-            booking.getUser().getName();
-            booking.getChargingPort().getId();
-            booking.getCar().getModel();
-        });
-        
-        return bookings;
+    public BookingStatsDTO getBookingStatsByUserId(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("User not found with id: " + userId);
+        }
+        Map<BookingStatus, Long> byStatus = new EnumMap<>(BookingStatus.class);
+        long total = 0;
+        long totalDuration = 0;
+        LocalDateTime lastBookingTime = null;
+        for (BookingStatusCount row : bookSlotRepository.countByStatusForUser(userId)) {
+            // Linhas antigas podem não ter estado
+            if (row.status() != null) {
+                byStatus.put(row.status(), row.bookings());
+            }
+            total += row.bookings();
+            totalDuration += row.totalDuration() == null ? 0 : row.totalDuration();
+            if (row.lastBookingTime() != null
+                    && (lastBookingTime == null || row.lastBookingTime().isAfter(lastBookingTime))) {
+                lastBookingTime = row.lastBookingTime();
+            }
+        }
+        return new BookingStatsDTO(total, total == 0 ? 0 : (double) totalDuration / total, lastBookingTime, byStatus,
+                bookSlotRepository.countByMonthForUser(userId), bookSlotRepository.countByCarForUser(userId));
     }
 
     @Transactional(readOnly = true)
-    public List<BookSlot> getBookingsByChargingPortId(Long chargingPortId) {
-        ChargingPort chargingPort = chargingPortRepository.findById(chargingPortId)
-                .orElseThrow(() -> new EntityNotFoundException("ChargingPort not found with id: " + chargingPortId));
-        
-        List<BookSlot> bookings = bookSlotRepository.findByChargingPort(chargingPort);
-        
-        // Forçar carregamento lazy
-        bookings.forEach(booking -> {
-            booking.getUser().getName();
-            booking.getChargingPort().getId();
-            booking.getCar().getModel();
-        });
-        
-        return bookings;
+    public List<BookingSummaryDTO> getBookingsByChargingPortId(Long chargingPortId) {
+        if (!chargingPortRepository.existsById(chargingPortId)) {
+            throw new EntityNotFoundException("ChargingPort not found with id: " + chargingPortId);
+        }
+        return bookSlotRepository.findSummariesByChargingPortId(chargingPortId);
     }
 
     @Transactional(readOnly = true)
@@ -90,17 +133,9 @@ public class BookSlotService {
             LocalDateTime endTime) {
         ChargingPort chargingPort = chargingPortRepository.findById(chargingPortId)
                 .orElseThrow(() -> new EntityNotFoundException("ChargingPort not found with id: " + chargingPortId));
-        
-        List<BookSlot> bookings = bookSlotRepository.findByChargingPortAndBookingTimeBetween(chargingPort, startTime, endTime);
-        
-        // Forçar carregamento lazy
-        bookings.forEach(booking -> {
-            booking.getUser().getName();
-            booking.getChargingPort().getId();
-            booking.getCar().getModel();
-        });
-        
-        return bookings;
+
+        // Associations are fetched by the entity graph on the query
+        return bookSlotRepository.findByChargingPortAndBookingTimeBetween(chargingPort, startTime, endTime);
     }
 
     // Resto dos métodos permanecem iguais...
@@ -113,105 +148,81 @@ public class BookSlotService {
             throw new RuntimeException("User not found with id: " + bookRequest.getUserId());
         }
 
-        // Get station with charging ports (this should handle lazy loading properly)
-        Station station = stationService.getStationWithChargingPorts(bookRequest.getStationId())
-                .orElseThrow(() -> new RuntimeException("Station not found with id: " + bookRequest.getStationId()));
+        // Only the AVAILABLE ports of the station are candidates
+        List<ChargingPort> candidatePorts = chargingPortRepository.findByStationIdAndStatus(
+                bookRequest.getStationId(), ChargingPortStatus.AVAILABLE);
+        if (candidatePorts.isEmpty() && stationService.getStationById(bookRequest.getStationId()).isEmpty()) {
+            throw new RuntimeException("Station not found with id: " + bookRequest.getStationId());
+        }
 
-        // Debug: Log station and ports info
-        System.out.println("=== BOOKING DEBUG ===");
-        System.out.println("Station ID: " + station.getId());
-        System.out.println("Total charging ports: " + station.getChargingPorts().size());
-        
         // Get the car from the user's cars
         Car car = user.getCars().stream()
                 .filter(c -> c.getId().equals(bookRequest.getCarId()))
                 .findFirst()
                 .orElseThrow(() -> new RuntimeException("Car not found with id: " + bookRequest.getCarId()));
 
-        // Find an available slot in any of the charging ports
-        ChargingPort availablePort = null;
-        
-        for (ChargingPort port : station.getChargingPorts()) {
-            System.out.println("Checking port ID: " + port.getId() + ", Status: " + port.getStatus());
-            
-            if (port.getStatus() == ChargingPortStatus.AVAILABLE) {
-                System.out.println("Port " + port.getId() + " is AVAILABLE, checking time slots...");
-                
-                if (isSlotAvailable(port, bookRequest.getStartTime(), bookRequest.getDuration())) {
-                    System.out.println("Port " + port.getId() + " has available slot!");
-                    availablePort = port;
-                    break;
-                } else {
-                    System.out.println("Port " + port.getId() + " slot is not available");
-                }
-            } else {
-                System.out.println("Port " + port.getId() + " is not AVAILABLE (status: " + port.getStatus() + ")");
-            }
-        }
-        
-        if (availablePort == null) {
-            // Provide detailed error message
-            long availablePorts = station.getChargingPorts().stream()
-                    .filter(port -> port.getStatus() == ChargingPortStatus.AVAILABLE)
-                    .count();
-            
+        // Verifica a disponibilidade no índice em memória (ports ainda não carregados são
+        // lidos numa única query); a query de sobreposição sob o lock do port continua a
+        // ser a garantia final no momento da escrita
+        LocalDateTime startTime = bookRequest.getStartTime();
+        LocalDateTime endTime = startTime.plusMinutes(bookRequest.getDuration());
+        List<Long> freePortIds = bookingIntervalIndex.findFreePorts(
+                candidatePorts.stream().map(ChargingPort::getId).collect(Collectors.toList()), startTime, endTime);
+
+        if (freePortIds.isEmpty()) {
             throw new RuntimeException("No available slots at this station for the requested time. " +
-                    "Station has " + station.getChargingPorts().size() + " total ports, " +
-                    availablePorts + " are available. " +
-                    "Requested time: " + bookRequest.getStartTime() + 
+                    "Station has " + candidatePorts.size() + " available ports. " +
+                    "Requested time: " + bookRequest.getStartTime() +
                     " for " + bookRequest.getDuration() + " minutes");
         }
 
-        // Create the booking object
-        BookSlot bookSlot = new BookSlot();
-        bookSlot.setUser(user);
-        bookSlot.setChargingPort(availablePort);
-        bookSlot.setCar(car);
-        bookSlot.setBookingTime(bookRequest.getStartTime());
-        bookSlot.setDuration(bookRequest.getDuration());
-        bookSlot.setStatus(BookingStatus.PENDING);
-
-        // Save and return the booking
-        return createBooking(bookSlot);
+        Map<Long, ChargingPort> portsById = candidatePorts.stream()
+                .collect(Collectors.toMap(ChargingPort::getId, port -> port));
+
+        // Another request may take a port between the index check and the lock; move on to the next one
+        for (Long freePortId : freePortIds) {
+            BookSlot bookSlot = new BookSlot();
+            bookSlot.setUser(user);
+            bookSlot.setChargingPort(portsById.get(freePortId));
+            bookSlot.setCar(car);
+            bookSlot.setBookingTime(bookRequest.getStartTime());
+            bookSlot.setDuration(bookRequest.getDuration());
+            bookSlot.setStatus(BookingStatus.PENDING);
+
+            BookSlot savedBooking = lockAndInsert(bookSlot);
+            if (savedBooking != null) {
+                return savedBooking;
+            }
+        }
+
+        throw new RuntimeException("No available slots at this station for the requested time. " +
+                "All " + freePortIds.size() + " candidate ports were booked concurrently. " +
+                "Requested time: " + bookRequest.getStartTime() +
+                " for " + bookRequest.getDuration() + " minutes");
     }
 
-    // MÉTODO CORRIGIDO - Verifica se um slot está disponível
-    private boolean isSlotAvailable(ChargingPort port, LocalDateTime startTime, Integer duration) {
-        LocalDateTime endTime = startTime.plusMinutes(duration);
-        
-        System.out.println("Checking slot availability for port " + port.getId());
-        System.out.println("Requested time: " + startTime + " to " + endTime);
-        
-        // Buscar TODAS as reservas ativas da porta (não canceladas nem expiradas)
-        List<BookSlot> activeBookings = bookSlotRepository.findByChargingPort(port)
+    public List<Long> getFreeChargingPortIds(Long stationId, LocalDateTime startTime, Integer duration) {
+        if (duration == null || duration <= 0) {
+            throw new RuntimeException("Duration must be positive");
+        }
+        List<Long> portIds = chargingPortRepository.findByStationIdAndStatus(stationId, ChargingPortStatus.AVAILABLE)
                 .stream()
-                .filter(booking -> booking.getStatus() != BookingStatus.CANCELLED)
-                .filter(booking -> booking.getStatus() != BookingStatus.EXPIRED)
+                .map(ChargingPort::getId)
                 .collect(Collectors.toList());
-        
-        System.out.println("Found " + activeBookings.size() + " active bookings for this port");
-        
-        // Verificar se alguma reserva ativa sobrepõe com o período solicitado
-        for (BookSlot booking : activeBookings) {
-            LocalDateTime bookingStart = booking.getBookingTime();
-            LocalDateTime bookingEnd = bookingStart.plusMinutes(booking.getDuration());
-            
-            System.out.println("Existing booking: " + bookingStart + " to " + bookingEnd + " (Status: " + booking.getStatus() + ")");
-            
-            // Verificar sobreposição: duas reservas se sobrepõem se:
-            // - Nova reserva não termina antes da existente começar E
-            // - Nova reserva não começa depois da existente terminar
-            boolean overlaps = !(endTime.isBefore(bookingStart) || endTime.equals(bookingStart) || 
-                               startTime.isAfter(bookingEnd) || startTime.equals(bookingEnd));
-            
-            if (overlaps) {
-                System.out.println("CONFLICT FOUND: Booking overlaps with existing reservation");
-                return false; // Há conflito
-            }
+        return bookingIntervalIndex.findFreePorts(portIds, startTime, startTime.plusMinutes(duration));
+    }
+
+    public FreeBusyDTO getFreeBusy(Long chargingPortId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!chargingPortRepository.existsById(chargingPortId)) {
+            throw new EntityNotFoundException("ChargingPort not found with id: " + chargingPortId);
         }
-        
-        System.out.println("No conflicts found - slot is available");
-        return true; // Nenhum conflito encontrado
+        if (!endTime.isAfter(startTime)) {
+            throw new RuntimeException("End time must be after start time");
+        }
+        LocalDateTime cappedEnd = endTime.isAfter(startTime.plusDays(MAX_FREE_BUSY_DAYS))
+                ? startTime.plusDays(MAX_FREE_BUSY_DAYS)
+                : endTime;
+        return new FreeBusyDTO(chargingPortId, bookingIntervalIndex.freeBusy(chargingPortId, startTime, cappedEnd));
     }
 
     @Transactional
@@ -226,23 +237,55 @@ public class BookSlotService {
         bookSlot.setUser(user);
         bookSlot.setChargingPort(chargingPort);
 
+        BookSlot savedBooking = lockAndInsert(bookSlot);
+        if (savedBooking == null) {
+            throw new RuntimeException("Booking slot is not available at the selected time for this charging port.");
+        }
+        return savedBooking;
+    }
+
+    // Serializa o check-and-insert por port: o lock é libertado logo se o slot estiver
+    // ocupado, ou quando a transação terminar se a reserva for gravada.
+    // Devolve null se existir sobreposição ou se os buckets já estiverem reservados.
+    private BookSlot lockAndInsert(BookSlot bookSlot) {
+        Long chargingPortId = bookSlot.getChargingPort().getId();
+        portLockManager.lock(chargingPortId);
+
         // Check for overlapping bookings for the same charging port and time
         LocalDateTime bookingEndTime = bookSlot.getBookingTime().plusMinutes(bookSlot.getDuration());
-        List<BookSlot> overlappingBookings = bookSlotRepository.findOverlappingBookings(
-                chargingPort.getId(),
-                bookSlot.getBookingTime(),
-                bookingEndTime);
+        List<BookSlot> overlappingBookings;
+        try {
+            overlappingBookings = bookSlotRepository.findOverlappingBookings(
+                    chargingPortId,
+                    bookSlot.getBookingTime(),
+                    bookingEndTime);
+        } catch (RuntimeException e) {
+            portLockManager.unlock(chargingPortId);
+            throw e;
+        }
 
         if (!overlappingBookings.isEmpty()) {
-            throw new RuntimeException("Booking slot is not available at the selected time for this charging port.");
+            portLockManager.unlock(chargingPortId);
+            // The in-memory view missed a booking (e.g. written by another instance)
+            bookingIntervalIndex.evict(chargingPortId);
+            return null;
         }
-        
+        portLockManager.unlockAfterCompletion(chargingPortId);
+
         // Set default status if not provided
         if (bookSlot.getStatus() == null) {
             bookSlot.setStatus(BookingStatus.PENDING);
         }
-        
-        return bookSlotRepository.save(bookSlot);
+
+        BookSlot savedBooking = bookSlotRepository.save(bookSlot);
+        // Guarda na base de dados: falha se outra instância reservou os mesmos buckets
+        if (!slotReservationService.reserve(savedBooking)) {
+            bookSlotRepository.delete(savedBooking);
+            bookingIntervalIndex.evict(chargingPortId);
+            return null;
+        }
+        eventPublisher.publishEvent(BookingChangedEvent.of(savedBooking));
+        return savedBooking;
     }
 
     @Transactional
@@ -252,13 +295,8 @@ public BookSlot updateBookingStatus(Long id, BookingStatus newStatus) {
     
     BookingStatus currentStatus = booking.getStatus();
     
-    // Log current state for debugging
-    System.out.println("=== STATUS UPDATE DEBUG ===");
-    System.out.println("Booking ID: " + id);
-    System.out.println("Current Status: " + currentStatus);
-    System.out.println("Requested New Status: " + newStatus);
-    System.out.println("Booking Time: " + booking.getBookingTime());
-    System.out.println("Current Time: " + LocalDateTime.now());
+    logger.debug("Status update for booking {}: {} -> {} (booking time {})",
+            id, currentStatus, newStatus, booking.getBookingTime());
     
     // Validate status transitions
     validateStatusTransition(currentStatus, newStatus, booking);
@@ -282,14 +320,7 @@ public BookSlot updateBookingStatus(Long id, BookingStatus newStatus) {
     }
     
     if (currentStatus == BookingStatus.ACTIVE && newStatus == BookingStatus.COMPLETED) {
-        // Calculate energy used and update charging port
-        ChargingPort port = booking.getChargingPort();
-        double energyUsed = booking.getDuration() * (7.0 / 60); // 7kW rate
-        port.setEnergyUsed(port.getEnergyUsed() + energyUsed);
-        
-        // Free up the charging port
-        port.setStatus(ChargingPortStatus.AVAILABLE);
-        chargingPortRepository.save(port);
+        completeCharging(booking);
     }
     
     if (newStatus == BookingStatus.CANCELLED) {
@@ -303,8 +334,11 @@ public BookSlot updateBookingStatus(Long id, BookingStatus newStatus) {
     
     booking.setStatus(newStatus);
     BookSlot savedBooking = bookSlotRepository.save(booking);
-    
-    System.out.println("Status successfully updated to: " + savedBooking.getStatus());
+    if (newStatus == BookingStatus.CANCELLED || newStatus == BookingStatus.EXPIRED) {
+        slotReservationService.release(savedBooking.getId());
+    }
+    eventPublisher.publishEvent(BookingChangedEvent.of(savedBooking));
+
     return savedBooking;
 }
 
@@ -361,6 +395,8 @@ private void validateStatusTransition(BookingStatus currentStatus, BookingStatus
             if (LocalDateTime.now().isBefore(booking.getBookingTime())) {
                 booking.setStatus(BookingStatus.CANCELLED);
                 bookSlotRepository.save(booking);
+                slotReservationService.release(booking.getId());
+                eventPublisher.publishEvent(BookingChangedEvent.of(booking));
             } else {
                 throw new RuntimeException("Cannot cancel booking: Booking time has already passed.");
             }
@@ -370,21 +406,93 @@ private void validateStatusTransition(BookingStatus currentStatus, BookingStatus
         }
     }
 
-    // Método adicional para limpeza de reservas expiradas
+    // Regista a energia da sessão no ledger (somada ao port pelo EnergyRollupJob) e liberta o charging port
+    private void completeCharging(BookSlot booking) {
+        energyLedgerService.record(booking);
+
+        // Free up the charging port
+        ChargingPort port = booking.getChargingPort();
+        port.setStatus(ChargingPortStatus.AVAILABLE);
+        chargingPortRepository.save(port);
+    }
+
+    /**
+     * Applies the transition whose deadline has passed to one booking: a PENDING
+     * booking not started within {@code noShowGrace} (or past its end) becomes
+     * EXPIRED, an ACTIVE booking past its end becomes COMPLETED. The status moves
+     * with a conditional UPDATE, so when the same deadline fires on several
+     * instances, or the booking changed in the meantime, only one transition is
+     * applied. Returns whether this call applied it.
+     */
+    @Transactional
+    public boolean applyDueTransition(Long bookingId, Duration noShowGrace) {
+        return bookSlotRepository.findById(bookingId)
+                .map(booking -> applyDueTransition(booking, noShowGrace, LocalDateTime.now()))
+                .orElse(false);
+    }
+
+    /**
+     * Same as {@link #applyDueTransition(Long, Duration)} for several bookings, loaded
+     * with one query and moved in one transaction. Returns how many transitions
+     * were applied.
+     */
+    @Transactional
+    public int applyDueTransitions(Collection<Long> bookingIds, Duration noShowGrace) {
+        LocalDateTime now = LocalDateTime.now();
+        int applied = 0;
+        for (BookSlot booking : bookSlotRepository.findByIdIn(bookingIds)) {
+            if (applyDueTransition(booking, noShowGrace, now)) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    private boolean applyDueTransition(BookSlot booking, Duration noShowGrace, LocalDateTime now) {
+        LocalDateTime endTime = booking.getBookingTime().plusMinutes(booking.getDuration());
+        BookingStatus currentStatus = booking.getStatus();
+        BookingStatus newStatus;
+        if (currentStatus == BookingStatus.PENDING
+                && (!now.isBefore(booking.getBookingTime().plus(noShowGrace)) || !now.isBefore(endTime))) {
+            newStatus = BookingStatus.EXPIRED;
+        } else if (currentStatus == BookingStatus.ACTIVE && !now.isBefore(endTime)) {
+            newStatus = BookingStatus.COMPLETED;
+        } else {
+            return false;
+        }
+        if (bookSlotRepository.updateStatusIf(booking.getId(), currentStatus, newStatus) == 0) {
+            return false;
+        }
+
+        if (newStatus == BookingStatus.COMPLETED) {
+            completeCharging(booking);
+        } else {
+            slotReservationService.release(booking.getId());
+        }
+        // Sem setStatus: a entidade ficaria dirty e o flush validaria o @FutureOrPresent
+        // do bookingTime, que já passou, fazendo rollback da transição
+        eventPublisher.publishEvent(BookingChangedEvent.of(booking, newStatus));
+        return true;
+    }
+
+    // Rede de segurança para reservas cujo prazo não foi tratado pelo BookingDeadlineScheduler
     @Transactional
-    public void cleanupExpiredBookings() {
+    public int cleanupExpiredBookings() {
         LocalDateTime now = LocalDateTime.now();
         
-        List<BookSlot> expiredBookings = bookSlotRepository.findAll().stream()
-                .filter(booking -> booking.getStatus() == BookingStatus.PENDING)
-                .filter(booking -> booking.getBookingTime().plusMinutes(booking.getDuration()).isBefore(now))
-                .collect(Collectors.toList());
+        List<BookSlot> expiredBookings = bookSlotRepository.findByStatusAndEndTimeBefore(BookingStatus.PENDING, now);
         
+        // O BookingDeadlineScheduler de outra instância pode expirar a mesma reserva
+        List<Long> expired = new ArrayList<>();
         for (BookSlot booking : expiredBookings) {
-            booking.setStatus(BookingStatus.EXPIRED);
-            bookSlotRepository.save(booking);
+            if (bookSlotRepository.updateStatusIf(booking.getId(), BookingStatus.PENDING, BookingStatus.EXPIRED) == 1) {
+                eventPublisher.publishEvent(BookingChangedEvent.of(booking, BookingStatus.EXPIRED));
+                expired.add(booking.getId());
+            }
         }
+        slotReservationService.release(expired);
         
-        System.out.println("Cleaned up " + expiredBookings.size() + " expired bookings");
+        logger.info("Cleaned up {} expired bookings", expired.size());
+        return expired.size();
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,8 @@ package chargercontrol.userapi.service;
 
 import chargercontrol.userapi.model.Car;
 import chargercontrol.userapi.model.User;
+import chargercontrol.userapi.pagination.CursorPage;
+import chargercontrol.userapi.pagination.KeysetCursor;
 import chargercontrol.userapi.repository.CarRepository;
 import chargercontrol.userapi.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -68,5 +70,12 @@ public class CarService {
 
     public List<Car> getAllCars() {
         return carRepository.findAll();
+    }
+
+    /** One page of cars in id order, owners included; {@code after} is null for the first page. */
+    @Transactional(readOnly = true)
+    public CursorPage<Car> getCarsPage(KeysetCursor after, int limit) {
+        List<Car> rows = carRepository.findPageAfter(after == null ? 0L : after.id(), CursorPage.probe(limit));
+        return CursorPage.of(rows, limit, car -> KeysetCursor.ofId(car.getId()));
     }   
 }
\ No newline at end of file
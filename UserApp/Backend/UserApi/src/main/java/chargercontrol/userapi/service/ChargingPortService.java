@@ -1,11 +1,15 @@
 package chargercontrol.userapi.service;
 
+import chargercontrol.userapi.coalescing.SingleFlight;
+import chargercontrol.userapi.coalescing.SingleFlights;
+import chargercontrol.userapi.event.ChargingPortChangedEvent;
 import chargercontrol.userapi.model.ChargingPort;
 import chargercontrol.userapi.model.ChargingPortStatus;
 import chargercontrol.userapi.model.Station;
 import chargercontrol.userapi.repository.ChargingPortRepository;
 import chargercontrol.userapi.repository.StationRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,17 +20,24 @@ public class ChargingPortService {
     
     private final ChargingPortRepository chargingPortRepository;
     private final StationRepository stationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight<Long, List<ChargingPort>> portsByStation;
     
-    public ChargingPortService(ChargingPortRepository chargingPortRepository, StationRepository stationRepository) {
+    public ChargingPortService(ChargingPortRepository chargingPortRepository, StationRepository stationRepository,
+            ApplicationEventPublisher eventPublisher, SingleFlights singleFlights) {
         this.chargingPortRepository = chargingPortRepository;
         this.stationRepository = stationRepository;
+        this.eventPublisher = eventPublisher;
+        this.portsByStation = singleFlights.group("portsByStation");
     }
     
     public List<ChargingPort> getChargingPortsByStationId(Long stationId) {
-        if (!stationRepository.existsById(stationId)) {
-            throw new EntityNotFoundException("Station not found with id: " + stationId);
-        }
-        return chargingPortRepository.findByStationId(stationId);
+        return portsByStation.execute(stationId, () -> {
+            if (!stationRepository.existsById(stationId)) {
+                throw new EntityNotFoundException("Station not found with id: " + stationId);
+            }
+            return chargingPortRepository.findByStationId(stationId);
+        });
     }
     
     public List<ChargingPort> getChargingPortsByStatus(ChargingPortStatus status) {
@@ -39,13 +50,12 @@ public class ChargingPortService {
             throw new EntityNotFoundException("ChargingPort not found with id: " + portId);
         }
         chargingPortRepository.deleteById(portId);
+        eventPublisher.publishEvent(new ChargingPortChangedEvent(portId, null, null));
     }
     
+    // Soma os totais por port mantidos pelo EnergyRollupJob (pode atrasar até um intervalo do job)
     public Double getTotalEnergyUsedByStation(Long stationId) {
-        List<ChargingPort> ports = chargingPortRepository.findByStationId(stationId);
-        return ports.stream()
-                .mapToDouble(ChargingPort::getEnergyUsed)
-                .sum();
+        return chargingPortRepository.sumEnergyUsedByStationId(stationId);
     }
 
     @Transactional
@@ -65,7 +75,9 @@ public class ChargingPortService {
             chargingPort.setEnergyUsed(0.0);
         }
         
-        return chargingPortRepository.save(chargingPort);
+        ChargingPort saved = chargingPortRepository.save(chargingPort);
+        eventPublisher.publishEvent(ChargingPortChangedEvent.of(saved));
+        return saved;
     }
 
     public ChargingPort getChargingPortById(Long id) {
@@ -77,7 +89,9 @@ public class ChargingPortService {
 public ChargingPort updateChargingPortStatus(Long portId, ChargingPortStatus status) {
     ChargingPort port = getChargingPortById(portId);
     port.setStatus(status);
-    return chargingPortRepository.save(port);
+    ChargingPort saved = chargingPortRepository.save(port);
+    eventPublisher.publishEvent(ChargingPortChangedEvent.of(saved));
+    return saved;
 }
 
 
@@ -86,7 +100,9 @@ public ChargingPort updateChargingPort(Long portId, ChargingPort updatedPort) {
     ChargingPort existing = getChargingPortById(portId);
     existing.setStatus(updatedPort.getStatus());
     existing.setEnergyUsed(updatedPort.getEnergyUsed());
-    return chargingPortRepository.save(existing);
+    ChargingPort saved = chargingPortRepository.save(existing);
+    eventPublisher.publishEvent(ChargingPortChangedEvent.of(saved));
+    return saved;
 }
 
 
@@ -0,0 +1,86 @@
+package chargercontrol.userapi.service;
+
+import chargercontrol.userapi.catalog.CatalogChangeListener;
+import chargercontrol.userapi.model.BookSlot;
+import chargercontrol.userapi.model.ChargingPort;
+import chargercontrol.userapi.model.EnergyLedgerEntry;
+import chargercontrol.userapi.repository.ChargingPortRepository;
+import chargercontrol.userapi.repository.EnergyLedgerRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Records the energy of completed sessions as ledger inserts and periodically
+ * adds them to {@code charging_ports.energy_used}.
+ *
+ * Completing a session never reads or writes the port's total, so concurrent
+ * completions cannot lose each other's energy. The rollup is the only writer
+ * of the totals and applies them as atomic increments.
+ */
+@Service
+public class EnergyLedgerService {
+
+    // Potência usada quando a estação não tem power definido (valor antigo fixo)
+    static final double DEFAULT_POWER_KW = 7.0;
+
+    private final EnergyLedgerRepository energyLedgerRepository;
+    private final ChargingPortRepository chargingPortRepository;
+    private final CatalogChangeListener catalogChangeListener;
+
+    public EnergyLedgerService(EnergyLedgerRepository energyLedgerRepository,
+            ChargingPortRepository chargingPortRepository, CatalogChangeListener catalogChangeListener) {
+        this.energyLedgerRepository = energyLedgerRepository;
+        this.chargingPortRepository = chargingPortRepository;
+        this.catalogChangeListener = catalogChangeListener;
+    }
+
+    /**
+     * Appends the energy of {@code booking}'s session, charged at the station's
+     * power for the booked duration. Does nothing if the session was already recorded.
+     */
+    @Transactional
+    public EnergyLedgerEntry record(BookSlot booking) {
+        if (energyLedgerRepository.existsByBookSlotId(booking.getId())) {
+            return null;
+        }
+        ChargingPort port = booking.getChargingPort();
+        Double stationPower = port.getStation().getPower();
+        double powerKw = stationPower != null && stationPower > 0 ? stationPower : DEFAULT_POWER_KW;
+        double energyKwh = powerKw * booking.getDuration() / 60.0;
+        return energyLedgerRepository.save(new EnergyLedgerEntry(null, booking.getId(), port.getId(),
+                port.getStation().getId(), powerKw, booking.getDuration(), energyKwh, LocalDateTime.now(), false));
+    }
+
+    /**
+     * Adds up to {@code batchSize} pending ledger entries to their ports' totals.
+     *
+     * @return the number of entries rolled up; 0 when nothing is pending
+     */
+    @Transactional
+    public int rollup(int batchSize) {
+        List<EnergyLedgerEntry> pending = energyLedgerRepository.findPendingRollup(PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Double> energyByPort = pending.stream().collect(Collectors.groupingBy(
+                EnergyLedgerEntry::getChargingPortId, Collectors.summingDouble(EnergyLedgerEntry::getEnergyKwh)));
+        Map<Long, Long> stationByPort = pending.stream().collect(Collectors.toMap(
+                EnergyLedgerEntry::getChargingPortId, EnergyLedgerEntry::getStationId, (a, b) -> a));
+        // Ports in id order so concurrent writers of charging_ports lock them in the same order
+        energyByPort.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    chargingPortRepository.addEnergyUsed(entry.getKey(), entry.getValue());
+                    // O incremento em bulk não passa pelos callbacks JPA
+                    catalogChangeListener.recordPortChange(entry.getKey(), stationByPort.get(entry.getKey()));
+                });
+        energyLedgerRepository.markRolledUp(pending.stream().map(EnergyLedgerEntry::getId).toList());
+        return pending.size();
+    }
+}
@@ -0,0 +1,137 @@
+package chargercontrol.userapi.service;
+
+import chargercontrol.userapi.model.BookSlot;
+import chargercontrol.userapi.repository.PortSlotReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains {@code port_slot_reservations}, the database-side guard against double
+ * bookings.
+ *
+ * Every blocking booking owns one row per time bucket it touches, edge buckets
+ * included. The rows are written with one batched insert in the booking's
+ * transaction; the unique key on (charging_port_id, slot_start) makes a concurrent
+ * booking of the same bucket fail even when it comes from another instance, however
+ * short the overlap. The bucket is therefore the booking granularity: back-to-back
+ * bookings that meet inside a bucket (e.g. 10:00-10:07 and 10:07-10:30 with
+ * 5-minute buckets) conflict, while bookings meeting on a bucket boundary do not.
+ * Reservations of past buckets are pruned by {@code SlotReservationsCleanupJob}.
+ */
+@Service
+public class SlotReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotReservationService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO port_slot_reservations (charging_port_id, slot_start, book_slot_id) VALUES (?, ?, ?)";
+
+    private final PortSlotReservationRepository reservationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long bucketSeconds;
+
+    public SlotReservationService(PortSlotReservationRepository reservationRepository, JdbcTemplate jdbcTemplate,
+            @Value("${booking.reservation.bucket-minutes:5}") int bucketMinutes) {
+        if (bucketMinutes <= 0) {
+            throw new IllegalArgumentException("booking.reservation.bucket-minutes must be positive");
+        }
+        this.reservationRepository = reservationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.bucketSeconds = bucketMinutes * 60L;
+    }
+
+    /**
+     * Reserves the buckets of a saved booking.
+     *
+     * @return false, with nothing reserved, if one of the buckets is already held by
+     *         another booking; the caller can then try another port
+     */
+    @Transactional
+    public boolean reserve(BookSlot booking) {
+        return reserve(booking.getId(), booking.getChargingPort().getId(),
+                booking.getBookingTime(), booking.getBookingTime().plusMinutes(booking.getDuration()));
+    }
+
+    /** Same as {@link #reserve(BookSlot)} for a booking given by its columns. */
+    @Transactional
+    public boolean reserve(Long bookSlotId, Long chargingPortId, LocalDateTime start, LocalDateTime end) {
+        List<Object[]> rows = rowsOf(bookSlotId, chargingPortId, start, end);
+        if (rows.isEmpty()) {
+            return true;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // O batch pode ter gravado parte dos buckets antes do duplicado
+            reservationRepository.deleteByBookSlotIds(List.of(bookSlotId));
+            logger.debug("Charging port {} already has a reservation between {} and {}", chargingPortId, start, end);
+            return false;
+        }
+    }
+
+    /**
+     * Reserves the buckets of several saved bookings in a single batch.
+     *
+     * @throws RuntimeException if one of the buckets is already held by another booking
+     */
+    @Transactional
+    public void reserveAll(Collection<BookSlot> bookings) {
+        List<Object[]> rows = new ArrayList<>();
+        for (BookSlot booking : bookings) {
+            rows.addAll(rowsOf(booking.getId(), booking.getChargingPort().getId(),
+                    booking.getBookingTime(), booking.getBookingTime().plusMinutes(booking.getDuration())));
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        } catch (DuplicateKeyException e) {
+            throw new RuntimeException("Booking slot is not available at the selected time for this charging port.", e);
+        }
+    }
+
+    @Transactional
+    public void release(Long bookSlotId) {
+        release(List.of(bookSlotId));
+    }
+
+    @Transactional
+    public void release(Collection<Long> bookSlotIds) {
+        if (!bookSlotIds.isEmpty()) {
+            reservationRepository.deleteByBookSlotIds(bookSlotIds);
+        }
+    }
+
+    /** Removes the reservations of buckets starting before {@code cutoff}. */
+    @Transactional
+    public int pruneBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM port_slot_reservations WHERE slot_start < ?",
+                Timestamp.valueOf(cutoff));
+    }
+
+    private List<Object[]> rowsOf(Long bookSlotId, Long chargingPortId, LocalDateTime start, LocalDateTime end) {
+        // Todos os buckets que [start, end) toca, arredondando as pontas para fora
+        long first = Math.floorDiv(start.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+        long last = Math.floorDiv(end.minusNanos(1).toEpochSecond(ZoneOffset.UTC), bucketSeconds) + 1;
+        List<Object[]> rows = new ArrayList<>((int) Math.max(0, last - first));
+        for (long bucket = first; bucket < last; bucket++) {
+            LocalDateTime slotStart = LocalDateTime.ofEpochSecond(bucket * bucketSeconds, 0, ZoneOffset.UTC);
+            rows.add(new Object[] { chargingPortId, Timestamp.valueOf(slotStart), bookSlotId });
+        }
+        return rows;
+    }
+}
@@ -1,5 +1,7 @@
 package chargercontrol.userapi.service;
 
+import chargercontrol.userapi.coalescing.SingleFlight;
+import chargercontrol.userapi.coalescing.SingleFlights;
 import chargercontrol.userapi.model.Station;
 import chargercontrol.userapi.repository.StationRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -13,9 +15,14 @@ import java.util.Optional;
 public class StationService {
     
     private final StationRepository stationRepository;
+    // Leituras concorrentes iguais partilham uma única query
+    private final SingleFlight<String, List<Station>> allStations;
+    private final SingleFlight<Long, Optional<Station>> stationById;
     
-    public StationService(StationRepository stationRepository) {
+    public StationService(StationRepository stationRepository, SingleFlights singleFlights) {
         this.stationRepository = stationRepository;
+        this.allStations = singleFlights.group("allStations");
+        this.stationById = singleFlights.group("stationById");
     }
     
     @Transactional
@@ -29,14 +36,13 @@ public class StationService {
         return stationRepository.save(station);
     }
     
-    @Transactional(readOnly = true) // IMPORTANTE: Mantém a sessão aberta para lazy loading
+    // Sem @Transactional próprio: quem espera pela query de outro não deve ocupar uma ligação
     public List<Station> getAllStations() {
-        return stationRepository.findAll();
+        return allStations.execute("all", stationRepository::findAll);
     }
     
-    @Transactional(readOnly = true)
     public Optional<Station> getStationById(Long id) {
-        return stationRepository.findById(id);
+        return stationById.execute(id, () -> stationRepository.findById(id));
     }
     
     @Transactional(readOnly = true)
@@ -6,6 +6,8 @@ import chargercontrol.userapi.exception.AuthenticationFailedException;
 import ch.qos.logback.classic.encoder.JsonEncoder;
 import chargercontrol.userapi.model.Car;
 import chargercontrol.userapi.model.User;
+import chargercontrol.userapi.pagination.CursorPage;
+import chargercontrol.userapi.pagination.KeysetCursor;
 import chargercontrol.userapi.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -82,6 +84,12 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    /** One page of users in id order; {@code after} is null for the first page. */
+    public CursorPage<User> getUsersPage(KeysetCursor after, int limit) {
+        List<User> rows = userRepository.findPageAfter(after == null ? 0L : after.id(), CursorPage.probe(limit));
+        return CursorPage.of(rows, limit, user -> KeysetCursor.ofId(user.getId()));
+    }
+
     public User getUserById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
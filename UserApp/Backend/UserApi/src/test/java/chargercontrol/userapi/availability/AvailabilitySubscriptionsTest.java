@@ -0,0 +1,121 @@
+package chargercontrol.userapi.availability;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilitySubscriptionsTest {
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private RemoteEndpoint.Async remote;
+
+    private AvailabilitySubscriptions subscriptions;
+    private AvailabilitySession client;
+
+    @BeforeEach
+    void setUp() {
+        subscriptions = new AvailabilitySubscriptions(new ObjectMapper(), 3);
+        client = new AvailabilitySession(session, subscriptions::failed);
+        subscriptions.register(client);
+    }
+
+    @Test
+    void subscribe_RespectsPerSessionLimit() {
+        // Act
+        List<Long> added = subscriptions.subscribe(client, List.of(1L, 2L, 2L, 3L, 4L));
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), added);
+        assertEquals(1, subscriptions.followers(3L));
+        assertEquals(0, subscriptions.followers(4L));
+    }
+
+    @Test
+    void replace_SwapsSubscriptionsAndReturnsOnlyNewStations() {
+        // Arrange
+        subscriptions.subscribe(client, List.of(1L, 2L));
+
+        // Act
+        List<Long> added = subscriptions.replace(client, List.of(2L, 5L));
+
+        // Assert
+        assertEquals(List.of(5L), added);
+        assertEquals(0, subscriptions.followers(1L));
+        assertEquals(1, subscriptions.followers(2L));
+    }
+
+    @Test
+    void publish_SendsOnlyToFollowersAsOneCompactFrame() {
+        // Arrange
+        when(session.getAsyncRemote()).thenReturn(remote);
+        subscriptions.subscribe(client, List.of(1L, 2L));
+        LocalDateTime nextFree = LocalDateTime.of(2026, 10, 17, 10, 30);
+
+        // Act
+        subscriptions.publish(List.of(
+                new StationAvailability(1L, 2, 4, null),
+                new StationAvailability(2L, 0, 2, nextFree),
+                new StationAvailability(9L, 1, 1, null)));
+
+        // Assert
+        verify(remote).sendText(eq("[{\"s\":1,\"f\":2,\"t\":4},{\"s\":2,\"f\":0,\"t\":2,\"n\":\"2026-10-17T10:30\"}]"),
+                any(SendHandler.class));
+    }
+
+    @Test
+    void publish_WhileFrameInFlight_CoalescesPerStation() {
+        // Arrange
+        when(session.getAsyncRemote()).thenReturn(remote);
+        subscriptions.subscribe(client, List.of(1L));
+        ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+
+        // Act: first frame stays in flight while two more updates arrive
+        subscriptions.publish(List.of(new StationAvailability(1L, 2, 2, null)));
+        verify(remote).sendText(anyString(), handler.capture());
+        subscriptions.publish(List.of(new StationAvailability(1L, 1, 2, null)));
+        subscriptions.publish(List.of(new StationAvailability(1L, 0, 2, null)));
+        assertEquals(1, client.pendingCount());
+        handler.getValue().onResult(new SendResult());
+
+        // Assert: only the latest state follows
+        verify(remote).sendText(eq("[{\"s\":1,\"f\":0,\"t\":2}]"), any(SendHandler.class));
+        verify(remote, times(2)).sendText(anyString(), any(SendHandler.class));
+    }
+
+    @Test
+    void remove_DropsSessionFromIndex() {
+        // Arrange
+        subscriptions.subscribe(client, List.of(1L, 2L));
+
+        // Act
+        subscriptions.remove(client);
+
+        // Assert
+        assertEquals(0, subscriptions.sessionCount());
+        assertEquals(0, subscriptions.followers(1L));
+        assertEquals(0, subscriptions.followers(2L));
+    }
+}
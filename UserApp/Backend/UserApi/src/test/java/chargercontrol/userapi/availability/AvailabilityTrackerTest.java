@@ -0,0 +1,190 @@
+package chargercontrol.userapi.availability;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import chargercontrol.userapi.event.BookingChangedEvent;
+import chargercontrol.userapi.event.ChargingPortChangedEvent;
+import chargercontrol.userapi.event.StationAvailabilityChangedEvent;
+import chargercontrol.userapi.index.BookingIntervalIndex;
+import chargercontrol.userapi.model.BookingStatus;
+import chargercontrol.userapi.model.ChargingPortStatus;
+import chargercontrol.userapi.repository.ChargingPortRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityTrackerTest {
+
+    private static final Long STATION_ID = 7L;
+
+    @Mock
+    private ChargingPortRepository chargingPortRepository;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private AvailabilitySubscriptions subscriptions;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private AvailabilityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new AvailabilityTracker(chargingPortRepository, bookingIntervalIndex, subscriptions, eventPublisher, 500, 30);
+    }
+
+    @Test
+    void resync_CountsFreePortsAndSkipsOutOfOrderOnes() {
+        // Arrange: port 1 free, port 2 booked, port 3 out of order
+        when(chargingPortRepository.findAllPortStates()).thenReturn(List.of(
+                new PortState(1L, STATION_ID, ChargingPortStatus.AVAILABLE),
+                new PortState(2L, STATION_ID, ChargingPortStatus.OCCUPIED),
+                new PortState(3L, STATION_ID, ChargingPortStatus.OUT_OF_ORDER)));
+        when(bookingIntervalIndex.nextFreeAt(eq(1L), any())).thenAnswer(i -> i.getArgument(1));
+        when(bookingIntervalIndex.nextFreeAt(eq(2L), any()))
+                .thenAnswer(i -> ((LocalDateTime) i.getArgument(1)).plusMinutes(30));
+
+        // Act
+        tracker.resync();
+
+        // Assert
+        StationAvailability availability = tracker.get(List.of(STATION_ID)).get(0);
+        assertEquals(1, availability.freePorts());
+        assertEquals(3, availability.totalPorts());
+        assertNull(availability.nextFreeAt());
+        verify(bookingIntervalIndex).warm(List.of(1L, 2L));
+        verify(subscriptions).publish(List.of(availability));
+        verify(eventPublisher).publishEvent(new StationAvailabilityChangedEvent(List.of(availability)));
+    }
+
+    @Test
+    void resync_NoFreePort_ReportsEarliestFreeTime() {
+        // Arrange
+        LocalDateTime soon = LocalDateTime.now().plusMinutes(20);
+        LocalDateTime later = LocalDateTime.now().plusMinutes(50);
+        when(chargingPortRepository.findAllPortStates()).thenReturn(List.of(
+                new PortState(1L, STATION_ID, ChargingPortStatus.OCCUPIED),
+                new PortState(2L, STATION_ID, ChargingPortStatus.AVAILABLE)));
+        when(bookingIntervalIndex.nextFreeAt(eq(1L), any())).thenReturn(later);
+        when(bookingIntervalIndex.nextFreeAt(eq(2L), any())).thenReturn(soon);
+
+        // Act
+        tracker.resync();
+
+        // Assert
+        StationAvailability availability = tracker.get(List.of(STATION_ID)).get(0);
+        assertEquals(0, availability.freePorts());
+        assertEquals(soon, availability.nextFreeAt());
+    }
+
+    @Test
+    void flush_RecomputesOnlyStationsTouchedByEvents() {
+        // Arrange: two stations, both free
+        when(chargingPortRepository.findAllPortStates()).thenReturn(List.of(
+                new PortState(1L, STATION_ID, ChargingPortStatus.AVAILABLE),
+                new PortState(2L, 8L, ChargingPortStatus.AVAILABLE)));
+        when(bookingIntervalIndex.nextFreeAt(any(), any())).thenAnswer(i -> i.getArgument(1));
+        tracker.resync();
+        clearInvocations(subscriptions, bookingIntervalIndex);
+
+        // Act: a booking on port 1 makes it busy
+        when(bookingIntervalIndex.nextFreeAt(eq(1L), any()))
+                .thenAnswer(i -> ((LocalDateTime) i.getArgument(1)).plusMinutes(60));
+        tracker.onBookingChanged(new BookingChangedEvent(99L, 1L, LocalDateTime.now(), 60, BookingStatus.ACTIVE));
+        tracker.flush();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StationAvailability>> published = ArgumentCaptor.forClass(List.class);
+        verify(subscriptions).publish(published.capture());
+        assertEquals(1, published.getValue().size());
+        assertEquals(STATION_ID, published.getValue().get(0).stationId());
+        assertEquals(0, published.getValue().get(0).freePorts());
+        verify(bookingIntervalIndex, never()).nextFreeAt(eq(2L), any());
+    }
+
+    @Test
+    void flush_UnchangedStation_PublishesNothing() {
+        // Arrange
+        when(chargingPortRepository.findAllPortStates()).thenReturn(List.of(
+                new PortState(1L, STATION_ID, ChargingPortStatus.AVAILABLE)));
+        when(bookingIntervalIndex.nextFreeAt(any(), any())).thenAnswer(i -> i.getArgument(1));
+        tracker.resync();
+        clearInvocations(subscriptions);
+
+        // Act
+        tracker.onBookingChanged(new BookingChangedEvent(99L, 1L, LocalDateTime.now().plusDays(1), 60,
+                BookingStatus.PENDING));
+        tracker.flush();
+
+        // Assert
+        verify(subscriptions).publish(List.of());
+    }
+
+    @Test
+    void onChargingPortChanged_PortTakenOutOfService_StationLosesFreePort() {
+        // Arrange
+        when(chargingPortRepository.findAllPortStates()).thenReturn(List.of(
+                new PortState(1L, STATION_ID, ChargingPortStatus.AVAILABLE)));
+        when(bookingIntervalIndex.nextFreeAt(any(), any())).thenAnswer(i -> i.getArgument(1));
+        tracker.resync();
+
+        // Act
+        tracker.onChargingPortChanged(new ChargingPortChangedEvent(1L, STATION_ID, ChargingPortStatus.MAINTENANCE));
+        tracker.flush();
+
+        // Assert
+        assertEquals(new StationAvailability(STATION_ID, 0, 1, null), tracker.get(List.of(STATION_ID)).get(0));
+    }
+
+    @Test
+    void resync_PortDeleted_StationDisappears() {
+        // Arrange
+        when(chargingPortRepository.findAllPortStates())
+                .thenReturn(List.of(new PortState(1L, STATION_ID, ChargingPortStatus.AVAILABLE)))
+                .thenReturn(List.of());
+        when(bookingIntervalIndex.nextFreeAt(any(), any())).thenAnswer(i -> i.getArgument(1));
+        tracker.resync();
+
+        // Act
+        tracker.resync();
+
+        // Assert
+        assertTrue(tracker.get(List.of(STATION_ID)).isEmpty());
+        verify(subscriptions).publish(List.of(new StationAvailability(STATION_ID, 0, 0, null)));
+        verify(bookingIntervalIndex, atLeastOnce()).warm(anyCollection());
+    }
+
+    @Test
+    void portIds_ReturnsPortsOfStationWithStatus() {
+        // Arrange
+        when(chargingPortRepository.findAllPortStates()).thenReturn(List.of(
+                new PortState(3L, STATION_ID, ChargingPortStatus.AVAILABLE),
+                new PortState(1L, STATION_ID, ChargingPortStatus.AVAILABLE),
+                new PortState(2L, STATION_ID, ChargingPortStatus.OUT_OF_ORDER),
+                new PortState(4L, 8L, ChargingPortStatus.AVAILABLE)));
+        when(bookingIntervalIndex.nextFreeAt(any(), any())).thenAnswer(i -> i.getArgument(1));
+        tracker.resync();
+
+        // Act & Assert
+        assertEquals(List.of(1L, 3L), tracker.portIds(STATION_ID, ChargingPortStatus.AVAILABLE));
+        assertEquals(List.of(2L), tracker.portIds(STATION_ID, ChargingPortStatus.OUT_OF_ORDER));
+        assertEquals(List.of(), tracker.portIds(99L, ChargingPortStatus.AVAILABLE));
+    }
+}
@@ -0,0 +1,79 @@
+package chargercontrol.userapi.catalog;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import chargercontrol.userapi.model.BookSlot;
+import chargercontrol.userapi.model.ChargingPort;
+import chargercontrol.userapi.model.Station;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogChangeListenerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ObjectProvider<CatalogVersions> catalogVersions;
+
+    @InjectMocks
+    private CatalogChangeListener catalogChangeListener;
+
+    @Test
+    void onWrite_RecordsStationChange() {
+        // Arrange
+        Station station = new Station();
+        station.setId(3L);
+
+        // Act
+        catalogChangeListener.onWrite(station);
+
+        // Assert
+        verify(jdbcTemplate).update(anyString(), eq("STATION"), eq(3L), eq(3L), eq(false), any());
+    }
+
+    @Test
+    void onRemove_RecordsPortTombstone() {
+        // Arrange
+        Station station = new Station();
+        station.setId(2L);
+        ChargingPort port = new ChargingPort();
+        port.setId(7L);
+        port.setStation(station);
+
+        // Act
+        catalogChangeListener.onRemove(port);
+
+        // Assert
+        verify(jdbcTemplate).update(anyString(), eq("PORT"), eq(7L), eq(2L), eq(true), any());
+    }
+
+    @Test
+    void recordPortChange_RecordsBulkUpdatedPort() {
+        // Act
+        catalogChangeListener.recordPortChange(7L, 2L);
+
+        // Assert
+        verify(jdbcTemplate).update(anyString(), eq("PORT"), eq(7L), eq(2L), eq(false), any());
+        verify(catalogVersions).ifAvailable(any());
+    }
+
+    @Test
+    void onWrite_IgnoresOtherEntities() {
+        // Act
+        catalogChangeListener.onWrite(new BookSlot());
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,106 @@
+package chargercontrol.userapi.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogConditionalGetInterceptorTest {
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @InjectMocks
+    private CatalogConditionalGetInterceptor interceptor;
+
+    private MockHttpServletResponse response;
+    private CatalogVersion version;
+
+    @BeforeEach
+    void setUp() {
+        response = new MockHttpServletResponse();
+        version = new CatalogVersion(12L, LocalDateTime.of(2026, 10, 1, 12, 0));
+    }
+
+    @Test
+    void preHandle_MatchingEtag_Answers304WithoutController() {
+        // Arrange
+        when(catalogVersions.station(5L)).thenReturn(version);
+        MockHttpServletRequest request = request(CatalogConditionalGetInterceptor.STATION, Map.of("id", "5"));
+        request.addHeader("If-None-Match", "\"station-5-12\"");
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, null);
+
+        // Assert
+        assertFalse(proceed);
+        assertEquals(304, response.getStatus());
+        assertEquals("\"station-5-12\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    void preHandle_StaleEtag_ProceedsWithValidators() {
+        // Arrange
+        when(catalogVersions.ports(5L)).thenReturn(version);
+        MockHttpServletRequest request = request(CatalogConditionalGetInterceptor.STATION_PORTS,
+                Map.of("stationId", "5"));
+        request.addHeader("If-None-Match", "\"ports-5-11\"");
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, null);
+
+        // Assert
+        assertTrue(proceed);
+        assertEquals(200, response.getStatus());
+        assertEquals("\"ports-5-12\"", response.getHeader("ETag"));
+        assertNotNull(response.getHeader("Last-Modified"));
+        assertEquals("no-cache", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void preHandle_IfModifiedSince_Answers304WhenUnchanged() {
+        // Arrange
+        when(catalogVersions.stations()).thenReturn(version);
+        MockHttpServletRequest request = request(CatalogConditionalGetInterceptor.STATIONS, Map.of());
+        request.addHeader("If-Modified-Since", version.lastModified());
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, null);
+
+        // Assert
+        assertFalse(proceed);
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    void preHandle_IgnoresWritesAndOtherRoutes() {
+        // Arrange
+        MockHttpServletRequest put = request(CatalogConditionalGetInterceptor.STATION, Map.of("id", "5"));
+        put.setMethod("PUT");
+        MockHttpServletRequest changes = request("/apiV1/stations/changes", Map.of());
+
+        // Act & Assert
+        assertTrue(interceptor.preHandle(put, response, null));
+        assertTrue(interceptor.preHandle(changes, response, null));
+        verifyNoInteractions(catalogVersions);
+    }
+
+    private static MockHttpServletRequest request(String pattern, Map<String, String> variables) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, variables);
+        return request;
+    }
+}
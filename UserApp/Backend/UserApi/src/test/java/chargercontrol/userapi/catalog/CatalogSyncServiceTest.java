@@ -0,0 +1,194 @@
+package chargercontrol.userapi.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import chargercontrol.userapi.dto.CatalogChangesDTO;
+import chargercontrol.userapi.model.CatalogChange;
+import chargercontrol.userapi.model.CatalogEntityType;
+import chargercontrol.userapi.model.ChargingPort;
+import chargercontrol.userapi.model.ChargingPortStatus;
+import chargercontrol.userapi.model.ChargingType;
+import chargercontrol.userapi.model.Station;
+import chargercontrol.userapi.repository.CatalogChangeRepository;
+import chargercontrol.userapi.repository.ChargingPortRepository;
+import chargercontrol.userapi.repository.StationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSyncServiceTest {
+
+    @Mock
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Mock
+    private StationRepository stationRepository;
+
+    @Mock
+    private ChargingPortRepository chargingPortRepository;
+
+    private CatalogSyncService catalogSyncService;
+
+    private Station station;
+    private ChargingPort port;
+    private LocalDateTime old;
+
+    @BeforeEach
+    void setUp() {
+        catalogSyncService = new CatalogSyncService(catalogChangeRepository, stationRepository,
+                chargingPortRepository, 3, 10);
+
+        station = new Station();
+        station.setId(1L);
+        station.setName("Station A");
+        station.setLocation("Aveiro");
+        station.setPower(50.0);
+        station.setLatitude(40.6);
+        station.setLongitude(-8.6);
+        station.setChargingType(ChargingType.DC_FAST);
+
+        port = new ChargingPort();
+        port.setId(10L);
+        port.setStation(station);
+        port.setPortIdentifier("A01");
+        port.setStatus(ChargingPortStatus.AVAILABLE);
+
+        old = LocalDateTime.now().minusMinutes(1);
+    }
+
+    @Test
+    void changesSince_VersionOlderThanOldestRetainedRow_ReturnsSnapshot() {
+        // Arrange: rows up to 9 were pruned
+        when(catalogChangeRepository.findOldestVersion()).thenReturn(10L);
+        when(catalogChangeRepository.findLatestVersionBefore(any())).thenReturn(12L);
+        when(stationRepository.findAll()).thenReturn(List.of(station));
+        when(chargingPortRepository.findAll()).thenReturn(List.of(port));
+
+        // Act
+        CatalogChangesDTO result = catalogSyncService.changesSince(5L);
+
+        // Assert
+        assertTrue(result.isFull());
+        assertEquals(12L, result.getVersion());
+        assertEquals(1, result.getStations().size());
+        verify(catalogChangeRepository, never()).findAfter(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void changesSince_VersionRightBeforeOldestRetainedRow_ReturnsChanges() {
+        // Arrange
+        when(catalogChangeRepository.findOldestVersion()).thenReturn(6L);
+        when(catalogChangeRepository.findAfter(eq(5L), any(Pageable.class))).thenReturn(List.of(
+                new CatalogChange(6L, CatalogEntityType.STATION, 1L, 1L, false, old)));
+        when(stationRepository.findAllById(any())).thenReturn(List.of(station));
+
+        // Act
+        CatalogChangesDTO result = catalogSyncService.changesSince(5L);
+
+        // Assert
+        assertFalse(result.isFull());
+        assertEquals(6L, result.getVersion());
+    }
+
+    @Test
+    void changesSince_ReturnsCurrentStateAndTombstones() {
+        // Arrange: station 1 updated, port 10 updated, port 11 deleted
+        when(catalogChangeRepository.findAfter(eq(5L), any(Pageable.class))).thenReturn(List.of(
+                new CatalogChange(6L, CatalogEntityType.STATION, 1L, 1L, false, old),
+                new CatalogChange(7L, CatalogEntityType.PORT, 10L, 1L, false, old),
+                new CatalogChange(8L, CatalogEntityType.PORT, 11L, 1L, true, old)));
+        when(stationRepository.findAllById(any())).thenReturn(List.of(station));
+        when(chargingPortRepository.findAllById(any())).thenReturn(List.of(port));
+
+        // Act
+        CatalogChangesDTO changes = catalogSyncService.changesSince(5L);
+
+        // Assert
+        assertEquals(8L, changes.getVersion());
+        assertFalse(changes.isFull());
+        assertTrue(changes.isHasMore());
+        assertEquals(1L, changes.getStations().get(0).getId());
+        assertEquals("Station A", changes.getStations().get(0).getName());
+        assertEquals(1L, changes.getPorts().get(0).getStationId());
+        assertEquals(List.of(), changes.getDeletedStations());
+        assertEquals(List.of(11L), changes.getDeletedPorts());
+    }
+
+    @Test
+    void changesSince_StopsVersionBeforeRecentGap() {
+        // Arrange: id 7 is missing and 8 was written a moment ago, so 7 may still commit
+        when(catalogChangeRepository.findAfter(eq(5L), any(Pageable.class))).thenReturn(List.of(
+                new CatalogChange(6L, CatalogEntityType.STATION, 1L, 1L, false, old),
+                new CatalogChange(8L, CatalogEntityType.PORT, 10L, 1L, false, LocalDateTime.now())));
+        when(stationRepository.findAllById(any())).thenReturn(List.of(station));
+        when(chargingPortRepository.findAllById(any())).thenReturn(List.of(port));
+
+        // Act
+        CatalogChangesDTO changes = catalogSyncService.changesSince(5L);
+
+        // Assert: port 10 is sent now and again after version 6
+        assertEquals(6L, changes.getVersion());
+        assertFalse(changes.isHasMore());
+        assertEquals(1, changes.getPorts().size());
+    }
+
+    @Test
+    void changesSince_SkipsOldGap() {
+        // Arrange: the transaction that took id 7 rolled back long ago
+        when(catalogChangeRepository.findAfter(eq(5L), any(Pageable.class))).thenReturn(List.of(
+                new CatalogChange(6L, CatalogEntityType.STATION, 1L, 1L, false, old),
+                new CatalogChange(8L, CatalogEntityType.STATION, 1L, 1L, false, old)));
+        when(stationRepository.findAllById(any())).thenReturn(List.of(station));
+        when(chargingPortRepository.findAllById(any())).thenReturn(List.of());
+
+        // Act
+        CatalogChangesDTO changes = catalogSyncService.changesSince(5L);
+
+        // Assert
+        assertEquals(8L, changes.getVersion());
+        assertEquals(1, changes.getStations().size());
+    }
+
+    @Test
+    void changesSince_NothingNew_KeepsVersion() {
+        // Arrange
+        when(catalogChangeRepository.findAfter(eq(9L), any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        CatalogChangesDTO changes = catalogSyncService.changesSince(9L);
+
+        // Assert
+        assertEquals(9L, changes.getVersion());
+        assertTrue(changes.getStations().isEmpty());
+        verifyNoInteractions(stationRepository, chargingPortRepository);
+    }
+
+    @Test
+    void changesSince_Zero_ReturnsFullCatalog() {
+        // Arrange
+        when(catalogChangeRepository.findLatestVersionBefore(any())).thenReturn(42L);
+        when(stationRepository.findAll()).thenReturn(List.of(station));
+        when(chargingPortRepository.findAll()).thenReturn(List.of(port));
+
+        // Act
+        CatalogChangesDTO changes = catalogSyncService.changesSince(0L);
+
+        // Assert
+        assertTrue(changes.isFull());
+        assertEquals(42L, changes.getVersion());
+        assertEquals(1, changes.getStations().size());
+        assertEquals(1, changes.getPorts().size());
+        verify(catalogChangeRepository, never()).findAfter(any(), any());
+    }
+}
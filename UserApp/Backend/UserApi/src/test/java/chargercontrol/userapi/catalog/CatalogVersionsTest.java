@@ -0,0 +1,143 @@
+package chargercontrol.userapi.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import chargercontrol.userapi.model.CatalogChange;
+import chargercontrol.userapi.model.CatalogEntityType;
+import chargercontrol.userapi.repository.CatalogChangeRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogVersionsTest {
+
+    @Mock
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CatalogVersions catalogVersions;
+    private LocalDateTime old;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersions = new CatalogVersions(catalogChangeRepository, transactionManager, 1000, 10);
+        old = LocalDateTime.now().minusMinutes(1);
+    }
+
+    @Test
+    void load_TakesNewestChangePerResource() {
+        // Arrange
+        when(catalogChangeRepository.findLatestVersionBefore(any())).thenReturn(9L);
+        when(catalogChangeRepository.findVersionsByStation()).thenReturn(List.of(
+                new StationChangeVersion(CatalogEntityType.STATION, 1L, 4L, old),
+                new StationChangeVersion(CatalogEntityType.STATION, 2L, 7L, old),
+                new StationChangeVersion(CatalogEntityType.PORT, 1L, 9L, old)));
+
+        // Act
+        catalogVersions.load();
+
+        // Assert
+        assertEquals(7L, catalogVersions.stations().version());
+        assertEquals(4L, catalogVersions.station(1L).version());
+        assertEquals(9L, catalogVersions.ports(1L).version());
+        assertEquals(CatalogVersion.NONE, catalogVersions.ports(2L));
+    }
+
+    @Test
+    void load_ResourceWithPrunedRows_GetsVersionBeforeOldestRow() {
+        // Arrange: rows up to 19 were pruned
+        when(catalogChangeRepository.findLatestVersionBefore(any())).thenReturn(30L);
+        when(catalogChangeRepository.findOldestVersion()).thenReturn(20L);
+        when(catalogChangeRepository.findVersionsByStation()).thenReturn(List.of(
+                new StationChangeVersion(CatalogEntityType.STATION, 1L, 25L, old)));
+
+        // Act
+        catalogVersions.load();
+
+        // Assert
+        assertEquals(25L, catalogVersions.station(1L).version());
+        assertEquals(19L, catalogVersions.station(2L).version());
+        assertEquals(-1, catalogVersions.station(2L).lastModified());
+        assertEquals(19L, catalogVersions.ports(1L).version());
+        assertEquals(25L, catalogVersions.stations().version());
+    }
+
+    @Test
+    void refresh_PortChangeLeavesStationVersionAlone() {
+        // Arrange
+        when(catalogChangeRepository.findAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new CatalogChange(1L, CatalogEntityType.STATION, 3L, 3L, false, old),
+                new CatalogChange(2L, CatalogEntityType.PORT, 8L, 3L, false, old)));
+
+        // Act
+        catalogVersions.refresh();
+
+        // Assert
+        assertEquals(1L, catalogVersions.station(3L).version());
+        assertEquals(1L, catalogVersions.stations().version());
+        assertEquals(2L, catalogVersions.ports(3L).version());
+        assertEquals(old, catalogVersions.ports(3L).changedAt());
+    }
+
+    @Test
+    void refresh_RereadsRowsAfterRecentGap() {
+        // Arrange: id 2 is missing and 3 is fresh, so 2 may still commit
+        when(catalogChangeRepository.findAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new CatalogChange(1L, CatalogEntityType.STATION, 3L, 3L, false, old),
+                new CatalogChange(3L, CatalogEntityType.STATION, 4L, 4L, false, LocalDateTime.now())));
+        when(catalogChangeRepository.findAfter(eq(1L), any(Pageable.class))).thenReturn(List.of(
+                new CatalogChange(2L, CatalogEntityType.PORT, 9L, 3L, false, LocalDateTime.now()),
+                new CatalogChange(3L, CatalogEntityType.STATION, 4L, 4L, false, LocalDateTime.now())));
+
+        // Act
+        catalogVersions.refresh();
+        catalogVersions.refresh();
+
+        // Assert: the late commit of id 2 was still seen
+        assertEquals(3L, catalogVersions.station(4L).version());
+        assertEquals(2L, catalogVersions.ports(3L).version());
+        verify(catalogChangeRepository).findAfter(eq(1L), any(Pageable.class));
+    }
+
+    @Test
+    void ports_PortWithoutStationInvalidatesEveryPortList() {
+        // Arrange
+        when(catalogChangeRepository.findAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new CatalogChange(1L, CatalogEntityType.PORT, 8L, 3L, false, old),
+                new CatalogChange(2L, CatalogEntityType.PORT, 9L, null, true, old)));
+
+        // Act
+        catalogVersions.refresh();
+
+        // Assert
+        assertEquals(2L, catalogVersions.ports(3L).version());
+        assertEquals(2L, catalogVersions.ports(5L).version());
+    }
+
+    @Test
+    void refreshAfterCommit_WithoutTransaction_RefreshesNow() {
+        // Arrange
+        when(catalogChangeRepository.findAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new CatalogChange(1L, CatalogEntityType.STATION, 3L, 3L, false, old)));
+
+        // Act
+        catalogVersions.refreshAfterCommit();
+
+        // Assert
+        assertEquals(1L, catalogVersions.station(3L).version());
+    }
+}
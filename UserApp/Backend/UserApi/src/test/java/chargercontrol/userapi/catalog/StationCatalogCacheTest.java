@@ -0,0 +1,125 @@
+package chargercontrol.userapi.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import chargercontrol.userapi.model.ChargingType;
+import chargercontrol.userapi.model.Station;
+import chargercontrol.userapi.repository.StationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class StationCatalogCacheTest {
+
+    @Mock
+    private StationRepository stationRepository;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StationCatalogCache stationCatalogCache;
+    private Station station;
+
+    @BeforeEach
+    void setUp() {
+        stationCatalogCache = new StationCatalogCache(stationRepository, catalogVersions, objectMapper,
+                transactionManager, 300, 60, 500);
+
+        station = new Station();
+        station.setId(1L);
+        station.setName("Station A");
+        station.setLocation("Aveiro");
+        station.setPower(50.0);
+        station.setLatitude(40.6);
+        station.setLongitude(-8.6);
+        station.setChargingType(ChargingType.AC);
+    }
+
+    @Test
+    void get_BuildsOnceAndServesSameBytes() throws Exception {
+        // Arrange
+        when(catalogVersions.stations()).thenReturn(new CatalogVersion(4L, null));
+        when(stationRepository.findAll()).thenReturn(List.of(station));
+
+        // Act
+        EncodedCatalog first = stationCatalogCache.get();
+        EncodedCatalog second = stationCatalogCache.get();
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(4L, first.version());
+        assertArrayEquals(objectMapper.writeValueAsBytes(List.of(station)), first.json());
+        verify(stationRepository, times(1)).findAll();
+    }
+
+    @Test
+    void get_NewerVersion_RebuildsBeforeServing() {
+        // Arrange
+        when(catalogVersions.stations())
+                .thenReturn(new CatalogVersion(4L, null))
+                .thenReturn(new CatalogVersion(5L, null));
+        when(stationRepository.findAll()).thenReturn(List.of(station));
+
+        // Act
+        stationCatalogCache.get();
+        EncodedCatalog rebuilt = stationCatalogCache.get();
+
+        // Assert
+        assertEquals(5L, rebuilt.version());
+        verify(stationRepository, times(2)).findAll();
+    }
+
+    @Test
+    void refreshAhead_UnchangedAndFresh_DoesNotRebuild() {
+        // Arrange
+        when(catalogVersions.stations()).thenReturn(new CatalogVersion(4L, null));
+        when(stationRepository.findAll()).thenReturn(List.of(station));
+        stationCatalogCache.get();
+
+        // Act
+        stationCatalogCache.refreshAhead();
+
+        // Assert
+        verify(stationRepository, times(1)).findAll();
+    }
+
+    @Test
+    void encode_GzipVariantInflatesToJson() throws IOException {
+        // Act
+        EncodedCatalog catalog = StationCatalogCache.encode(objectMapper, List.of(station), 1L);
+
+        // Assert
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(catalog.gzip()))) {
+            assertArrayEquals(catalog.json(), in.readAllBytes());
+        }
+        assertSame(catalog.gzip(), catalog.body(true));
+        assertSame(catalog.json(), catalog.body(false));
+    }
+
+    @Test
+    void acceptsGzip_HonoursQualityZero() {
+        assertTrue(EncodedCatalog.acceptsGzip("gzip, deflate, br"));
+        assertTrue(EncodedCatalog.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertFalse(EncodedCatalog.acceptsGzip("gzip;q=0"));
+        assertFalse(EncodedCatalog.acceptsGzip("identity"));
+        assertFalse(EncodedCatalog.acceptsGzip(null));
+    }
+}
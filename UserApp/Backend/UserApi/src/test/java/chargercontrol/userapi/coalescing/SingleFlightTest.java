@@ -0,0 +1,151 @@
+package chargercontrol.userapi.coalescing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityNotFoundException;
+
+class SingleFlightTest {
+
+    private static final int FOLLOWERS = 4;
+
+    private SingleFlights singleFlights;
+    private SingleFlight<Long, Object> group;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        singleFlights = new SingleFlights();
+        group = singleFlights.group("test");
+        executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void execute_ConcurrentCallsShareOneLoad() throws Exception {
+        // Arrange: the first load blocks until every follower is waiting on it
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Object result = new Object();
+
+        // Act
+        Future<Object> leader = executor.submit(() -> group.execute(1L, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return result;
+        }));
+        waitUntil(() -> group.inFlight() == 1);
+        List<Future<Object>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(executor.submit(() -> group.execute(1L, () -> {
+                loads.incrementAndGet();
+                return new Object();
+            })));
+        }
+        waitUntil(() -> (long) group.metrics().get("shared") == FOLLOWERS);
+        release.countDown();
+
+        // Assert
+        assertSame(result, leader.get(5, TimeUnit.SECONDS));
+        for (Future<Object> follower : followers) {
+            assertSame(result, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, group.inFlight());
+        assertEquals(0.8, (double) group.metrics().get("coalescingRatio"), 1e-9);
+    }
+
+    @Test
+    void execute_FollowersGetTheLeadersException() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = executor.submit(() -> group.execute(2L, () -> {
+            await(release);
+            throw new EntityNotFoundException("Station not found with id: 2");
+        }));
+        waitUntil(() -> group.inFlight() == 1);
+        Future<Object> follower = executor.submit(() -> group.execute(2L, Object::new));
+        waitUntil(() -> (long) group.metrics().get("shared") == 1);
+
+        // Act
+        release.countDown();
+
+        // Assert
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(EntityNotFoundException.class, leaderError.getCause());
+        assertInstanceOf(EntityNotFoundException.class, followerError.getCause());
+    }
+
+    @Test
+    void execute_SequentialCallsLoadEachTime() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        group.execute(3L, loads::incrementAndGet);
+        group.execute(3L, loads::incrementAndGet);
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(0L, group.metrics().get("shared"));
+    }
+
+    @Test
+    void execute_InsideReadWriteTransaction_Bypasses() {
+        // Arrange
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+        // Act
+        group.execute(4L, Object::new);
+
+        // Assert
+        assertEquals(1L, group.metrics().get("bypassed"));
+        assertEquals(0L, group.metrics().get("loads"));
+    }
+
+    @Test
+    void group_SameNameReturnsSameGroupAndReportsIt() {
+        // Act & Assert
+        assertSame(group, singleFlights.group("test"));
+        assertTrue(singleFlights.metrics().containsKey("test"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached in time");
+            Thread.sleep(5);
+        }
+    }
+}
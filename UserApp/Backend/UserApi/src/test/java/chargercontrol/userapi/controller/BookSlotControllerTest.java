@@ -1,6 +1,14 @@
 package chargercontrol.userapi.controller;
 
+import chargercontrol.userapi.dto.BookingStatsDTO;
+import chargercontrol.userapi.dto.BookingSummaryDTO;
+import chargercontrol.userapi.dto.CarBookingCount;
+import chargercontrol.userapi.dto.MonthlyBookingCount;
+import chargercontrol.userapi.idempotency.IdempotencyService;
 import chargercontrol.userapi.model.*;
+import chargercontrol.userapi.pagination.CursorPage;
+import chargercontrol.userapi.pagination.KeysetCursor;
+import chargercontrol.userapi.pipeline.BookingPipeline;
 import chargercontrol.userapi.service.BookSlotService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -12,14 +20,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -34,6 +46,12 @@ class BookSlotControllerTest {
     @Mock
     private BookSlotService bookSlotService;
 
+    @Mock
+    private BookingPipeline bookingPipeline;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
     @InjectMocks
     private BookSlotController bookSlotController;
 
@@ -112,6 +130,80 @@ class BookSlotControllerTest {
         verify(bookSlotService, times(1)).createBookingWithValidation(any(BookRequest.class));
     }
 
+    @Test
+    void createBooking_WithIdempotencyKey_GoesThroughIdempotencyService() throws Exception {
+        when(idempotencyService.execute(eq("booking"), eq("john.doe@example.com"), eq("key-1"),
+                any(BookRequest.class), eq(BookSlot.class), eq(true), any()))
+                .thenReturn(ResponseEntity.status(201).header(IdempotencyService.REPLAYED_HEADER, "true").body(testBookSlot));
+
+        mockMvc.perform(post("/apiV1/bookings")
+                        .principal(new UsernamePasswordAuthenticationToken("john.doe@example.com", null))
+                        .header(IdempotencyService.HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validBookRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(TEST_BOOKING_ID));
+
+        verify(bookSlotService, never()).createBookingWithValidation(any(BookRequest.class));
+    }
+
+    @Test
+    void createBooking_WithIdempotencyKeyButNoAuthenticatedUser_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(post("/apiV1/bookings")
+                        .header(IdempotencyService.HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validBookRequest)))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(idempotencyService);
+        verify(bookSlotService, never()).createBookingWithValidation(any(BookRequest.class));
+    }
+
+    @Test
+    void createBooking_PipelineEnabled_WaitsForPipelineResult() throws Exception {
+        when(bookingPipeline.isEnabled()).thenReturn(true);
+        when(bookingPipeline.getTimeoutMillis()).thenReturn(1000L);
+        when(bookingPipeline.submit(any(BookRequest.class)))
+                .thenReturn(java.util.concurrent.CompletableFuture.completedFuture(testBookSlot));
+
+        mockMvc.perform(post("/apiV1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validBookRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(TEST_BOOKING_ID));
+
+        verify(bookSlotService, never()).createBookingWithValidation(any(BookRequest.class));
+    }
+
+    @Test
+    void createBooking_PipelineRejects_ReturnsBadRequest() throws Exception {
+        when(bookingPipeline.isEnabled()).thenReturn(true);
+        when(bookingPipeline.getTimeoutMillis()).thenReturn(1000L);
+        when(bookingPipeline.submit(any(BookRequest.class)))
+                .thenReturn(java.util.concurrent.CompletableFuture.failedFuture(new RuntimeException("No available slots")));
+
+        mockMvc.perform(post("/apiV1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validBookRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createBooking_PipelineTimeout_CancelsQueuedRequest() throws Exception {
+        java.util.concurrent.CompletableFuture<BookSlot> queued = new java.util.concurrent.CompletableFuture<>();
+        when(bookingPipeline.isEnabled()).thenReturn(true);
+        when(bookingPipeline.getTimeoutMillis()).thenReturn(10L);
+        when(bookingPipeline.submit(any(BookRequest.class))).thenReturn(queued);
+
+        mockMvc.perform(post("/apiV1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validBookRequest)))
+                .andExpect(status().isBadRequest());
+
+        assertTrue(queued.isCancelled());
+    }
+
     @Test
     void createBooking_ValidationError() throws Exception {
         BookRequest bookRequest = new BookRequest();
@@ -149,23 +241,79 @@ class BookSlotControllerTest {
         verify(bookSlotService, times(1)).getBookingById(999L);
     }
 
+    private BookingSummaryDTO testSummary() {
+        return new BookingSummaryDTO(TEST_BOOKING_ID, TEST_USER_ID, testBookSlot.getBookingTime(), 60,
+                testBookSlot.getBookingTime().plusMinutes(60), BookingStatus.PENDING, TEST_PORT_ID, "A01",
+                testStation.getId(), ChargingPortStatus.AVAILABLE, TEST_CAR_ID, "Tesla", "Tesla Model 3", "ELECTRIC");
+    }
+
     @Test
     void getBookingsByUserId_Success() throws Exception {
-        when(bookSlotService.getBookingsByUserId(TEST_USER_ID))
-                .thenReturn(Arrays.asList(testBookSlot));
+        when(bookSlotService.getBookingsByUserId(TEST_USER_ID, null, CursorPage.DEFAULT_LIMIT))
+                .thenReturn(new CursorPage<>(Arrays.asList(testSummary()), null));
 
         mockMvc.perform(get("/apiV1/bookings/user/{userId}", TEST_USER_ID))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(TEST_BOOKING_ID))
-                .andExpect(jsonPath("$[0].user.id").value(TEST_USER_ID));
+                .andExpect(jsonPath("$[0].userId").value(TEST_USER_ID))
+                .andExpect(jsonPath("$[0].car.model").value("Tesla Model 3"))
+                .andExpect(jsonPath("$[0].user").doesNotExist())
+                .andExpect(header().doesNotExist(CursorPage.NEXT_CURSOR_HEADER));
 
-        verify(bookSlotService, times(1)).getBookingsByUserId(TEST_USER_ID);
+        verify(bookSlotService, times(1)).getBookingsByUserId(TEST_USER_ID, null, CursorPage.DEFAULT_LIMIT);
+    }
+
+    @Test
+    void getBookingStatsByUserId_Success() throws Exception {
+        BookingStatsDTO stats = new BookingStatsDTO(3, 50.0, testBookSlot.getBookingTime(),
+                Map.of(BookingStatus.PENDING, 2L, BookingStatus.CANCELLED, 1L),
+                List.of(new MonthlyBookingCount(2030, 3, 3L)),
+                List.of(new CarBookingCount(TEST_CAR_ID, "Tesla", "Model 3", 3L)));
+        when(bookSlotService.getBookingStatsByUserId(TEST_USER_ID)).thenReturn(stats);
+
+        mockMvc.perform(get("/apiV1/bookings/user/{userId}/stats", TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBookings").value(3))
+                .andExpect(jsonPath("$.byStatus.PENDING").value(2))
+                .andExpect(jsonPath("$.byMonth[0].month").value(3))
+                .andExpect(jsonPath("$.byCar[0].bookings").value(3));
+    }
+
+    @Test
+    void getBookingStatsByUserId_UserNotFound() throws Exception {
+        when(bookSlotService.getBookingStatsByUserId(999L)).thenThrow(new EntityNotFoundException("User not found"));
+
+        mockMvc.perform(get("/apiV1/bookings/user/{userId}/stats", 999L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getBookingsByUserId_WithCursor_ReturnsNextCursorAndLink() throws Exception {
+        KeysetCursor after = new KeysetCursor(testBookSlot.getBookingTime().withNano(0), 9L);
+        String next = new KeysetCursor(testBookSlot.getBookingTime().withNano(0), 1L).encode();
+        when(bookSlotService.getBookingsByUserId(TEST_USER_ID, after, 1))
+                .thenReturn(new CursorPage<>(Arrays.asList(testSummary()), next));
+
+        mockMvc.perform(get("/apiV1/bookings/user/{userId}", TEST_USER_ID)
+                        .param("cursor", after.encode())
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, next))
+                .andExpect(header().string("Link", org.hamcrest.Matchers.containsString("cursor=" + next)));
+    }
+
+    @Test
+    void getBookingsByUserId_InvalidCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/apiV1/bookings/user/{userId}", TEST_USER_ID).param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookSlotService);
     }
 
     @Test
     void getBookingsByStationId_Success() throws Exception {
         when(bookSlotService.getBookingsByChargingPortId(TEST_PORT_ID))
-                .thenReturn(Arrays.asList(testBookSlot));
+                .thenReturn(Arrays.asList(testSummary()));
 
         mockMvc.perform(get("/apiV1/bookings/station/{chargingPortId}", TEST_PORT_ID))
                 .andExpect(status().isOk())
@@ -3,6 +3,8 @@ package chargercontrol.userapi.controller;
 import chargercontrol.userapi.dto.CarResponseDTO;
 import chargercontrol.userapi.model.Car;
 import chargercontrol.userapi.model.User;
+import chargercontrol.userapi.pagination.CursorPage;
+import chargercontrol.userapi.pagination.KeysetCursor;
 import chargercontrol.userapi.service.CarService;
 import chargercontrol.userapi.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -253,9 +255,9 @@ class CarControllerTest {
         cars.add(car1);
         cars.add(car2);
 
-        when(carService.getAllCars()).thenReturn(cars);
+        when(carService.getCarsPage(null, CursorPage.DEFAULT_LIMIT)).thenReturn(new CursorPage<>(cars, null));
 
-        ResponseEntity<List<CarResponseDTO>> response = carController.getAllCars();
+        ResponseEntity<List<CarResponseDTO>> response = carController.getAllCars(null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -264,21 +266,48 @@ class CarControllerTest {
         assertEquals(car2.getId(), response.getBody().get(1).getId());
         assertEquals(dummyUser.getId(), response.getBody().get(0).getOwnerId());
         assertEquals(dummyUser.getId(), response.getBody().get(1).getOwnerId());
+        assertNull(response.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER));
 
 
-        verify(carService, times(1)).getAllCars();
+        verify(carService, times(1)).getCarsPage(null, CursorPage.DEFAULT_LIMIT);
     }
 
     @Test
     void getAllCars_InternalServerError() {
-        when(carService.getAllCars()).thenThrow(new RuntimeException("Database connection error"));
+        when(carService.getCarsPage(null, CursorPage.DEFAULT_LIMIT))
+                .thenThrow(new RuntimeException("Database connection error"));
 
-        ResponseEntity<List<CarResponseDTO>> response = carController.getAllCars();
+        ResponseEntity<List<CarResponseDTO>> response = carController.getAllCars(null, null);
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertTrue(response.getBody().isEmpty());
 
-        verify(carService, times(1)).getAllCars();
+        verify(carService, times(1)).getCarsPage(null, CursorPage.DEFAULT_LIMIT);
+    }
+
+    @Test
+    void getAllCars_PassesDecodedCursorAndClampedLimit() {
+        Car car = new Car();
+        car.setId(8L);
+        User owner = new User();
+        owner.setId(99L);
+        car.setOwner(owner);
+        when(carService.getCarsPage(KeysetCursor.ofId(7L), CursorPage.MAX_LIMIT))
+                .thenReturn(new CursorPage<>(List.of(car), KeysetCursor.ofId(8L).encode()));
+
+        ResponseEntity<List<CarResponseDTO>> response = carController.getAllCars(KeysetCursor.ofId(7L).encode(), 10_000);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().size());
+        assertEquals(KeysetCursor.ofId(8L).encode(), response.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAllCars_InvalidCursor_ReturnsBadRequest() {
+        ResponseEntity<List<CarResponseDTO>> response = carController.getAllCars("not a cursor", null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(carService);
     }
 
     // Test for getCarById method
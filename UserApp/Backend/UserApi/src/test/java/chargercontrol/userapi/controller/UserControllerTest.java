@@ -1,6 +1,7 @@
 
 package chargercontrol.userapi.controller;
 
+import chargercontrol.userapi.idempotency.IdempotencyService;
 import chargercontrol.userapi.jwt.JwtUtil;
 import chargercontrol.userapi.model.AuthRequest;
 import chargercontrol.userapi.model.RegisterRequest;
@@ -43,6 +44,9 @@ public class UserControllerTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private IdempotencyService idempotencyService;
+
     @InjectMocks
     private UserController userController;
 
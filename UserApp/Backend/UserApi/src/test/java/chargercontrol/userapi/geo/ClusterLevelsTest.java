@@ -0,0 +1,124 @@
+package chargercontrol.userapi.geo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import chargercontrol.userapi.availability.StationAvailability;
+import chargercontrol.userapi.model.ChargingType;
+import chargercontrol.userapi.model.Station;
+
+class ClusterLevelsTest {
+
+    private ClusterLevels clusters;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: two stations in Aveiro a few hundred metres apart and one in Porto
+        clusters = ClusterLevels.build(
+                List.of(station(1L, 40.6405, -8.6538), station(2L, 40.6420, -8.6500), station(3L, 41.1579, -8.6291)),
+                Map.of(1L, new StationAvailability(1L, 2, 4, null),
+                        2L, new StationAvailability(2L, 1, 2, null),
+                        3L, new StationAvailability(3L, 0, 3, null)),
+                16, 1L);
+    }
+
+    @Test
+    void query_LowZoomMergesEverything() {
+        // Act
+        List<StationCluster> world = clusters.query(-180, -90, 180, 90, 0, 4096);
+
+        // Assert
+        assertEquals(1, world.size());
+        assertEquals(3, world.get(0).count());
+        assertEquals(3, world.get(0).freePorts());
+        assertEquals(9, world.get(0).totalPorts());
+        assertNull(world.get(0).stationId());
+        assertNull(world.get(0).station());
+        assertEquals((40.6405 + 40.6420 + 41.1579) / 3, world.get(0).latitude(), 1e-9);
+    }
+
+    @Test
+    void query_CityZoomSeparatesCities() {
+        // Act: zoom 10 cells are about 9.5 km wide at this latitude
+        List<StationCluster> region = clusters.query(-9.5, 40.0, -8.0, 41.5, 10, 4096);
+
+        // Assert
+        assertEquals(2, region.size());
+        StationCluster aveiro = region.stream().filter(c -> c.count() == 2).findFirst().orElseThrow();
+        StationCluster porto = region.stream().filter(c -> c.count() == 1).findFirst().orElseThrow();
+        assertEquals(3, aveiro.freePorts());
+        assertEquals(3L, porto.stationId());
+        assertEquals(3L, porto.station().getId());
+    }
+
+    @Test
+    void query_OnlyReturnsCellsInsideTheBox() {
+        // Act: box around Porto only
+        List<StationCluster> porto = clusters.query(-8.7, 41.1, -8.5, 41.2, 12, 4096);
+
+        // Assert
+        assertEquals(1, porto.size());
+        assertEquals(3L, porto.get(0).stationId());
+    }
+
+    @Test
+    void query_BoxCrossingTheAntimeridian() {
+        // Arrange
+        ClusterLevels fiji = ClusterLevels.build(
+                List.of(station(1L, -17.0, 179.9), station(2L, -17.0, -179.9), station(3L, -17.0, 170.0)),
+                Map.of(), 16, 1L);
+
+        // Act
+        List<StationCluster> result = fiji.query(179.5, -17.5, -179.5, -16.5, 8, 4096);
+
+        // Assert: the station at 170 degrees is outside the box
+        assertEquals(List.of(1L, 2L), result.stream().map(StationCluster::stationId).sorted().toList());
+    }
+
+    @Test
+    void query_TooManyCellsIsRejected() {
+        // Act & Assert: the whole of Portugal at street level
+        assertThrows(IllegalArgumentException.class, () -> clusters.query(-9.5, 37.0, -6.0, 42.0, 16, 4096));
+    }
+
+    @Test
+    void update_ChangesPortCountsOnEveryLevel() {
+        // Act: station 1 goes from 2 to 0 free ports
+        int applied = clusters.update(List.of(
+                new StationAvailability(1L, 0, 4, null),
+                new StationAvailability(3L, 0, 3, null),
+                new StationAvailability(99L, 5, 5, null)));
+
+        // Assert: unchanged and unknown stations are skipped
+        assertEquals(1, applied);
+        assertEquals(1, clusters.query(-180, -90, 180, 90, 0, 4096).get(0).freePorts());
+        StationCluster single = clusters.query(-8.66, 40.64, -8.65, 40.645, 16, 4096).stream()
+                .filter(c -> Long.valueOf(1L).equals(c.stationId()))
+                .findFirst().orElseThrow();
+        assertEquals(0, single.freePorts());
+        assertEquals(4, single.totalPorts());
+    }
+
+    @Test
+    void morton_InterleavesBits() {
+        // x = 011, y = 101 -> y2 x2 y1 x1 y0 x0 = 100111
+        assertEquals(39L, ClusterLevels.morton(3, 5));
+    }
+
+    private static Station station(Long id, double latitude, double longitude) {
+        Station station = new Station();
+        station.setId(id);
+        station.setName("Station " + id);
+        station.setLocation("Location " + id);
+        station.setPower(50.0);
+        station.setLatitude(latitude);
+        station.setLongitude(longitude);
+        station.setChargingType(ChargingType.AC);
+        return station;
+    }
+}
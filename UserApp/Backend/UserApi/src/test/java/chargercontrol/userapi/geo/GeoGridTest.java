@@ -0,0 +1,251 @@
+package chargercontrol.userapi.geo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import chargercontrol.userapi.model.ChargingType;
+import chargercontrol.userapi.model.Station;
+
+class GeoGridTest {
+
+    @Test
+    void nearest_MatchesBruteForceRanking() {
+        // Arrange: stations scattered around mainland Portugal
+        Random random = new Random(42);
+        List<Station> stations = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            stations.add(station(id, 37 + random.nextDouble() * 5, -9.5 + random.nextDouble() * 3));
+        }
+        GeoGrid grid = GeoGrid.build(stations, 0.1, 1L);
+
+        for (int query = 0; query < 50; query++) {
+            double lat = 37 + random.nextDouble() * 5;
+            double lon = -9.5 + random.nextDouble() * 3;
+
+            // Act
+            List<NearbyStation> nearest = grid.nearest(lat, lon, 50, 10);
+
+            // Assert
+            List<Long> expected = stations.stream()
+                    .filter(s -> GeoGrid.distanceKm(lat, lon, s.getLatitude(), s.getLongitude()) <= 50)
+                    .sorted(Comparator.comparingDouble(
+                            (Station s) -> GeoGrid.distanceKm(lat, lon, s.getLatitude(), s.getLongitude())))
+                    .limit(10)
+                    .map(Station::getId)
+                    .toList();
+            assertEquals(expected, nearest.stream().map(n -> n.station().getId()).toList());
+        }
+    }
+
+    @Test
+    void nearest_ExcludesStationsOutsideRadius() {
+        // Arrange: Aveiro, and Porto about 60 km north
+        GeoGrid grid = GeoGrid.build(List.of(station(1L, 40.6405, -8.6538), station(2L, 41.1579, -8.6291)), 0.1, 1L);
+
+        // Act
+        List<NearbyStation> nearest = grid.nearest(40.64, -8.65, 25, 10);
+
+        // Assert
+        assertEquals(1, nearest.size());
+        assertEquals(1L, nearest.get(0).station().getId());
+        assertTrue(nearest.get(0).distanceKm() < 1);
+    }
+
+    @Test
+    void nearest_ReturnsAtMostLimitStations() {
+        // Arrange
+        List<Station> stations = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            stations.add(station(id, 40.0 + id * 0.001, -8.0));
+        }
+        GeoGrid grid = GeoGrid.build(stations, 0.1, 1L);
+
+        // Act
+        List<NearbyStation> nearest = grid.nearest(40.0, -8.0, 100, 5);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), nearest.stream().map(n -> n.station().getId()).toList());
+    }
+
+    @Test
+    void nearest_FindsStationsAcrossTheAntimeridian() {
+        // Arrange: Fiji lies on both sides of 180 degrees
+        GeoGrid grid = GeoGrid.build(List.of(station(1L, -17.0, 179.95), station(2L, -17.0, -179.95)), 0.1, 1L);
+
+        // Act
+        List<NearbyStation> nearest = grid.nearest(-17.0, -179.99, 50, 10);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), nearest.stream().map(n -> n.station().getId()).toList());
+    }
+
+    @Test
+    void nearest_NearThePoleSearchesAllLongitudes() {
+        // Arrange
+        GeoGrid grid = GeoGrid.build(List.of(station(1L, 89.9, 0.0), station(2L, 89.9, 180.0)), 0.1, 1L);
+
+        // Act
+        List<NearbyStation> nearest = grid.nearest(89.95, 90.0, 50, 10);
+
+        // Assert
+        assertEquals(2, nearest.size());
+    }
+
+    @Test
+    void distanceKm_MatchesKnownDistance() {
+        // Lisbon to Porto is about 274 km in a straight line
+        assertEquals(274, GeoGrid.distanceKm(38.7223, -9.1393, 41.1579, -8.6291), 2);
+    }
+
+    @Test
+    void alongRoute_MatchesBruteForceDistanceToRoute() {
+        // Arrange: stations around a Lisbon - Porto style route with a bend
+        Random random = new Random(7);
+        List<Station> stations = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            stations.add(station(id, 38.5 + random.nextDouble() * 3, -9.5 + random.nextDouble() * 2));
+        }
+        GeoGrid grid = GeoGrid.build(stations, 0.1, 1L);
+        Polyline route = Polyline.decode(encode(new double[][] {{38.72, -9.14}, {39.75, -8.81}, {40.2, -8.41},
+                {41.15, -8.61}}));
+
+        // Act
+        List<RouteStation> along = grid.alongRoute(route, 5, station -> true);
+
+        // Assert
+        List<Long> expected = stations.stream()
+                .filter(s -> distanceToRoute(route, s) <= 5)
+                .map(Station::getId)
+                .sorted()
+                .toList();
+        assertEquals(expected, along.stream().map(r -> r.station().getId()).sorted().toList());
+        for (int i = 1; i < along.size(); i++) {
+            assertTrue(along.get(i - 1).routeKm() <= along.get(i).routeKm());
+        }
+    }
+
+    @Test
+    void alongRoute_AppliesFilterAndReportsRoutePosition() {
+        // Arrange: a straight route north along -8.6 from 40.0 to 41.0
+        Station start = station(1L, 40.0, -8.6);
+        Station middle = station(2L, 40.5, -8.58);
+        Station filtered = station(3L, 40.6, -8.6);
+        filtered.setChargingType(ChargingType.DC);
+        Station outside = station(4L, 40.5, -8.3);
+        GeoGrid grid = GeoGrid.build(List.of(start, middle, filtered, outside), 0.1, 1L);
+        Polyline route = Polyline.decode(encode(new double[][] {{40.0, -8.6}, {41.0, -8.6}}));
+
+        // Act
+        List<RouteStation> along = grid.alongRoute(route, 5,
+                station -> station.getChargingType() == ChargingType.AC);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), along.stream().map(r -> r.station().getId()).toList());
+        assertEquals(0, along.get(0).routeKm(), 0.01);
+        assertEquals(55.6, along.get(1).routeKm(), 0.1);
+        assertEquals(1.69, along.get(1).distanceKm(), 0.02);
+    }
+
+    @Test
+    void alongRoute_CrossesAntimeridian() {
+        // Arrange: Fiji, on both sides of 180
+        GeoGrid grid = GeoGrid.build(List.of(station(1L, -17.0, 179.99), station(2L, -17.0, -179.99),
+                station(3L, -17.0, 0.0)), 0.1, 1L);
+        Polyline route = Polyline.decode(encode(new double[][] {{-17.0, 179.9}, {-17.0, -179.9}}));
+
+        // Act
+        List<RouteStation> along = grid.alongRoute(route, 2, station -> true);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), along.stream().map(r -> r.station().getId()).toList());
+    }
+
+    @Test
+    void alongRoute_DensePolylineIsThinnedOutWithoutChangingTheResult() {
+        // Arrange: 50 001 points 10 m apart, about 500 km north along -8.6
+        double[][] points = new double[50_001][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[] {40.0 + i * 0.00009, -8.6};
+        }
+        Polyline dense = Polyline.decode(encode(points));
+        Polyline sparse = Polyline.decode(encode(new double[][] {{40.0, -8.6}, {44.5, -8.6}}));
+        Random random = new Random(11);
+        List<Station> stations = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            stations.add(station(id, 39.5 + random.nextDouble() * 5.5, -9.5 + random.nextDouble() * 2));
+        }
+        GeoGrid grid = GeoGrid.build(stations, 0.1, 1L);
+
+        // Act
+        List<RouteStation> along = grid.alongRoute(dense, 50, station -> true);
+
+        // Assert
+        assertTrue(GeoGrid.pieces(dense).size() <= GeoGrid.MAX_ROUTE_POINTS + 100);
+        List<Long> expected = stations.stream()
+                .filter(s -> distanceToRoute(sparse, s) <= 50)
+                .map(Station::getId)
+                .sorted()
+                .toList();
+        assertEquals(expected, along.stream().map(r -> r.station().getId()).sorted().toList());
+        for (RouteStation station : along) {
+            double latitude = Math.max(40.0, Math.min(44.5, station.station().getLatitude()));
+            assertEquals(GeoGrid.distanceKm(40.0, -8.6, latitude, -8.6), station.routeKm(), 1);
+        }
+    }
+
+    private static double distanceToRoute(Polyline route, Station station) {
+        // Amostragem densa do percurso, como referência
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i + 1 < route.size(); i++) {
+            for (int step = 0; step <= 2000; step++) {
+                double t = step / 2000.0;
+                double lat = route.latitude(i) + (route.latitude(i + 1) - route.latitude(i)) * t;
+                double lon = route.longitude(i) + (route.longitude(i + 1) - route.longitude(i)) * t;
+                best = Math.min(best, GeoGrid.distanceKm(lat, lon, station.getLatitude(), station.getLongitude()));
+            }
+        }
+        return best;
+    }
+
+    private static String encode(double[][] points) {
+        StringBuilder encoded = new StringBuilder();
+        long previousLat = 0;
+        long previousLon = 0;
+        for (double[] point : points) {
+            long lat = Math.round(point[0] * 1e5);
+            long lon = Math.round(point[1] * 1e5);
+            encodeValue(lat - previousLat, encoded);
+            encodeValue(lon - previousLon, encoded);
+            previousLat = lat;
+            previousLon = lon;
+        }
+        return encoded.toString();
+    }
+
+    private static void encodeValue(long value, StringBuilder encoded) {
+        long shifted = value < 0 ? ~(value << 1) : value << 1;
+        while (shifted >= 0x20) {
+            encoded.append((char) ((0x20 | (shifted & 0x1f)) + 63));
+            shifted >>= 5;
+        }
+        encoded.append((char) (shifted + 63));
+    }
+
+    private static Station station(Long id, double latitude, double longitude) {
+        Station station = new Station();
+        station.setId(id);
+        station.setName("Station " + id);
+        station.setLocation("Location " + id);
+        station.setPower(50.0);
+        station.setLatitude(latitude);
+        station.setLongitude(longitude);
+        station.setChargingType(ChargingType.AC);
+        return station;
+    }
+}
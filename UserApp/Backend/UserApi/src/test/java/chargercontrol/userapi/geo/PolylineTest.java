@@ -0,0 +1,37 @@
+package chargercontrol.userapi.geo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class PolylineTest {
+
+    @Test
+    void decode_ReadsReferenceExample() {
+        // Act: example from the format's documentation
+        Polyline route = Polyline.decode("_p~iF~ps|U_ulLnnqC_mqNvxq`@");
+
+        // Assert
+        assertEquals(3, route.size());
+        assertEquals(38.5, route.latitude(0), 1e-9);
+        assertEquals(-120.2, route.longitude(0), 1e-9);
+        assertEquals(40.7, route.latitude(1), 1e-9);
+        assertEquals(-120.95, route.longitude(1), 1e-9);
+        assertEquals(43.252, route.latitude(2), 1e-9);
+        assertEquals(-126.453, route.longitude(2), 1e-9);
+    }
+
+    @Test
+    void decode_RejectsMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> Polyline.decode(""));
+        assertThrows(IllegalArgumentException.class, () -> Polyline.decode("_p~iF"));
+        assertThrows(IllegalArgumentException.class, () -> Polyline.decode("_p~iF~ps|U_"));
+        assertThrows(IllegalArgumentException.class, () -> Polyline.decode("_p~iF ps|U"));
+    }
+
+    @Test
+    void decode_RejectsCoordinatesOutOfRange() {
+        // Act & Assert: latitude 100
+        assertThrows(IllegalArgumentException.class, () -> Polyline.decode("_gsia@??"));
+    }
+}
@@ -0,0 +1,158 @@
+package chargercontrol.userapi.geo;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import chargercontrol.userapi.availability.AvailabilityTracker;
+import chargercontrol.userapi.index.BookingIntervalIndex;
+import chargercontrol.userapi.model.ChargingPortStatus;
+import chargercontrol.userapi.model.ChargingType;
+import chargercontrol.userapi.model.Station;
+
+@ExtendWith(MockitoExtension.class)
+class StationAvailabilitySearchTest {
+
+    @Mock
+    private StationGeoIndex stationGeoIndex;
+
+    @Mock
+    private AvailabilityTracker availabilityTracker;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private StationAvailabilitySearch search;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        search = new StationAvailabilitySearch(stationGeoIndex, availabilityTracker, bookingIntervalIndex, 2, 500);
+        search.start();
+        start = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        search.stop();
+    }
+
+    @Test
+    void search_StopsAfterFirstBatchThatFillsTheLimit() {
+        // Arrange: 40 candidates, every station has one free port
+        List<NearbyStation> candidates = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            candidates.add(new NearbyStation(station(id), id));
+        }
+        when(stationGeoIndex.nearest(40.6, -8.6, 25, 500)).thenReturn(candidates);
+        when(availabilityTracker.portIds(anyLong(), eq(ChargingPortStatus.AVAILABLE)))
+                .thenAnswer(i -> List.of((Long) i.getArgument(0) * 10));
+        when(bookingIntervalIndex.earliestFreeStart(anyLong(), eq(start), eq(60L), eq(start)))
+                .thenReturn(start);
+
+        // Act
+        List<AvailableStation> result = search.search(40.6, -8.6, 25, start, 60, 0, 3);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), result.stream().map(found -> found.station().getId()).toList());
+        verify(bookingIntervalIndex, times(1)).warm(any());
+        assertEquals(16L, search.metrics().get("stationsChecked"));
+        assertEquals(1L, search.metrics().get("stoppedEarly"));
+    }
+
+    @Test
+    void search_SkipsUnavailableStationsAndStationsWithoutFreePort() {
+        // Arrange
+        Station closed = station(1L);
+        closed.setAvailable(false);
+        Station busy = station(2L);
+        Station free = station(3L);
+        when(stationGeoIndex.nearest(40.6, -8.6, 25, 500)).thenReturn(List.of(
+                new NearbyStation(closed, 1), new NearbyStation(busy, 2), new NearbyStation(free, 3)));
+        when(availabilityTracker.portIds(2L, ChargingPortStatus.AVAILABLE)).thenReturn(List.of(20L));
+        when(availabilityTracker.portIds(3L, ChargingPortStatus.AVAILABLE)).thenReturn(List.of(30L));
+        when(bookingIntervalIndex.earliestFreeStart(20L, start, 60, start.plusMinutes(30))).thenReturn(null);
+        when(bookingIntervalIndex.earliestFreeStart(30L, start, 60, start.plusMinutes(30)))
+                .thenReturn(start.plusMinutes(15));
+
+        // Act
+        List<AvailableStation> result = search.search(40.6, -8.6, 25, start, 60, 30, 10);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(free, result.get(0).station());
+        assertEquals(start.plusMinutes(15), result.get(0).earliestStart());
+        verify(availabilityTracker, never()).portIds(eq(1L), any());
+        verify(bookingIntervalIndex).warm(List.of(20L, 30L));
+        assertEquals(0L, search.metrics().get("stoppedEarly"));
+    }
+
+    @Test
+    void search_ReportsPortsFreeAtTheEarliestStart() {
+        // Arrange: ports 2 and 3 are free at the requested time, port 1 only later
+        Station station = station(1L);
+        when(stationGeoIndex.nearest(40.6, -8.6, 25, 500)).thenReturn(List.of(new NearbyStation(station, 1.5)));
+        when(availabilityTracker.portIds(1L, ChargingPortStatus.AVAILABLE)).thenReturn(List.of(1L, 2L, 3L));
+        when(bookingIntervalIndex.earliestFreeStart(1L, start, 60, start.plusMinutes(60)))
+                .thenReturn(start.plusMinutes(30));
+        when(bookingIntervalIndex.earliestFreeStart(2L, start, 60, start.plusMinutes(60))).thenReturn(start);
+        when(bookingIntervalIndex.earliestFreeStart(3L, start, 60, start.plusMinutes(60))).thenReturn(start);
+
+        // Act
+        List<AvailableStation> result = search.search(40.6, -8.6, 25, start, 60, 60, 10);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(1.5, result.get(0).distanceKm());
+        assertEquals(start, result.get(0).earliestStart());
+        assertEquals(List.of(2L, 3L), result.get(0).freePortIds());
+    }
+
+    @Test
+    void search_RanksByDistanceThenEarliestStart() {
+        // Arrange
+        Station later = station(1L);
+        Station sooner = station(2L);
+        Station farther = station(3L);
+        when(stationGeoIndex.nearest(40.6, -8.6, 25, 500)).thenReturn(List.of(
+                new NearbyStation(later, 2), new NearbyStation(sooner, 2), new NearbyStation(farther, 5)));
+        when(availabilityTracker.portIds(anyLong(), eq(ChargingPortStatus.AVAILABLE)))
+                .thenAnswer(i -> List.of((Long) i.getArgument(0) * 10));
+        when(bookingIntervalIndex.earliestFreeStart(10L, start, 60, start.plusMinutes(60)))
+                .thenReturn(start.plusMinutes(45));
+        when(bookingIntervalIndex.earliestFreeStart(20L, start, 60, start.plusMinutes(60)))
+                .thenReturn(start.plusMinutes(5));
+        when(bookingIntervalIndex.earliestFreeStart(30L, start, 60, start.plusMinutes(60))).thenReturn(start);
+
+        // Act
+        List<AvailableStation> result = search.search(40.6, -8.6, 25, start, 60, 60, 10);
+
+        // Assert
+        assertEquals(List.of(sooner, later, farther), result.stream().map(AvailableStation::station).toList());
+    }
+
+    private static Station station(Long id) {
+        Station station = new Station();
+        station.setId(id);
+        station.setName("Station " + id);
+        station.setLocation("Aveiro");
+        station.setPower(50.0);
+        station.setLatitude(40.6);
+        station.setLongitude(-8.6);
+        station.setChargingType(ChargingType.AC);
+        return station;
+    }
+}
@@ -0,0 +1,140 @@
+package chargercontrol.userapi.geo;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import chargercontrol.userapi.availability.AvailabilityTracker;
+import chargercontrol.userapi.availability.StationAvailability;
+import chargercontrol.userapi.catalog.CatalogVersion;
+import chargercontrol.userapi.catalog.CatalogVersions;
+import chargercontrol.userapi.event.StationAvailabilityChangedEvent;
+import chargercontrol.userapi.model.ChargingType;
+import chargercontrol.userapi.model.Station;
+import chargercontrol.userapi.repository.StationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class StationClusterIndexTest {
+
+    @Mock
+    private StationRepository stationRepository;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Mock
+    private AvailabilityTracker availabilityTracker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StationClusterIndex stationClusterIndex;
+    private Station aveiro;
+    private Station porto;
+
+    @BeforeEach
+    void setUp() {
+        stationClusterIndex = new StationClusterIndex(stationRepository, catalogVersions, availabilityTracker,
+                transactionManager, 16, 4096, 300, 500);
+        aveiro = station(1L, "Aveiro", 40.6405, -8.6538);
+        porto = station(2L, "Porto", 41.1579, -8.6291);
+    }
+
+    @Test
+    void clusters_BuildsOnceWithCurrentAvailability() {
+        // Arrange
+        when(catalogVersions.stations()).thenReturn(new CatalogVersion(3L, null));
+        when(stationRepository.findAll()).thenReturn(List.of(aveiro, porto));
+        when(availabilityTracker.get(anyCollection())).thenReturn(List.of(
+                new StationAvailability(1L, 2, 4, null),
+                new StationAvailability(2L, 1, 2, null)));
+
+        // Act
+        List<StationCluster> world = stationClusterIndex.clusters(-180, -90, 180, 90, 0);
+        List<StationCluster> region = stationClusterIndex.clusters(-9.5, 40.0, -8.0, 41.5, 10);
+
+        // Assert
+        assertEquals(1, world.size());
+        assertEquals(2, world.get(0).count());
+        assertEquals(3, world.get(0).freePorts());
+        assertEquals(2, region.size());
+        verify(stationRepository, times(1)).findAll();
+    }
+
+    @Test
+    void onAvailabilityChanged_UpdatesClustersWithoutRebuilding() {
+        // Arrange
+        when(catalogVersions.stations()).thenReturn(new CatalogVersion(3L, null));
+        when(stationRepository.findAll()).thenReturn(List.of(aveiro, porto));
+        when(availabilityTracker.get(anyCollection())).thenReturn(List.of(
+                new StationAvailability(1L, 2, 4, null),
+                new StationAvailability(2L, 1, 2, null)));
+        stationClusterIndex.refresh();
+
+        // Act
+        stationClusterIndex.onAvailabilityChanged(new StationAvailabilityChangedEvent(List.of(
+                new StationAvailability(1L, 0, 4, null))));
+
+        // Assert
+        assertEquals(1, stationClusterIndex.clusters(-180, -90, 180, 90, 0).get(0).freePorts());
+        assertEquals(1L, stationClusterIndex.metrics().get("availabilityUpdates"));
+        verify(stationRepository, times(1)).findAll();
+    }
+
+    @Test
+    void clusters_NewerVersion_ServesPreviousLevelsUntilBackgroundRebuild() {
+        // Arrange: Porto is created between the two queries
+        when(catalogVersions.stations())
+                .thenReturn(new CatalogVersion(3L, null))
+                .thenReturn(new CatalogVersion(4L, null));
+        when(stationRepository.findAll())
+                .thenReturn(List.of(aveiro))
+                .thenReturn(List.of(aveiro, porto));
+        when(availabilityTracker.get(anyCollection())).thenReturn(List.of());
+
+        // Act
+        List<StationCluster> before = stationClusterIndex.clusters(-180, -90, 180, 90, 0);
+        List<StationCluster> stale = stationClusterIndex.clusters(-180, -90, 180, 90, 0);
+        stationClusterIndex.refresh();
+        List<StationCluster> after = stationClusterIndex.clusters(-180, -90, 180, 90, 0);
+
+        // Assert
+        assertEquals(1, before.get(0).count());
+        assertEquals(1L, before.get(0).stationId());
+        assertEquals(1, stale.get(0).count());
+        assertEquals(2, after.get(0).count());
+        assertEquals(2L, stationClusterIndex.metrics().get("builds"));
+    }
+
+    @Test
+    void onAvailabilityChanged_BeforeFirstBuildIsIgnored() {
+        // Act
+        stationClusterIndex.onAvailabilityChanged(new StationAvailabilityChangedEvent(List.of(
+                new StationAvailability(1L, 0, 4, null))));
+
+        // Assert
+        assertEquals(0L, stationClusterIndex.metrics().get("availabilityUpdates"));
+        verifyNoInteractions(stationRepository);
+    }
+
+    private static Station station(Long id, String name, double latitude, double longitude) {
+        Station station = new Station();
+        station.setId(id);
+        station.setName(name);
+        station.setLocation(name);
+        station.setPower(50.0);
+        station.setLatitude(latitude);
+        station.setLongitude(longitude);
+        station.setChargingType(ChargingType.AC);
+        return station;
+    }
+}
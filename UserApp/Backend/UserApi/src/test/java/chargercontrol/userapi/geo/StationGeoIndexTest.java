@@ -0,0 +1,133 @@
+package chargercontrol.userapi.geo;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import chargercontrol.userapi.catalog.CatalogVersion;
+import chargercontrol.userapi.catalog.CatalogVersions;
+import chargercontrol.userapi.model.ChargingType;
+import chargercontrol.userapi.model.Station;
+import chargercontrol.userapi.repository.StationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class StationGeoIndexTest {
+
+    @Mock
+    private StationRepository stationRepository;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StationGeoIndex stationGeoIndex;
+    private Station aveiro;
+    private Station porto;
+
+    @BeforeEach
+    void setUp() {
+        stationGeoIndex = new StationGeoIndex(stationRepository, catalogVersions, transactionManager, 0.1, 300, 500);
+        aveiro = station(1L, "Aveiro", 40.6405, -8.6538);
+        porto = station(2L, "Porto", 41.1579, -8.6291);
+    }
+
+    @Test
+    void nearest_BuildsOnceForSameVersion() {
+        // Arrange
+        when(catalogVersions.stations()).thenReturn(new CatalogVersion(3L, null));
+        when(stationRepository.findAll()).thenReturn(List.of(aveiro, porto));
+
+        // Act
+        List<NearbyStation> first = stationGeoIndex.nearest(41.15, -8.62, 100, 10);
+        List<NearbyStation> second = stationGeoIndex.nearest(40.64, -8.65, 100, 10);
+
+        // Assert
+        assertEquals(porto, first.get(0).station());
+        assertEquals(aveiro, second.get(0).station());
+        verify(stationRepository, times(1)).findAll();
+        assertEquals(1L, stationGeoIndex.metrics().get("builds"));
+        assertEquals(2L, stationGeoIndex.metrics().get("queries"));
+    }
+
+    @Test
+    void nearest_NewerVersion_SeesTheWriteFirst() {
+        // Arrange: Porto is created between the two queries
+        when(catalogVersions.stations())
+                .thenReturn(new CatalogVersion(3L, null))
+                .thenReturn(new CatalogVersion(4L, null));
+        when(stationRepository.findAll())
+                .thenReturn(List.of(aveiro))
+                .thenReturn(List.of(aveiro, porto));
+
+        // Act
+        List<NearbyStation> before = stationGeoIndex.nearest(41.15, -8.62, 100, 10);
+        List<NearbyStation> after = stationGeoIndex.nearest(41.15, -8.62, 100, 10);
+
+        // Assert
+        assertEquals(1, before.size());
+        assertEquals(porto, after.get(0).station());
+        assertEquals(4L, stationGeoIndex.metrics().get("version"));
+    }
+
+    @Test
+    void refresh_SkipsWhenVersionUnchanged() {
+        // Arrange
+        when(catalogVersions.stations()).thenReturn(new CatalogVersion(3L, null));
+        when(stationRepository.findAll()).thenReturn(List.of(aveiro));
+        stationGeoIndex.refresh();
+
+        // Act
+        stationGeoIndex.refresh();
+
+        // Assert
+        verify(stationRepository, times(1)).findAll();
+        assertEquals(1, stationGeoIndex.metrics().get("stations"));
+    }
+
+    @Test
+    void alongRoute_FiltersByChargingTypeAndPowerAndTrimsToLimit() {
+        // Arrange: Coimbra -> Aveiro -> Porto, with a fast DC station in Coimbra and a slow one in Mealhada
+        Station coimbra = station(3L, "Coimbra", 40.2033, -8.4103);
+        coimbra.setChargingType(ChargingType.DC);
+        coimbra.setPower(150.0);
+        Station mealhada = station(4L, "Mealhada", 40.3780, -8.4490);
+        mealhada.setChargingType(ChargingType.DC);
+        mealhada.setPower(22.0);
+        when(catalogVersions.stations()).thenReturn(new CatalogVersion(3L, null));
+        when(stationRepository.findAll()).thenReturn(List.of(aveiro, porto, coimbra, mealhada));
+        Polyline route = Polyline.decode("_qjtFnqir@_}tA~zm@orbBozD");
+
+        // Act
+        List<RouteStation> all = stationGeoIndex.alongRoute(route, 5, null, null, 10);
+        List<RouteStation> fastDc = stationGeoIndex.alongRoute(route, 5, ChargingType.DC, 50.0, 10);
+        List<RouteStation> firstTwo = stationGeoIndex.alongRoute(route, 5, null, null, 2);
+
+        // Assert
+        assertEquals(List.of(coimbra, mealhada, aveiro, porto), all.stream().map(RouteStation::station).toList());
+        assertEquals(List.of(coimbra), fastDc.stream().map(RouteStation::station).toList());
+        assertEquals(List.of(coimbra, mealhada), firstTwo.stream().map(RouteStation::station).toList());
+        assertEquals(3L, stationGeoIndex.metrics().get("routeQueries"));
+    }
+
+    private static Station station(Long id, String name, double latitude, double longitude) {
+        Station station = new Station();
+        station.setId(id);
+        station.setName(name);
+        station.setLocation(name);
+        station.setPower(50.0);
+        station.setLatitude(latitude);
+        station.setLongitude(longitude);
+        station.setChargingType(ChargingType.AC);
+        return station;
+    }
+}
@@ -0,0 +1,177 @@
+package chargercontrol.userapi.idempotency;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import chargercontrol.userapi.model.IdempotencyRecord;
+import chargercontrol.userapi.repository.IdempotencyRecordRepository;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyService idempotencyService;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, new ObjectMapper(), 2, 60, false);
+        calls = new AtomicInteger();
+    }
+
+    record Created(String id) {
+    }
+
+    private ResponseEntity<Created> created() {
+        return ResponseEntity.status(HttpStatus.CREATED).body(new Created("id-" + calls.incrementAndGet()));
+    }
+
+    @Test
+    void execute_SameKeyRunsActionOnceAndReplaysResponse() {
+        // Act
+        ResponseEntity<Created> first = idempotencyService.execute("booking", "1", "key-1", List.of("a"),
+                Created.class, true, this::created);
+        ResponseEntity<Created> retry = idempotencyService.execute("booking", "1", "key-1", List.of("a"),
+                Created.class, true, this::created);
+
+        // Assert
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertSame(first.getBody(), retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void execute_KeysAreScopedPerOwner() {
+        // Act
+        idempotencyService.execute("booking", "1", "key-1", List.of("a"), Created.class, true, this::created);
+        idempotencyService.execute("booking", "2", "key-1", List.of("a"), Created.class, true, this::created);
+
+        // Assert
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_KeyReusedForDifferentRequest_Returns422() {
+        // Arrange
+        idempotencyService.execute("booking", "1", "key-1", List.of("a"), Created.class, true, this::created);
+
+        // Act
+        ResponseEntity<Created> response = idempotencyService.execute("booking", "1", "key-1", List.of("b"),
+                Created.class, true, this::created);
+
+        // Assert
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_ErrorResponsesAreNotStored() {
+        // Act
+        idempotencyService.execute("booking", "1", "key-1", List.of("a"), Created.class, true, () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        });
+        ResponseEntity<Created> retry = idempotencyService.execute("booking", "1", "key-1", List.of("a"),
+                Created.class, true, this::created);
+
+        // Assert
+        assertEquals(2, calls.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+    }
+
+    @Test
+    void execute_KeyTooLong_ReturnsBadRequest() {
+        // Act
+        ResponseEntity<Created> response = idempotencyService.execute("booking", "1",
+                "k".repeat(IdempotencyService.MAX_KEY_LENGTH + 1), List.of("a"), Created.class, true,
+                this::created);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void execute_CacheIsBoundedToMaxEntries() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            idempotencyService.execute("booking", "1", "key-" + i, List.of("a"), Created.class, true,
+                    this::created);
+        }
+
+        // Assert
+        assertEquals(2, idempotencyService.cachedResponses());
+    }
+
+    @Test
+    void execute_DbEnabled_StoresResponseAndReplaysRecordFromOtherInstance() {
+        // Arrange
+        IdempotencyService dbBacked = new IdempotencyService(idempotencyRecordRepository, new ObjectMapper(), 10, 60, true);
+        when(idempotencyRecordRepository.findByScopeAndOwnerKeyAndIdempotencyKey("booking", "1", "key-1"))
+                .thenReturn(Optional.empty());
+        dbBacked.execute("booking", "1", "key-1", List.of("a"), Created.class, true, this::created);
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).save(saved.capture());
+
+        IdempotencyService otherInstance = new IdempotencyService(idempotencyRecordRepository, new ObjectMapper(), 10, 60, true);
+        when(idempotencyRecordRepository.findByScopeAndOwnerKeyAndIdempotencyKey("booking", "1", "key-1"))
+                .thenReturn(Optional.of(saved.getValue()));
+
+        // Act
+        ResponseEntity<Created> retry = otherInstance.execute("booking", "1", "key-1", List.of("a"),
+                Created.class, true, this::created);
+
+        // Assert
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals("id-1", retry.getBody().id());
+    }
+
+    @Test
+    void execute_DbEnabledButNotPersistable_SkipsDatabase() {
+        // Arrange
+        IdempotencyService dbBacked = new IdempotencyService(idempotencyRecordRepository, new ObjectMapper(), 10, 60, true);
+
+        // Act
+        dbBacked.execute("register", "a@b.c", "key-1", List.of("a"), Created.class, false, this::created);
+
+        // Assert
+        verify(idempotencyRecordRepository, never()).save(any());
+        verify(idempotencyRecordRepository, never()).findByScopeAndOwnerKeyAndIdempotencyKey(any(), any(), any());
+    }
+
+    @Test
+    void evictExpired_RemovesEntriesOlderThanTtl() throws InterruptedException {
+        // Arrange
+        IdempotencyService noTtl = new IdempotencyService(idempotencyRecordRepository, new ObjectMapper(), 10, 0, false);
+        noTtl.execute("booking", "1", "key-1", List.of("a"), Created.class, true, this::created);
+        Thread.sleep(5);
+
+        // Act
+        int evicted = noTtl.evictExpired();
+
+        // Assert
+        assertEquals(1, evicted);
+        assertEquals(0, noTtl.cachedResponses());
+    }
+}
@@ -0,0 +1,210 @@
+package chargercontrol.userapi.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import chargercontrol.userapi.event.BookingChangedEvent;
+import chargercontrol.userapi.model.BookingStatus;
+import chargercontrol.userapi.repository.BookSlotRepository;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    private static final Long PORT_ID = 1L;
+
+    @Mock
+    private BookSlotRepository bookSlotRepository;
+
+    @InjectMocks
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        start = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    void isFree_LoadsPortOnceAndDetectsOverlap() {
+        // Arrange: existing booking 10:00 - 11:00
+        when(bookSlotRepository.findIntervalsByChargingPortId(eq(PORT_ID), any(), any()))
+                .thenReturn(List.of(new BookingInterval(10L, start, 60)));
+
+        // Act & Assert
+        assertFalse(bookingIntervalIndex.isFree(PORT_ID, start.plusMinutes(30), start.plusMinutes(90)));
+        assertFalse(bookingIntervalIndex.isFree(PORT_ID, start.minusMinutes(30), start.plusMinutes(1)));
+        assertTrue(bookingIntervalIndex.isFree(PORT_ID, start.plusMinutes(60), start.plusMinutes(120)));
+        assertTrue(bookingIntervalIndex.isFree(PORT_ID, start.minusMinutes(60), start));
+        verify(bookSlotRepository, times(1)).findIntervalsByChargingPortId(eq(PORT_ID), any(), any());
+    }
+
+    @Test
+    void isFree_LongBookingStartingEarlierStillBlocks() {
+        // Arrange: a long booking followed by a short one
+        when(bookSlotRepository.findIntervalsByChargingPortId(eq(PORT_ID), any(), any()))
+                .thenReturn(List.of(
+                        new BookingInterval(10L, start, 240),
+                        new BookingInterval(11L, start.plusMinutes(300), 15)));
+
+        // Act & Assert
+        assertFalse(bookingIntervalIndex.isFree(PORT_ID, start.plusMinutes(180), start.plusMinutes(200)));
+        assertTrue(bookingIntervalIndex.isFree(PORT_ID, start.plusMinutes(240), start.plusMinutes(300)));
+    }
+
+    @Test
+    void onBookingChanged_AddsAndRemovesIntervalsOfLoadedPort() {
+        // Arrange
+        when(bookSlotRepository.findIntervalsByChargingPortId(eq(PORT_ID), any(), any()))
+                .thenReturn(Collections.emptyList());
+        assertTrue(bookingIntervalIndex.isFree(PORT_ID, start, start.plusMinutes(60)));
+
+        // Act: booking created
+        bookingIntervalIndex.onBookingChanged(
+                new BookingChangedEvent(20L, PORT_ID, start, 60, BookingStatus.PENDING));
+
+        // Assert
+        assertFalse(bookingIntervalIndex.isFree(PORT_ID, start, start.plusMinutes(60)));
+
+        // Act: booking cancelled
+        bookingIntervalIndex.onBookingChanged(
+                new BookingChangedEvent(20L, PORT_ID, start, 60, BookingStatus.CANCELLED));
+
+        // Assert
+        assertTrue(bookingIntervalIndex.isFree(PORT_ID, start, start.plusMinutes(60)));
+    }
+
+    @Test
+    void onBookingChanged_IgnoresPortsThatWereNeverLoaded() {
+        // Act
+        bookingIntervalIndex.onBookingChanged(
+                new BookingChangedEvent(20L, PORT_ID, start, 60, BookingStatus.PENDING));
+
+        // Assert
+        assertEquals(0, bookingIntervalIndex.loadedPorts());
+        verifyNoInteractions(bookSlotRepository);
+    }
+
+    @Test
+    void evict_ForcesReloadOnNextLookup() {
+        // Arrange
+        when(bookSlotRepository.findIntervalsByChargingPortId(eq(PORT_ID), any(), any()))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(List.of(new BookingInterval(30L, start, 60)));
+        assertTrue(bookingIntervalIndex.isFree(PORT_ID, start, start.plusMinutes(60)));
+
+        // Act
+        bookingIntervalIndex.evict(PORT_ID);
+
+        // Assert
+        assertFalse(bookingIntervalIndex.isFree(PORT_ID, start, start.plusMinutes(60)));
+        verify(bookSlotRepository, times(2)).findIntervalsByChargingPortId(eq(PORT_ID), any(), any());
+    }
+
+    @Test
+    void freeBusy_MarksBucketsTouchedByBookings() {
+        // Arrange: 10:00 - 10:12 touches three 5-minute buckets
+        when(bookSlotRepository.findIntervalsByChargingPortId(eq(PORT_ID), any(), any()))
+                .thenReturn(List.of(new BookingInterval(10L, start, 12)));
+
+        // Act
+        FreeBusy freeBusy = bookingIntervalIndex.freeBusy(PORT_ID, start.minusMinutes(10), start.plusMinutes(30));
+
+        // Assert
+        assertEquals(start.minusMinutes(10), freeBusy.start());
+        assertEquals("00111000", freeBusy.toBitString());
+    }
+
+    @Test
+    void findFreePorts_LoadsMissingPortsWithOneQuery() {
+        // Arrange: port 1 is booked, port 2 has no bookings
+        when(bookSlotRepository.findIntervalsByChargingPortIds(eq(List.of(PORT_ID, 2L)), any(), any()))
+                .thenReturn(List.of(new PortBookingInterval(PORT_ID, 10L, start, 60)));
+
+        // Act
+        List<Long> free = bookingIntervalIndex.findFreePorts(List.of(PORT_ID, 2L), start, start.plusMinutes(30));
+
+        // Assert
+        assertEquals(List.of(2L), free);
+        assertEquals(2, bookingIntervalIndex.loadedPorts());
+        verify(bookSlotRepository, never()).findIntervalsByChargingPortId(any(), any(), any());
+    }
+
+    @Test
+    void warm_SkipsPortsAlreadyLoaded() {
+        // Arrange
+        when(bookSlotRepository.findIntervalsByChargingPortId(eq(PORT_ID), any(), any()))
+                .thenReturn(Collections.emptyList());
+        assertTrue(bookingIntervalIndex.isFree(PORT_ID, start, start.plusMinutes(30)));
+
+        // Act
+        bookingIntervalIndex.warm(List.of(PORT_ID));
+
+        // Assert
+        verify(bookSlotRepository, never()).findIntervalsByChargingPortIds(any(), any(), any());
+    }
+
+    @Test
+    void warm_ReplaysEventsCommittedWhileLoading() {
+        // Arrange: a booking is committed while the batch query runs
+        when(bookSlotRepository.findIntervalsByChargingPortIds(eq(List.of(PORT_ID)), any(), any()))
+                .thenAnswer(invocation -> {
+                    bookingIntervalIndex.onBookingChanged(
+                            new BookingChangedEvent(20L, PORT_ID, start, 60, BookingStatus.PENDING));
+                    return Collections.emptyList();
+                });
+
+        // Act
+        bookingIntervalIndex.warm(List.of(PORT_ID));
+
+        // Assert
+        assertFalse(bookingIntervalIndex.isFree(PORT_ID, start, start.plusMinutes(30)));
+        verify(bookSlotRepository, never()).findIntervalsByChargingPortId(any(), any(), any());
+    }
+
+    @Test
+    void nextFreeAt_FollowsBackToBackBookings() {
+        // Arrange: 10:00 - 11:00 and 11:00 - 11:30, then a gap until 12:00
+        when(bookSlotRepository.findIntervalsByChargingPortId(eq(PORT_ID), any(), any()))
+                .thenReturn(List.of(
+                        new BookingInterval(10L, start, 60),
+                        new BookingInterval(11L, start.plusMinutes(60), 30),
+                        new BookingInterval(12L, start.plusMinutes(120), 60)));
+
+        // Act & Assert
+        assertEquals(start.plusMinutes(90), bookingIntervalIndex.nextFreeAt(PORT_ID, start.plusMinutes(15)));
+        assertEquals(start.plusMinutes(100), bookingIntervalIndex.nextFreeAt(PORT_ID, start.plusMinutes(100)));
+        assertEquals(start.minusMinutes(5), bookingIntervalIndex.nextFreeAt(PORT_ID, start.minusMinutes(5)));
+    }
+
+    @Test
+    void earliestFreeStart_SkipsGapsShorterThanTheDuration() {
+        // Arrange: 10:00 - 11:00 and 11:15 - 12:00 leave a 15 minute gap
+        when(bookSlotRepository.findIntervalsByChargingPortId(eq(PORT_ID), any(), any()))
+                .thenReturn(List.of(
+                        new BookingInterval(10L, start, 60),
+                        new BookingInterval(11L, start.plusMinutes(75), 45)));
+
+        // Act & Assert
+        assertEquals(start.plusMinutes(60),
+                bookingIntervalIndex.earliestFreeStart(PORT_ID, start.plusMinutes(30), 15, start.plusHours(5)));
+        assertEquals(start.plusMinutes(120),
+                bookingIntervalIndex.earliestFreeStart(PORT_ID, start.plusMinutes(30), 30, start.plusHours(5)));
+        assertEquals(start.minusMinutes(60),
+                bookingIntervalIndex.earliestFreeStart(PORT_ID, start.minusMinutes(60), 60, start.plusHours(5)));
+        assertNull(bookingIntervalIndex.earliestFreeStart(PORT_ID, start.plusMinutes(30), 30, start.plusMinutes(105)));
+    }
+}
@@ -0,0 +1,85 @@
+package chargercontrol.userapi.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PortIntervalsTest {
+
+    private MutableClock clock;
+    private PortIntervals intervals;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.of(2025, 6, 1, 10, 0);
+        clock = new MutableClock(now.toInstant(ZoneOffset.UTC));
+        intervals = new PortIntervals(clock);
+    }
+
+    @Test
+    void overlaps_BookingBeyondHorizonIsMarkedWhenTheHorizonReachesIt() {
+        // Arrange: a booking further ahead than the calendar horizon
+        LocalDateTime start = now.plusDays(31);
+        intervals.put(new BookingInterval(10L, start, 60));
+        assertTrue(intervals.overlaps(start.plusMinutes(30), start.plusMinutes(90)));
+
+        // Act: the horizon slides over the booking
+        clock.set(now.plusDays(2));
+
+        // Assert
+        assertTrue(intervals.overlaps(start.plusMinutes(30), start.plusMinutes(90)));
+        assertTrue(intervals.busyBuckets(intervals.bucketOf(start), 1).get(0));
+        assertFalse(intervals.overlaps(start.plusMinutes(60), start.plusMinutes(120)));
+    }
+
+    @Test
+    void overlaps_BookingsAreMarkedAgainAfterTheCalendarIsReset() {
+        // Arrange
+        LocalDateTime start = now.plusDays(45);
+        intervals.put(new BookingInterval(10L, start, 60));
+
+        // Act: idle for longer than the whole horizon
+        clock.set(now.plusDays(40));
+
+        // Assert
+        assertTrue(intervals.overlaps(start, start.plusMinutes(5)));
+        assertEquals(start.plusMinutes(60),
+                intervals.earliestFreeStart(start.minusMinutes(30), 60, start.plusHours(2)));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(LocalDateTime time) {
+            instant = time.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package chargercontrol.userapi.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SlotCalendarTest {
+
+    // Small horizon so the ring wraps inside a single test
+    private static final int HORIZON = 200;
+
+    private SlotCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new SlotCalendar(5, HORIZON);
+        calendar.advanceTo(1_000);
+    }
+
+    @Test
+    void bucketOfAndCeil_RoundToBucketBoundaries() {
+        LocalDateTime onBoundary = LocalDateTime.of(2025, 6, 1, 10, 0);
+        LocalDateTime inside = onBoundary.plusMinutes(2);
+
+        assertEquals(calendar.bucketOf(onBoundary), calendar.bucketCeil(onBoundary));
+        assertEquals(calendar.bucketOf(onBoundary), calendar.bucketOf(inside));
+        assertEquals(calendar.bucketOf(onBoundary) + 1, calendar.bucketCeil(inside));
+        assertEquals(onBoundary, calendar.startOf(calendar.bucketOf(inside)));
+    }
+
+    @Test
+    void markAndClear_AcrossWordBoundaries() {
+        // Act
+        calendar.mark(1_060, 1_070);
+
+        // Assert
+        assertTrue(calendar.anySet(1_069, 1_070));
+        assertTrue(calendar.anySet(1_000, 1_061));
+        assertFalse(calendar.anySet(1_000, 1_060));
+        assertFalse(calendar.anySet(1_070, 1_200));
+
+        // Act
+        calendar.clear(1_060, 1_065);
+
+        // Assert
+        assertFalse(calendar.anySet(1_060, 1_065));
+        assertTrue(calendar.anySet(1_065, 1_066));
+    }
+
+    @Test
+    void advanceTo_ForgetsPastBucketsAndWrapsTheRing() {
+        // Arrange
+        calendar.mark(1_010, 1_020);
+
+        // Act: move the origin past the marked range
+        calendar.advanceTo(1_050);
+
+        // Assert: the reused positions come back empty
+        assertFalse(calendar.covers(1_010, 1_020));
+        assertTrue(calendar.covers(1_050, 1_250));
+        assertFalse(calendar.anySet(1_050, 1_250));
+
+        // Act: a range that wraps around the end of the ring
+        calendar.mark(1_195, 1_205);
+
+        // Assert
+        assertTrue(calendar.anySet(1_204, 1_205));
+        assertFalse(calendar.anySet(1_205, 1_250));
+        BitSet bits = calendar.snapshot(1_190, 1_210);
+        assertEquals(BitSet.valueOf(new long[] {0b11111_11111_00000L}), bits);
+    }
+
+    @Test
+    void mark_OutsideHorizonIsIgnored() {
+        // Act
+        calendar.mark(900, 1_005);
+        calendar.mark(1_195, 1_300);
+
+        // Assert
+        assertTrue(calendar.anySet(1_000, 1_005));
+        assertFalse(calendar.anySet(1_005, 1_195));
+        assertTrue(calendar.anySet(1_195, 1_200));
+        assertFalse(calendar.covers(1_195, 1_300));
+    }
+}
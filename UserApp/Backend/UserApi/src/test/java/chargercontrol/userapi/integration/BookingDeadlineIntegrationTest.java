@@ -0,0 +1,183 @@
+package chargercontrol.userapi.integration;
+
+import chargercontrol.userapi.UserApiApplication;
+import chargercontrol.userapi.config.TestSecurityConfig;
+import chargercontrol.userapi.model.Car;
+import chargercontrol.userapi.model.ChargingPort;
+import chargercontrol.userapi.model.ChargingPortStatus;
+import chargercontrol.userapi.model.ChargingType;
+import chargercontrol.userapi.model.Station;
+import chargercontrol.userapi.model.User;
+import chargercontrol.userapi.repository.CarRepository;
+import chargercontrol.userapi.repository.ChargingPortRepository;
+import chargercontrol.userapi.repository.StationRepository;
+import chargercontrol.userapi.repository.UserRepository;
+import chargercontrol.userapi.service.BookSlotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the deadline transitions against the database: the bookings are in the past,
+ * so they must commit without tripping the {@code @FutureOrPresent} check on
+ * {@code BookSlot.bookingTime}.
+ */
+@SpringBootTest(
+        classes = {UserApiApplication.class, TestSecurityConfig.class},
+        properties = {"spring.main.allow-bean-definition-overriding=true", "jobs.enabled=false"}
+)
+@ActiveProfiles("test")
+public class BookingDeadlineIntegrationTest {
+
+    private static final Duration NO_SHOW_GRACE = Duration.ofMinutes(15);
+
+    @Autowired
+    private BookSlotService bookSlotService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private ChargingPortRepository chargingPortRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Car car;
+    private Station station;
+    private ChargingPort port;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Deadline User");
+        user.setEmail("deadline" + UUID.randomUUID() + "@example.com");
+        user.setPassword("password123");
+        user = userRepository.save(user);
+
+        car = new Car();
+        car.setModel("Model 3");
+        car.setBrand("Tesla");
+        car.setCarClass("ELECTRIC");
+        car.setMaximumCharge(75.0);
+        car.setOwner(user);
+        car = carRepository.save(car);
+
+        station = new Station();
+        station.setName("Deadline Station " + UUID.randomUUID());
+        station.setLocation("Aveiro");
+        station.setPower(22.0);
+        station.setLatitude(40.6405);
+        station.setLongitude(-8.6538);
+        station.setChargingType(ChargingType.AC);
+        station = stationRepository.save(station);
+
+        port = new ChargingPort();
+        port.setStation(station);
+        port.setStatus(ChargingPortStatus.OCCUPIED);
+        port.setEnergyUsed(0.0);
+        port.setPortIdentifier("D01");
+        port = chargingPortRepository.save(port);
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM energy_ledger WHERE charging_port_id = ?", port.getId());
+        jdbcTemplate.update("DELETE FROM port_slot_reservations WHERE charging_port_id = ?", port.getId());
+        jdbcTemplate.update("DELETE FROM book_slots WHERE charging_port_id = ?", port.getId());
+        chargingPortRepository.deleteById(port.getId());
+        carRepository.deleteById(car.getId());
+        stationRepository.deleteById(station.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void applyDueTransition_PastNoShow_CommitsExpired() {
+        // Arrange
+        Long bookingId = insertBooking(LocalDateTime.now().minusMinutes(30), "PENDING");
+
+        // Act
+        boolean applied = bookSlotService.applyDueTransition(bookingId, NO_SHOW_GRACE);
+
+        // Assert
+        assertTrue(applied);
+        assertEquals("EXPIRED", statusOf(bookingId));
+    }
+
+    @Test
+    void applyDueTransitions_PastActiveBooking_CommitsCompletedAndRecordsEnergy() {
+        // Arrange
+        Long bookingId = insertBooking(LocalDateTime.now().minusMinutes(90), "ACTIVE");
+
+        // Act
+        int applied = bookSlotService.applyDueTransitions(List.of(bookingId), NO_SHOW_GRACE);
+
+        // Assert
+        assertEquals(1, applied);
+        assertEquals("COMPLETED", statusOf(bookingId));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM energy_ledger WHERE book_slot_id = ?", Integer.class, bookingId));
+        assertEquals(ChargingPortStatus.AVAILABLE, chargingPortRepository.findById(port.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void cleanupExpiredBookings_PastPendingBooking_CommitsExpired() {
+        // Arrange
+        Long bookingId = insertBooking(LocalDateTime.now().minusHours(3), "PENDING");
+
+        // Act
+        int cleaned = bookSlotService.cleanupExpiredBookings();
+
+        // Assert
+        assertTrue(cleaned >= 1);
+        assertEquals("EXPIRED", statusOf(bookingId));
+    }
+
+    // Inserido por SQL: o Bean Validation rejeitaria uma reserva no passado
+    private Long insertBooking(LocalDateTime bookingTime, String status) {
+        LocalDateTime start = bookingTime.truncatedTo(ChronoUnit.SECONDS);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO book_slots (user_id, car_id, charging_port_id, booking_time, duration, end_time, status) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+            ps.setLong(1, user.getId());
+            ps.setLong(2, car.getId());
+            ps.setLong(3, port.getId());
+            ps.setTimestamp(4, Timestamp.valueOf(start));
+            ps.setInt(5, 60);
+            ps.setTimestamp(6, Timestamp.valueOf(start.plusMinutes(60)));
+            ps.setString(7, status);
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private String statusOf(Long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM book_slots WHERE id = ?", String.class, bookingId);
+    }
+}
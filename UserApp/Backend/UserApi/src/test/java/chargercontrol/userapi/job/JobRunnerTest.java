@@ -0,0 +1,100 @@
+package chargercontrol.userapi.job;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import chargercontrol.userapi.model.JobRun;
+import chargercontrol.userapi.model.JobRunStatus;
+import chargercontrol.userapi.repository.JobLeaseRepository;
+import chargercontrol.userapi.repository.JobRunRepository;
+
+@ExtendWith(MockitoExtension.class)
+class JobRunnerTest {
+
+    private static final String JOB_NAME = "test-job";
+
+    @Mock
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Mock
+    private JobRunRepository jobRunRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ScheduledJob job;
+
+    private JobRunner jobRunner;
+
+    @BeforeEach
+    void setUp() {
+        when(job.name()).thenReturn(JOB_NAME);
+        jobRunner = new JobRunner(List.of(job), jobLeaseRepository, jobRunRepository, transactionManager,
+                false, "instance-1");
+        when(jobLeaseRepository.existsById(JOB_NAME)).thenReturn(true);
+        when(job.lockAtMostFor()).thenReturn(Duration.ofMinutes(20));
+    }
+
+    @Test
+    void runIfLeased_LeaseTaken_RunsJobAndRecordsSuccess() {
+        // Arrange
+        when(jobLeaseRepository.tryAcquire(eq(JOB_NAME), eq("instance-1"), any(), any())).thenReturn(1);
+        when(jobRunRepository.save(any(JobRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(job.lockAtLeastFor()).thenReturn(Duration.ofMinutes(2));
+        when(job.run(any())).thenReturn(3L);
+
+        // Act
+        JobRun run = jobRunner.runIfLeased(job);
+
+        // Assert
+        assertNotNull(run);
+        assertEquals(JobRunStatus.SUCCEEDED, run.getStatus());
+        assertEquals(3L, run.getProcessed());
+        assertNotNull(run.getFinishedAt());
+        verify(jobLeaseRepository).release(eq(JOB_NAME), eq("instance-1"), any());
+    }
+
+    @Test
+    void runIfLeased_JobThrows_RecordsFailureAndReleasesLease() {
+        // Arrange
+        when(jobLeaseRepository.tryAcquire(eq(JOB_NAME), eq("instance-1"), any(), any())).thenReturn(1);
+        when(jobRunRepository.save(any(JobRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(job.lockAtLeastFor()).thenReturn(Duration.ZERO);
+        when(job.run(any())).thenThrow(new RuntimeException("boom"));
+
+        // Act
+        JobRun run = jobRunner.runIfLeased(job);
+
+        // Assert
+        assertEquals(JobRunStatus.FAILED, run.getStatus());
+        assertTrue(run.getMessage().contains("boom"));
+        verify(jobLeaseRepository).release(eq(JOB_NAME), eq("instance-1"), any());
+    }
+
+    @Test
+    void runIfLeased_LeaseHeldElsewhere_SkipsJob() {
+        // Arrange
+        when(jobLeaseRepository.tryAcquire(eq(JOB_NAME), eq("instance-1"), any(), any())).thenReturn(0);
+
+        // Act
+        JobRun run = jobRunner.runIfLeased(job);
+
+        // Assert
+        assertNull(run);
+        verify(job, never()).run(any());
+        verifyNoInteractions(jobRunRepository);
+    }
+}
@@ -0,0 +1,87 @@
+package chargercontrol.userapi.lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class PortLockManagerTest {
+
+    @Test
+    void lock_SecondThreadWaitsUntilUnlockAndIsCountedAsContended() throws Exception {
+        // Arrange
+        PortLockManager portLockManager = new PortLockManager(8);
+        portLockManager.lock(1L);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean acquired = new AtomicBoolean();
+        Thread other = new Thread(() -> {
+            started.countDown();
+            portLockManager.lock(1L);
+            acquired.set(true);
+            portLockManager.unlock(1L);
+        });
+
+        // Act
+        other.start();
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertFalse(acquired.get());
+        portLockManager.unlock(1L);
+        other.join(1000);
+
+        // Assert
+        assertTrue(acquired.get());
+        assertEquals(2L, portLockManager.metrics().get("acquisitions"));
+        assertEquals(1L, portLockManager.metrics().get("contended"));
+    }
+
+    @Test
+    void lock_DifferentStripesDoNotBlockEachOther() throws Exception {
+        // Arrange: with 8 stripes, ports 1 and 2 land on different locks
+        PortLockManager portLockManager = new PortLockManager(8);
+        portLockManager.lock(1L);
+        AtomicBoolean acquired = new AtomicBoolean();
+
+        // Act
+        Thread other = new Thread(() -> {
+            portLockManager.lock(2L);
+            acquired.set(true);
+            portLockManager.unlock(2L);
+        });
+        other.start();
+        other.join(1000);
+        portLockManager.unlock(1L);
+
+        // Assert
+        assertTrue(acquired.get());
+        assertEquals(0L, portLockManager.metrics().get("contended"));
+    }
+
+    @Test
+    void unlockAfterCompletion_WithoutTransactionReleasesImmediately() throws Exception {
+        // Arrange
+        PortLockManager portLockManager = new PortLockManager(8);
+        portLockManager.lock(1L);
+
+        // Act
+        portLockManager.unlockAfterCompletion(1L);
+
+        // Assert: another thread can take the lock without waiting
+        Thread other = new Thread(() -> {
+            portLockManager.lock(1L);
+            portLockManager.unlock(1L);
+        });
+        other.start();
+        other.join(1000);
+        assertFalse(other.isAlive());
+        assertEquals(0L, portLockManager.metrics().get("contended"));
+    }
+
+    @Test
+    void constructor_RejectsNonPositiveStripeCount() {
+        assertThrows(IllegalArgumentException.class, () -> new PortLockManager(0));
+    }
+}
@@ -165,8 +165,9 @@ class BookSlotTest {
 
     @Test
     void testAllArgsConstructor() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
         BookSlot newBookSlot = new BookSlot(1L, user, chargingPort, car,
-            LocalDateTime.now().plusHours(1), 60, BookingStatus.PENDING);
+            start, 60, start.plusMinutes(60), BookingStatus.PENDING);
 
         assertNotNull(newBookSlot);
         assertEquals(1L, newBookSlot.getId());
@@ -174,6 +175,7 @@ class BookSlotTest {
         assertEquals(chargingPort, newBookSlot.getChargingPort());
         assertEquals(car, newBookSlot.getCar());
         assertEquals(60, newBookSlot.getDuration());
+        assertEquals(start.plusMinutes(60), newBookSlot.getEndTime());
         assertEquals(BookingStatus.PENDING, newBookSlot.getStatus());
     }
 
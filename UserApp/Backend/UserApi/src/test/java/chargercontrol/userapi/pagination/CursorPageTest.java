@@ -0,0 +1,50 @@
+package chargercontrol.userapi.pagination;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CursorPageTest {
+
+    @Test
+    void of_DropsProbeRowAndPointsCursorAtLastItem() {
+        // Act
+        CursorPage<Long> page = CursorPage.of(List.of(1L, 2L, 3L), 2, KeysetCursor::ofId);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), page.items());
+        assertEquals(KeysetCursor.ofId(2L), KeysetCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void of_LastPageHasNoCursor() {
+        // Act
+        CursorPage<Long> page = CursorPage.of(List.of(1L, 2L), 2, KeysetCursor::ofId);
+
+        // Assert
+        assertFalse(page.hasNext());
+        assertEquals(List.of(1L, 2L), page.items());
+    }
+
+    @Test
+    void clampLimit_AppliesDefaultAndMaximum() {
+        // Act & Assert
+        assertEquals(CursorPage.DEFAULT_LIMIT, CursorPage.clampLimit(null));
+        assertEquals(CursorPage.DEFAULT_LIMIT, CursorPage.clampLimit(0));
+        assertEquals(25, CursorPage.clampLimit(25));
+        assertEquals(CursorPage.MAX_LIMIT, CursorPage.clampLimit(CursorPage.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void keysetCursor_RoundTripsTimeAndId() {
+        // Arrange
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 6, 1, 10, 30, 15, 123_000_000), 42L);
+
+        // Act & Assert
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("garbage"));
+    }
+}
@@ -0,0 +1,214 @@
+package chargercontrol.userapi.pipeline;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import chargercontrol.userapi.event.BookingChangedEvent;
+import chargercontrol.userapi.index.BookingIntervalIndex;
+import chargercontrol.userapi.lock.PortLockManager;
+import chargercontrol.userapi.model.BookRequest;
+import chargercontrol.userapi.model.BookSlot;
+import chargercontrol.userapi.model.Car;
+import chargercontrol.userapi.model.ChargingPort;
+import chargercontrol.userapi.model.ChargingPortStatus;
+import chargercontrol.userapi.model.User;
+import chargercontrol.userapi.repository.BookSlotRepository;
+import chargercontrol.userapi.repository.CarRepository;
+import chargercontrol.userapi.repository.ChargingPortRepository;
+import chargercontrol.userapi.repository.UserRepository;
+import chargercontrol.userapi.service.BookSlotService;
+import chargercontrol.userapi.service.SlotReservationService;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPipelineTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private ChargingPortRepository chargingPortRepository;
+
+    @Mock
+    private BookSlotRepository bookSlotRepository;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private SlotReservationService slotReservationService;
+
+    @Mock
+    private BookSlotService bookSlotService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingPipeline bookingPipeline;
+
+    private ChargingPort port;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        bookingPipeline = new BookingPipeline(userRepository, carRepository, chargingPortRepository,
+                bookSlotRepository, bookingIntervalIndex, new PortLockManager(8), slotReservationService, bookSlotService, eventPublisher, jdbcTemplate,
+                transactionManager, false, 1, 16, 16, 1000);
+
+        port = new ChargingPort();
+        port.setId(10L);
+        port.setStatus(ChargingPortStatus.AVAILABLE);
+        start = LocalDateTime.now().plusDays(1);
+    }
+
+    private void stubBatchLookups() {
+        User user = new User();
+        user.setId(1L);
+        Car car = new Car();
+        car.setId(1L);
+        car.setOwner(user);
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(carRepository.findAllById(any())).thenReturn(List.of(car));
+        when(chargingPortRepository.findByStationIdAndStatus(1L, ChargingPortStatus.AVAILABLE))
+                .thenReturn(List.of(port));
+        when(bookingIntervalIndex.isFree(eq(10L), any(), any())).thenReturn(true);
+    }
+
+    @Test
+    void process_SecondOverlappingRequestInBatchIsRejected() throws Exception {
+        // Arrange: the insert returns one generated key
+        stubBatchLookups();
+        doAnswer(invocation -> {
+            KeyHolder keyHolder = invocation.getArgument(2);
+            keyHolder.getKeyList().add(Map.of("id", 100L));
+            return new int[] { 1 };
+        }).when(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        BookingPipeline.PendingBooking first = pending(start);
+        BookingPipeline.PendingBooking second = pending(start.plusMinutes(30));
+
+        // Act
+        bookingPipeline.process(List.of(first, second));
+
+        // Assert
+        assertEquals(100L, first.future().get().getId());
+        assertEquals(port, first.future().get().getChargingPort());
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> second.future().get());
+        assertTrue(rejected.getCause().getMessage().startsWith("No available slots"));
+        verify(slotReservationService).reserveAll(anyCollection());
+        verify(eventPublisher).publishEvent(any(BookingChangedEvent.class));
+    }
+
+    @Test
+    void process_OverlapInDatabase_RejectsRequestAndEvictsPort() {
+        // Arrange: the index thinks the port is free, but another instance booked it
+        stubBatchLookups();
+        when(bookSlotRepository.findOverlappingBookings(eq(10L), any(), any())).thenReturn(List.of(new BookSlot()));
+        BookingPipeline.PendingBooking pending = pending(start);
+
+        // Act
+        bookingPipeline.process(List.of(pending));
+
+        // Assert
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> pending.future().get());
+        assertTrue(rejected.getCause().getMessage().startsWith("No available slots"));
+        verify(bookingIntervalIndex).evict(10L);
+        verify(slotReservationService, never()).reserveAll(anyCollection());
+    }
+
+    @Test
+    void process_CancelledRequestIsNotBooked() {
+        // Arrange
+        BookingPipeline.PendingBooking pending = pending(start);
+        assertTrue(pending.future().cancel(false));
+
+        // Act
+        bookingPipeline.process(List.of(pending));
+
+        // Assert
+        assertTrue(pending.future().isCancelled());
+        verify(bookSlotRepository, never()).findOverlappingBookings(any(), any(), any());
+        verify(slotReservationService, never()).reserveAll(anyCollection());
+    }
+
+    @Test
+    void cancel_AfterWriterClaimedTheRequest_ReturnsFalse() {
+        // Arrange
+        BookingPipeline.PendingBooking pending = pending(start);
+
+        // Act
+        assertTrue(pending.future().claim());
+
+        // Assert
+        assertFalse(pending.future().cancel(false));
+        assertFalse(pending.future().isDone());
+    }
+
+    @Test
+    void process_BatchFailureFallsBackToIndividualBookings() throws Exception {
+        // Arrange
+        stubBatchLookups();
+        BookSlot fallbackBooking = new BookSlot();
+        fallbackBooking.setId(200L);
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class)))
+                .thenThrow(new RuntimeException("duplicate key"));
+        BookingPipeline.PendingBooking pending = pending(start);
+        when(bookSlotService.createBookingWithValidation(pending.request())).thenReturn(fallbackBooking);
+
+        // Act
+        bookingPipeline.process(List.of(pending));
+
+        // Assert
+        assertEquals(200L, pending.future().get().getId());
+        assertEquals(1L, bookingPipeline.metrics().get("fallbacks"));
+    }
+
+    @Test
+    void submit_WhenNotRunning_FailsImmediately() {
+        // Act
+        CompletableFuture<BookSlot> future = bookingPipeline.submit(pending(start).request());
+
+        // Assert
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    private BookingPipeline.PendingBooking pending(LocalDateTime startTime) {
+        BookRequest request = new BookRequest();
+        request.setUserId(1L);
+        request.setCarId(1L);
+        request.setStationId(1L);
+        request.setStartTime(startTime);
+        request.setDuration(60);
+        return new BookingPipeline.PendingBooking(request);
+    }
+}
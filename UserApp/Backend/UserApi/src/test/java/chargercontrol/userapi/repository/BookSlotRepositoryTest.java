@@ -3,21 +3,28 @@ package chargercontrol.userapi.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.test.context.TestPropertySource;
 
+import chargercontrol.userapi.dto.BookingStatusCount;
+import chargercontrol.userapi.dto.BookingSummaryDTO;
+import chargercontrol.userapi.dto.CarBookingCount;
+import chargercontrol.userapi.dto.MonthlyBookingCount;
 import chargercontrol.userapi.model.BookSlot;
 import chargercontrol.userapi.model.BookingStatus;
 import chargercontrol.userapi.model.Car;
 import chargercontrol.userapi.model.ChargingPort;
 import chargercontrol.userapi.model.ChargingPortStatus;
+import chargercontrol.userapi.model.ChargingType;
 import chargercontrol.userapi.model.Station;
 import chargercontrol.userapi.model.User;
 
@@ -59,6 +66,11 @@ class BookSlotRepositoryTest {
         // Create and persist test station
         testStation = new Station();
         testStation.setName("Test Station");
+        testStation.setLocation("Test Location");
+        testStation.setPower(50.0);
+        testStation.setLatitude(40.6405);
+        testStation.setLongitude(-8.6538);
+        testStation.setChargingType(ChargingType.AC);
         entityManager.persist(testStation);
 
         // Create and persist test charging port
@@ -74,16 +86,135 @@ class BookSlotRepositoryTest {
         testBookSlot.setUser(testUser);
         testBookSlot.setCar(testCar);
         testBookSlot.setChargingPort(testPort);
-        testBookSlot.setBookingTime(LocalDateTime.now().plusHours(1));
+        testBookSlot.setBookingTime(LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS));
         testBookSlot.setDuration(60); // 1 hour in minutes
         testBookSlot.setStatus(BookingStatus.PENDING);
 
         entityManager.flush();
     }
 
-   
+    @Test
+    void save_SetsEndTimeFromBookingTimeAndDuration() {
+        // Act
+        BookSlot saved = bookSlotRepository.saveAndFlush(testBookSlot);
 
+        // Assert
+        assertThat(saved.getEndTime()).isEqualTo(saved.getBookingTime().plusMinutes(60));
+    }
+
+    @Test
+    void findOverlappingBookings_ReturnsOnlyOverlappingBlockingBookings() {
+        // Arrange
+        LocalDateTime start = testBookSlot.getBookingTime();
+        entityManager.persistAndFlush(testBookSlot);
+
+        BookSlot cancelled = new BookSlot();
+        cancelled.setUser(testUser);
+        cancelled.setCar(testCar);
+        cancelled.setChargingPort(testPort);
+        cancelled.setBookingTime(start);
+        cancelled.setDuration(60);
+        cancelled.setStatus(BookingStatus.CANCELLED);
+        entityManager.persistAndFlush(cancelled);
+
+        // Act
+        List<BookSlot> overlapping = bookSlotRepository.findOverlappingBookings(
+                testPort.getId(), start.plusMinutes(30), start.plusMinutes(90));
+        List<BookSlot> touching = bookSlotRepository.findOverlappingBookings(
+                testPort.getId(), start.plusMinutes(60), start.plusMinutes(120));
+
+        // Assert
+        assertThat(overlapping).extracting(BookSlot::getId).containsExactly(testBookSlot.getId());
+        assertThat(touching).isEmpty();
+    }
 
+    @Test
+    void findSummariesByUserId_ReturnsPortAndCarFieldsNewestFirst() {
+        // Arrange
+        entityManager.persistAndFlush(testBookSlot);
+        BookSlot later = new BookSlot();
+        later.setUser(testUser);
+        later.setCar(testCar);
+        later.setChargingPort(testPort);
+        later.setBookingTime(testBookSlot.getBookingTime().plusDays(1));
+        later.setDuration(30);
+        later.setStatus(BookingStatus.PENDING);
+        entityManager.persistAndFlush(later);
+        entityManager.clear();
+
+        // Act
+        List<BookingSummaryDTO> summaries = bookSlotRepository.findSummariesByUserId(testUser.getId(),
+                PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(summaries).extracting(BookingSummaryDTO::getId).containsExactly(later.getId(), testBookSlot.getId());
+        BookingSummaryDTO summary = summaries.get(1);
+        assertThat(summary.getUserId()).isEqualTo(testUser.getId());
+        assertThat(summary.getEndTime()).isEqualTo(summary.getBookingTime().plusMinutes(60));
+        assertThat(summary.getChargingPort().getPortIdentifier()).isEqualTo("A01");
+        assertThat(summary.getChargingPort().getStationId()).isEqualTo(testStation.getId());
+        assertThat(summary.getCar().getModel()).isEqualTo("Model 3");
+    }
 
+    @Test
+    void findSummariesByUserIdBefore_ContinuesAfterCursorRow() {
+        // Arrange: two bookings at the same time, told apart by id
+        entityManager.persistAndFlush(testBookSlot);
+        BookSlot sameTime = new BookSlot();
+        sameTime.setUser(testUser);
+        sameTime.setCar(testCar);
+        sameTime.setChargingPort(testPort);
+        sameTime.setBookingTime(testBookSlot.getBookingTime());
+        sameTime.setDuration(30);
+        sameTime.setStatus(BookingStatus.CANCELLED);
+        entityManager.persistAndFlush(sameTime);
+
+        // Act
+        List<BookingSummaryDTO> firstPage = bookSlotRepository.findSummariesByUserId(testUser.getId(),
+                PageRequest.of(0, 1));
+        List<BookingSummaryDTO> nextPage = bookSlotRepository.findSummariesByUserIdBefore(testUser.getId(),
+                firstPage.get(0).getBookingTime(), firstPage.get(0).getId(), PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(firstPage).extracting(BookingSummaryDTO::getId).containsExactly(sameTime.getId());
+        assertThat(nextPage).extracting(BookingSummaryDTO::getId).containsExactly(testBookSlot.getId());
+    }
 
+    @Test
+    void countQueriesForUser_AggregateByStatusMonthAndCar() {
+        // Arrange: two PENDING bookings a month apart and one CANCELLED
+        LocalDateTime start = LocalDateTime.of(2030, 3, 10, 10, 0);
+        testBookSlot.setBookingTime(start);
+        entityManager.persistAndFlush(testBookSlot);
+        BookSlot nextMonth = new BookSlot();
+        nextMonth.setUser(testUser);
+        nextMonth.setCar(testCar);
+        nextMonth.setChargingPort(testPort);
+        nextMonth.setBookingTime(start.plusMonths(1));
+        nextMonth.setDuration(30);
+        nextMonth.setStatus(BookingStatus.PENDING);
+        entityManager.persistAndFlush(nextMonth);
+        BookSlot cancelled = new BookSlot();
+        cancelled.setUser(testUser);
+        cancelled.setCar(testCar);
+        cancelled.setChargingPort(testPort);
+        cancelled.setBookingTime(start.plusDays(1));
+        cancelled.setDuration(45);
+        cancelled.setStatus(BookingStatus.CANCELLED);
+        entityManager.persistAndFlush(cancelled);
+
+        // Act
+        List<BookingStatusCount> byStatus = bookSlotRepository.countByStatusForUser(testUser.getId());
+        List<MonthlyBookingCount> byMonth = bookSlotRepository.countByMonthForUser(testUser.getId());
+        List<CarBookingCount> byCar = bookSlotRepository.countByCarForUser(testUser.getId());
+
+        // Assert
+        assertThat(byStatus).containsExactlyInAnyOrder(
+                new BookingStatusCount(BookingStatus.PENDING, 2L, 90L, start.plusMonths(1)),
+                new BookingStatusCount(BookingStatus.CANCELLED, 1L, 45L, start.plusDays(1)));
+        assertThat(byMonth).containsExactly(
+                new MonthlyBookingCount(2030, 3, 2L),
+                new MonthlyBookingCount(2030, 4, 1L));
+        assertThat(byCar).containsExactly(new CarBookingCount(testCar.getId(), "Tesla", "Model 3", 3L));
+    }
 }
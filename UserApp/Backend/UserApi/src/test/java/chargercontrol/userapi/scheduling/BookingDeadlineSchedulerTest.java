@@ -0,0 +1,110 @@
+package chargercontrol.userapi.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import chargercontrol.userapi.event.BookingChangedEvent;
+import chargercontrol.userapi.model.BookingStatus;
+import chargercontrol.userapi.repository.BookSlotRepository;
+import chargercontrol.userapi.service.BookSlotService;
+
+@ExtendWith(MockitoExtension.class)
+class BookingDeadlineSchedulerTest {
+
+    @Mock
+    private BookSlotRepository bookSlotRepository;
+
+    @Mock
+    private BookSlotService bookSlotService;
+
+    private BookingDeadlineScheduler scheduler(int batchSize, int maxAttempts) {
+        return new BookingDeadlineScheduler(bookSlotRepository, bookSlotService, 15, 10, 64, batchSize, maxAttempts);
+    }
+
+    private static BookingChangedEvent pastPending(Long bookingId) {
+        return new BookingChangedEvent(bookingId, 1L, LocalDateTime.now().minusHours(2), 60, BookingStatus.PENDING);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void tick_AppliesDueBookingsInBatches() throws Exception {
+        // Arrange: three overdue bookings with batches of two
+        BookingDeadlineScheduler scheduler = scheduler(2, 3);
+        scheduler.onBookingChanged(pastPending(1L));
+        scheduler.onBookingChanged(pastPending(2L));
+        scheduler.onBookingChanged(pastPending(3L));
+        when(bookSlotService.applyDueTransitions(anyCollection(), any())).thenAnswer(
+                invocation -> ((Collection<Long>) invocation.getArgument(0)).size());
+
+        // Act: overdue deadlines fire on the next tick of the wheel (10 ms)
+        Thread.sleep(30);
+        scheduler.tick();
+
+        // Assert
+        ArgumentCaptor<Collection<Long>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(bookSlotService, times(2)).applyDueTransitions(batches.capture(), eq(scheduler.getNoShowGrace()));
+        assertEquals(List.of(2, 1), batches.getAllValues().stream().map(Collection::size).toList());
+        assertEquals(Set.of(1L, 2L, 3L), batches.getAllValues().stream()
+                .flatMap(Collection::stream).collect(Collectors.toSet()));
+        assertEquals(3L, scheduler.metrics().get("applied"));
+        verify(bookSlotService, never()).applyDueTransition(any(), any());
+    }
+
+    @Test
+    void tick_FailedBatch_RetriesBookingsOneByOne() throws Exception {
+        // Arrange
+        BookingDeadlineScheduler scheduler = scheduler(10, 3);
+        scheduler.onBookingChanged(pastPending(1L));
+        scheduler.onBookingChanged(pastPending(2L));
+        when(bookSlotService.applyDueTransitions(anyCollection(), any())).thenThrow(new RuntimeException("boom"));
+        when(bookSlotService.applyDueTransition(eq(1L), any())).thenReturn(true);
+        when(bookSlotService.applyDueTransition(eq(2L), any())).thenThrow(new RuntimeException("boom"));
+
+        // Act: overdue deadlines fire on the next tick of the wheel (10 ms)
+        Thread.sleep(30);
+        scheduler.tick();
+
+        // Assert: the healthy booking went through, the failing one waits for its retry
+        assertEquals(1L, scheduler.metrics().get("applied"));
+        assertEquals(1L, scheduler.metrics().get("retried"));
+        assertEquals(1, scheduler.metrics().get("scheduled"));
+    }
+
+    @Test
+    void tick_BookingKeepsFailing_GivesUpAfterMaxAttempts() throws Exception {
+        // Arrange
+        BookingDeadlineScheduler scheduler = scheduler(10, 2);
+        scheduler.onBookingChanged(pastPending(1L));
+        when(bookSlotService.applyDueTransitions(anyCollection(), any())).thenThrow(new RuntimeException("boom"));
+        when(bookSlotService.applyDueTransition(eq(1L), any())).thenThrow(new RuntimeException("boom"));
+
+        // Act: the retry is due two ticks (20 ms) after the first failure
+        Thread.sleep(30);
+        scheduler.tick();
+        Thread.sleep(60);
+        scheduler.tick();
+        Thread.sleep(60);
+        scheduler.tick();
+
+        // Assert
+        verify(bookSlotService, times(2)).applyDueTransition(eq(1L), any());
+        assertEquals(1L, scheduler.metrics().get("retried"));
+        assertEquals(1L, scheduler.metrics().get("abandoned"));
+        assertEquals(0, scheduler.metrics().get("scheduled"));
+    }
+}
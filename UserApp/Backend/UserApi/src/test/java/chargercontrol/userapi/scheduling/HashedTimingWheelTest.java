@@ -0,0 +1,87 @@
+package chargercontrol.userapi.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HashedTimingWheelTest {
+
+    private HashedTimingWheel<Long> wheel;
+
+    @BeforeEach
+    void setUp() {
+        // 8 slots of 100 ms starting at t = 0
+        wheel = new HashedTimingWheel<>(100, 8, 0);
+    }
+
+    @Test
+    void advance_FiresOnlyDeadlinesThatWereReached() {
+        // Arrange
+        wheel.schedule(1L, 250);
+        wheel.schedule(2L, 700);
+
+        // Act & Assert
+        assertTrue(wheel.advance(200).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(300));
+        assertTrue(wheel.advance(600).isEmpty());
+        assertEquals(List.of(2L), wheel.advance(700));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_KeepsDeadlinesMoreThanOneRevolutionAway() {
+        // Arrange: slot 2 again after a full revolution of 8 ticks
+        wheel.schedule(1L, 1_000);
+
+        // Act & Assert
+        assertTrue(wheel.advance(250).isEmpty());
+        assertTrue(wheel.advance(900).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(1_000));
+    }
+
+    @Test
+    void advance_LongPauseStillFiresEverythingDue() {
+        // Arrange
+        wheel.schedule(1L, 150);
+        wheel.schedule(2L, 450);
+        wheel.schedule(3L, 10_000);
+
+        // Act
+        List<Long> due = wheel.advance(5_000);
+
+        // Assert
+        assertEquals(2, due.size());
+        assertTrue(due.containsAll(List.of(1L, 2L)));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void schedule_ReplacesPreviousDeadlineAndPastDeadlinesFireNext() {
+        // Arrange
+        wheel.advance(1_000);
+        wheel.schedule(1L, 5_000);
+
+        // Act: rescheduled into the past
+        wheel.schedule(1L, 100);
+
+        // Assert
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(1L), wheel.advance(1_100));
+    }
+
+    @Test
+    void cancel_RemovesDeadline() {
+        // Arrange
+        wheel.schedule(1L, 300);
+
+        // Act
+        assertTrue(wheel.cancel(1L));
+
+        // Assert
+        assertFalse(wheel.cancel(1L));
+        assertTrue(wheel.advance(1_000).isEmpty());
+    }
+}
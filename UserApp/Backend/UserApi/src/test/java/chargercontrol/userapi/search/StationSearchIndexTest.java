@@ -0,0 +1,109 @@
+package chargercontrol.userapi.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import chargercontrol.userapi.catalog.CatalogSyncService;
+import chargercontrol.userapi.catalog.CatalogVersion;
+import chargercontrol.userapi.catalog.CatalogVersions;
+import chargercontrol.userapi.dto.CatalogChangesDTO;
+import chargercontrol.userapi.dto.CatalogChangesDTO.StationSummary;
+import chargercontrol.userapi.model.ChargingType;
+
+@ExtendWith(MockitoExtension.class)
+class StationSearchIndexTest {
+
+    @Mock
+    private CatalogSyncService catalogSyncService;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    private StationSearchIndex stationSearchIndex;
+    private StationSummary aveiro;
+    private StationSummary porto;
+
+    @BeforeEach
+    void setUp() {
+        stationSearchIndex = new StationSearchIndex(catalogSyncService, catalogVersions, 500);
+        aveiro = summary(1L, "Aveiro Centro", "Rua João Mendonça, Aveiro");
+        porto = summary(2L, "Porto Campanhã", "Avenida de Paiva Couceiro, Porto");
+    }
+
+    @Test
+    void search_LoadsWholeCatalogOnFirstUse() {
+        // Arrange
+        when(catalogSyncService.changesSince(0)).thenReturn(full(5L, aveiro, porto));
+
+        // Act
+        List<TextMatch<StationSummary>> first = stationSearchIndex.search("aveir", 10);
+        List<TextMatch<StationSummary>> second = stationSearchIndex.search("campanha", 10);
+
+        // Assert
+        assertEquals(aveiro, first.get(0).item());
+        assertEquals(List.of(porto), second.stream().map(TextMatch::item).toList());
+        verify(catalogSyncService, times(1)).changesSince(0);
+        assertEquals(5L, stationSearchIndex.metrics().get("version"));
+        assertEquals(2, stationSearchIndex.metrics().get("stations"));
+    }
+
+    @Test
+    void refresh_AppliesStationChangesOnlyWhenTheVersionMoved() {
+        // Arrange
+        when(catalogSyncService.changesSince(0)).thenReturn(full(5L, aveiro, porto));
+        stationSearchIndex.refresh();
+        StationSummary renamed = summary(2L, "Porto Boavista", "Avenida da Boavista, Porto");
+        when(catalogVersions.stations())
+                .thenReturn(new CatalogVersion(5L, null))
+                .thenReturn(new CatalogVersion(7L, null));
+        when(catalogSyncService.changesSince(5L)).thenReturn(
+                new CatalogChangesDTO(7L, false, false, List.of(renamed), List.of(), List.of(1L), List.of()));
+
+        // Act
+        stationSearchIndex.refresh();
+        stationSearchIndex.refresh();
+
+        // Assert
+        verify(catalogSyncService, times(1)).changesSince(5L);
+        assertTrue(stationSearchIndex.search("campanha", 10).isEmpty());
+        assertTrue(stationSearchIndex.search("aveiro", 10).isEmpty());
+        assertEquals(renamed, stationSearchIndex.search("boavista", 10).get(0).item());
+        assertEquals(7L, stationSearchIndex.metrics().get("version"));
+        assertEquals(1L, stationSearchIndex.metrics().get("stationsRemoved"));
+    }
+
+    @Test
+    void refresh_ReadsAgainWhileMoreChangesAreAvailable() {
+        // Arrange
+        when(catalogSyncService.changesSince(0)).thenReturn(full(5L, aveiro));
+        stationSearchIndex.refresh();
+        when(catalogVersions.stations()).thenReturn(new CatalogVersion(9L, null));
+        when(catalogSyncService.changesSince(5L)).thenReturn(
+                new CatalogChangesDTO(6L, false, true, List.of(porto), List.of(), List.of(), List.of()));
+        when(catalogSyncService.changesSince(6L)).thenReturn(
+                new CatalogChangesDTO(9L, false, false, List.of(), List.of(), List.of(), List.of()));
+
+        // Act
+        stationSearchIndex.refresh();
+
+        // Assert
+        assertEquals(porto, stationSearchIndex.search("porto", 10).get(0).item());
+        assertEquals(9L, stationSearchIndex.metrics().get("version"));
+    }
+
+    private static CatalogChangesDTO full(long version, StationSummary... stations) {
+        return new CatalogChangesDTO(version, true, false, List.of(stations), List.of(), List.of(), List.of());
+    }
+
+    private static StationSummary summary(Long id, String name, String location) {
+        return new StationSummary(id, name, location, 50.0, 40.6, -8.6, true, ChargingType.AC);
+    }
+}
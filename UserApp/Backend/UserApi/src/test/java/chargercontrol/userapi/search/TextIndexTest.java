@@ -0,0 +1,90 @@
+package chargercontrol.userapi.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TextIndexTest {
+
+    private TextIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TextIndex<>();
+        index.put(1L, "Aveiro Centro", "Rua João Mendonça, Aveiro", "aveiro");
+        index.put(2L, "Porto Campanhã", "Avenida de Paiva Couceiro, Porto", "porto");
+        index.put(3L, "Lisboa Oriente", "Parque das Nações, Lisboa", "lisboa");
+    }
+
+    @Test
+    void search_MatchesPrefixesAndIgnoresAccentsAndCase() {
+        // Act & Assert
+        assertEquals(List.of("lisboa"), items(index.search("ORIENTE lis", 10)));
+        assertEquals(List.of("lisboa"), items(index.search("nacoes", 10)));
+        assertEquals(List.of("porto"), items(index.search("Campanha", 10)));
+        assertEquals(List.of(), items(index.search("faro", 10)));
+        assertEquals(List.of(), items(index.search(" ,. ", 10)));
+    }
+
+    @Test
+    void search_ToleratesTypos() {
+        // Act & Assert: swapped letters, a missing letter and a typo in an unfinished word
+        assertEquals(List.of("aveiro"), items(index.search("aviero", 10)));
+        assertEquals(List.of("lisboa"), items(index.search("lisbao", 10)));
+        assertEquals(List.of("porto"), items(index.search("campnha", 10)));
+        assertEquals(List.of("lisboa"), items(index.search("orinet", 10)));
+        // Termos curtos não admitem erros
+        assertEquals(List.of(), items(index.search("lix", 10)));
+    }
+
+    @Test
+    void search_RequiresEveryTermAndRanksExactNameMatchesFirst() {
+        // Arrange
+        index.put(4L, "Avenida Central", "Braga", "avenida");
+
+        // Act
+        List<TextMatch<String>> matches = index.search("avenida", 10);
+
+        // Assert: name match before the location match, and both terms must match
+        assertEquals(List.of("avenida", "porto"), items(matches));
+        assertTrue(matches.get(0).score() > matches.get(1).score());
+        assertEquals(List.of("porto"), items(index.search("avenida porto", 10)));
+        assertEquals(1, index.search("avenida", 1).size());
+    }
+
+    @Test
+    void put_ReplacesAndRemoveForgetsTheOldTokens() {
+        // Act
+        index.put(2L, "Porto Boavista", "Avenida da Boavista, Porto", "boavista");
+        index.remove(3L);
+
+        // Assert
+        assertEquals(List.of(), items(index.search("campanha", 10)));
+        assertEquals(List.of("boavista"), items(index.search("boavista", 10)));
+        assertEquals(List.of(), items(index.search("oriente", 10)));
+        assertEquals(2, index.size());
+        assertEquals(List.of(), items(index.search("couceiro", 10)));
+    }
+
+    @Test
+    void editDistance_CountsSwapsAsOneEdit() {
+        // Act & Assert
+        assertEquals(1, TextIndex.editDistance("aviero", "aveiro", 2));
+        assertEquals(1, TextIndex.editDistance("lisbo", "lisboa", 2));
+        assertEquals(2, TextIndex.editDistance("kitten", "sitting", 1));
+        assertEquals(0, TextIndex.editDistance("porto", "porto", 0));
+    }
+
+    @Test
+    void normalize_StripsAccentsAndPunctuation() {
+        // Act & Assert
+        assertEquals("sao joao da madeira", TextIndex.normalize("  São João-da-Madeira! "));
+    }
+
+    private static List<String> items(List<TextMatch<String>> matches) {
+        return matches.stream().map(TextMatch::item).toList();
+    }
+}
@@ -3,6 +3,7 @@ package chargercontrol.userapi.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
@@ -14,10 +15,18 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import chargercontrol.userapi.dto.BookingSummaryDTO;
+import chargercontrol.userapi.event.BookingChangedEvent;
+import chargercontrol.userapi.index.BookingIntervalIndex;
+import chargercontrol.userapi.lock.PortLockManager;
 import chargercontrol.userapi.model.BookSlot;
 import chargercontrol.userapi.model.BookingStatus;
 import chargercontrol.userapi.model.Car;
@@ -25,6 +34,8 @@ import chargercontrol.userapi.model.ChargingPort;
 import chargercontrol.userapi.model.ChargingPortStatus;
 import chargercontrol.userapi.model.Station;
 import chargercontrol.userapi.model.User;
+import chargercontrol.userapi.pagination.CursorPage;
+import chargercontrol.userapi.pagination.KeysetCursor;
 import chargercontrol.userapi.repository.BookSlotRepository;
 import chargercontrol.userapi.repository.ChargingPortRepository;
 import chargercontrol.userapi.repository.UserRepository;
@@ -42,6 +53,21 @@ class BookSlotServiceTest {
     @Mock
     private ChargingPortRepository chargingPortRepository;
 
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private PortLockManager portLockManager;
+
+    @Mock
+    private SlotReservationService slotReservationService;
+
+    @Mock
+    private EnergyLedgerService energyLedgerService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookSlotService bookSlotService;
 
@@ -95,6 +121,7 @@ class BookSlotServiceTest {
         when(chargingPortRepository.findById(testPort.getId())).thenReturn(Optional.of(testPort));
         when(bookSlotRepository.findOverlappingBookings(any(), any(), any())).thenReturn(Collections.emptyList());
         when(bookSlotRepository.save(any(BookSlot.class))).thenReturn(testBookSlot);
+        when(slotReservationService.reserve(testBookSlot)).thenReturn(true);
 
         // Act
         BookSlot result = bookSlotService.createBooking(testBookSlot);
@@ -104,6 +131,11 @@ class BookSlotServiceTest {
         assertEquals(testBookSlot.getId(), result.getId());
         assertEquals(BookingStatus.PENDING, result.getStatus());
         verify(bookSlotRepository).save(any(BookSlot.class));
+        verify(eventPublisher).publishEvent(any(BookingChangedEvent.class));
+        verify(slotReservationService).reserve(testBookSlot);
+        verify(portLockManager).lock(testPort.getId());
+        verify(portLockManager).unlockAfterCompletion(testPort.getId());
+        verify(portLockManager, never()).unlock(any());
     }
 
     @Test
@@ -116,6 +148,27 @@ class BookSlotServiceTest {
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> bookSlotService.createBooking(testBookSlot));
+        verify(portLockManager).lock(testPort.getId());
+        verify(portLockManager).unlock(testPort.getId());
+        verify(bookingIntervalIndex).evict(testPort.getId());
+        verify(slotReservationService, never()).reserve(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void createBooking_BucketsAlreadyReserved_DeletesBookingAndThrows() {
+        // Arrange: another instance reserved the same buckets
+        when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
+        when(chargingPortRepository.findById(testPort.getId())).thenReturn(Optional.of(testPort));
+        when(bookSlotRepository.findOverlappingBookings(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(bookSlotRepository.save(any(BookSlot.class))).thenReturn(testBookSlot);
+        when(slotReservationService.reserve(testBookSlot)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> bookSlotService.createBooking(testBookSlot));
+        verify(bookSlotRepository).delete(testBookSlot);
+        verify(bookingIntervalIndex).evict(testPort.getId());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
@@ -145,6 +198,7 @@ class BookSlotServiceTest {
         when(chargingPortRepository.findById(testPort.getId())).thenReturn(Optional.of(testPort));
         when(bookSlotRepository.findOverlappingBookings(any(), any(), any())).thenReturn(Collections.emptyList());
         when(bookSlotRepository.save(any(BookSlot.class))).thenReturn(testBookSlot);
+        when(slotReservationService.reserve(testBookSlot)).thenReturn(true);
 
         // Act
         BookSlot result = bookSlotService.createBooking(testBookSlot);
@@ -161,6 +215,7 @@ class BookSlotServiceTest {
         when(chargingPortRepository.findById(testPort.getId())).thenReturn(Optional.of(testPort));
         when(bookSlotRepository.findOverlappingBookings(any(), any(), any())).thenReturn(Collections.emptyList());
         when(bookSlotRepository.save(any(BookSlot.class))).thenReturn(testBookSlot);
+        when(slotReservationService.reserve(testBookSlot)).thenReturn(true);
 
         // Act
         BookSlot result = bookSlotService.createBooking(testBookSlot);
@@ -182,19 +237,61 @@ class BookSlotServiceTest {
         assertEquals(testBookSlot.getId(), result.get().getId());
     }
 
+    private BookingSummaryDTO summary(Long id, LocalDateTime bookingTime) {
+        return new BookingSummaryDTO(id, testUser.getId(), bookingTime, 60, bookingTime.plusMinutes(60),
+                BookingStatus.PENDING, testPort.getId(), "A01", 1L, ChargingPortStatus.AVAILABLE, 1L, "Tesla",
+                "Model 3", "ELECTRIC");
+    }
+
     @Test
     void getBookingsByUserId_Success() {
         // Arrange
-        when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
-        when(bookSlotRepository.findByUser(testUser)).thenReturn(Arrays.asList(testBookSlot));
+        when(userRepository.existsById(testUser.getId())).thenReturn(true);
+        when(bookSlotRepository.findSummariesByUserId(eq(testUser.getId()), any(Pageable.class)))
+                .thenReturn(Arrays.asList(summary(testBookSlot.getId(), testBookSlot.getBookingTime())));
 
         // Act
-        List<BookSlot> result = bookSlotService.getBookingsByUserId(testUser.getId());
+        CursorPage<BookingSummaryDTO> result = bookSlotService.getBookingsByUserId(testUser.getId(), null, 10);
 
         // Assert
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        assertEquals(testBookSlot.getId(), result.get(0).getId());
+        assertEquals(1, result.items().size());
+        assertEquals(testBookSlot.getId(), result.items().get(0).getId());
+        assertEquals(testPort.getId(), result.items().get(0).getChargingPort().getId());
+        assertFalse(result.hasNext());
+        verify(bookSlotRepository, never()).findByUser(any());
+    }
+
+    @Test
+    void getBookingsByUserId_MoreRowsThanLimit_ReturnsCursorOfLastItem() {
+        // Arrange: the repository is asked for limit + 1 rows
+        LocalDateTime time = LocalDateTime.now().plusDays(1).withNano(0);
+        when(userRepository.existsById(testUser.getId())).thenReturn(true);
+        when(bookSlotRepository.findSummariesByUserId(eq(testUser.getId()), eq(PageRequest.of(0, 3))))
+                .thenReturn(Arrays.asList(summary(5L, time), summary(4L, time.minusHours(1)), summary(3L, time.minusHours(2))));
+        when(bookSlotRepository.findSummariesByUserIdBefore(testUser.getId(), time.minusHours(1), 4L, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(summary(3L, time.minusHours(2))));
+
+        // Act
+        CursorPage<BookingSummaryDTO> first = bookSlotService.getBookingsByUserId(testUser.getId(), null, 2);
+        CursorPage<BookingSummaryDTO> second = bookSlotService.getBookingsByUserId(testUser.getId(),
+                KeysetCursor.decode(first.nextCursor()), 2);
+
+        // Assert
+        assertEquals(2, first.items().size());
+        assertTrue(first.hasNext());
+        assertEquals(1, second.items().size());
+        assertEquals(3L, second.items().get(0).getId());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void getBookingsByUserId_UnknownUser_ThrowsEntityNotFound() {
+        // Arrange
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> bookSlotService.getBookingsByUserId(99L, null, 10));
+        verify(bookSlotRepository, never()).findSummariesByUserId(any(), any());
     }
 
     @Test
@@ -253,20 +350,22 @@ class BookSlotServiceTest {
 
 
     @Test
-    void updateBookingStatus_FromActiveToCompleted_CalculatesEnergyUsed() {
+    void updateBookingStatus_FromActiveToCompleted_RecordsEnergyInLedger() {
         // Arrange
         testBookSlot.setStatus(BookingStatus.ACTIVE);
         testBookSlot.setDuration(60); // 1 hour
-        double initialEnergyUsed = testPort.getEnergyUsed();
+        testPort.setStatus(ChargingPortStatus.OCCUPIED);
         when(bookSlotRepository.findById(testBookSlot.getId())).thenReturn(Optional.of(testBookSlot));
         when(bookSlotRepository.save(any(BookSlot.class))).thenReturn(testBookSlot);
 
         // Act
         BookSlot result = bookSlotService.updateBookingStatus(testBookSlot.getId(), BookingStatus.COMPLETED);
 
-        // Assert
+        // Assert: energy goes to the ledger, the port total is left to the rollup
         assertEquals(BookingStatus.COMPLETED, result.getStatus());
-        assertEquals(initialEnergyUsed + 7.0, result.getChargingPort().getEnergyUsed());
+        assertEquals(ChargingPortStatus.AVAILABLE, testPort.getStatus());
+        assertEquals(0.0, testPort.getEnergyUsed());
+        verify(energyLedgerService).record(testBookSlot);
     }
 
     @Test
@@ -347,6 +446,7 @@ class BookSlotServiceTest {
 
         // Assert
         verify(bookSlotRepository).save(any(BookSlot.class));
+        verify(slotReservationService).release(testBookSlot.getId());
     }
 
     @Test
@@ -374,11 +474,12 @@ class BookSlotServiceTest {
     @Test
     void getBookingsByChargingPortId_Success() {
         // Arrange
-        when(chargingPortRepository.findById(testPort.getId())).thenReturn(Optional.of(testPort));
-        when(bookSlotRepository.findByChargingPort(testPort)).thenReturn(Arrays.asList(testBookSlot));
+        when(chargingPortRepository.existsById(testPort.getId())).thenReturn(true);
+        when(bookSlotRepository.findSummariesByChargingPortId(testPort.getId()))
+                .thenReturn(List.of(summary(testBookSlot.getId(), testBookSlot.getBookingTime())));
 
         // Act
-        List<BookSlot> result = bookSlotService.getBookingsByChargingPortId(testPort.getId());
+        List<BookingSummaryDTO> result = bookSlotService.getBookingsByChargingPortId(testPort.getId());
 
         // Assert
         assertFalse(result.isEmpty());
@@ -404,4 +505,128 @@ class BookSlotServiceTest {
         assertEquals(1, result.size());
         assertEquals(testBookSlot.getId(), result.get(0).getId());
     }
+
+    @Test
+    void getFreeChargingPortIds_AsksIndexForAvailablePorts() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.now().plusHours(2);
+        when(chargingPortRepository.findByStationIdAndStatus(testStation.getId(), ChargingPortStatus.AVAILABLE))
+                .thenReturn(Arrays.asList(testPort));
+        when(bookingIntervalIndex.findFreePorts(List.of(testPort.getId()), start, start.plusMinutes(30)))
+                .thenReturn(List.of(testPort.getId()));
+
+        // Act
+        List<Long> result = bookSlotService.getFreeChargingPortIds(testStation.getId(), start, 30);
+
+        // Assert
+        assertEquals(List.of(testPort.getId()), result);
+    }
+
+    @Test
+    void getFreeBusy_UnknownPort_ThrowsException() {
+        // Arrange
+        when(chargingPortRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> bookSlotService.getFreeBusy(99L,
+                LocalDateTime.now(), LocalDateTime.now().plusHours(1)));
+        verifyNoInteractions(bookingIntervalIndex);
+    }
+
+    @Test
+    void applyDueTransition_ExpiresNoShow() {
+        // Arrange: a PENDING booking that started 20 minutes ago
+        testBookSlot.setBookingTime(LocalDateTime.now().minusMinutes(20));
+        testBookSlot.setStatus(BookingStatus.PENDING);
+        when(bookSlotRepository.findById(1L)).thenReturn(Optional.of(testBookSlot));
+        when(bookSlotRepository.updateStatusIf(1L, BookingStatus.PENDING, BookingStatus.EXPIRED)).thenReturn(1);
+
+        // Act
+        boolean applied = bookSlotService.applyDueTransition(1L, java.time.Duration.ofMinutes(15));
+
+        // Assert: the entity is left untouched so the flush does not re-validate it
+        assertTrue(applied);
+        assertEquals(BookingStatus.PENDING, testBookSlot.getStatus());
+        verify(energyLedgerService, never()).record(any());
+        verify(slotReservationService).release(1L);
+        ArgumentCaptor<BookingChangedEvent> event = ArgumentCaptor.forClass(BookingChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(BookingStatus.EXPIRED, event.getValue().status());
+    }
+
+    @Test
+    void applyDueTransition_CompletesFinishedBooking() {
+        // Arrange: an ACTIVE booking that just ended
+        testBookSlot.setBookingTime(LocalDateTime.now().minusMinutes(61));
+        testBookSlot.setStatus(BookingStatus.ACTIVE);
+        when(bookSlotRepository.findById(1L)).thenReturn(Optional.of(testBookSlot));
+        when(bookSlotRepository.updateStatusIf(1L, BookingStatus.ACTIVE, BookingStatus.COMPLETED)).thenReturn(1);
+
+        // Act
+        boolean applied = bookSlotService.applyDueTransition(1L, java.time.Duration.ofMinutes(15));
+
+        // Assert
+        assertTrue(applied);
+        assertEquals(BookingStatus.ACTIVE, testBookSlot.getStatus());
+        verify(energyLedgerService).record(testBookSlot);
+        ArgumentCaptor<BookingChangedEvent> event = ArgumentCaptor.forClass(BookingChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(BookingStatus.COMPLETED, event.getValue().status());
+    }
+
+    @Test
+    void applyDueTransitions_LoadsBookingsTogetherAndCountsApplied() {
+        // Arrange: one no-show and one booking still inside the grace period
+        testBookSlot.setBookingTime(LocalDateTime.now().minusMinutes(20));
+        BookSlot notDue = new BookSlot();
+        notDue.setId(2L);
+        notDue.setChargingPort(testPort);
+        notDue.setBookingTime(LocalDateTime.now().minusMinutes(5));
+        notDue.setDuration(60);
+        notDue.setStatus(BookingStatus.PENDING);
+        when(bookSlotRepository.findByIdIn(List.of(1L, 2L))).thenReturn(List.of(testBookSlot, notDue));
+        when(bookSlotRepository.updateStatusIf(1L, BookingStatus.PENDING, BookingStatus.EXPIRED)).thenReturn(1);
+
+        // Act
+        int applied = bookSlotService.applyDueTransitions(List.of(1L, 2L), java.time.Duration.ofMinutes(15));
+
+        // Assert
+        assertEquals(1, applied);
+        verify(bookSlotRepository, never()).findById(any());
+        verify(bookSlotRepository, never()).updateStatusIf(eq(2L), any(), any());
+        verify(slotReservationService).release(1L);
+    }
+
+    @Test
+    void applyDueTransition_AppliedByAnotherInstance_DoesNothing() {
+        // Arrange: the conditional update finds the booking already moved on
+        testBookSlot.setBookingTime(LocalDateTime.now().minusMinutes(61));
+        testBookSlot.setStatus(BookingStatus.ACTIVE);
+        when(bookSlotRepository.findById(1L)).thenReturn(Optional.of(testBookSlot));
+        when(bookSlotRepository.updateStatusIf(1L, BookingStatus.ACTIVE, BookingStatus.COMPLETED)).thenReturn(0);
+
+        // Act
+        boolean applied = bookSlotService.applyDueTransition(1L, java.time.Duration.ofMinutes(15));
+
+        // Assert
+        assertFalse(applied);
+        assertEquals(BookingStatus.ACTIVE, testBookSlot.getStatus());
+        verify(energyLedgerService, never()).record(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void applyDueTransition_SkipsBookingThatIsNotDueYet() {
+        // Arrange: started 5 minutes ago, still inside the no-show grace period
+        testBookSlot.setBookingTime(LocalDateTime.now().minusMinutes(5));
+        when(bookSlotRepository.findById(1L)).thenReturn(Optional.of(testBookSlot));
+
+        // Act
+        boolean applied = bookSlotService.applyDueTransition(1L, java.time.Duration.ofMinutes(15));
+
+        // Assert
+        assertFalse(applied);
+        assertEquals(BookingStatus.PENDING, testBookSlot.getStatus());
+        verify(bookSlotRepository, never()).updateStatusIf(any(), any(), any());
+    }
 }
@@ -14,8 +14,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import chargercontrol.userapi.coalescing.SingleFlights;
+import chargercontrol.userapi.event.ChargingPortChangedEvent;
 import chargercontrol.userapi.model.ChargingPort;
 import chargercontrol.userapi.model.ChargingPortStatus;
 import chargercontrol.userapi.model.Station;
@@ -32,6 +36,12 @@ class ChargingPortServiceTest {
     @Mock
     private StationRepository stationRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private SingleFlights singleFlights = new SingleFlights();
+
     @InjectMocks
     private ChargingPortService chargingPortService;
 
@@ -135,6 +145,8 @@ class ChargingPortServiceTest {
 
         assertEquals(ChargingPortStatus.CHARGING, result.getStatus());
         verify(chargingPortRepository).save(any(ChargingPort.class));
+        verify(eventPublisher).publishEvent(
+                new ChargingPortChangedEvent(testPort.getId(), testStation.getId(), ChargingPortStatus.CHARGING));
     }
 
     @Test
@@ -181,4 +193,14 @@ class ChargingPortServiceTest {
         assertEquals(Double.MAX_VALUE, result.getEnergyUsed());
     }
 
+    @Test
+    void getTotalEnergyUsedByStation_ReadsAggregate() {
+        when(chargingPortRepository.sumEnergyUsedByStationId(testStation.getId())).thenReturn(42.5);
+
+        Double result = chargingPortService.getTotalEnergyUsedByStation(testStation.getId());
+
+        assertEquals(42.5, result);
+        verify(chargingPortRepository, never()).findByStationId(any());
+    }
+
 }
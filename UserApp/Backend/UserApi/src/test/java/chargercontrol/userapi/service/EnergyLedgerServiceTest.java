@@ -0,0 +1,146 @@
+package chargercontrol.userapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import chargercontrol.userapi.catalog.CatalogChangeListener;
+import chargercontrol.userapi.model.BookSlot;
+import chargercontrol.userapi.model.ChargingPort;
+import chargercontrol.userapi.model.EnergyLedgerEntry;
+import chargercontrol.userapi.model.Station;
+import chargercontrol.userapi.repository.ChargingPortRepository;
+import chargercontrol.userapi.repository.EnergyLedgerRepository;
+
+@ExtendWith(MockitoExtension.class)
+class EnergyLedgerServiceTest {
+
+    @Mock
+    private EnergyLedgerRepository energyLedgerRepository;
+
+    @Mock
+    private ChargingPortRepository chargingPortRepository;
+
+    @Mock
+    private CatalogChangeListener catalogChangeListener;
+
+    @InjectMocks
+    private EnergyLedgerService energyLedgerService;
+
+    private Station testStation;
+    private BookSlot testBookSlot;
+
+    @BeforeEach
+    void setUp() {
+        testStation = new Station();
+        testStation.setId(3L);
+        testStation.setPower(22.0);
+
+        ChargingPort port = new ChargingPort();
+        port.setId(2L);
+        port.setStation(testStation);
+
+        testBookSlot = new BookSlot();
+        testBookSlot.setId(1L);
+        testBookSlot.setChargingPort(port);
+        testBookSlot.setDuration(30);
+    }
+
+    @Test
+    void record_UsesStationPower() {
+        // Arrange
+        when(energyLedgerRepository.existsByBookSlotId(1L)).thenReturn(false);
+        when(energyLedgerRepository.save(any(EnergyLedgerEntry.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        EnergyLedgerEntry entry = energyLedgerService.record(testBookSlot);
+
+        // Assert: 30 minutes at 22 kW
+        assertEquals(11.0, entry.getEnergyKwh(), 1e-9);
+        assertEquals(22.0, entry.getPowerKw());
+        assertEquals(2L, entry.getChargingPortId());
+        assertEquals(3L, entry.getStationId());
+        assertFalse(entry.isRolledUp());
+        verifyNoInteractions(chargingPortRepository);
+    }
+
+    @Test
+    void record_StationWithoutPower_FallsBackToDefault() {
+        // Arrange
+        testStation.setPower(null);
+        testBookSlot.setDuration(60);
+        when(energyLedgerRepository.existsByBookSlotId(1L)).thenReturn(false);
+        when(energyLedgerRepository.save(any(EnergyLedgerEntry.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        EnergyLedgerEntry entry = energyLedgerService.record(testBookSlot);
+
+        // Assert
+        assertEquals(EnergyLedgerService.DEFAULT_POWER_KW, entry.getEnergyKwh(), 1e-9);
+    }
+
+    @Test
+    void record_AlreadyRecorded_DoesNothing() {
+        // Arrange
+        when(energyLedgerRepository.existsByBookSlotId(1L)).thenReturn(true);
+
+        // Act
+        EnergyLedgerEntry entry = energyLedgerService.record(testBookSlot);
+
+        // Assert
+        assertNull(entry);
+        verify(energyLedgerRepository, never()).save(any());
+    }
+
+    @Test
+    void rollup_AddsEnergyPerPortAndMarksEntries() {
+        // Arrange: two sessions on port 5, one on port 2
+        List<EnergyLedgerEntry> pending = List.of(
+                entry(10L, 5L, 7.0), entry(11L, 2L, 11.0), entry(12L, 5L, 3.5));
+        when(energyLedgerRepository.findPendingRollup(PageRequest.of(0, 100))).thenReturn(pending);
+
+        // Act
+        int rolledUp = energyLedgerService.rollup(100);
+
+        // Assert: one increment per port, in port id order
+        assertEquals(3, rolledUp);
+        InOrder inOrder = inOrder(chargingPortRepository, energyLedgerRepository);
+        inOrder.verify(chargingPortRepository).addEnergyUsed(2L, 11.0);
+        inOrder.verify(chargingPortRepository).addEnergyUsed(5L, 10.5);
+        inOrder.verify(energyLedgerRepository).markRolledUp(List.of(10L, 11L, 12L));
+        verify(catalogChangeListener).recordPortChange(2L, 3L);
+        verify(catalogChangeListener).recordPortChange(5L, 3L);
+    }
+
+    @Test
+    void rollup_NothingPending_ReturnsZero() {
+        // Arrange
+        when(energyLedgerRepository.findPendingRollup(any())).thenReturn(Collections.emptyList());
+
+        // Act
+        int rolledUp = energyLedgerService.rollup(100);
+
+        // Assert
+        assertEquals(0, rolledUp);
+        verify(chargingPortRepository, never()).addEnergyUsed(anyLong(), anyDouble());
+        verify(energyLedgerRepository, never()).markRolledUp(any());
+    }
+
+    private static EnergyLedgerEntry entry(Long id, Long portId, double energyKwh) {
+        return new EnergyLedgerEntry(id, id + 100, portId, 3L, 7.0, 60, energyKwh, null, false);
+    }
+}
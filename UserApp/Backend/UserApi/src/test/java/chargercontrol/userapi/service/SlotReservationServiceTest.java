@@ -0,0 +1,147 @@
+package chargercontrol.userapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import chargercontrol.userapi.model.BookSlot;
+import chargercontrol.userapi.model.ChargingPort;
+import chargercontrol.userapi.repository.PortSlotReservationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class SlotReservationServiceTest {
+
+    @Mock
+    private PortSlotReservationRepository reservationRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SlotReservationService slotReservationService;
+
+    private BookSlot booking;
+
+    @BeforeEach
+    void setUp() {
+        slotReservationService = new SlotReservationService(reservationRepository, jdbcTemplate, 5);
+
+        ChargingPort port = new ChargingPort();
+        port.setId(7L);
+        booking = new BookSlot();
+        booking.setId(42L);
+        booking.setChargingPort(port);
+        booking.setBookingTime(LocalDateTime.of(2030, 1, 1, 10, 2));
+        booking.setDuration(13);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void reserve_InsertsOneRowPerBucketTouchedByTheBooking() {
+        // Act: 10:02 - 10:15 touches the 10:00, 10:05 and 10:10 buckets
+        boolean reserved = slotReservationService.reserve(booking);
+
+        // Assert
+        assertTrue(reserved);
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(List.of(Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 10, 0)),
+                        Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 10, 5)),
+                        Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 10, 10))),
+                rows.getValue().stream().map(row -> row[1]).toList());
+        assertEquals(7L, rows.getValue().get(0)[0]);
+        assertEquals(42L, rows.getValue().get(0)[2]);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void reserve_BackToBackBookingsDoNotShareBuckets() {
+        // Arrange: 10:15 - 10:22 right after 10:02 - 10:15
+        BookSlot next = new BookSlot();
+        next.setId(43L);
+        next.setChargingPort(booking.getChargingPort());
+        next.setBookingTime(LocalDateTime.of(2030, 1, 1, 10, 15));
+        next.setDuration(7);
+
+        // Act
+        slotReservationService.reserve(booking);
+        slotReservationService.reserve(next);
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), rows.capture());
+        assertEquals(Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 10, 10)), rows.getAllValues().get(0).get(2)[1]);
+        assertEquals(List.of(Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 10, 15)),
+                        Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 10, 20))),
+                rows.getAllValues().get(1).stream().map(row -> row[1]).toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void reserve_OverlapShorterThanOneBucket_SharesTheEdgeBucket() {
+        // Arrange: 10:13 - 10:14 overlaps the end of 10:02 - 10:15 by one minute
+        BookSlot overlapping = new BookSlot();
+        overlapping.setId(43L);
+        overlapping.setChargingPort(booking.getChargingPort());
+        overlapping.setBookingTime(LocalDateTime.of(2030, 1, 1, 10, 13));
+        overlapping.setDuration(1);
+
+        // Act
+        slotReservationService.reserve(booking);
+        slotReservationService.reserve(overlapping);
+
+        // Assert: both claim the 10:10 bucket, so the unique key rejects the second
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), rows.capture());
+        Timestamp edge = Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 10, 10));
+        assertTrue(rows.getAllValues().get(0).stream().anyMatch(row -> edge.equals(row[1])));
+        assertEquals(List.of(edge), rows.getAllValues().get(1).stream().map(row -> row[1]).toList());
+    }
+
+    @Test
+    void reserve_DuplicateBucket_RemovesPartialRowsAndReturnsFalse() {
+        // Arrange
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DuplicateKeyException("duplicate"));
+
+        // Act
+        boolean reserved = slotReservationService.reserve(booking);
+
+        // Assert
+        assertFalse(reserved);
+        verify(reservationRepository).deleteByBookSlotIds(List.of(42L));
+    }
+
+    @Test
+    void reserveAll_DuplicateBucket_ThrowsRuntimeException() {
+        // Arrange
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DuplicateKeyException("duplicate"));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> slotReservationService.reserveAll(List.of(booking)));
+    }
+
+    @Test
+    void release_DeletesAllBucketsOfTheBookingsInOneStatement() {
+        // Act
+        slotReservationService.release(List.of(1L, 2L, 3L));
+        slotReservationService.release(List.of());
+
+        // Assert
+        verify(reservationRepository, times(1)).deleteByBookSlotIds(eq(List.of(1L, 2L, 3L)));
+        verifyNoMoreInteractions(reservationRepository);
+    }
+}
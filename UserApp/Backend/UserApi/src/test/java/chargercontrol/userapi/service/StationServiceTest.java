@@ -1,5 +1,6 @@
 package chargercontrol.userapi.service;
 
+import chargercontrol.userapi.coalescing.SingleFlights;
 import chargercontrol.userapi.model.ChargingPort;
 import chargercontrol.userapi.model.ChargingPortStatus;
 import chargercontrol.userapi.model.Station;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,6 +28,9 @@ class StationServiceTest {
     @Mock
     private StationRepository stationRepository; // Mock the dependency
 
+    @Spy
+    private SingleFlights singleFlights = new SingleFlights();
+
     @InjectMocks
     private StationService stationService; // Inject mocks into the service under test
 
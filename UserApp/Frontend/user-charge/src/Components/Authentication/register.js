@@ -1,9 +1,10 @@
-import React, { useState } from 'react';
+import React, { useRef, useState } from 'react';
 import {
 Box, Button, TextField, Typography, IconButton, InputAdornment, Paper, Container
 } from '@mui/material';
 import { Visibility, VisibilityOff, ElectricCar } from '@mui/icons-material';
 import { ThemeProvider, createTheme, styled } from '@mui/material/styles';
+import { newIdempotencyKey } from '../../idempotencyKey';
 
 // Tema personalizado (mesmo da navbar)
 const theme = createTheme({
@@ -83,6 +84,8 @@ function Register() {
   const [showPassword, setShowPassword] = useState(false);
   const [showConfirmPassword, setShowConfirmPassword] = useState(false);
   const [error, setError] = useState(null);
+  // Reenvios do mesmo formulário usam a mesma chave e recebem o registo original
+  const idempotencyKey = useRef(newIdempotencyKey());
 
   const handleSubmit = async (e) => {
     e.preventDefault();
@@ -96,7 +99,7 @@ function Register() {
     try {
       const response = await fetch("http://192.168.160.7:8080/apiV1/user/register", {
         method: "POST",
-        headers: { "Content-Type": "application/json" },
+        headers: { "Content-Type": "application/json", "Idempotency-Key": idempotencyKey.current },
         body: JSON.stringify({ name, email, password }),
       });
 
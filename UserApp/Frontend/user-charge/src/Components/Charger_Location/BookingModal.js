@@ -20,6 +20,8 @@ import { LocalizationProvider } from '@mui/x-date-pickers/LocalizationProvider';
 import { AdapterDateFns } from '@mui/x-date-pickers/AdapterDateFns';
 import { BatteryChargingFull, Schedule, Power } from '@mui/icons-material';
 import PaymentModal from './PaymentModal'; // Ajuste o caminho conforme necessário
+import { newIdempotencyKey } from '../../idempotencyKey';
+import { findInPages } from '../../pagination';
 
 function BookingModal({ open, onClose, station }) {
   const [startTime, setStartTime] = useState(new Date());
@@ -122,6 +124,8 @@ function BookingModal({ open, onClose, station }) {
   // Function to make HTTP requests with automatic retry (same as Cars.js)
   const makeAPIRequest = async (configs, userId = null, method = 'GET', body = null) => {
     const token = getAuthToken();
+    // A mesma chave em todas as tentativas: o backend devolve a resposta original em vez de repetir o POST
+    const idempotencyKey = method === 'POST' ? newIdempotencyKey() : null;
     
     for (const config of configs) {
       try {
@@ -138,6 +142,10 @@ function BookingModal({ open, onClose, station }) {
           }
         };
 
+        if (idempotencyKey) {
+          requestOptions.headers['Idempotency-Key'] = idempotencyKey;
+        }
+
         if (body && (method === 'POST' || method === 'PUT')) {
           requestOptions.body = JSON.stringify(body);
         }
@@ -152,7 +160,7 @@ function BookingModal({ open, onClose, station }) {
           const contentType = response.headers.get('content-type');
           if (contentType && contentType.includes('application/json')) {
             const data = await response.json();
-            return { data, config, url };
+            return { data, config, url, nextCursor: response.headers.get('X-Next-Cursor') };
           }
         } else {
           // Log error details and throw with response info
@@ -204,11 +212,11 @@ function BookingModal({ open, onClose, station }) {
         throw new Error('Email not found in token');
       }
 
-      const { data: users, config } = await makeAPIRequest(API_CONFIGS.users);
+      const { data: users, config, url, nextCursor } = await makeAPIRequest(API_CONFIGS.users);
       
       setApiConfig(prev => ({ ...prev, users: config }));
       
-      const currentUser = users.find(user => 
+      const currentUser = await findInPages(users, nextCursor, url, token, user =>
         user.email === userEmail || 
         user.username === userEmail ||
         user.sub === userEmail
@@ -1,7 +1,7 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import {
   Box, Button, TextField, Typography, IconButton, InputAdornment, Paper, Link, Container,
-  Dialog, DialogTitle, DialogContent, DialogActions, Chip, CircularProgress, Alert, MenuItem, Select, FormControl, InputLabel,
+  Dialog, DialogTitle, DialogContent, DialogActions, Chip, Alert, MenuItem, Select, FormControl, InputLabel,
   Card, CardContent, CardActions, List, ListItem, Divider
 } from '@mui/material';
 import { Visibility, VisibilityOff, ElectricCar, Power, LocationOn, Info, Search, Navigation } from '@mui/icons-material';
@@ -10,6 +10,8 @@ import { ThemeProvider, createTheme, styled } from '@mui/material/styles';
 import L from 'leaflet';
 import 'leaflet/dist/leaflet.css';
 import BookingModal from './BookingModal';
+import StationClusters from './StationClusters';
+import { openAvailabilitySocket } from '../../availabilitySocket';
 
 
 // Tema personalizado para consistência com a navbar
@@ -226,7 +228,7 @@ const userLocationIcon = new L.Icon({
 
 function Map() {
   const [stations, setStations] = useState([]);
-  const [loading, setLoading] = useState(true);
+  const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
   const [selectedStation, setSelectedStation] = useState(null);
   const [dialogOpen, setDialogOpen] = useState(false);
@@ -238,6 +240,11 @@ function Map() {
   const [bookingModalOpen, setBookingModalOpen] = useState(false);
   const [searchTerm, setSearchTerm] = useState('');
   const [hoveredStation, setHoveredStation] = useState(null);
+  const availabilitySocket = useRef(null);
+  // Estações que o servidor devolveu sozinhas no seu cluster; null sem clusters ativos
+  const [clusterStations, setClusterStations] = useState([]);
+  const stationsRequested = useRef(false);
+  const clustering = !searchTerm && clusterStations !== null;
 
   // Componente para lidar com centralização do mapa na localização do usuário (apenas uma vez)
   const LocationMarker = ({ userLocation }) => {
@@ -292,8 +299,13 @@ function Map() {
     }
   }, []);
 
-  // Buscar estações da API (removidos valores estáticos)
+  // Buscar a lista completa de estações só quando é precisa: para pesquisar, ou se os clusters falharem
   useEffect(() => {
+    if (clustering || stationsRequested.current) {
+      return;
+    }
+    stationsRequested.current = true;
+
     const fetchStations = async () => {
       try {
         setLoading(true);
@@ -310,13 +322,14 @@ function Map() {
         console.error('Error fetching stations:', err);
         setError('Error loading charging stations. Please check if the API is running.');
         setStations([]); // Array vazio em caso de erro
+        stationsRequested.current = false;
       } finally {
         setLoading(false);
       }
     };
 
     fetchStations();
-  }, []);
+  }, [clustering]);
 
   // Buscar carros da API
   useEffect(() => {
@@ -374,7 +387,7 @@ function Map() {
 
   // Filtrar e ordenar estações
   const filteredAndSortedStations = React.useMemo(() => {
-    let filtered = stations.filter(station =>
+    let filtered = (clustering ? clusterStations : stations).filter(station =>
       station.name.toLowerCase().includes(searchTerm.toLowerCase()) ||
       station.location.toLowerCase().includes(searchTerm.toLowerCase())
     );
@@ -387,7 +400,39 @@ function Map() {
     }
 
     return filtered;
-  }, [stations, searchTerm, userLocation]);
+  }, [clustering, clusterStations, stations, searchTerm, userLocation]);
+
+  // Disponibilidade em tempo real: aplica os deltas recebidos às estações carregadas
+  useEffect(() => {
+    const applyDelta = (station, delta) => ({
+      ...station,
+      availablePorts: delta.f,
+      totalPorts: delta.t,
+      nextFreeAt: delta.n || null
+    });
+
+    availabilitySocket.current = openAvailabilitySocket((deltas) => {
+      const byId = new Map(deltas.map(delta => [delta.s, delta]));
+      const applyAll = (list) => list && list.map(station =>
+        byId.has(station.id) ? applyDelta(station, byId.get(station.id)) : station
+      );
+      setStations(applyAll);
+      setClusterStations(applyAll);
+      setSelectedStation(prev =>
+        prev && byId.has(prev.id) ? applyDelta(prev, byId.get(prev.id)) : prev
+      );
+    });
+
+    return () => availabilitySocket.current.close();
+  }, []);
+
+  // Subscreve apenas as estações que estão a ser mostradas
+  const visibleStationIds = filteredAndSortedStations.map(station => station.id).join(',');
+  useEffect(() => {
+    if (availabilitySocket.current) {
+      availabilitySocket.current.setStations(visibleStationIds ? visibleStationIds.split(',').map(Number) : []);
+    }
+  }, [visibleStationIds]);
 
   const getChargingTypeLabel = (type) => {
     switch (type) {
@@ -412,29 +457,6 @@ function Map() {
     setHoveredStation(station);
   };
 
-  if (loading) {
-    return (
-      <ThemeProvider theme={theme}>
-        <Box
-          sx={{
-            height: '100vh',
-            width: '100vw',
-            display: 'flex',
-            alignItems: 'center',
-            justifyContent: 'center',
-            flexDirection: 'column',
-            gap: 2,
-            backgroundColor: '#0f0f0f',
-            color: 'white'
-          }}
-        >
-          <CircularProgress size={60} sx={{ color: '#76ff03' }} />
-          <Typography variant="h6">Loading map...</Typography>
-        </Box>
-      </ThemeProvider>
-    );
-  }
-
   return (
     <ThemeProvider theme={theme}>
       <Box sx={{ height: '100vh', width: '100vw', display: 'flex', overflow: 'hidden', minHeight: 'calc(100vh - 129px)' }}>
@@ -487,6 +509,9 @@ function Map() {
             {/* Marcador de localização do usuário */}
             <LocationMarker userLocation={userLocation} />
             
+            {/* Sem pesquisa ativa o mapa mostra os clusters do servidor */}
+            {!searchTerm && <StationClusters onSingleStations={setClusterStations} />}
+
             {filteredAndSortedStations.map((station) => (
               <Marker
                 key={station.id}
@@ -798,6 +823,11 @@ function Map() {
                           of {selectedStation.totalPorts} ports available
                         </Typography>
                       </Box>
+                      {selectedStation.availablePorts === 0 && selectedStation.nextFreeAt && (
+                        <Typography variant="caption" sx={{ color: '#b0b0b0' }}>
+                          Next port free at {new Date(selectedStation.nextFreeAt).toLocaleTimeString([], { hour: '2-digit', minute: '2-digit' })}
+                        </Typography>
+                      )}
                     </Paper>
                   )}
                 </Box>
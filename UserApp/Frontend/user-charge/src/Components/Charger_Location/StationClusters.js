@@ -0,0 +1,74 @@
+import React, { useState, useEffect, useCallback } from 'react';
+import { Marker, useMap, useMapEvents } from 'react-leaflet';
+import L from 'leaflet';
+
+// Clusters calculados no servidor para a área visível e o zoom atuais.
+// Os clusters com uma só estação não são desenhados aqui: a estação vem na
+// própria resposta e é passada a onSingleStations para o mapa desenhar o
+// marcador normal, sem carregar a lista completa de estações.
+
+const CLUSTERS_URL = 'http://192.168.160.7:8080/apiV1/stations/clusters';
+
+const clusterIcon = (cluster) => {
+  const size = cluster.count < 10 ? 36 : cluster.count < 100 ? 44 : 52;
+  const color = cluster.freePorts > 0 ? '#76ff03' : '#F44336';
+  return L.divIcon({
+    html: `<div style="width:${size}px;height:${size}px;border-radius:50%;background:${color};` +
+      `border:3px solid white;display:flex;flex-direction:column;align-items:center;justify-content:center;` +
+      `color:#1a1a1a;font-weight:700;font-size:13px;line-height:1.1;box-shadow:0 0 10px ${color}">` +
+      `<span>${cluster.count}</span><span style="font-size:10px">${cluster.freePorts} free</span></div>`,
+    className: '',
+    iconSize: [size, size],
+    iconAnchor: [size / 2, size / 2],
+  });
+};
+
+const StationClusters = ({ onSingleStations }) => {
+  const map = useMap();
+  const [clusters, setClusters] = useState([]);
+
+  const load = useCallback(async () => {
+    const bbox = map.getBounds().toBBoxString();
+    const zoom = map.getZoom();
+    try {
+      const response = await fetch(`${CLUSTERS_URL}?bbox=${bbox}&zoom=${zoom}`);
+      if (!response.ok) {
+        throw new Error(`HTTP error! status: ${response.status}`);
+      }
+      const data = await response.json();
+      setClusters(data.filter(cluster => cluster.count > 1));
+      onSingleStations(data
+        .filter(cluster => cluster.count === 1 && cluster.station)
+        .map(cluster => ({
+          ...cluster.station,
+          availablePorts: cluster.freePorts,
+          totalPorts: cluster.totalPorts
+        })));
+    } catch (err) {
+      // Sem clusters o mapa carrega e mostra todas as estações
+      console.error('Error fetching station clusters:', err);
+      setClusters([]);
+      onSingleStations(null);
+    }
+  }, [map, onSingleStations]);
+
+  useMapEvents({ moveend: load });
+
+  useEffect(() => {
+    load();
+    return () => onSingleStations(null);
+  }, [load, onSingleStations]);
+
+  return clusters.map(cluster => (
+    <Marker
+      key={cluster.id}
+      position={[cluster.latitude, cluster.longitude]}
+      icon={clusterIcon(cluster)}
+      eventHandlers={{
+        click: () => map.setView([cluster.latitude, cluster.longitude], Math.min(map.getZoom() + 2, map.getMaxZoom()))
+      }}
+    />
+  ));
+};
+
+export default StationClusters;
@@ -35,6 +35,7 @@ import {
   ExpandMore as ExpandMoreIcon,
   ExpandLess as ExpandLessIcon
 } from '@mui/icons-material';
+import { findInPages } from '../../pagination';
 
 function Cars() {
   const [addCarDialogOpen, setAddCarDialogOpen] = useState(false);
@@ -152,7 +153,7 @@ function Cars() {
           const contentType = response.headers.get('content-type');
           if (contentType && contentType.includes('application/json')) {
             const data = await response.json();
-            return { data, config, url };
+            return { data, config, url, nextCursor: response.headers.get('X-Next-Cursor') };
           } else if (method === 'DELETE') {
             return { data: null, config, url };
           }
@@ -189,11 +190,11 @@ function Cars() {
         throw new Error('Email not found in token');
       }
 
-      const { data: users, config } = await makeAPIRequest(API_CONFIGS.users);
+      const { data: users, config, url, nextCursor } = await makeAPIRequest(API_CONFIGS.users);
       
       setApiConfig(prev => ({ ...prev, users: config }));
       
-      const currentUser = users.find(user => 
+      const currentUser = await findInPages(users, nextCursor, url, token, user =>
         user.email === userEmail || 
         user.username === userEmail ||
         user.sub === userEmail
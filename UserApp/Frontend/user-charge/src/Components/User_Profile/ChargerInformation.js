@@ -46,6 +46,7 @@ import {
   Info as InfoIcon
 
 } from '@mui/icons-material';
+import { fetchNextPage, findInPages } from '../../pagination';
 
 
 
@@ -56,6 +57,9 @@ function ChargerInformation() {
   const [error, setError] = useState(null);
   const [currentUserId, setCurrentUserId] = useState(null);
   const [refreshing, setRefreshing] = useState(false);
+  // Cursor da página seguinte do histórico, null quando já está tudo carregado
+  const [nextPage, setNextPage] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   
   // Filter states
   const [showCancelled, setShowCancelled] = useState(false);
@@ -149,7 +153,7 @@ function ChargerInformation() {
           const contentType = response.headers.get('content-type');
           if (contentType && contentType.includes('application/json')) {
             const data = await response.json();
-            return { data, config, url };
+            return { data, config, url, nextCursor: response.headers.get('X-Next-Cursor') };
           } else if (method === 'DELETE') {
             return { data: null, config, url };
           }
@@ -185,9 +189,9 @@ function ChargerInformation() {
         throw new Error('Email not found in token');
       }
 
-      const { data: users } = await makeAPIRequest(API_CONFIGS.users);
+      const { data: users, url, nextCursor } = await makeAPIRequest(API_CONFIGS.users);
       
-      const currentUser = users.find(user => 
+      const currentUser = await findInPages(users, nextCursor, url, token, user =>
         user.email === userEmail || 
         user.username === userEmail ||
         user.sub === userEmail
@@ -279,22 +283,42 @@ function ChargerInformation() {
       
       const userId = await getCurrentUserId();
       
-      const { data: bookingsData } = await makeAPIRequest(API_CONFIGS.bookings, userId);
+      const { data: bookingsData, url, nextCursor } = await makeAPIRequest(API_CONFIGS.bookings, userId);
       
       const bookingsArray = Array.isArray(bookingsData) ? bookingsData : [bookingsData];
       setBookings(bookingsArray);
       setFilteredBookings(filterBookings(bookingsArray));
+      setNextPage(nextCursor ? { url, cursor: nextCursor } : null);
       
     } catch (err) {
       setError(err.message);
       console.error('Error fetching bookings:', err);
       setBookings([]);
       setFilteredBookings([]);
+      setNextPage(null);
     } finally {
       setLoading(false);
     }
   };
 
+  // Function to load the next page of older bookings
+  const handleLoadMore = async () => {
+    if (!nextPage) {
+      return;
+    }
+    try {
+      setLoadingMore(true);
+      const { items, nextCursor } = await fetchNextPage(nextPage.url, nextPage.cursor, getAuthToken());
+      setBookings(prev => [...prev, ...items]);
+      setNextPage(nextCursor ? { url: nextPage.url, cursor: nextCursor } : null);
+    } catch (err) {
+      console.error('Error loading more bookings:', err);
+      setError(`Failed to load more bookings: ${err.message}`);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   // Function to refresh bookings
   const handleRefresh = async () => {
     setRefreshing(true);
@@ -973,6 +997,25 @@ function ChargerInformation() {
           })}
         </Grid>
       )}
+
+      {/* Load More */}
+      {nextPage && (
+        <Box sx={{ display: 'flex', justifyContent: 'center', mt: 4 }}>
+          <Button
+            variant="outlined"
+            startIcon={loadingMore ? <CircularProgress size={16} /> : null}
+            onClick={handleLoadMore}
+            disabled={loadingMore}
+            sx={{
+              borderRadius: 2,
+              textTransform: 'none',
+              fontWeight: 600
+            }}
+          >
+            Load older bookings
+          </Button>
+        </Box>
+      )}
       {/* Cancel Booking Dialog */}
       <Dialog
         open={cancelDialogOpen}
@@ -40,6 +40,7 @@ import {
   Line,
   Legend
 } from 'recharts';
+import { findInPages } from '../../pagination';
 
 // Tema personalizado consistente com a navbar
 const theme = createTheme({
@@ -141,7 +142,6 @@ function UserStats() {
   const [apiConfig, setApiConfig] = useState(null);
   const [stats, setStats] = useState({
     cars: [],
-    bookings: [],
     totalCars: 0,
     totalBookings: 0,
     completedBookings: 0,
@@ -246,7 +246,7 @@ function UserStats() {
           if (contentType && contentType.includes('application/json')) {
             const data = await response.json();
             console.log('Response data:', data);
-            return { data, config, url };
+            return { data, config, url, nextCursor: response.headers.get('X-Next-Cursor') };
           } else if (method === 'DELETE') {
             return { data: null, config, url };
           }
@@ -284,11 +284,11 @@ function UserStats() {
 
       console.log('Looking for user with email:', userEmail);
 
-      const { data: users, config } = await makeAPIRequest(API_CONFIGS.users);
+      const { data: users, config, url, nextCursor } = await makeAPIRequest(API_CONFIGS.users);
       
       setApiConfig(prev => ({ ...prev, users: config }));
       
-      const currentUser = users.find(user => 
+      const currentUser = await findInPages(users, nextCursor, url, token, user =>
         user.email === userEmail || 
         user.username === userEmail ||
         user.sub === userEmail
@@ -308,48 +308,22 @@ function UserStats() {
     }
   };
 
-  // Function to process bookings data for charts
-  const processBookingsData = (bookingsData) => {
-    // Status distribution
-    const statusCount = {};
-    bookingsData.forEach(booking => {
-      const status = booking.status || 'UNKNOWN';
-      statusCount[status] = (statusCount[status] || 0) + 1;
-    });
-
-    const statusDistribution = Object.entries(statusCount).map(([status, count]) => ({
+  // Function to turn the server-side booking totals into chart data
+  const processBookingStats = (bookingStats) => {
+    const statusDistribution = Object.entries(bookingStats.byStatus || {}).map(([status, count]) => ({
       name: status,
       value: count,
       color: getStatusColor(status)
     }));
 
-    // Bookings by month
-    const monthlyBookings = {};
-    bookingsData.forEach(booking => {
-      const date = new Date(booking.bookingTime);
-      const monthKey = `${date.getFullYear()}-${String(date.getMonth() + 1).padStart(2, '0')}`;
-      monthlyBookings[monthKey] = (monthlyBookings[monthKey] || 0) + 1;
-    });
-
-    const bookingsByMonth = Object.entries(monthlyBookings)
-      .sort(([a], [b]) => a.localeCompare(b))
-      .map(([month, count]) => ({
-        month,
-        bookings: count
-      }));
-
-    // Car usage data
-    const carUsage = {};
-    bookingsData.forEach(booking => {
-      if (booking.car) {
-        const carKey = `${booking.car.brand} ${booking.car.model}`;
-        carUsage[carKey] = (carUsage[carKey] || 0) + 1;
-      }
-    });
+    const bookingsByMonth = (bookingStats.byMonth || []).map(row => ({
+      month: `${row.year}-${String(row.month).padStart(2, '0')}`,
+      bookings: row.bookings
+    }));
 
-    const carUsageData = Object.entries(carUsage).map(([car, count]) => ({
-      car,
-      bookings: count
+    const carUsageData = (bookingStats.byCar || []).map(row => ({
+      car: `${row.brand} ${row.model}`,
+      bookings: row.bookings
     }));
 
     return { statusDistribution, bookingsByMonth, carUsageData };
@@ -372,14 +346,18 @@ function UserStats() {
 
         const userId = await getCurrentUserId();
 
-        // Fetch cars and bookings in parallel
+        // Os totais do histórico são calculados no servidor, sem descarregar todas as reservas
+        const statsConfigs = API_CONFIGS.bookings.map(config => ({
+          ...config,
+          path: `${config.path}/${userId}/stats`
+        }));
         const [carsResult, bookingsResult] = await Promise.all([
           makeAPIRequest(API_CONFIGS.cars, userId).catch(() => ({ data: [] })),
-          makeAPIRequest(API_CONFIGS.bookings, userId).catch(() => ({ data: [] }))
+          makeAPIRequest(statsConfigs).catch(() => ({ data: null }))
         ]);
 
         const carsData = carsResult.data || [];
-        const bookingsData = bookingsResult.data || [];
+        const bookingStats = bookingsResult.data || { totalBookings: 0, averageDuration: 0, byStatus: {}, byMonth: [], byCar: [] };
 
         // Save working configurations
         if (carsResult.config && !apiConfig?.cars) {
@@ -391,67 +369,37 @@ function UserStats() {
 
         // Calculate statistics
         const totalCars = Array.isArray(carsData) ? carsData.length : 0;
-        const totalBookings = Array.isArray(bookingsData) ? bookingsData.length : 0;
+        const totalBookings = bookingStats.totalBookings || 0;
         
         // Booking analysis
-        const completedBookings = bookingsData.filter(b => 
-          b.status?.toLowerCase() === 'completed'
-        ).length;
-        
-        const pendingBookings = bookingsData.filter(b => 
-          b.status?.toLowerCase() === 'pending'
-        ).length;
-        
-        const cancelledBookings = bookingsData.filter(b => 
-          b.status?.toLowerCase() === 'cancelled'
-        ).length;
+        const byStatus = bookingStats.byStatus || {};
+        const completedBookings = byStatus.COMPLETED || 0;
+        const pendingBookings = byStatus.PENDING || 0;
+        const cancelledBookings = byStatus.CANCELLED || 0;
 
         // This month's bookings
-        const currentMonth = new Date().getMonth();
-        const currentYear = new Date().getFullYear();
-        const thisMonthBookings = bookingsData.filter(b => {
-          const bookingDate = new Date(b.bookingTime);
-          return bookingDate.getMonth() === currentMonth && 
-                 bookingDate.getFullYear() === currentYear;
-        }).length;
+        const now = new Date();
+        const thisMonth = (bookingStats.byMonth || []).find(row =>
+          row.year === now.getFullYear() && row.month === now.getMonth() + 1
+        );
+        const thisMonthBookings = thisMonth ? thisMonth.bookings : 0;
 
         // Last booking
-        let lastBookingDate = null;
-        if (bookingsData.length > 0) {
-          const sortedBookings = bookingsData
-            .filter(b => b.bookingTime)
-            .sort((a, b) => new Date(b.bookingTime) - new Date(a.bookingTime));
-          
-          if (sortedBookings.length > 0) {
-            lastBookingDate = sortedBookings[0].bookingTime;
-          }
-        }
+        const lastBookingDate = bookingStats.lastBookingTime || null;
 
-        // Most used car (based on bookings)
-        const carUsageCount = {};
-        bookingsData.forEach(booking => {
-          if (booking.car?.id) {
-            carUsageCount[booking.car.id] = (carUsageCount[booking.car.id] || 0) + 1;
-          }
-        });
-        
-        const mostUsedCarId = Object.keys(carUsageCount).reduce((a, b) => 
-          carUsageCount[a] > carUsageCount[b] ? a : b, null
-        );
-        
+        // Most used car (byCar comes ordered by bookings)
+        const mostUsedCarId = bookingStats.byCar && bookingStats.byCar.length > 0 ? bookingStats.byCar[0].carId : null;
         const mostUsedCar = mostUsedCarId ? 
-          carsData.find(car => car.id === parseInt(mostUsedCarId)) : null;
+          carsData.find(car => car.id === mostUsedCarId) : null;
 
         // Average session duration
-        const averageSessionDuration = bookingsData.length > 0 ?
-          bookingsData.reduce((sum, booking) => sum + (booking.duration || 0), 0) / bookingsData.length : 0;
+        const averageSessionDuration = bookingStats.averageDuration || 0;
 
         // Process data for charts
-        const { statusDistribution, bookingsByMonth, carUsageData } = processBookingsData(bookingsData);
+        const { statusDistribution, bookingsByMonth, carUsageData } = processBookingStats(bookingStats);
 
         setStats({
           cars: carsData,
-          bookings: bookingsData,
           totalCars,
           totalBookings,
           completedBookings,
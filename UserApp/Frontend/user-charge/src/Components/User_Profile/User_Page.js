@@ -36,6 +36,7 @@ import { ThemeProvider, createTheme, styled } from '@mui/material/styles';
 import Cars from './Cars';
 import ChargerInformation from './ChargerInformation';
 import UserStats from './UserStats';
+import { findInPages } from '../../pagination';
 
 // Tema harmonizado com navbar e home
 const darkTheme = createTheme({
@@ -243,8 +244,9 @@ function UserProfile() {
       if (!decoded) throw new Error('Invalid token');
       const userEmail = decoded.sub || decoded.email || decoded.username || decoded.user;
       if (!userEmail) throw new Error('Email not found in token');
-      // Buscar todos os usuários
-      const response = await fetch('http://localhost:8080/apiV1/user/all', {
+      // Buscar os utilizadores (a listagem é paginada; segue o cursor até o encontrar)
+      const url = 'http://localhost:8080/apiV1/user/all';
+      const response = await fetch(url, {
         headers: {
           'Authorization': `Bearer ${token}`,
           'Accept': 'application/json'
@@ -252,7 +254,7 @@ function UserProfile() {
       });
       if (!response.ok) throw new Error('Failed to fetch users');
       const users = await response.json();
-      const currentUser = users.find(user =>
+      const currentUser = await findInPages(users, response.headers.get('X-Next-Cursor'), url, token, user =>
         user.email === userEmail ||
         user.username === userEmail ||
         user.sub === userEmail
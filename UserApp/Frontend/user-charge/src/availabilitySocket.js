@@ -0,0 +1,57 @@
+// Disponibilidade das estações em tempo real via WebSocket.
+// O cliente envia a lista de estações que está a mostrar ("replace") e recebe
+// arrays de deltas {s: estação, f: portas livres, t: total, n: próxima hora livre}.
+// Ao reconectar volta a enviar a lista, e o servidor responde com o estado atual.
+
+const SOCKET_URL = 'ws://192.168.160.7:8080/ws/availability';
+const MAX_BACKOFF_MS = 30000;
+
+export const openAvailabilitySocket = (onDeltas) => {
+  let socket = null;
+  let stations = [];
+  let attempts = 0;
+  let reconnectTimer = null;
+  let closed = false;
+
+  const sendStations = () => {
+    if (socket && socket.readyState === WebSocket.OPEN) {
+      socket.send(JSON.stringify({ action: 'replace', stations }));
+    }
+  };
+
+  const connect = () => {
+    socket = new WebSocket(SOCKET_URL);
+    socket.onopen = () => {
+      attempts = 0;
+      sendStations();
+    };
+    socket.onmessage = (event) => {
+      try {
+        onDeltas(JSON.parse(event.data));
+      } catch (err) {
+        console.warn('Ignoring malformed availability message:', err);
+      }
+    };
+    socket.onclose = () => {
+      if (closed) return;
+      // Backoff exponencial com jitter para não reconectarem todos ao mesmo tempo
+      const delay = Math.min(MAX_BACKOFF_MS, 1000 * 2 ** attempts) * (0.5 + Math.random() / 2);
+      attempts += 1;
+      reconnectTimer = setTimeout(connect, delay);
+    };
+  };
+
+  connect();
+
+  return {
+    setStations: (ids) => {
+      stations = ids;
+      sendStations();
+    },
+    close: () => {
+      closed = true;
+      clearTimeout(reconnectTimer);
+      if (socket) socket.close();
+    }
+  };
+};
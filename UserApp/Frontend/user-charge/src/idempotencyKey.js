@@ -0,0 +1,8 @@
+// Chave enviada no header Idempotency-Key para que retries de um POST não criem duplicados.
+// crypto.randomUUID só existe em contextos seguros (https/localhost), daí o fallback.
+export const newIdempotencyKey = () => {
+  if (window.crypto && typeof window.crypto.randomUUID === 'function') {
+    return window.crypto.randomUUID();
+  }
+  return `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}-${Math.random().toString(36).slice(2)}`;
+};
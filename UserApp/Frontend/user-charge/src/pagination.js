@@ -0,0 +1,29 @@
+// Listagens paginadas por cursor: o corpo é um array e o cursor da página
+// seguinte vem no header X-Next-Cursor (ausente na última página).
+
+// Vai buscar a página seguinte a partir do cursor devolvido pela anterior
+export const fetchNextPage = async (url, cursor, token) => {
+  const separator = url.includes('?') ? '&' : '?';
+  const response = await fetch(`${url}${separator}cursor=${encodeURIComponent(cursor)}`, {
+    headers: {
+      'Authorization': `Bearer ${token}`,
+      'Accept': 'application/json'
+    }
+  });
+  if (!response.ok) {
+    throw new Error(`HTTP ${response.status}`);
+  }
+  return { items: await response.json(), nextCursor: response.headers.get('X-Next-Cursor') };
+};
+
+// Procura um item na primeira página e, se não estiver lá, nas seguintes
+export const findInPages = async (items, nextCursor, url, token, predicate) => {
+  let found = items.find(predicate);
+  let cursor = nextCursor;
+  while (!found && cursor) {
+    const page = await fetchNextPage(url, cursor, token);
+    found = page.items.find(predicate);
+    cursor = page.nextCursor;
+  }
+  return found;
+};